@@ -29,17 +29,13 @@
 
 #include "com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArray.h"
 #include "FooObject.h"
+#include "FooObjectArena.h"
 #include "Portal.h"
+#include "../profile/NativeProfile.h"
 
-/*
- * Class:     com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArray
- * Method:    get2DArray
- * Signature: (J)[[Ljava/lang/Object;
- */
-jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArray_get2DArray(
-    JNIEnv *env, jclass, jlong handle) {
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  jsize len = static_cast<jsize>(cpp_array.size());
+template <typename FooArray>
+static jobjectArray Get2DArray(JNIEnv *env, const FooArray& foo_array) {
+  jsize len = static_cast<jsize>(foo_array.Size());
 
   const jclass jstring_clazz = StringJni::getJClass(env);
   if (jstring_clazz == nullptr) {
@@ -53,21 +49,23 @@ jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArra
       return nullptr;
   }
 
-  jobjectArray jname_array = env->NewObjectArray(len, jstring_clazz, nullptr);
+  jobjectArray jname_array = JNIBENCH_PROFILE(OBJECT_CREATION,
+      env->NewObjectArray(len, jstring_clazz, nullptr));
   if (jname_array == nullptr) {
     // exception thrown: OutOfMemoryError
     return nullptr;
   }
-  jobjectArray jvalue_array = env->NewObjectArray(len, jlong_clazz, nullptr);
+  jobjectArray jvalue_array = JNIBENCH_PROFILE(OBJECT_CREATION,
+      env->NewObjectArray(len, jlong_clazz, nullptr));
   if (jvalue_array == nullptr) {
     // exception thrown: OutOfMemoryError
     env->DeleteLocalRef(jname_array);
     return nullptr;
   }
 
-  for (size_t i = 0; i < cpp_array.size(); ++i) {
-    const jnibench::FooObject& foo_obj = cpp_array[i];
-    jstring jname = env->NewStringUTF(foo_obj.GetName().c_str());
+  for (size_t i = 0; i < foo_array.Size(); ++i) {
+    jstring jname = JNIBENCH_PROFILE(STRING_CREATION,
+        env->NewStringUTF(JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(i))));
     if (env->ExceptionCheck()) {
       if (jname != nullptr) {
         env->DeleteLocalRef(jname_array);
@@ -77,7 +75,8 @@ jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArra
       return nullptr;
     }
 
-    jobject jvalue = LongJni::construct(env, jlong_clazz, foo_obj.GetValue());
+    jobject jvalue = LongJni::construct(env, jlong_clazz,
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(i)));
     if (jvalue == nullptr) {
       env->DeleteLocalRef(jname_array);
       env->DeleteLocalRef(jvalue_array);
@@ -85,7 +84,7 @@ jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArra
       return nullptr;
     }
 
-    env->SetObjectArrayElement(jname_array, static_cast<jsize>(i), jname);
+    JNIBENCH_PROFILE(STORE, env->SetObjectArrayElement(jname_array, static_cast<jsize>(i), jname));
     if (env->ExceptionCheck()) {
       // exception thrown: ArrayIndexOutOfBoundsException
       // or ArrayStoreException
@@ -95,7 +94,7 @@ jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArra
       env->DeleteLocalRef(jvalue);
       return nullptr;
     }
-    env->SetObjectArrayElement(jvalue_array, static_cast<jsize>(i), jvalue);
+    JNIBENCH_PROFILE(STORE, env->SetObjectArrayElement(jvalue_array, static_cast<jsize>(i), jvalue));
     if (env->ExceptionCheck()) {
       // exception thrown: ArrayIndexOutOfBoundsException
       // or ArrayStoreException
@@ -138,4 +137,18 @@ jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArra
   }
 
   return jobj_array;
-}
\ No newline at end of file
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArray
+ * Method:    get2DArray
+ * Signature: (J)[[Ljava/lang/Object;
+ */
+jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGet2DArray_get2DArray(
+    JNIEnv *env, jclass, jlong handle) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  if (jnibench::IsFooObjectArena(handle)) {
+    return Get2DArray(env, *jnibench::FooObjectArenaFromHandle(handle));
+  }
+  return Get2DArray(env, jnibench::FooObjectVectorFromHandle(handle));
+}
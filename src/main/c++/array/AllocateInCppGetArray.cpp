@@ -29,17 +29,13 @@
 
 #include "com_evolvedbinary_jnibench_common_array_AllocateInCppGetArray.h"
 #include "FooObject.h"
+#include "FooObjectArena.h"
 #include "Portal.h"
+#include "../profile/NativeProfile.h"
 
-/*
- * Class:     com_evolvedbinary_jnibench_common_array_AllocateInCppGetArray
- * Method:    getArray
- * Signature: (J)[Lcom/evolvedbinary/jnibench/common/array/FooObject;
- */
-jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArray_getArray(
-    JNIEnv *env, jclass, jlong handle) {
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  jsize length = static_cast<jsize>(cpp_array.size());
+template <typename FooArray>
+static jobjectArray GetArray(JNIEnv *env, const FooArray& foo_array, jint construction_strategy) {
+  jsize length = static_cast<jsize>(foo_array.Size());
 
   const jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
   if (jfoo_obj_clazz == nullptr) {
@@ -47,21 +43,24 @@ jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArray_
     return nullptr;
   }
 
-  jobjectArray java_array = env->NewObjectArray(length, jfoo_obj_clazz, nullptr);
+  jobjectArray java_array = JNIBENCH_PROFILE(OBJECT_CREATION,
+      env->NewObjectArray(length, jfoo_obj_clazz, nullptr));
   if (java_array == nullptr) {
       // exception thrown: OutOfMemoryError
       return nullptr;
   }
 
-  for (size_t i = 0; i < cpp_array.size(); ++i) {
-    const jnibench::FooObject& foo_obj = cpp_array[i];
-    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, foo_obj);
+  for (size_t i = 0; i < foo_array.Size(); ++i) {
+    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz,
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(i)),
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(i)),
+        static_cast<FooObjectJni::ConstructionStrategy>(construction_strategy));
     if (jfoo_obj == nullptr) {
         // exception occurred
         env->DeleteLocalRef(java_array);
         return nullptr;
     }
-    env->SetObjectArrayElement(java_array, static_cast<jsize>(i), jfoo_obj);
+    JNIBENCH_PROFILE(STORE, env->SetObjectArrayElement(java_array, static_cast<jsize>(i), jfoo_obj));
     if (env->ExceptionCheck()) {
       // exception thrown: ArrayIndexOutOfBoundsException
       // or ArrayStoreException
@@ -73,4 +72,18 @@ jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArray_
     env->DeleteLocalRef(jfoo_obj);
   }
   return java_array;
-}
\ No newline at end of file
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInCppGetArray
+ * Method:    getArray
+ * Signature: (JI)[Lcom/evolvedbinary/jnibench/common/array/FooObject;
+ */
+jobjectArray Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArray_getArray(
+    JNIEnv *env, jclass, jlong handle, jint construction_strategy) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  if (jnibench::IsFooObjectArena(handle)) {
+    return GetArray(env, *jnibench::FooObjectArenaFromHandle(handle), construction_strategy);
+  }
+  return GetArray(env, jnibench::FooObjectVectorFromHandle(handle), construction_strategy);
+}
@@ -29,15 +29,12 @@
 
 #include "com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList.h"
 #include "FooObject.h"
+#include "FooObjectArena.h"
 #include "Portal.h"
+#include "../profile/NativeProfile.h"
 
-/*
- * Class:     com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList
- * Method:    getArrayList
- * Signature: (J)Ljava/util/List;
- */
-jobject Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList_getArrayList(
-    JNIEnv *env, jclass, jlong handle) {
+template <typename FooArray>
+static jobject GetArrayList(JNIEnv *env, const FooArray& foo_array, jint construction_strategy) {
 
   const jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
   if (jfoo_obj_clazz == nullptr) {
@@ -58,12 +55,11 @@ jobject Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList_g
     return nullptr;
   }
 
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  const jsize len = static_cast<jsize>(cpp_array.size());
+  const jsize len = static_cast<jsize>(foo_array.Size());
 
   // create new java.util.ArrayList
-  const jobject jlist = env->NewObject(clazz_array_list, ctor_array_list,
-              static_cast<jint>(len));
+  const jobject jlist = JNIBENCH_PROFILE(OBJECT_CREATION,
+      env->NewObject(clazz_array_list, ctor_array_list, static_cast<jint>(len)));
   if (env->ExceptionCheck()) {
     // exception occurred constructing object
     if (jlist != nullptr) {
@@ -72,16 +68,19 @@ jobject Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList_g
     return nullptr;
   }
 
-  for (auto foo_obj : cpp_array) {
+  for (size_t i = 0; i < foo_array.Size(); ++i) {
     // create java FooObject
-    const jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, foo_obj);
+    const jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz,
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(i)),
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(i)),
+        static_cast<FooObjectJni::ConstructionStrategy>(construction_strategy));
     if (jfoo_obj == nullptr) {
       // exception occurred constructing object
       return nullptr;
     }
 
     // add to list
-    const jboolean rs = env->CallBooleanMethod(jlist, add_mid, jfoo_obj);
+    const jboolean rs = JNIBENCH_PROFILE(STORE, env->CallBooleanMethod(jlist, add_mid, jfoo_obj));
     if (env->ExceptionCheck() || rs == JNI_FALSE) {
       // exception occurred calling method, or could not add
       env->DeleteLocalRef(jlist);
@@ -91,4 +90,18 @@ jobject Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList_g
   }
 
   return jlist;
-}
\ No newline at end of file
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList
+ * Method:    getArrayList
+ * Signature: (JI)Ljava/util/List;
+ */
+jobject Java_com_evolvedbinary_jnibench_common_array_AllocateInCppGetArrayList_getArrayList(
+    JNIEnv *env, jclass, jlong handle, jint construction_strategy) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  if (jnibench::IsFooObjectArena(handle)) {
+    return GetArrayList(env, *jnibench::FooObjectArenaFromHandle(handle), construction_strategy);
+  }
+  return GetArrayList(env, jnibench::FooObjectVectorFromHandle(handle), construction_strategy);
+}
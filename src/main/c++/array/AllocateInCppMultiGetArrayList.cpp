@@ -0,0 +1,153 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_array_AllocateInCppMultiGetArrayList.h"
+#include "FooObject.h"
+#include "FooObjectArena.h"
+#include "Portal.h"
+#include "../profile/NativeProfile.h"
+
+/**
+ * Create a java.util.ArrayList of the FooObjects of a native array,
+ * with the classes and methods already looked up by the caller.
+ */
+template <typename FooArray>
+static jobject NewArrayList(JNIEnv *env, const FooArray& foo_array, const jclass jfoo_obj_clazz,
+    const jclass clazz_array_list, const jmethodID ctor_array_list, const jmethodID add_mid,
+    const FooObjectJni::ConstructionStrategy construction_strategy) {
+  const jsize len = static_cast<jsize>(foo_array.Size());
+
+  const jobject jlist = JNIBENCH_PROFILE(OBJECT_CREATION,
+      env->NewObject(clazz_array_list, ctor_array_list, static_cast<jint>(len)));
+  if (env->ExceptionCheck()) {
+    // exception occurred constructing object
+    if (jlist != nullptr) {
+      env->DeleteLocalRef(jlist);
+    }
+    return nullptr;
+  }
+
+  for (size_t i = 0; i < foo_array.Size(); ++i) {
+    const jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz,
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(i)),
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(i)),
+        construction_strategy);
+    if (jfoo_obj == nullptr) {
+      // exception occurred constructing object
+      env->DeleteLocalRef(jlist);
+      return nullptr;
+    }
+
+    const jboolean rs = JNIBENCH_PROFILE(STORE, env->CallBooleanMethod(jlist, add_mid, jfoo_obj));
+    env->DeleteLocalRef(jfoo_obj);
+    if (env->ExceptionCheck() || rs == JNI_FALSE) {
+      // exception occurred calling method, or could not add
+      env->DeleteLocalRef(jlist);
+      return nullptr;
+    }
+  }
+
+  return jlist;
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInCppMultiGetArrayList
+ * Method:    getArrayLists
+ * Signature: ([JI)Ljava/util/List;
+ */
+jobject Java_com_evolvedbinary_jnibench_common_array_AllocateInCppMultiGetArrayList_getArrayLists(
+    JNIEnv *env, jclass, jlongArray jhandles, jint construction_strategy) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+
+  // look up the classes and methods once, for every array
+  const jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return nullptr;
+  }
+
+  const jclass clazz_array_list = ListJni::getArrayListClass(env);
+  const jmethodID ctor_array_list = ListJni::getArrayListConstructorMethodId(env);
+  if (ctor_array_list == nullptr) {
+    // exception occurred accessing method
+    return nullptr;
+  }
+
+  const jmethodID add_mid = ListJni::getListAddMethodId(env);
+  if (add_mid == nullptr) {
+    // exception occurred accessing method
+    return nullptr;
+  }
+
+  const jsize count = env->GetArrayLength(jhandles);
+  std::vector<jlong> handles(static_cast<size_t>(count));
+  env->GetLongArrayRegion(jhandles, 0, count, handles.data());
+  if (env->ExceptionCheck()) {
+    // exception thrown: ArrayIndexOutOfBoundsException
+    return nullptr;
+  }
+
+  const jobject jlists = JNIBENCH_PROFILE(OBJECT_CREATION,
+      env->NewObject(clazz_array_list, ctor_array_list, static_cast<jint>(count)));
+  if (env->ExceptionCheck()) {
+    // exception occurred constructing object
+    if (jlists != nullptr) {
+      env->DeleteLocalRef(jlists);
+    }
+    return nullptr;
+  }
+
+  const FooObjectJni::ConstructionStrategy strategy =
+      static_cast<FooObjectJni::ConstructionStrategy>(construction_strategy);
+  for (const jlong handle : handles) {
+    jobject jlist;
+    if (jnibench::IsFooObjectArena(handle)) {
+      jlist = NewArrayList(env, *jnibench::FooObjectArenaFromHandle(handle), jfoo_obj_clazz,
+          clazz_array_list, ctor_array_list, add_mid, strategy);
+    } else {
+      jlist = NewArrayList(env, jnibench::FooObjectVectorFromHandle(handle), jfoo_obj_clazz,
+          clazz_array_list, ctor_array_list, add_mid, strategy);
+    }
+    if (jlist == nullptr) {
+      // exception occurred creating list
+      env->DeleteLocalRef(jlists);
+      return nullptr;
+    }
+
+    const jboolean rs = JNIBENCH_PROFILE(STORE, env->CallBooleanMethod(jlists, add_mid, jlist));
+    env->DeleteLocalRef(jlist);
+    if (env->ExceptionCheck() || rs == JNI_FALSE) {
+      // exception occurred calling method, or could not add
+      env->DeleteLocalRef(jlists);
+      return nullptr;
+    }
+  }
+
+  return jlists;
+}
@@ -29,6 +29,8 @@
 
 #include "com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray.h"
 #include "FooObject.h"
+#include "FooObjectArena.h"
+#include "../profile/NativeProfile.h"
 
 /*
  * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray
@@ -37,34 +39,30 @@
  */
 jlong Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray_getArraySize(
     JNIEnv *, jclass, jlong handle) {
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  return static_cast<jlong>(cpp_array.size());
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  return static_cast<jlong>(jnibench::FooObjectArraySize(handle));
 }
 
-/*
- * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray
- * Method:    getArrays
- * Signature: (J[Ljava/lang/String;[J)V
- */
-void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray_getArrays(
-    JNIEnv *env, jclass, jlong handle, jobjectArray name_array, jlongArray value_array) {
-  jlong* value_array_ptr = env->GetLongArrayElements(value_array, nullptr);
+template <typename FooArray>
+static void GetArrays(JNIEnv *env, const FooArray& foo_array,
+    jobjectArray name_array, jlongArray value_array) {
+  jlong* value_array_ptr = JNIBENCH_PROFILE(STORE, env->GetLongArrayElements(value_array, nullptr));
   if (value_array_ptr == nullptr) {
     // exception thrown: OutOfMemoryError
     return;
   }
 
-  auto* cpp_array = reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
   for (jsize i = 0; i < env->GetArrayLength(name_array); i++) {
-    jnibench::FooObject foo_obj = (*cpp_array)[static_cast<size_t>(i)];
+    const size_t index = static_cast<size_t>(i);
 
-    jstring jname = env->NewStringUTF(foo_obj.GetName().c_str());
+    jstring jname = JNIBENCH_PROFILE(STRING_CREATION,
+        env->NewStringUTF(JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(index))));
     if (jname == nullptr) {
       // exception thrown: OutOfMemoryError
       env->ReleaseLongArrayElements(value_array, value_array_ptr, JNI_ABORT);
       return;
     }
-    env->SetObjectArrayElement(name_array, i, jname);
+    JNIBENCH_PROFILE(STORE, env->SetObjectArrayElement(name_array, i, jname));
     if (env->ExceptionCheck()) {
       // exception thrown: ArrayIndexOutOfBoundsException
       env->DeleteLocalRef(jname);
@@ -72,8 +70,23 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray_getAr
       return;
     }
 
-    value_array_ptr[static_cast<size_t>(i)] = static_cast<jlong>(foo_obj.GetValue());
+    value_array_ptr[index] = static_cast<jlong>(JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(index)));
   }
 
-  env->ReleaseLongArrayElements(value_array, value_array_ptr, JNI_COMMIT);
-}
\ No newline at end of file
+  JNIBENCH_PROFILE(STORE, env->ReleaseLongArrayElements(value_array, value_array_ptr, JNI_COMMIT));
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray
+ * Method:    getArrays
+ * Signature: (J[Ljava/lang/String;[J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGet2DArray_getArrays(
+    JNIEnv *env, jclass, jlong handle, jobjectArray name_array, jlongArray value_array) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  if (jnibench::IsFooObjectArena(handle)) {
+    GetArrays(env, *jnibench::FooObjectArenaFromHandle(handle), name_array, value_array);
+  } else {
+    GetArrays(env, jnibench::FooObjectVectorFromHandle(handle), name_array, value_array);
+  }
+}
@@ -29,7 +29,9 @@
 
 #include "com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray.h"
 #include "FooObject.h"
+#include "FooObjectArena.h"
 #include "Portal.h"
+#include "../profile/NativeProfile.h"
 
 /*
  * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray
@@ -38,34 +40,32 @@
  */
 jlong Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray_getArraySize(
     JNIEnv *, jclass, jlong handle) {
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  return static_cast<jlong>(cpp_array.size());
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  return static_cast<jlong>(jnibench::FooObjectArraySize(handle));
 }
 
-/*
- * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray
- * Method:    getArray
- * Signature: (J[Lcom/evolvedbinary/jnibench/common/array/FooObject;)V
- */
-void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray_getArray(
-    JNIEnv *env, jclass, jlong handle, jobjectArray jobject_array) {
+template <typename FooArray>
+static void GetArray(JNIEnv *env, const FooArray& foo_array,
+    jobjectArray jobject_array, jint construction_strategy) {
   const jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
   if (jfoo_obj_clazz == nullptr) {
     // exception occurred accessing class
     return;
   }
 
-  auto* cpp_array = reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
   for (jsize i = 0; i < env->GetArrayLength(jobject_array); i++) {
-    jnibench::FooObject foo_obj = (*cpp_array)[static_cast<size_t>(i)];
+    const size_t index = static_cast<size_t>(i);
 
-    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, foo_obj);
+    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz,
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(index)),
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(index)),
+        static_cast<FooObjectJni::ConstructionStrategy>(construction_strategy));
     if (jfoo_obj == nullptr) {
         // exception occurred
         return;
     }
 
-    env->SetObjectArrayElement(jobject_array, i, jfoo_obj);
+    JNIBENCH_PROFILE(STORE, env->SetObjectArrayElement(jobject_array, i, jfoo_obj));
     if(env->ExceptionCheck()) {
       // exception thrown: ArrayIndexOutOfBoundsException
       // or ArrayStoreException
@@ -75,4 +75,19 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray_getArra
 
     env->DeleteLocalRef(jfoo_obj);
   }
-}
\ No newline at end of file
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray
+ * Method:    getArray
+ * Signature: (J[Lcom/evolvedbinary/jnibench/common/array/FooObject;I)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArray_getArray(
+    JNIEnv *env, jclass, jlong handle, jobjectArray jobject_array, jint construction_strategy) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  if (jnibench::IsFooObjectArena(handle)) {
+    GetArray(env, *jnibench::FooObjectArenaFromHandle(handle), jobject_array, construction_strategy);
+  } else {
+    GetArray(env, jnibench::FooObjectVectorFromHandle(handle), jobject_array, construction_strategy);
+  }
+}
@@ -29,7 +29,9 @@
 
 #include "com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList.h"
 #include "FooObject.h"
+#include "FooObjectArena.h"
 #include "Portal.h"
+#include "../profile/NativeProfile.h"
 
 /*
  * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList
@@ -38,17 +40,13 @@
  */
 jlong Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList_getListSize(
     JNIEnv *, jclass, jlong handle) {
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  return static_cast<jlong>(cpp_array.size());
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  return static_cast<jlong>(jnibench::FooObjectArraySize(handle));
 }
 
-/*
- * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList
- * Method:    getArrays
- * Signature: (JLjava/util/List;)V
- */
-void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList_getList(
-    JNIEnv *env, jclass, jlong handle, jobject jlist) {
+template <typename FooArray>
+static void GetList(JNIEnv *env, const FooArray& foo_array,
+    jobject jlist, jint construction_strategy) {
 
   const jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
   if (jfoo_obj_clazz == nullptr) {
@@ -62,21 +60,38 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList_get
     return;
   }
 
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  for (auto foo_obj : cpp_array) {
+  for (size_t i = 0; i < foo_array.Size(); ++i) {
     // create java FooObject
-    const jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, foo_obj);
+    const jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz,
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(i)),
+        JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(i)),
+        static_cast<FooObjectJni::ConstructionStrategy>(construction_strategy));
     if (jfoo_obj == nullptr) {
       // exception occurred constructing object
       return;
     }
 
     // add to list
-    const jboolean rs = env->CallBooleanMethod(jlist, add_mid, jfoo_obj);
+    const jboolean rs = JNIBENCH_PROFILE(STORE, env->CallBooleanMethod(jlist, add_mid, jfoo_obj));
     if (env->ExceptionCheck() || rs == JNI_FALSE) {
       // exception occurred calling method, or could not add
       env->DeleteLocalRef(jfoo_obj);
       return;
     }
   }
-}
\ No newline at end of file
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList
+ * Method:    getArrays
+ * Signature: (JLjava/util/List;I)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetArrayList_getList(
+    JNIEnv *env, jclass, jlong handle, jobject jlist, jint construction_strategy) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  if (jnibench::IsFooObjectArena(handle)) {
+    GetList(env, *jnibench::FooObjectArenaFromHandle(handle), jlist, construction_strategy);
+  } else {
+    GetList(env, jnibench::FooObjectVectorFromHandle(handle), jlist, construction_strategy);
+  }
+}
@@ -29,7 +29,9 @@
 
 #include "com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray.h"
 #include "FooObject.h"
+#include "FooObjectArena.h"
 #include "Portal.h"
+#include "../profile/NativeProfile.h"
 
 /*
  * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray
@@ -38,17 +40,12 @@
  */
 jlong Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_getArraySize(
     JNIEnv *, jclass, jlong handle) {
-  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
-  return static_cast<jlong>(cpp_array.size());
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  return static_cast<jlong>(jnibench::FooObjectArraySize(handle));
 }
 
-/*
- * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray
- * Method:    getArray
- * Signature: (J[Lcom/evolvedbinary/jnibench/common/array/FooObject;)V
- */
-void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_getArray(
-    JNIEnv *env, jclass, jlong handle, jobjectArray jobject_array) {
+template <typename FooArray>
+static void GetArray(JNIEnv *env, const FooArray& foo_array, jobjectArray jobject_array) {
   const jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
   if (jfoo_obj_clazz == nullptr) {
     // exception occurred accessing class
@@ -67,9 +64,8 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_
     return;
   }
 
-  auto* cpp_array = reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
   for (jsize i = 0; i < env->GetArrayLength(jobject_array); i++) {
-    jnibench::FooObject foo_obj = (*cpp_array)[static_cast<size_t>(i)];
+    const size_t index = static_cast<size_t>(i);
 
     jobject jfoo_obj = env->GetObjectArrayElement(jobject_array, i);
     if(env->ExceptionCheck()) {
@@ -82,7 +78,8 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_
     }
 
     // set name field
-    jstring jname = env->NewStringUTF(foo_obj.GetName().c_str());
+    jstring jname = JNIBENCH_PROFILE(STRING_CREATION,
+        env->NewStringUTF(JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetName(index))));
     if (env->ExceptionCheck()) {
       if (jname != nullptr) {
         env->DeleteLocalRef(jname);
@@ -90,7 +87,7 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_
       env->DeleteLocalRef(jfoo_obj);
       return;
     }
-    env->SetObjectField(jfoo_obj, fid_name, jname);
+    JNIBENCH_PROFILE(STORE, env->SetObjectField(jfoo_obj, fid_name, jname));
     if (env->ExceptionCheck()) {
           env->DeleteLocalRef(jname);
           env->DeleteLocalRef(jfoo_obj);
@@ -99,7 +96,8 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_
     env->DeleteLocalRef(jname);
 
     // set value field
-    env->SetLongField(jfoo_obj, fid_value, static_cast<jlong>(foo_obj.GetValue()));
+    const jlong jvalue = static_cast<jlong>(JNIBENCH_PROFILE(NATIVE_DATA, foo_array.GetValue(index)));
+    JNIBENCH_PROFILE(STORE, env->SetLongField(jfoo_obj, fid_value, jvalue));
     if (env->ExceptionCheck()) {
       env->DeleteLocalRef(jfoo_obj);
       return;
@@ -107,4 +105,19 @@ void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_
 
     env->DeleteLocalRef(jfoo_obj);
   }
-}
\ No newline at end of file
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray
+ * Method:    getArray
+ * Signature: (J[Lcom/evolvedbinary/jnibench/common/array/FooObject;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_AllocateInJavaGetMutableArray_getArray(
+    JNIEnv *env, jclass, jlong handle, jobjectArray jobject_array) {
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  if (jnibench::IsFooObjectArena(handle)) {
+    GetArray(env, *jnibench::FooObjectArenaFromHandle(handle), jobject_array);
+  } else {
+    GetArray(env, jnibench::FooObjectVectorFromHandle(handle), jobject_array);
+  }
+}
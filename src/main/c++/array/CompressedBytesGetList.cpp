@@ -0,0 +1,59 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_array_CompressedBytesGetList.h"
+#include "FooObject.h"
+#include "FooObjectArena.h"
+#include "FooObjectEncoding.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_CompressedBytesGetList
+ * Method:    encode
+ * Signature: (JI)[B
+ */
+jbyteArray Java_com_evolvedbinary_jnibench_common_array_CompressedBytesGetList_encode
+  (JNIEnv *env, jclass, jlong handle, jint block_size) {
+  std::vector<char> encoded;
+  if (jnibench::IsFooObjectArena(handle)) {
+    jnibench::EncodeCompressed(*jnibench::FooObjectArenaFromHandle(handle),
+        static_cast<size_t>(block_size), encoded);
+  } else {
+    jnibench::EncodeCompressed(jnibench::FooObjectVectorFromHandle(handle),
+        static_cast<size_t>(block_size), encoded);
+  }
+
+  const jsize len = static_cast<jsize>(encoded.size());
+  jbyteArray jencoded = env->NewByteArray(len);
+  if (jencoded == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return nullptr;
+  }
+  env->SetByteArrayRegion(jencoded, 0, len, reinterpret_cast<const jbyte*>(encoded.data()));
+  return jencoded;
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include "com_evolvedbinary_jnibench_common_array_FooNativeObjectArena.h"
+#include "FooObject.h"
+#include "FooObjectArena.h"
+#include "Portal.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArena
+ * Method:    newFooObjectArena
+ * Signature: ([Lcom/evolvedbinary/jnibench/common/array/FooObject;)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArena_newFooObjectArena
+  (JNIEnv *env, jclass, jobjectArray object_array) {
+  const jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return 0;
+  }
+  const jfieldID name_field_id = FooObjectJni::getNameField(env, jfoo_obj_clazz);
+  const jfieldID value_field_id = FooObjectJni::getValueField(env, jfoo_obj_clazz);
+
+  const jsize len = env->GetArrayLength(object_array);
+  auto* arena = new jnibench::FooObjectArena();
+  arena->Reserve(static_cast<size_t>(len));
+  for (jsize i = 0; i < len; ++i) {
+    jobject obj = env->GetObjectArrayElement(object_array, i);
+    jstring jname = static_cast<jstring>(env->GetObjectField(obj, name_field_id));
+    const jlong jvalue = env->GetLongField(obj, value_field_id);
+    const char* native_name = env->GetStringUTFChars(jname, nullptr);
+    if (native_name == nullptr) {
+      // exception thrown: OutOfMemoryError
+      env->DeleteLocalRef(jname);
+      env->DeleteLocalRef(obj);
+      delete arena;
+      return 0;
+    }
+    arena->Add(native_name, static_cast<size_t>(env->GetStringUTFLength(jname)),
+        static_cast<int64_t>(jvalue));
+    env->ReleaseStringUTFChars(jname, native_name);
+    env->DeleteLocalRef(jname);
+    env->DeleteLocalRef(obj);
+  }
+  return jnibench::FooObjectArenaHandle(arena);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArena
+ * Method:    getSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArena_getSize
+  (JNIEnv *, jclass, jlong handle) {
+  return static_cast<jlong>(jnibench::FooObjectArenaFromHandle(handle)->Size());
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArena
+ * Method:    getNativeSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArena_getNativeSize
+  (JNIEnv *, jclass, jlong handle) {
+  return static_cast<jlong>(jnibench::FooObjectArenaFromHandle(handle)->NativeBytes());
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArena
+ * Method:    forEach
+ * Signature: (JLjava/util/function/Consumer;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArena_forEach
+  (JNIEnv *env, jclass, jlong handle, jobject jaction) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return;
+  }
+  jmethodID accept_mid = ConsumerJni::getAcceptMethodId(env);
+  if (accept_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  const auto& arena = *jnibench::FooObjectArenaFromHandle(handle);
+  for (size_t i = 0; i < arena.Size(); ++i) {
+    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, arena.GetName(i), arena.GetValue(i));
+    if (jfoo_obj == nullptr) {
+      // exception occurred constructing object
+      return;
+    }
+    env->CallVoidMethod(jaction, accept_mid, jfoo_obj);
+    env->DeleteLocalRef(jfoo_obj);
+    if (env->ExceptionCheck()) {
+      // exception thrown by the action
+      return;
+    }
+  }
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArena
+ * Method:    disposeInternal
+ * Signature: (J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArena_disposeInternal
+  (JNIEnv *, jobject, jlong handle) {
+  delete jnibench::FooObjectArenaFromHandle(handle);
+}
@@ -25,10 +25,16 @@
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 #include <jni.h>
+#include <algorithm>
+#include <iterator>
 #include <vector>
 
 #include "com_evolvedbinary_jnibench_common_array_FooNativeObjectArray.h"
 #include "FooObject.h"
+#include "FooObjectSnapshot.h"
+#include "FooQuery.h"
+#include "NativeMemory.h"
+#include "Portal.h"
 
 /*
  * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
@@ -47,10 +53,360 @@ jlong Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_newFooOb
     const char *native_name = env->GetStringUTFChars(jname, nullptr);
     jlong jvalue = env->GetLongField(obj, value_field_id);
     cpp_array->push_back(jnibench::FooObject(std::string(native_name), static_cast<int64_t>(jvalue)));
+    env->ReleaseStringUTFChars(jname, native_name);
+    env->DeleteLocalRef(jname);
+    env->DeleteLocalRef(obj_clazz);
+    env->DeleteLocalRef(obj);
   }
   return reinterpret_cast<jlong>(cpp_array);
 }
 
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    getSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_getSize
+  (JNIEnv *, jclass, jlong handle) {
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+  return static_cast<jlong>(cpp_array.size());
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    writeSnapshot
+ * Signature: (JLjava/lang/String;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_writeSnapshot
+  (JNIEnv *env, jclass, jlong handle, jstring jpath) {
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+
+  const char* path = env->GetStringUTFChars(jpath, nullptr);
+  if (path == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return;
+  }
+
+  if (!jnibench::WriteFooObjectSnapshot(cpp_array, path)) {
+    IOExceptionJni::ThrowNew(env, std::string("Unable to write snapshot: ") + path);
+  }
+
+  env->ReleaseStringUTFChars(jpath, path);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    loadSnapshot
+ * Signature: (Ljava/lang/String;)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_loadSnapshot
+  (JNIEnv *env, jclass, jstring jpath) {
+  const char* path = env->GetStringUTFChars(jpath, nullptr);
+  if (path == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return 0;
+  }
+
+  jnibench::MappedFooObjectSnapshot snapshot;
+  const char* error = snapshot.Open(path);
+  if (error != nullptr) {
+    IOExceptionJni::ThrowNew(env, std::string(error) + ": " + path);
+    env->ReleaseStringUTFChars(jpath, path);
+    return 0;
+  }
+  env->ReleaseStringUTFChars(jpath, path);
+
+  const size_t count = static_cast<size_t>(snapshot.Count());
+  auto* cpp_array = new std::vector<jnibench::FooObject>();
+  cpp_array->reserve(count);
+  for (size_t i = 0; i < count; i++) {
+    cpp_array->push_back(jnibench::FooObject(
+        std::string(snapshot.GetName(i), snapshot.GetNameLength(i)), snapshot.GetValue(i)));
+  }
+  return reinterpret_cast<jlong>(cpp_array);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    forEach
+ * Signature: (JLjava/util/function/Consumer;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_forEach
+  (JNIEnv *env, jclass, jlong handle, jobject jaction) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return;
+  }
+  jmethodID accept_mid = ConsumerJni::getAcceptMethodId(env);
+  if (accept_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+  for (const auto& foo_obj : cpp_array) {
+    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, foo_obj);
+    if (jfoo_obj == nullptr) {
+      // exception occurred constructing object
+      return;
+    }
+    env->CallVoidMethod(jaction, accept_mid, jfoo_obj);
+    env->DeleteLocalRef(jfoo_obj);
+    if (env->ExceptionCheck()) {
+      // exception thrown by the action
+      return;
+    }
+  }
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    visit
+ * Signature: (JLcom/evolvedbinary/jnibench/common/array/FooObjectVisitor;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_visit
+  (JNIEnv *env, jclass, jlong handle, jobject jvisitor) {
+  jmethodID visit_mid = FooObjectVisitorJni::getVisitMethodId(env);
+  if (visit_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+  for (const auto& foo_obj : cpp_array) {
+    jstring jname = env->NewStringUTF(foo_obj.GetName().c_str());
+    if (jname == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return;
+    }
+    env->CallVoidMethod(jvisitor, visit_mid, jname, static_cast<jlong>(foo_obj.GetValue()));
+    env->DeleteLocalRef(jname);
+    if (env->ExceptionCheck()) {
+      // exception thrown by the visitor
+      return;
+    }
+  }
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    visitBatched
+ * Signature: (JLcom/evolvedbinary/jnibench/common/array/FooObjectVisitor;[Ljava/lang/String;[J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_visitBatched
+  (JNIEnv *env, jclass, jlong handle, jobject jvisitor, jobjectArray jnames, jlongArray jvalues) {
+  jmethodID visit_batch_mid = FooObjectVisitorJni::getVisitBatchMethodId(env);
+  if (visit_batch_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+  const size_t batch_size = static_cast<size_t>(env->GetArrayLength(jnames));
+
+  // the values of each batch are staged natively and copied in a single call
+  std::vector<jlong> values(batch_size);
+  for (size_t start = 0; start < cpp_array.size(); start += batch_size) {
+    const size_t count = std::min(batch_size, cpp_array.size() - start);
+    for (size_t i = 0; i < count; i++) {
+      const auto& foo_obj = cpp_array[start + i];
+      jstring jname = env->NewStringUTF(foo_obj.GetName().c_str());
+      if (jname == nullptr) {
+        // exception thrown: OutOfMemoryError
+        return;
+      }
+      env->SetObjectArrayElement(jnames, static_cast<jsize>(i), jname);
+      env->DeleteLocalRef(jname);
+      values[i] = static_cast<jlong>(foo_obj.GetValue());
+    }
+    env->SetLongArrayRegion(jvalues, 0, static_cast<jsize>(count), values.data());
+
+    env->CallVoidMethod(jvisitor, visit_batch_mid, jnames, jvalues, static_cast<jint>(count));
+    if (env->ExceptionCheck()) {
+      // exception thrown by the visitor
+      return;
+    }
+  }
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    query
+ * Signature: (J[I[J[Ljava/lang/String;IZZ)[Ljava/lang/Object;
+ */
+jobjectArray Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_query
+  (JNIEnv *env, jclass, jlong handle, jintArray jops, jlongArray jlong_args, jobjectArray jstring_args,
+      jint predicates, jboolean jnames, jboolean jvalues) {
+  std::vector<jint> ops(static_cast<size_t>(predicates));
+  env->GetIntArrayRegion(jops, 0, predicates, ops.data());
+  std::vector<jlong> long_args(static_cast<size_t>(predicates) * 2);
+  env->GetLongArrayRegion(jlong_args, 0, predicates * 2, long_args.data());
+
+  jnibench::FooQuery query;
+  for (jint i = 0; i < predicates; i++) {
+    std::string string_arg;
+    jstring jstring_arg = static_cast<jstring>(env->GetObjectArrayElement(jstring_args, i));
+    if (jstring_arg != nullptr) {
+      const char* chars = env->GetStringUTFChars(jstring_arg, nullptr);
+      if (chars == nullptr) {
+        // exception thrown: OutOfMemoryError
+        env->DeleteLocalRef(jstring_arg);
+        return nullptr;
+      }
+      string_arg = chars;
+      env->ReleaseStringUTFChars(jstring_arg, chars);
+      env->DeleteLocalRef(jstring_arg);
+    }
+    if (!query.Add(ops[i], long_args[i * 2], long_args[i * 2 + 1], string_arg)) {
+      IllegalArgumentExceptionJni::ThrowNew(env, "Unknown query op: " + std::to_string(ops[i]));
+      return nullptr;
+    }
+  }
+
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+  const std::vector<size_t> selected = query.Select(cpp_array);
+  const jsize len = static_cast<jsize>(selected.size());
+
+  jclass jobject_clazz = ObjectJni::getJClass(env);
+  if (jobject_clazz == nullptr) {
+    // exception occurred accessing class
+    return nullptr;
+  }
+  jobjectArray jcolumns = env->NewObjectArray(2, jobject_clazz, nullptr);
+  if (jcolumns == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return nullptr;
+  }
+
+  // only the projected columns of the selected objects are copied into Java
+  if (jnames == JNI_TRUE) {
+    jclass jstring_clazz = StringJni::getJClass(env);
+    if (jstring_clazz == nullptr) {
+      // exception occurred accessing class
+      return nullptr;
+    }
+    jobjectArray jname_column = env->NewObjectArray(len, jstring_clazz, nullptr);
+    if (jname_column == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return nullptr;
+    }
+    for (jsize i = 0; i < len; i++) {
+      jstring jname = env->NewStringUTF(cpp_array[selected[i]].GetName().c_str());
+      if (jname == nullptr) {
+        // exception thrown: OutOfMemoryError
+        return nullptr;
+      }
+      env->SetObjectArrayElement(jname_column, i, jname);
+      env->DeleteLocalRef(jname);
+    }
+    env->SetObjectArrayElement(jcolumns, 0, jname_column);
+    env->DeleteLocalRef(jname_column);
+  }
+
+  if (jvalues == JNI_TRUE) {
+    std::vector<jlong> values(selected.size());
+    for (size_t i = 0; i < selected.size(); i++) {
+      values[i] = static_cast<jlong>(cpp_array[selected[i]].GetValue());
+    }
+    jlongArray jvalue_column = env->NewLongArray(len);
+    if (jvalue_column == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return nullptr;
+    }
+    env->SetLongArrayRegion(jvalue_column, 0, len, values.data());
+    env->SetObjectArrayElement(jcolumns, 1, jvalue_column);
+    env->DeleteLocalRef(jvalue_column);
+  }
+
+  return jcolumns;
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    applyDelta
+ * Signature: (J[I[I[Ljava/lang/String;[J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_applyDelta
+  (JNIEnv *env, jclass, jlong handle, jintArray jremoved, jintArray jindices, jobjectArray jnames,
+      jlongArray jvalues) {
+  auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+
+  const jsize removed_len = env->GetArrayLength(jremoved);
+  std::vector<jint> removed(static_cast<size_t>(removed_len));
+  env->GetIntArrayRegion(jremoved, 0, removed_len, removed.data());
+
+  const jsize len = env->GetArrayLength(jindices);
+  std::vector<jint> indices(static_cast<size_t>(len));
+  env->GetIntArrayRegion(jindices, 0, len, indices.data());
+  std::vector<jlong> values(static_cast<size_t>(len));
+  env->GetLongArrayRegion(jvalues, 0, len, values.data());
+
+  // validate everything before changing anything, so that a bad delta leaves the array untouched
+  const jint size = static_cast<jint>(cpp_array.size());
+  for (jsize i = 0; i < removed_len; i++) {
+    if (removed[i] < 0 || removed[i] >= size || (i > 0 && removed[i] <= removed[i - 1])) {
+      IllegalArgumentExceptionJni::ThrowNew(env, "Removed indices must be ascending and within the array");
+      return;
+    }
+  }
+  for (jsize i = 0; i < len; i++) {
+    if (indices[i] < -1 || indices[i] >= size) {
+      IllegalArgumentExceptionJni::ThrowNew(env, "Updated index is outside the array");
+      return;
+    }
+  }
+
+  // updates refer to the indices before removal, appends have the index -1
+  std::vector<jnibench::FooObject> appends;
+  for (jsize i = 0; i < len; i++) {
+    jstring jname = static_cast<jstring>(env->GetObjectArrayElement(jnames, i));
+    const char* name = env->GetStringUTFChars(jname, nullptr);
+    if (name == nullptr) {
+      // exception thrown: OutOfMemoryError
+      env->DeleteLocalRef(jname);
+      return;
+    }
+    jnibench::FooObject foo_obj(std::string(name), static_cast<int64_t>(values[i]));
+    env->ReleaseStringUTFChars(jname, name);
+    env->DeleteLocalRef(jname);
+
+    if (indices[i] == -1) {
+      appends.push_back(std::move(foo_obj));
+    } else {
+      cpp_array[static_cast<size_t>(indices[i])] = std::move(foo_obj);
+    }
+  }
+
+  // compact out the removed objects in a single pass
+  if (removed_len > 0) {
+    size_t next_removed = 0;
+    size_t dest = static_cast<size_t>(removed[0]);
+    for (size_t src = dest; src < cpp_array.size(); src++) {
+      if (next_removed < removed.size() && src == static_cast<size_t>(removed[next_removed])) {
+        next_removed++;
+      } else {
+        cpp_array[dest++] = std::move(cpp_array[src]);
+      }
+    }
+    cpp_array.erase(cpp_array.begin() + dest, cpp_array.end());
+  }
+
+  cpp_array.insert(cpp_array.end(), std::make_move_iterator(appends.begin()),
+      std::make_move_iterator(appends.end()));
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
+ * Method:    getNativeSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_array_FooNativeObjectArray_getNativeSize
+  (JNIEnv *, jclass, jlong handle) {
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+  return static_cast<jlong>(jnibench::NativeBytes(cpp_array));
+}
+
 /*
  * Class:     com_evolvedbinary_jnibench_common_array_FooNativeObjectArray
  * Method:    disposeInternal
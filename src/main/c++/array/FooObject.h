@@ -24,6 +24,9 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
+#ifndef FOO_OBJECT_H_
+#define FOO_OBJECT_H_
+
 #include <string>
 
 namespace jnibench {
@@ -36,8 +39,10 @@ class FooObject {
     int64_t GetValue() const { return value; }
 
   private:
-    const std::string name;
-    const int64_t value;
+    std::string name;
+    int64_t value;
 };
 
-} // namespace jnibench
\ No newline at end of file
+} // namespace jnibench
+
+#endif  // FOO_OBJECT_H_
@@ -0,0 +1,154 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef FOO_OBJECT_ARENA_H_
+#define FOO_OBJECT_ARENA_H_
+
+#include <cstdint>
+#include <cstring>
+#include <vector>
+
+#include "FooObject.h"
+#include "NativeMemory.h"
+
+namespace jnibench {
+
+/**
+ * An array of FooObject laid out flat in three contiguous allocations,
+ * rather than as a vector of objects which each own their name on the heap:
+ *
+ *   char     names[]                   (each name is followed by a NUL terminator)
+ *   uint64_t name_offsets[count + 1]   (the offset of each name in names,
+ *                                       the length is the distance to the next offset)
+ *   int64_t  values[count]
+ */
+class FooObjectArena {
+ public:
+  FooObjectArena() : name_offsets(1, 0) {}
+
+  void Reserve(const size_t count) {
+    name_offsets.reserve(count + 1);
+    values.reserve(count);
+  }
+
+  void Add(const char* name, const size_t name_length, const int64_t value) {
+    names.insert(names.end(), name, name + name_length);
+    names.push_back('\0');
+    name_offsets.push_back(static_cast<uint64_t>(names.size()));
+    values.push_back(value);
+  }
+
+  size_t Size() const {
+    return values.size();
+  }
+
+  int64_t GetValue(const size_t i) const {
+    return values[i];
+  }
+
+  const char* GetName(const size_t i) const {
+    return names.data() + name_offsets[i];
+  }
+
+  size_t GetNameLength(const size_t i) const {
+    return static_cast<size_t>(name_offsets[i + 1] - name_offsets[i] - 1);
+  }
+
+  size_t NativeBytes() const {
+    return sizeof(*this) + VectorHeapBytes(names) + VectorHeapBytes(name_offsets) + VectorHeapBytes(values);
+  }
+
+ private:
+  std::vector<char> names;
+  std::vector<uint64_t> name_offsets;
+  std::vector<int64_t> values;
+};
+
+/**
+ * A view of a vector of FooObject with the same accessors as FooObjectArena,
+ * so that code templated on the layout can read either.
+ */
+class FooObjectVector {
+ public:
+  explicit FooObjectVector(const std::vector<FooObject>& foo_objects) : foo_objects(foo_objects) {}
+
+  size_t Size() const {
+    return foo_objects.size();
+  }
+
+  int64_t GetValue(const size_t i) const {
+    return foo_objects[i].GetValue();
+  }
+
+  const char* GetName(const size_t i) const {
+    return foo_objects[i].GetName().c_str();
+  }
+
+  size_t GetNameLength(const size_t i) const {
+    return foo_objects[i].GetName().size();
+  }
+
+ private:
+  const std::vector<FooObject>& foo_objects;
+};
+
+/**
+ * The handle (a jlong) of a FooObjectArena has its lowest bit set, which is otherwise
+ * always clear as both layouts are aligned heap allocations. This allows
+ * each array supplier to accept the handle of either layout, and select
+ * the layout once per call rather than once per object.
+ */
+static const int64_t FOO_OBJECT_ARENA_TAG = 1;
+
+inline bool IsFooObjectArena(const int64_t handle) {
+  return (handle & FOO_OBJECT_ARENA_TAG) != 0;
+}
+
+inline int64_t FooObjectArenaHandle(FooObjectArena* arena) {
+  return reinterpret_cast<int64_t>(arena) | FOO_OBJECT_ARENA_TAG;
+}
+
+inline FooObjectArena* FooObjectArenaFromHandle(const int64_t handle) {
+  return reinterpret_cast<FooObjectArena*>(handle & ~FOO_OBJECT_ARENA_TAG);
+}
+
+inline FooObjectVector FooObjectVectorFromHandle(const int64_t handle) {
+  return FooObjectVector(*reinterpret_cast<std::vector<FooObject>*>(handle));
+}
+
+/**
+ * Get the number of objects in an array of either layout.
+ */
+inline size_t FooObjectArraySize(const int64_t handle) {
+  if (IsFooObjectArena(handle)) {
+    return FooObjectArenaFromHandle(handle)->Size();
+  }
+  return reinterpret_cast<std::vector<FooObject>*>(handle)->size();
+}
+
+} // namespace jnibench
+
+#endif  // FOO_OBJECT_ARENA_H_
@@ -0,0 +1,59 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef FOO_OBJECT_CHECKSUM_H_
+#define FOO_OBJECT_CHECKSUM_H_
+
+#include <cstdint>
+
+namespace jnibench {
+
+/**
+ * Combines the sum of the name bytes, and the value, of each object.
+ *
+ * The bytes of each name are only summed, rather than hashed byte by byte,
+ * so that the cost is dominated by reading the memory of the array.
+ *
+ * FooArray is either layout of FooObjectArena.h.
+ */
+template <typename FooArray>
+inline uint64_t Checksum(const FooArray& foo_array) {
+  uint64_t checksum = 0;
+  for (size_t i = 0; i < foo_array.Size(); ++i) {
+    const char* name = foo_array.GetName(i);
+    const size_t name_length = foo_array.GetNameLength(i);
+    uint64_t name_sum = 0;
+    for (size_t j = 0; j < name_length; ++j) {
+      name_sum += static_cast<uint8_t>(name[j]);
+    }
+    checksum = checksum * 31 + name_sum + static_cast<uint64_t>(foo_array.GetValue(i));
+  }
+  return checksum;
+}
+
+} // namespace jnibench
+
+#endif  // FOO_OBJECT_CHECKSUM_H_
@@ -0,0 +1,147 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef FOO_OBJECT_ENCODING_H_
+#define FOO_OBJECT_ENCODING_H_
+
+#include <algorithm>
+#include <cstdint>
+#include <cstring>
+#include <string>
+#include <vector>
+
+#include "FooObject.h"
+
+namespace jnibench {
+
+/**
+ * Encodes FooObjects flat, each as an int32 name length,
+ * the name bytes and an int64 value, in the native byte order.
+ *
+ * The encoding is appended to out, so that several arrays
+ * can be encoded one after another.
+ *
+ * FooArray is either layout of FooObjectArena.h.
+ */
+template <typename FooArray>
+inline void EncodeFlat(const FooArray& foo_objects, std::vector<char>& out) {
+  size_t size = 0;
+  for (size_t i = 0; i < foo_objects.Size(); i++) {
+    size += sizeof(int32_t) + foo_objects.GetNameLength(i) + sizeof(int64_t);
+  }
+  const size_t start = out.size();
+  out.resize(start + size);
+
+  char* dst = out.data() + start;
+  for (size_t i = 0; i < foo_objects.Size(); i++) {
+    const int32_t len = static_cast<int32_t>(foo_objects.GetNameLength(i));
+    const int64_t value = foo_objects.GetValue(i);
+    std::memcpy(dst, &len, sizeof(len));
+    dst += sizeof(len);
+    std::memcpy(dst, foo_objects.GetName(i), static_cast<size_t>(len));
+    dst += len;
+    std::memcpy(dst, &value, sizeof(value));
+    dst += sizeof(value);
+  }
+}
+
+inline void PutVarint(std::vector<char>& out, uint64_t value) {
+  while (value >= 0x80) {
+    out.push_back(static_cast<char>(value | 0x80));
+    value >>= 7;
+  }
+  out.push_back(static_cast<char>(value));
+}
+
+inline uint64_t ZigZag(const int64_t value) {
+  return (static_cast<uint64_t>(value) << 1) ^ static_cast<uint64_t>(value >> 63);
+}
+
+/**
+ * Encodes FooObjects in blocks of block_size objects, where each block
+ * can be decoded independently.
+ *
+ * The encoding is:
+ *   varint count, varint block_size, int32 offset of each block (in the native byte order),
+ *   then the blocks.
+ *
+ * Within a block each object is encoded as:
+ *   zig-zag varint of the difference between its value and the previous value in the block (or 0),
+ *   varint length of the prefix shared with the previous name in the block,
+ *   varint length of the remaining suffix, and the suffix bytes.
+ *
+ * FooArray is either layout of FooObjectArena.h.
+ */
+template <typename FooArray>
+inline void EncodeCompressed(const FooArray& foo_objects, const size_t block_size,
+    std::vector<char>& out) {
+  out.clear();
+  const size_t count = foo_objects.Size();
+  const size_t blocks = (count + block_size - 1) / block_size;
+
+  PutVarint(out, count);
+  PutVarint(out, block_size);
+  const size_t offsets = out.size();
+  out.resize(offsets + blocks * sizeof(int32_t));
+
+  for (size_t block = 0; block < blocks; block++) {
+    const int32_t offset = static_cast<int32_t>(out.size());
+    std::memcpy(out.data() + offsets + block * sizeof(int32_t), &offset, sizeof(offset));
+
+    int64_t previous_value = 0;
+    const char* previous_name = nullptr;
+    size_t previous_name_length = 0;
+    const size_t end = std::min(count, (block + 1) * block_size);
+    for (size_t i = block * block_size; i < end; i++) {
+      const int64_t value = foo_objects.GetValue(i);
+      const char* name = foo_objects.GetName(i);
+      const size_t name_length = foo_objects.GetNameLength(i);
+
+      // the subtraction wraps rather than overflowing, and is reversed by the decoder
+      PutVarint(out, ZigZag(static_cast<int64_t>(
+          static_cast<uint64_t>(value) - static_cast<uint64_t>(previous_value))));
+      previous_value = value;
+
+      size_t shared = 0;
+      if (previous_name != nullptr) {
+        const size_t max_shared = std::min(name_length, previous_name_length);
+        while (shared < max_shared && name[shared] == previous_name[shared]) {
+          shared++;
+        }
+      }
+      previous_name = name;
+      previous_name_length = name_length;
+
+      PutVarint(out, shared);
+      PutVarint(out, name_length - shared);
+      out.insert(out.end(), name + shared, name + name_length);
+    }
+  }
+}
+
+} // namespace jnibench
+
+#endif  // FOO_OBJECT_ENCODING_H_
@@ -0,0 +1,263 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef FOO_OBJECT_SNAPSHOT_H_
+#define FOO_OBJECT_SNAPSHOT_H_
+
+#include <cstdint>
+#include <cstdio>
+#include <cstring>
+#include <string>
+#include <vector>
+
+#include <fcntl.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#include <unistd.h>
+
+#include "FooObject.h"
+
+namespace jnibench {
+
+/**
+ * A flat, versioned, on-disk snapshot of an array of FooObject.
+ *
+ * The layout is designed to be memory mapped and read in place,
+ * without any parsing, from either C++ or Java
+ * (see com.evolvedbinary.jnibench.common.array.FooObjectSnapshot).
+ *
+ * All integers are written in the byte order of the host which wrote the
+ * snapshot, which the reader can detect from the byte_order field.
+ *
+ *   FooObjectSnapshotHeader  (56 bytes)
+ *   int64_t  values[count]
+ *   uint64_t name_offsets[count + 1]  (relative to names_offset)
+ *   char     names[names_length]      (each name is followed by a NUL terminator)
+ */
+struct FooObjectSnapshotHeader {
+  char magic[8];
+  uint32_t version;
+  uint32_t byte_order;
+  uint64_t count;
+  uint64_t values_offset;
+  uint64_t name_offsets_offset;
+  uint64_t names_offset;
+  uint64_t names_length;
+};
+
+static const char FOO_OBJECT_SNAPSHOT_MAGIC[8] = {'J', 'N', 'I', 'B', 'S', 'N', 'A', 'P'};
+static const uint32_t FOO_OBJECT_SNAPSHOT_VERSION = 1;
+static const uint32_t FOO_OBJECT_SNAPSHOT_BYTE_ORDER = 0x01020304;
+
+/**
+ * Writes a snapshot of the array to a file.
+ *
+ * @param foo_objects the array to write
+ * @param path the path of the file to write
+ *
+ * @return true if the snapshot was written, false otherwise
+ *     in which case errno describes the error
+ */
+inline bool WriteFooObjectSnapshot(const std::vector<FooObject>& foo_objects, const char* path) {
+  const uint64_t count = static_cast<uint64_t>(foo_objects.size());
+
+  std::vector<uint64_t> name_offsets;
+  name_offsets.reserve(foo_objects.size() + 1);
+  uint64_t names_length = 0;
+  for (const auto& foo_object : foo_objects) {
+    name_offsets.push_back(names_length);
+    names_length += foo_object.GetName().size() + 1;
+  }
+  name_offsets.push_back(names_length);
+
+  FooObjectSnapshotHeader header;
+  std::memcpy(header.magic, FOO_OBJECT_SNAPSHOT_MAGIC, sizeof(header.magic));
+  header.version = FOO_OBJECT_SNAPSHOT_VERSION;
+  header.byte_order = FOO_OBJECT_SNAPSHOT_BYTE_ORDER;
+  header.count = count;
+  header.values_offset = sizeof(FooObjectSnapshotHeader);
+  header.name_offsets_offset = header.values_offset + count * sizeof(int64_t);
+  header.names_offset = header.name_offsets_offset + (count + 1) * sizeof(uint64_t);
+  header.names_length = names_length;
+
+  FILE* file = std::fopen(path, "wb");
+  if (file == nullptr) {
+    return false;
+  }
+
+  bool ok = std::fwrite(&header, sizeof(header), 1, file) == 1;
+  for (size_t i = 0; ok && i < foo_objects.size(); i++) {
+    const int64_t value = foo_objects[i].GetValue();
+    ok = std::fwrite(&value, sizeof(value), 1, file) == 1;
+  }
+  ok = ok && std::fwrite(name_offsets.data(), sizeof(uint64_t), name_offsets.size(), file) == name_offsets.size();
+  for (size_t i = 0; ok && i < foo_objects.size(); i++) {
+    const std::string& name = foo_objects[i].GetName();
+    ok = std::fwrite(name.c_str(), 1, name.size() + 1, file) == name.size() + 1;
+  }
+
+  if (std::fclose(file) != 0) {
+    ok = false;
+  }
+  return ok;
+}
+
+/**
+ * A read-only memory mapping of a snapshot file.
+ */
+class MappedFooObjectSnapshot {
+ public:
+  MappedFooObjectSnapshot() : data(nullptr), length(0) {}
+
+  ~MappedFooObjectSnapshot() {
+    if (data != nullptr) {
+      munmap(data, length);
+    }
+  }
+
+  /**
+   * Maps the snapshot file into memory and validates it.
+   *
+   * @param path the path of the snapshot file
+   *
+   * @return nullptr on success, or a description of the error
+   */
+  const char* Open(const char* path) {
+    const int fd = open(path, O_RDONLY);
+    if (fd == -1) {
+      return "Unable to open snapshot file";
+    }
+
+    struct stat st;
+    if (fstat(fd, &st) == -1) {
+      close(fd);
+      return "Unable to stat snapshot file";
+    }
+    length = static_cast<size_t>(st.st_size);
+    if (length < sizeof(FooObjectSnapshotHeader)) {
+      close(fd);
+      return "Snapshot file is truncated";
+    }
+
+    void* addr = mmap(nullptr, length, PROT_READ, MAP_PRIVATE, fd, 0);
+    close(fd);
+    if (addr == MAP_FAILED) {
+      return "Unable to map snapshot file";
+    }
+    data = addr;
+
+    const FooObjectSnapshotHeader& header = Header();
+    if (std::memcmp(header.magic, FOO_OBJECT_SNAPSHOT_MAGIC, sizeof(header.magic)) != 0) {
+      return "Not a snapshot file";
+    }
+    if (header.version != FOO_OBJECT_SNAPSHOT_VERSION) {
+      return "Unsupported snapshot version";
+    }
+    if (header.byte_order != FOO_OBJECT_SNAPSHOT_BYTE_ORDER) {
+      return "Snapshot was written with a different byte order";
+    }
+    return Validate(header);
+  }
+
+  uint64_t Count() const {
+    return Header().count;
+  }
+
+  int64_t GetValue(const size_t i) const {
+    return reinterpret_cast<const int64_t*>(At(Header().values_offset))[i];
+  }
+
+  const char* GetName(const size_t i) const {
+    const uint64_t* name_offsets = reinterpret_cast<const uint64_t*>(At(Header().name_offsets_offset));
+    return At(Header().names_offset + name_offsets[i]);
+  }
+
+  size_t GetNameLength(const size_t i) const {
+    const uint64_t* name_offsets = reinterpret_cast<const uint64_t*>(At(Header().name_offsets_offset));
+    return static_cast<size_t>(name_offsets[i + 1] - name_offsets[i] - 1);
+  }
+
+ private:
+  void* data;
+  size_t length;
+
+  /**
+   * Checks that each region of the snapshot lies within the file, in order and
+   * without overlapping, and that each name lies within the names region and
+   * is NUL terminated, so that reading the snapshot cannot go past the mapping.
+   *
+   * Each check is written so that it cannot overflow.
+   *
+   * @return nullptr if the snapshot is valid, or a description of the error
+   */
+  const char* Validate(const FooObjectSnapshotHeader& header) const {
+    if (header.values_offset < sizeof(FooObjectSnapshotHeader)
+        || header.values_offset % sizeof(int64_t) != 0
+        || header.name_offsets_offset % sizeof(uint64_t) != 0
+        || header.name_offsets_offset < header.values_offset
+        || header.names_offset < header.name_offsets_offset
+        || header.names_offset > length
+        || header.names_length > length - header.names_offset) {
+      return "Snapshot is corrupt or truncated";
+    }
+    // values[count] then name_offsets[count + 1]
+    if (header.count > (header.name_offsets_offset - header.values_offset) / sizeof(int64_t)
+        || header.count >= (header.names_offset - header.name_offsets_offset) / sizeof(uint64_t)) {
+      return "Snapshot count does not fit in the file";
+    }
+
+    const uint64_t* name_offsets = reinterpret_cast<const uint64_t*>(At(header.name_offsets_offset));
+    const char* names = At(header.names_offset);
+    if (name_offsets[0] > header.names_length) {
+      return "Snapshot name is outside of the names";
+    }
+    for (uint64_t i = 0; i < header.count; i++) {
+      // each name is at least its NUL terminator
+      if (name_offsets[i + 1] <= name_offsets[i] || name_offsets[i + 1] > header.names_length) {
+        return "Snapshot name is outside of the names";
+      }
+      if (names[name_offsets[i + 1] - 1] != '\0') {
+        return "Snapshot name is not terminated";
+      }
+    }
+    return nullptr;
+  }
+
+  const FooObjectSnapshotHeader& Header() const {
+    return *reinterpret_cast<const FooObjectSnapshotHeader*>(data);
+  }
+
+  const char* At(const uint64_t offset) const {
+    return reinterpret_cast<const char*>(data) + offset;
+  }
+
+  MappedFooObjectSnapshot(const MappedFooObjectSnapshot&) = delete;
+  MappedFooObjectSnapshot& operator=(const MappedFooObjectSnapshot&) = delete;
+};
+
+}  // namespace jnibench
+
+#endif  // FOO_OBJECT_SNAPSHOT_H_
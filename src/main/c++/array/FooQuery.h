@@ -0,0 +1,151 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef FOO_QUERY_H_
+#define FOO_QUERY_H_
+
+#include <algorithm>
+#include <cstdint>
+#include <string>
+#include <vector>
+
+#include "FooObject.h"
+
+namespace jnibench {
+
+/**
+ * A conjunction of simple predicates over FooObjects,
+ * decoded from the columns built by the Java FooQuery.
+ */
+class FooQuery {
+  public:
+    // NOTE: must be kept in sync with the opcodes in FooQuery.java
+    enum Op {
+      VALUE_EQUALS = 0,
+      VALUE_LESS_THAN = 1,
+      VALUE_GREATER_THAN = 2,
+      VALUE_BETWEEN = 3,
+      NAME_EQUALS = 4,
+      NAME_STARTS_WITH = 5,
+      INDEX_RANGE = 6
+    };
+
+    FooQuery() : from_index(0), to_index(SIZE_MAX) {}
+
+    /**
+     * Add a predicate.
+     *
+     * Index ranges are not evaluated per object, but
+     * narrow the range of indices which is scanned.
+     *
+     * @return false if the op is unknown
+     */
+    bool Add(int op, int64_t arg1, int64_t arg2, const std::string& string_arg) {
+      switch (op) {
+        case VALUE_EQUALS:
+        case VALUE_LESS_THAN:
+        case VALUE_GREATER_THAN:
+        case VALUE_BETWEEN:
+        case NAME_EQUALS:
+        case NAME_STARTS_WITH:
+          predicates.push_back(Predicate{static_cast<Op>(op), arg1, arg2, string_arg});
+          return true;
+
+        case INDEX_RANGE:
+          from_index = std::max(from_index, static_cast<size_t>(arg1));
+          to_index = std::min(to_index, static_cast<size_t>(arg2));
+          return true;
+
+        default:
+          return false;
+      }
+    }
+
+    /**
+     * Find the indices of the objects which match every predicate.
+     */
+    std::vector<size_t> Select(const std::vector<FooObject>& foo_objects) const {
+      std::vector<size_t> selected;
+      const size_t end = std::min(to_index, foo_objects.size());
+      for (size_t i = from_index; i < end; i++) {
+        if (Matches(foo_objects[i])) {
+          selected.push_back(i);
+        }
+      }
+      return selected;
+    }
+
+  private:
+    struct Predicate {
+      Op op;
+      int64_t arg1;
+      int64_t arg2;
+      std::string string_arg;
+    };
+
+    bool Matches(const FooObject& foo_object) const {
+      for (const auto& predicate : predicates) {
+        const int64_t value = foo_object.GetValue();
+        const std::string& name = foo_object.GetName();
+        bool matches;
+        switch (predicate.op) {
+          case VALUE_EQUALS:
+            matches = value == predicate.arg1;
+            break;
+          case VALUE_LESS_THAN:
+            matches = value < predicate.arg1;
+            break;
+          case VALUE_GREATER_THAN:
+            matches = value > predicate.arg1;
+            break;
+          case VALUE_BETWEEN:
+            matches = value >= predicate.arg1 && value <= predicate.arg2;
+            break;
+          case NAME_EQUALS:
+            matches = name == predicate.string_arg;
+            break;
+          case NAME_STARTS_WITH:
+            matches = name.compare(0, predicate.string_arg.size(), predicate.string_arg) == 0;
+            break;
+          default:
+            matches = false;
+            break;
+        }
+        if (!matches) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    std::vector<Predicate> predicates;
+    size_t from_index;
+    size_t to_index;
+};
+
+} // namespace jnibench
+
+#endif  // FOO_QUERY_H_
@@ -0,0 +1,73 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_array_LazyFooObjectList.h"
+#include "FooObject.h"
+#include "FooObjectArena.h"
+
+template <typename FooArray>
+static void GetWindow(JNIEnv *env, const FooArray& foo_array,
+    jint from, jint len, jobjectArray jnames, jlongArray jvalues) {
+
+  std::vector<jlong> values(static_cast<size_t>(len));
+  for (jsize i = 0; i < len; i++) {
+    const size_t index = static_cast<size_t>(from + i);
+
+    jstring jname = env->NewStringUTF(foo_array.GetName(index));
+    if (jname == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return;
+    }
+    env->SetObjectArrayElement(jnames, i, jname);
+    if (env->ExceptionCheck()) {
+      // exception thrown: ArrayIndexOutOfBoundsException
+      env->DeleteLocalRef(jname);
+      return;
+    }
+    env->DeleteLocalRef(jname);
+
+    values[static_cast<size_t>(i)] = static_cast<jlong>(foo_array.GetValue(index));
+  }
+
+  env->SetLongArrayRegion(jvalues, 0, len, values.data());
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_array_LazyFooObjectList
+ * Method:    getWindow
+ * Signature: (JII[Ljava/lang/String;[J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_array_LazyFooObjectList_getWindow(
+    JNIEnv *env, jclass, jlong handle, jint from, jint len, jobjectArray jnames, jlongArray jvalues) {
+  if (jnibench::IsFooObjectArena(handle)) {
+    GetWindow(env, *jnibench::FooObjectArenaFromHandle(handle), from, len, jnames, jvalues);
+  } else {
+    GetWindow(env, jnibench::FooObjectVectorFromHandle(handle), from, len, jnames, jvalues);
+  }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef NATIVE_MEMORY_H_
+#define NATIVE_MEMORY_H_
+
+#include <string>
+#include <vector>
+
+#include "FooObject.h"
+
+namespace jnibench {
+
+/**
+ * Estimate the bytes allocated on the heap for the characters of a string,
+ * which is none if the string fits in its small string buffer.
+ */
+inline size_t StringHeapBytes(const std::string& str) {
+  static const size_t small_string_capacity = std::string().capacity();
+  return str.capacity() > small_string_capacity ? str.capacity() + 1 : 0;
+}
+
+/**
+ * Estimate the bytes allocated on the heap for the elements of a vector,
+ * excluding anything that the elements themselves allocate.
+ */
+template <typename T>
+inline size_t VectorHeapBytes(const std::vector<T>& vec) {
+  return vec.capacity() * sizeof(T);
+}
+
+/**
+ * Estimate the native bytes of a vector of FooObjects,
+ * including the vector itself and the names of the objects.
+ */
+inline size_t NativeBytes(const std::vector<FooObject>& foo_objects) {
+  size_t bytes = sizeof(foo_objects) + VectorHeapBytes(foo_objects);
+  for (const auto& foo_obj : foo_objects) {
+    bytes += StringHeapBytes(foo_obj.GetName());
+  }
+  return bytes;
+}
+
+} // namespace jnibench
+
+#endif  // NATIVE_MEMORY_H_
@@ -24,8 +24,14 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
+#ifndef PORTAL_H_
+#define PORTAL_H_
+
 #include <assert.h>
 #include <jni.h>
+#include <string>
+
+#include "../profile/NativeProfile.h"
 
 class JavaClass {
  public:
@@ -41,7 +47,7 @@ class JavaClass {
    *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
    */
   static jclass getJClass(JNIEnv* env, const char* jclazz_name) {
-    jclass jclazz = env->FindClass(jclazz_name);
+    jclass jclazz = JNIBENCH_PROFILE(LOOKUP, env->FindClass(jclazz_name));
     assert(jclazz != nullptr);
     return jclazz;
   }
@@ -63,8 +69,55 @@ class FooObjectJni : public JavaClass {
     return JavaClass::getJClass(env, "com/evolvedbinary/jnibench/common/array/FooObject");
   }
 
+  /**
+   * The mechanisms by which a Java FooObject can be created from C++.
+   *
+   * NOTE: must be kept in sync with the Java ConstructionStrategy
+   */
+  enum ConstructionStrategy {
+    // NewObject, looking up the constructor on every call
+    NEW_OBJECT = 0,
+    // AllocObject, and then SetObjectField and SetLongField
+    ALLOC_OBJECT_SET_FIELDS = 1,
+    // CallStaticObjectMethod of the Java FooObject#create factory
+    STATIC_FACTORY = 2,
+    // NewObject, with the constructor looked up once and cached
+    CACHED_CONSTRUCTOR = 3
+  };
+
   static jmethodID getConstructor(JNIEnv* env, jclass jclazz) {
-      return env->GetMethodID(jclazz, "<init>", "(Ljava/lang/String;J)V");
+      return JNIBENCH_PROFILE(LOOKUP, env->GetMethodID(jclazz, "<init>", "(Ljava/lang/String;J)V"));
+  }
+
+  /**
+   * Get the Java Method: FooObject constructor, looked up only once
+   *
+   * @param env A pointer to the Java environment
+   * @param jclazz the class
+   *
+   * @return The Java Method ID or nullptr if the class or method id could not
+   *     be retrieved
+   */
+  static jmethodID getCachedConstructor(JNIEnv* env, jclass jclazz) {
+    static jmethodID mid = getConstructor(env, jclazz);
+    assert(mid != nullptr);
+    return mid;
+  }
+
+  /**
+   * Get the Java Method: FooObject#create
+   *
+   * @param env A pointer to the Java environment
+   * @param jclazz the class
+   *
+   * @return The Java Method ID or nullptr if the class or method id could not
+   *     be retrieved
+   */
+  static jmethodID getFactoryMethod(JNIEnv* env, jclass jclazz) {
+    static jmethodID mid = env->GetStaticMethodID(jclazz, "create",
+        "(Ljava/lang/String;J)Lcom/evolvedbinary/jnibench/common/array/FooObject;");
+    assert(mid != nullptr);
+    return mid;
   }
 
   /**
@@ -79,13 +132,29 @@ class FooObjectJni : public JavaClass {
    *     or nullptr if an an exception occurs
    */
   static jobject construct(JNIEnv* env, jclass jclazz, const jnibench::FooObject& foo_object) {
+    return construct(env, jclazz, foo_object.GetName().c_str(), foo_object.GetValue());
+  }
+
+  /**
+   * Create a new Java com.evolvedbinary.jnibench.common.array.FooObject object
+   * with the provided name and value.
+   *
+   * @param env A pointer to the Java environment
+   * @param jclazz the class
+   * @param name The NUL terminated name
+   * @param value The value
+   *
+   * @return A reference to a com.evolvedbinary.jnibench.common.array.FooObject object,
+   *     or nullptr if an an exception occurs
+   */
+  static jobject construct(JNIEnv* env, jclass jclazz, const char* name, const int64_t value) {
     jmethodID mid = getConstructor(env, jclazz);
     if (mid == nullptr) {
       // exception thrown: NoSuchMethodException or OutOfMemoryError
       return nullptr;
     }
 
-    jstring jname = env->NewStringUTF(foo_object.GetName().c_str());
+    jstring jname = JNIBENCH_PROFILE(STRING_CREATION, env->NewStringUTF(name));
     if (env->ExceptionCheck()) {
       if (jname != nullptr) {
         env->DeleteLocalRef(jname);
@@ -93,7 +162,8 @@ class FooObjectJni : public JavaClass {
       return nullptr;
     }
 
-    jobject jfoo_object = env->NewObject(jclazz, mid, jname, static_cast<jlong>(foo_object.GetValue()));
+    jobject jfoo_object = JNIBENCH_PROFILE(OBJECT_CREATION,
+        env->NewObject(jclazz, mid, jname, static_cast<jlong>(value)));
 
     if (env->ExceptionCheck()) {
       // exception occurred
@@ -108,6 +178,88 @@ class FooObjectJni : public JavaClass {
     return jfoo_object;
   }
 
+  /**
+   * Create a new Java com.evolvedbinary.jnibench.common.array.FooObject object
+   * with the same properties as the provided C++ jnibench::FooObject object,
+   * by the provided construction strategy.
+   *
+   * @param env A pointer to the Java environment
+   * @param jclazz the class
+   * @param foo_object The jnibench::FooObject object
+   * @param strategy The construction strategy
+   *
+   * @return A reference to a com.evolvedbinary.jnibench.common.array.FooObject object,
+   *     or nullptr if an an exception occurs
+   */
+  static jobject construct(JNIEnv* env, jclass jclazz, const jnibench::FooObject& foo_object,
+      const ConstructionStrategy strategy) {
+    return construct(env, jclazz, foo_object.GetName().c_str(), foo_object.GetValue(), strategy);
+  }
+
+  /**
+   * Create a new Java com.evolvedbinary.jnibench.common.array.FooObject object
+   * with the provided name and value, by the provided construction strategy.
+   *
+   * @param env A pointer to the Java environment
+   * @param jclazz the class
+   * @param name The NUL terminated name
+   * @param value The value
+   * @param strategy The construction strategy
+   *
+   * @return A reference to a com.evolvedbinary.jnibench.common.array.FooObject object,
+   *     or nullptr if an an exception occurs
+   */
+  static jobject construct(JNIEnv* env, jclass jclazz, const char* name, const int64_t value,
+      const ConstructionStrategy strategy) {
+    if (strategy == NEW_OBJECT) {
+      return construct(env, jclazz, name, value);
+    }
+
+    jstring jname = JNIBENCH_PROFILE(STRING_CREATION, env->NewStringUTF(name));
+    if (jname == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return nullptr;
+    }
+    const jlong jvalue = static_cast<jlong>(value);
+
+    jobject jfoo_object = nullptr;
+    switch (strategy) {
+      case ALLOC_OBJECT_SET_FIELDS:
+        jfoo_object = JNIBENCH_PROFILE(OBJECT_CREATION, env->AllocObject(jclazz));
+        if (jfoo_object != nullptr) {
+          JNIBENCH_PROFILE(STORE, env->SetObjectField(jfoo_object, getNameField(env, jclazz), jname));
+          JNIBENCH_PROFILE(STORE, env->SetLongField(jfoo_object, getValueField(env, jclazz), jvalue));
+        }
+        break;
+
+      case STATIC_FACTORY:
+        jfoo_object = JNIBENCH_PROFILE(OBJECT_CREATION,
+            env->CallStaticObjectMethod(jclazz, getFactoryMethod(env, jclazz), jname, jvalue));
+        break;
+
+      case CACHED_CONSTRUCTOR:
+        jfoo_object = JNIBENCH_PROFILE(OBJECT_CREATION,
+            env->NewObject(jclazz, getCachedConstructor(env, jclazz), jname, jvalue));
+        break;
+
+      default:
+        env->ThrowNew(JavaClass::getJClass(env, "java/lang/IllegalArgumentException"),
+            "Unknown construction strategy");
+        break;
+    }
+
+    env->DeleteLocalRef(jname);
+
+    if (env->ExceptionCheck()) {
+      // exception occurred
+      if (jfoo_object != nullptr) {
+        env->DeleteLocalRef(jfoo_object);
+      }
+      return nullptr;
+    }
+    return jfoo_object;
+  }
+
   /**
    * Get the Java Field: name
    *
@@ -156,7 +308,7 @@ class LongJni : public JavaClass {
   }
 
   static jmethodID getConstructor(JNIEnv* env, jclass jclazz) {
-    return env->GetMethodID(jclazz, "<init>", "(J)V");
+    return JNIBENCH_PROFILE(LOOKUP, env->GetMethodID(jclazz, "<init>", "(J)V"));
   }
 
   static jobject construct(JNIEnv* env, jclass jclazz, const int64_t& value) {
@@ -166,7 +318,8 @@ class LongJni : public JavaClass {
       return nullptr;
     }
 
-    jobject jvalue = env->NewObject(jclazz, mid, static_cast<jlong>(value));
+    jobject jvalue = JNIBENCH_PROFILE(OBJECT_CREATION,
+        env->NewObject(jclazz, mid, static_cast<jlong>(value)));
     if (env->ExceptionCheck()) {
       // exception occurred
       if (jvalue != nullptr) {
@@ -195,6 +348,22 @@ class StringJni : public JavaClass {
   }
 };
 
+class ObjectJni : public JavaClass {
+ public:
+  /**
+   * Get the Java Class java.lang.Object
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class or nullptr if one of the
+   *     ClassFormatError, ClassCircularityError, NoClassDefFoundError,
+   *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
+   */
+  static jclass getJClass(JNIEnv* env) {
+    return JavaClass::getJClass(env, "java/lang/Object");
+  }
+};
+
 class ListJni : public JavaClass {
  public:
   /**
@@ -263,4 +432,241 @@ class ListJni : public JavaClass {
     assert(mid != nullptr);
     return mid;
   }
-};
\ No newline at end of file
+};
+
+class CollectionJni : public JavaClass {
+ public:
+  /**
+   * Get the Java Class java.util.Collection
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class or nullptr if one of the
+   *     ClassFormatError, ClassCircularityError, NoClassDefFoundError,
+   *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
+   */
+  static jclass getJClass(JNIEnv* env) {
+    return JavaClass::getJClass(env, "java/util/Collection");
+  }
+
+  /**
+   * Get the Java Method: Collection#add
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Method ID or nullptr if the class or method id could not
+   *     be retrieved
+   */
+  static jmethodID getAddMethodId(JNIEnv* env) {
+    jclass jcollection_clazz = getJClass(env);
+    if(jcollection_clazz == nullptr) {
+      // exception occurred accessing class
+      return nullptr;
+    }
+
+    static jmethodID mid =
+        env->GetMethodID(jcollection_clazz, "add", "(Ljava/lang/Object;)Z");
+    assert(mid != nullptr);
+    return mid;
+  }
+};
+
+class MapJni : public JavaClass {
+ public:
+  /**
+   * Get the Java Class java.util.Map
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class or nullptr if one of the
+   *     ClassFormatError, ClassCircularityError, NoClassDefFoundError,
+   *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
+   */
+  static jclass getJClass(JNIEnv* env) {
+    return JavaClass::getJClass(env, "java/util/Map");
+  }
+
+  /**
+   * Get the Java Method: Map#put
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Method ID or nullptr if the class or method id could not
+   *     be retrieved
+   */
+  static jmethodID getPutMethodId(JNIEnv* env) {
+    jclass jmap_clazz = getJClass(env);
+    if(jmap_clazz == nullptr) {
+      // exception occurred accessing class
+      return nullptr;
+    }
+
+    static jmethodID mid =
+        env->GetMethodID(jmap_clazz, "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+    assert(mid != nullptr);
+    return mid;
+  }
+};
+
+class ConsumerJni : public JavaClass {
+ public:
+  /**
+   * Get the Java Class java.util.function.Consumer
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class or nullptr if one of the
+   *     ClassFormatError, ClassCircularityError, NoClassDefFoundError,
+   *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
+   */
+  static jclass getJClass(JNIEnv* env) {
+    return JavaClass::getJClass(env, "java/util/function/Consumer");
+  }
+
+  /**
+   * Get the Java Method: Consumer#accept
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Method ID or nullptr if the class or method id could not
+   *     be retrieved
+   */
+  static jmethodID getAcceptMethodId(JNIEnv* env) {
+    jclass jconsumer_clazz = getJClass(env);
+    if(jconsumer_clazz == nullptr) {
+      // exception occurred accessing class
+      return nullptr;
+    }
+
+    static jmethodID mid =
+        env->GetMethodID(jconsumer_clazz, "accept", "(Ljava/lang/Object;)V");
+    assert(mid != nullptr);
+    return mid;
+  }
+};
+
+class FooObjectVisitorJni : public JavaClass {
+ public:
+  /**
+   * Get the Java Class com.evolvedbinary.jnibench.common.array.FooObjectVisitor
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class or nullptr if one of the
+   *     ClassFormatError, ClassCircularityError, NoClassDefFoundError,
+   *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
+   */
+  static jclass getJClass(JNIEnv* env) {
+    return JavaClass::getJClass(env, "com/evolvedbinary/jnibench/common/array/FooObjectVisitor");
+  }
+
+  /**
+   * Get the Java Method: FooObjectVisitor#visit
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Method ID or nullptr if the class or method id could not
+   *     be retrieved
+   */
+  static jmethodID getVisitMethodId(JNIEnv* env) {
+    jclass jvisitor_clazz = getJClass(env);
+    if(jvisitor_clazz == nullptr) {
+      // exception occurred accessing class
+      return nullptr;
+    }
+
+    static jmethodID mid =
+        env->GetMethodID(jvisitor_clazz, "visit", "(Ljava/lang/String;J)V");
+    assert(mid != nullptr);
+    return mid;
+  }
+
+  /**
+   * Get the Java Method: FooObjectVisitor#visitBatch
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Method ID or nullptr if the class or method id could not
+   *     be retrieved
+   */
+  static jmethodID getVisitBatchMethodId(JNIEnv* env) {
+    jclass jvisitor_clazz = getJClass(env);
+    if(jvisitor_clazz == nullptr) {
+      // exception occurred accessing class
+      return nullptr;
+    }
+
+    static jmethodID mid =
+        env->GetMethodID(jvisitor_clazz, "visitBatch", "([Ljava/lang/String;[JI)V");
+    assert(mid != nullptr);
+    return mid;
+  }
+};
+
+class IOExceptionJni : public JavaClass {
+ public:
+  /**
+   * Get the Java Class java.io.IOException
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class or nullptr if one of the
+   *     ClassFormatError, ClassCircularityError, NoClassDefFoundError,
+   *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
+   */
+  static jclass getJClass(JNIEnv* env) {
+    return JavaClass::getJClass(env, "java/io/IOException");
+  }
+
+  /**
+   * Create and throw a new java.io.IOException
+   *
+   * @param env A pointer to the Java environment
+   * @param msg The message for the exception
+   *
+   * @return true if the exception was thrown, false otherwise
+   */
+  static bool ThrowNew(JNIEnv* env, const std::string& msg) {
+    const jclass jclazz = getJClass(env);
+    if (jclazz == nullptr) {
+      // exception occurred accessing class
+      return false;
+    }
+    return env->ThrowNew(jclazz, msg.c_str()) == JNI_OK;
+  }
+};
+
+class IllegalArgumentExceptionJni : public JavaClass {
+ public:
+  /**
+   * Get the Java Class java.lang.IllegalArgumentException
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class or nullptr if one of the
+   *     ClassFormatError, ClassCircularityError, NoClassDefFoundError,
+   *     OutOfMemoryError or ExceptionInInitializerError exceptions is thrown
+   */
+  static jclass getJClass(JNIEnv* env) {
+    return JavaClass::getJClass(env, "java/lang/IllegalArgumentException");
+  }
+
+  /**
+   * Create and throw a new java.lang.IllegalArgumentException
+   *
+   * @param env A pointer to the Java environment
+   * @param msg The message for the exception
+   *
+   * @return true if the exception was thrown, false otherwise
+   */
+  static bool ThrowNew(JNIEnv* env, const std::string& msg) {
+    const jclass jclazz = getJClass(env);
+    if (jclazz == nullptr) {
+      // exception occurred accessing class
+      return false;
+    }
+    return env->ThrowNew(jclazz, msg.c_str()) == JNI_OK;
+  }
+};
+
+#endif  // PORTAL_H_
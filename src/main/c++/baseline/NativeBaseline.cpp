@@ -0,0 +1,69 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include "com_evolvedbinary_jnibench_common_baseline_NativeBaseline.h"
+#include "NativeBaseline.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_baseline_NativeBaseline
+ * Method:    timeAllocation
+ * Signature: (IZ)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_baseline_NativeBaseline_timeAllocation
+  (JNIEnv *, jclass, jint iterations, jboolean dispose) {
+  return static_cast<jlong>(jnibench::TimeFooAllocation(static_cast<size_t>(iterations),
+      dispose == JNI_TRUE));
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_baseline_NativeBaseline
+ * Method:    timeCopy
+ * Signature: (JI)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_baseline_NativeBaseline_timeCopy
+  (JNIEnv *, jclass, jlong handle, jint iterations) {
+  if (jnibench::IsFooObjectArena(handle)) {
+    return static_cast<jlong>(jnibench::TimeCopy(*jnibench::FooObjectArenaFromHandle(handle),
+        static_cast<size_t>(iterations)));
+  }
+  return static_cast<jlong>(jnibench::TimeCopy(jnibench::FooObjectVectorFromHandle(handle),
+      static_cast<size_t>(iterations)));
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_baseline_NativeBaseline
+ * Method:    timeIteration
+ * Signature: (JI)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_baseline_NativeBaseline_timeIteration
+  (JNIEnv *, jclass, jlong handle, jint iterations) {
+  if (jnibench::IsFooObjectArena(handle)) {
+    return static_cast<jlong>(jnibench::TimeIteration(*jnibench::FooObjectArenaFromHandle(handle),
+        static_cast<size_t>(iterations)));
+  }
+  return static_cast<jlong>(jnibench::TimeIteration(jnibench::FooObjectVectorFromHandle(handle),
+      static_cast<size_t>(iterations)));
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef NATIVE_BASELINE_H_
+#define NATIVE_BASELINE_H_
+
+#include <chrono>
+#include <cstdint>
+#include <random>
+#include <string>
+#include <vector>
+
+#include "../array/FooObject.h"
+#include "../array/FooObjectArena.h"
+#include "../array/FooObjectChecksum.h"
+#include "../call/Foo.h"
+
+namespace jnibench {
+
+/**
+ * Baselines for the JNI benchmarks, which perform the same work entirely
+ * in C++, so that the overhead of JNI can be separated from the cost of
+ * the work itself.
+ *
+ * They are run both through JNI, where each baseline is a single call,
+ * (see com.evolvedbinary.jnibench.common.baseline.NativeBaseline),
+ * and by a standalone harness without the JVM (see src/test/c++).
+ *
+ * Each returns the elapsed time in nanoseconds.
+ */
+
+/**
+ * Receives a value derived from the work of a baseline,
+ * so that the work cannot be optimised away.
+ */
+static volatile uint64_t baseline_sink;
+
+inline void Consume(const uint64_t value) {
+  baseline_sink = value;
+}
+
+inline int64_t NanosSince(const std::chrono::steady_clock::time_point start) {
+  return static_cast<int64_t>(std::chrono::duration_cast<std::chrono::nanoseconds>(
+      std::chrono::steady_clock::now() - start).count());
+}
+
+/**
+ * Creates FooObjects as com.evolvedbinary.jnibench.common.array.FooObjects#random does,
+ * with random values, and names of the form str<value>.
+ *
+ * @param size the number of objects to create
+ * @param name_length the length of each name, names are padded or truncated
+ *     to this length, or 0 to leave the names at their natural length
+ * @param seed the seed of the values
+ */
+inline std::vector<FooObject> RandomFooObjects(const size_t size, const size_t name_length,
+    const uint32_t seed) {
+  std::mt19937 random(seed);
+  std::vector<FooObject> foo_objects;
+  foo_objects.reserve(size);
+  for (size_t i = 0; i < size; i++) {
+    const int32_t num = static_cast<int32_t>(random());
+    std::string name = "str" + std::to_string(num);
+    if (name_length > 0) {
+      name.resize(name_length, '_');
+    }
+    foo_objects.push_back(FooObject(name, num));
+  }
+  return foo_objects;
+}
+
+/**
+ * Allocates a Foo iterations times, as each FooByCall does through JNI.
+ *
+ * @param iterations the number of Foo to allocate
+ * @param dispose true to delete each Foo immediately, as closing each FooByCall does,
+ *     otherwise they are deleted after the timing
+ */
+inline int64_t TimeFooAllocation(const size_t iterations, const bool dispose) {
+  std::vector<Foo*> undisposed;
+  if (!dispose) {
+    undisposed.reserve(iterations);
+  }
+
+  const auto start = std::chrono::steady_clock::now();
+  for (size_t i = 0; i < iterations; i++) {
+    Foo* foo = new Foo();
+    if (dispose) {
+      delete foo;
+    } else {
+      undisposed.push_back(foo);
+    }
+  }
+  const int64_t elapsed = NanosSince(start);
+
+  for (Foo* foo : undisposed) {
+    delete foo;
+  }
+  return elapsed;
+}
+
+/**
+ * Copies every object of the array into a new vector of FooObjects iterations times,
+ * which is the C++ equivalent of each array supplier building a List of FooObjects.
+ *
+ * FooArray is either layout of FooObjectArena.h.
+ *
+ * @param foo_array the array to copy
+ * @param iterations the number of copies to make
+ */
+template <typename FooArray>
+inline int64_t TimeCopy(const FooArray& foo_array, const size_t iterations) {
+  uint64_t checksum = 0;
+  const auto start = std::chrono::steady_clock::now();
+  for (size_t i = 0; i < iterations; i++) {
+    std::vector<FooObject> copy;
+    copy.reserve(foo_array.Size());
+    for (size_t j = 0; j < foo_array.Size(); j++) {
+      copy.push_back(FooObject(std::string(foo_array.GetName(j), foo_array.GetNameLength(j)),
+          foo_array.GetValue(j)));
+    }
+    checksum += copy.size() + (copy.empty() ? 0 : copy.back().GetName().size());
+  }
+  const int64_t elapsed = NanosSince(start);
+  Consume(checksum);
+  return elapsed;
+}
+
+/**
+ * Reads every name and value of the array iterations times.
+ *
+ * FooArray is either layout of FooObjectArena.h.
+ *
+ * @param foo_array the array to iterate
+ * @param iterations the number of times to iterate the array
+ */
+template <typename FooArray>
+inline int64_t TimeIteration(const FooArray& foo_array, const size_t iterations) {
+  uint64_t checksum = 0;
+  const auto start = std::chrono::steady_clock::now();
+  for (size_t i = 0; i < iterations; i++) {
+    checksum += Checksum(foo_array);
+  }
+  const int64_t elapsed = NanosSince(start);
+  Consume(checksum);
+  return elapsed;
+}
+
+} // namespace jnibench
+
+#endif  // NATIVE_BASELINE_H_
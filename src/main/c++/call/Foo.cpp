@@ -26,10 +26,58 @@
  */
 #include "Foo.h"
 
+#include <atomic>
+
 namespace jnibench {
-Foo::Foo() {
+
+namespace {
+std::atomic<size_t> cost_payload_bytes(0);
+std::atomic<uint32_t> cost_constructor_work(0);
+std::atomic<uint32_t> cost_member_allocations(0);
+std::atomic<uint32_t> cost_destructor_work(0);
+
+// receives the result of the destructor work, so that it cannot be optimised away
+volatile uint64_t destructor_sink;
+
+// one round of computation, an LCG step
+inline uint64_t Work(const uint64_t state) {
+  return state * 6364136223846793005ULL + 1442695040888963407ULL;
+}
+}  // namespace
+
+void Foo::SetCost(size_t payload_bytes, uint32_t constructor_work,
+    uint32_t member_allocations, uint32_t destructor_work) {
+  cost_payload_bytes.store(payload_bytes, std::memory_order_relaxed);
+  cost_constructor_work.store(constructor_work, std::memory_order_relaxed);
+  cost_member_allocations.store(member_allocations, std::memory_order_relaxed);
+  cost_destructor_work.store(destructor_work, std::memory_order_relaxed);
+}
+
+Foo::Foo()
+    : payload_(cost_payload_bytes.load(std::memory_order_relaxed)),
+      state_(reinterpret_cast<uintptr_t>(this)),
+      destructor_work_(cost_destructor_work.load(std::memory_order_relaxed)) {
+  const uint32_t allocations = cost_member_allocations.load(std::memory_order_relaxed);
+  if (allocations > 0) {
+    members_.reserve(allocations);
+    for (uint32_t i = 0; i < allocations; i++) {
+      members_.emplace_back(new uint64_t(i));
+    }
+  }
+
+  const uint32_t work = cost_constructor_work.load(std::memory_order_relaxed);
+  for (uint32_t i = 0; i < work; i++) {
+    state_ = Work(state_);
+  }
 }
 
 Foo::~Foo() {
+  uint64_t state = state_;
+  for (uint32_t i = 0; i < destructor_work_; i++) {
+    state = Work(state);
+  }
+  if (destructor_work_ > 0) {
+    destructor_sink = state;
+  }
 }
-}  //end namespace jnibench
\ No newline at end of file
+}  //end namespace jnibench
@@ -27,11 +27,35 @@
 #ifndef FOO_H_
 #define FOO_H_
 
+#include <cstddef>
+#include <cstdint>
+#include <memory>
+#include <vector>
+
 namespace jnibench {
 class Foo {
  public:
+  /**
+   * Set the cost of constructing and destructing each subsequent Foo,
+   * so that the FooByCall* benchmarks can stand in for heavier native objects.
+   * By default a Foo costs (almost) nothing.
+   *
+   * @param payload_bytes the size of a zeroed payload which each Foo allocates
+   * @param constructor_work the number of rounds of computation in the constructor
+   * @param member_allocations the number of small members which each Foo allocates separately
+   * @param destructor_work the number of rounds of computation in the destructor
+   */
+  static void SetCost(size_t payload_bytes, uint32_t constructor_work,
+      uint32_t member_allocations, uint32_t destructor_work);
+
   Foo();
   ~Foo();
+
+ private:
+  std::vector<char> payload_;
+  std::vector<std::unique_ptr<uint64_t>> members_;
+  uint64_t state_;
+  uint32_t destructor_work_;
 };
 }  //end namespace jnibench
 
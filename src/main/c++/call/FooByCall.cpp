@@ -27,6 +27,7 @@
 #include <jni.h>
 #include "com_evolvedbinary_jnibench_common_call_FooByCall.h"
 #include "Foo.h"
+#include "../profile/NativeProfile.h"
 
 /*
  * Class:     com_evolvedbinary_jnibench_common_FooByCall
@@ -34,7 +35,8 @@
  * Signature: ()J
  */
 jlong Java_com_evolvedbinary_jnibench_common_call_FooByCall_newFoo(JNIEnv* env, jobject jobj) {
-  jnibench::Foo* foo = new jnibench::Foo();
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  jnibench::Foo* foo = JNIBENCH_PROFILE(NATIVE_DATA, new jnibench::Foo());
   return reinterpret_cast<jlong>(foo);
 }
 
@@ -44,5 +46,6 @@ jlong Java_com_evolvedbinary_jnibench_common_call_FooByCall_newFoo(JNIEnv* env,
  * Signature: (J)V
  */
 void Java_com_evolvedbinary_jnibench_common_call_FooByCall_disposeInternal(JNIEnv* env, jobject jobj, jlong handle) {
-    delete reinterpret_cast<jnibench::Foo*>(handle);
+    JNIBENCH_PROFILE_SCOPE(TOTAL);
+    JNIBENCH_PROFILE(NATIVE_DATA, delete reinterpret_cast<jnibench::Foo*>(handle));
 }
\ No newline at end of file
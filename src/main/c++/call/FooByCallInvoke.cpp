@@ -27,6 +27,7 @@
 #include <jni.h>
 #include "com_evolvedbinary_jnibench_common_call_FooByCallInvoke.h"
 #include "Foo.h"
+#include "../profile/NativeProfile.h"
 #include "Portal.h"
 
 /*
@@ -35,10 +36,11 @@
  * Signature: ()J
  */
 void Java_com_evolvedbinary_jnibench_common_call_FooByCallInvoke_newFoo(JNIEnv* env, jobject jobj) {
-  jnibench::Foo* foo = new jnibench::Foo();
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  jnibench::Foo* foo = JNIBENCH_PROFILE(NATIVE_DATA, new jnibench::Foo());
 
   //set the _nativeHandle in Java
-  jnibench::FooByCallInvokeJni::setHandle(env, jobj, foo);
+  JNIBENCH_PROFILE(STORE, jnibench::FooByCallInvokeJni::setHandle(env, jobj, foo));
 }
 
 /*
@@ -47,5 +49,6 @@ void Java_com_evolvedbinary_jnibench_common_call_FooByCallInvoke_newFoo(JNIEnv*
  * Signature: (J)V
  */
 void Java_com_evolvedbinary_jnibench_common_call_FooByCallInvoke_disposeInternal(JNIEnv* env, jobject jobj, jlong handle) {
-    delete reinterpret_cast<jnibench::Foo*>(handle);
+    JNIBENCH_PROFILE_SCOPE(TOTAL);
+    JNIBENCH_PROFILE(NATIVE_DATA, delete reinterpret_cast<jnibench::Foo*>(handle));
 }
\ No newline at end of file
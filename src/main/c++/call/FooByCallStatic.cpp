@@ -27,6 +27,7 @@
 #include <jni.h>
 #include "com_evolvedbinary_jnibench_common_call_FooByCallStatic.h"
 #include "Foo.h"
+#include "../profile/NativeProfile.h"
 
 /*
  * Class:     com_evolvedbinary_jnibench_common_FooByCallStatic
@@ -34,7 +35,8 @@
  * Signature: ()J
  */
 jlong Java_com_evolvedbinary_jnibench_common_call_FooByCallStatic_newFoo(JNIEnv* env, jclass jcls) {
-  jnibench::Foo* foo = new jnibench::Foo();
+  JNIBENCH_PROFILE_SCOPE(TOTAL);
+  jnibench::Foo* foo = JNIBENCH_PROFILE(NATIVE_DATA, new jnibench::Foo());
   return reinterpret_cast<jlong>(foo);
 }
 
@@ -44,5 +46,6 @@ jlong Java_com_evolvedbinary_jnibench_common_call_FooByCallStatic_newFoo(JNIEnv*
  * Signature: (J)V
  */
 void Java_com_evolvedbinary_jnibench_common_call_FooByCallStatic_disposeInternal(JNIEnv* env, jclass jcls, jlong handle) {
-    delete reinterpret_cast<jnibench::Foo*>(handle);
+    JNIBENCH_PROFILE_SCOPE(TOTAL);
+    JNIBENCH_PROFILE(NATIVE_DATA, delete reinterpret_cast<jnibench::Foo*>(handle));
 }
\ No newline at end of file
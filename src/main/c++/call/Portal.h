@@ -27,6 +27,8 @@
 #include <assert.h>
 #include <jni.h>
 
+#include "../profile/NativeProfile.h"
+
 namespace jnibench {
 
 // Native class template
@@ -34,7 +36,7 @@ template<class PTR, class DERIVED> class FooJniClass {
  public:
   // Get the java class id
   static jclass getJClass(JNIEnv* env, const char* jclazz_name) {
-    jclass jclazz = env->FindClass(jclazz_name);
+    jclass jclazz = JNIBENCH_PROFILE(LOOKUP, env->FindClass(jclazz_name));
     assert(jclazz != nullptr);
     return jclazz;
   }
@@ -0,0 +1,130 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+
+#include "com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap.h"
+#include "FooObjectMap.h"
+#include "../array/FooObject.h"
+#include "../array/Portal.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap
+ * Method:    newFooObjectMap
+ * Signature: ([Lcom/evolvedbinary/jnibench/common/array/FooObject;I)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap_newFooObjectMap
+  (JNIEnv *env, jclass, jobjectArray object_array, jint kind) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return 0;
+  }
+  jfieldID name_field_id = FooObjectJni::getNameField(env, jfoo_obj_clazz);
+  jfieldID value_field_id = FooObjectJni::getValueField(env, jfoo_obj_clazz);
+
+  auto* cpp_map = new jnibench::FooObjectMap(static_cast<jnibench::FooObjectMap::Kind>(kind));
+  for (jsize i = 0; i < env->GetArrayLength(object_array); ++i) {
+    jobject obj = env->GetObjectArrayElement(object_array, i);
+    jstring jname = (jstring) env->GetObjectField(obj, name_field_id);
+    const char *native_name = env->GetStringUTFChars(jname, nullptr);
+    if (native_name == nullptr) {
+      // exception thrown: OutOfMemoryError
+      delete cpp_map;
+      return 0;
+    }
+    cpp_map->Put(std::string(native_name), static_cast<int64_t>(env->GetLongField(obj, value_field_id)));
+    env->ReleaseStringUTFChars(jname, native_name);
+    env->DeleteLocalRef(jname);
+    env->DeleteLocalRef(obj);
+  }
+  return reinterpret_cast<jlong>(cpp_map);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap
+ * Method:    getSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap_getSize
+  (JNIEnv *, jclass, jlong handle) {
+  const auto& cpp_map = *reinterpret_cast<jnibench::FooObjectMap*>(handle);
+  return static_cast<jlong>(cpp_map.Size());
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap
+ * Method:    forEach
+ * Signature: (JLjava/util/function/Consumer;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap_forEach
+  (JNIEnv *env, jclass, jlong handle, jobject jaction) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return;
+  }
+  jmethodID accept_mid = ConsumerJni::getAcceptMethodId(env);
+  if (accept_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  const auto& cpp_map = *reinterpret_cast<jnibench::FooObjectMap*>(handle);
+  cpp_map.ForEach([env, jfoo_obj_clazz, accept_mid, jaction](const std::string& name, const int64_t value) {
+    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, jnibench::FooObject(name, value));
+    if (jfoo_obj == nullptr) {
+      // exception occurred constructing object
+      return false;
+    }
+    env->CallVoidMethod(jaction, accept_mid, jfoo_obj);
+    env->DeleteLocalRef(jfoo_obj);
+    // exception thrown by the action
+    return !env->ExceptionCheck();
+  });
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap
+ * Method:    getNativeSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap_getNativeSize
+  (JNIEnv *, jclass, jlong handle) {
+  const auto& cpp_map = *reinterpret_cast<jnibench::FooObjectMap*>(handle);
+  return static_cast<jlong>(cpp_map.NativeBytes());
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap
+ * Method:    disposeInternal
+ * Signature: (J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_collection_FooNativeObjectMap_disposeInternal
+  (JNIEnv *, jclass, jlong handle) {
+  auto* cpp_map = reinterpret_cast<jnibench::FooObjectMap*>(handle);
+  delete cpp_map;
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef FOO_OBJECT_MAP_H_
+#define FOO_OBJECT_MAP_H_
+
+#include <cstdint>
+#include <map>
+#include <string>
+#include <unordered_map>
+
+#include "../array/NativeMemory.h"
+
+namespace jnibench {
+
+/**
+ * A map of FooObject names to values, held in either
+ * a std::map or a std::unordered_map.
+ */
+class FooObjectMap {
+  public:
+    /**
+     * The kind of container, the values are shared with
+     * com.evolvedbinary.jnibench.common.collection.FooNativeObjectMap.Kind.
+     */
+    enum Kind {
+      ORDERED = 0,
+      UNORDERED = 1
+    };
+
+    explicit FooObjectMap(const Kind k) : kind(k) {}
+
+    void Put(const std::string& name, const int64_t value) {
+      if (kind == ORDERED) {
+        ordered[name] = value;
+      } else {
+        unordered[name] = value;
+      }
+    }
+
+    size_t Size() const {
+      return kind == ORDERED ? ordered.size() : unordered.size();
+    }
+
+    /**
+     * Estimate the native bytes of the map, assuming that each node of a std::map
+     * has three pointers and a color, and each node of a std::unordered_map has
+     * a next pointer and a cached hash.
+     */
+    size_t NativeBytes() const {
+      size_t bytes = sizeof(*this);
+      if (kind == ORDERED) {
+        for (const auto& entry : ordered) {
+          bytes += 4 * sizeof(void*) + sizeof(entry) + StringHeapBytes(entry.first);
+        }
+      } else {
+        bytes += unordered.bucket_count() * sizeof(void*);
+        for (const auto& entry : unordered) {
+          bytes += sizeof(void*) + sizeof(size_t) + sizeof(entry) + StringHeapBytes(entry.first);
+        }
+      }
+      return bytes;
+    }
+
+    /**
+     * Visit each entry of the map in the iteration order of its container.
+     *
+     * @param visitor called with the name and value of each entry, returns
+     *     false to stop visiting
+     *
+     * @return true if all entries were visited, false if the visitor stopped early
+     */
+    template <typename Visitor>
+    bool ForEach(Visitor visitor) const {
+      if (kind == ORDERED) {
+        return ForEach(ordered, visitor);
+      } else {
+        return ForEach(unordered, visitor);
+      }
+    }
+
+  private:
+    template <typename Container, typename Visitor>
+    static bool ForEach(const Container& container, Visitor& visitor) {
+      for (const auto& entry : container) {
+        if (!visitor(entry.first, entry.second)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    const Kind kind;
+    std::map<std::string, int64_t> ordered;
+    std::unordered_map<std::string, int64_t> unordered;
+};
+
+}  // namespace jnibench
+
+#endif  // FOO_OBJECT_MAP_H_
@@ -0,0 +1,72 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+
+#include "com_evolvedbinary_jnibench_common_collection_ObjectArrayCollectionSupplier.h"
+#include "FooObjectMap.h"
+#include "../array/FooObject.h"
+#include "../array/Portal.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_ObjectArrayCollectionSupplier
+ * Method:    getObjects
+ * Signature: (J)[Lcom/evolvedbinary/jnibench/common/array/FooObject;
+ */
+jobjectArray Java_com_evolvedbinary_jnibench_common_collection_ObjectArrayCollectionSupplier_getObjects
+  (JNIEnv *env, jclass, jlong handle) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return nullptr;
+  }
+
+  const auto& cpp_map = *reinterpret_cast<jnibench::FooObjectMap*>(handle);
+  jobjectArray jfoo_objs = env->NewObjectArray(static_cast<jsize>(cpp_map.Size()), jfoo_obj_clazz, nullptr);
+  if (jfoo_objs == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return nullptr;
+  }
+
+  jsize i = 0;
+  const bool complete = cpp_map.ForEach(
+      [env, jfoo_obj_clazz, jfoo_objs, &i](const std::string& name, const int64_t value) {
+    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, jnibench::FooObject(name, value));
+    if (jfoo_obj == nullptr) {
+      // exception occurred constructing object
+      return false;
+    }
+    env->SetObjectArrayElement(jfoo_objs, i++, jfoo_obj);
+    env->DeleteLocalRef(jfoo_obj);
+    return true;
+  });
+
+  if (!complete) {
+    env->DeleteLocalRef(jfoo_objs);
+    return nullptr;
+  }
+  return jfoo_objs;
+}
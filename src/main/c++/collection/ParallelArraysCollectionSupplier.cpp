@@ -0,0 +1,63 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_collection_ParallelArraysCollectionSupplier.h"
+#include "FooObjectMap.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_ParallelArraysCollectionSupplier
+ * Method:    getColumns
+ * Signature: (J[Ljava/lang/String;[J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_collection_ParallelArraysCollectionSupplier_getColumns
+  (JNIEnv *env, jclass, jlong handle, jobjectArray jnames, jlongArray jvalues) {
+  const auto& cpp_map = *reinterpret_cast<jnibench::FooObjectMap*>(handle);
+
+  // the values are staged natively and copied in a single call
+  std::vector<jlong> values;
+  values.reserve(cpp_map.Size());
+
+  jsize i = 0;
+  const bool complete = cpp_map.ForEach(
+      [env, jnames, &values, &i](const std::string& name, const int64_t value) {
+    jstring jname = env->NewStringUTF(name.c_str());
+    if (jname == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return false;
+    }
+    env->SetObjectArrayElement(jnames, i++, jname);
+    env->DeleteLocalRef(jname);
+    values.push_back(static_cast<jlong>(value));
+    return true;
+  });
+
+  if (complete) {
+    env->SetLongArrayRegion(jvalues, 0, static_cast<jsize>(values.size()), values.data());
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+
+#include "com_evolvedbinary_jnibench_common_collection_UpcallCollectionSupplier.h"
+#include "FooObjectMap.h"
+#include "../array/FooObject.h"
+#include "../array/Portal.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_UpcallCollectionSupplier
+ * Method:    putEach
+ * Signature: (JLjava/util/Map;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_collection_UpcallCollectionSupplier_putEach
+  (JNIEnv *env, jclass, jlong handle, jobject jmap) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return;
+  }
+  jmethodID ctor = FooObjectJni::getConstructor(env, jfoo_obj_clazz);
+  jmethodID put_mid = MapJni::getPutMethodId(env);
+  if (ctor == nullptr || put_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  const auto& cpp_map = *reinterpret_cast<jnibench::FooObjectMap*>(handle);
+  cpp_map.ForEach([env, jfoo_obj_clazz, ctor, put_mid, jmap](const std::string& name, const int64_t value) {
+    // the name is shared by the key and the FooObject, as it would be in Java
+    jstring jname = env->NewStringUTF(name.c_str());
+    if (jname == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return false;
+    }
+    jobject jfoo_obj = env->NewObject(jfoo_obj_clazz, ctor, jname, static_cast<jlong>(value));
+    if (jfoo_obj == nullptr) {
+      // exception occurred constructing object
+      env->DeleteLocalRef(jname);
+      return false;
+    }
+
+    jobject jprevious = env->CallObjectMethod(jmap, put_mid, jname, jfoo_obj);
+    env->DeleteLocalRef(jfoo_obj);
+    env->DeleteLocalRef(jname);
+    if (env->ExceptionCheck()) {
+      // exception occurred calling method
+      return false;
+    }
+    if (jprevious != nullptr) {
+      env->DeleteLocalRef(jprevious);
+    }
+    return true;
+  });
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_collection_UpcallCollectionSupplier
+ * Method:    addEach
+ * Signature: (JLjava/util/Collection;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_collection_UpcallCollectionSupplier_addEach
+  (JNIEnv *env, jclass, jlong handle, jobject jcollection) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return;
+  }
+  jmethodID add_mid = CollectionJni::getAddMethodId(env);
+  if (add_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  const auto& cpp_map = *reinterpret_cast<jnibench::FooObjectMap*>(handle);
+  cpp_map.ForEach([env, jfoo_obj_clazz, add_mid, jcollection](const std::string& name, const int64_t value) {
+    jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, jnibench::FooObject(name, value));
+    if (jfoo_obj == nullptr) {
+      // exception occurred constructing object
+      return false;
+    }
+
+    env->CallBooleanMethod(jcollection, add_mid, jfoo_obj);
+    env->DeleteLocalRef(jfoo_obj);
+    // exception occurred calling method
+    return !env->ExceptionCheck();
+  });
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef ERROR_PORTAL_H_
+#define ERROR_PORTAL_H_
+
+#include <jni.h>
+#include <assert.h>
+
+class NativeOperationExceptionJni {
+ public:
+  /**
+   * Get a global reference to the Java Class
+   * com.evolvedbinary.jnibench.common.error.NativeOperationException
+   *
+   * The class is only looked up on the first call.
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The Java Class
+   */
+  static jclass getJClass(JNIEnv* env) {
+    static jclass jclazz = static_cast<jclass>(env->NewGlobalRef(
+        env->FindClass("com/evolvedbinary/jnibench/common/error/NativeOperationException")));
+    assert(jclazz != nullptr);
+    return jclazz;
+  }
+
+  /**
+   * Get a global reference to the pre-allocated exception instance
+   * NativeOperationException#PREALLOCATED
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return The exception instance
+   */
+  static jthrowable getPreallocated(JNIEnv* env) {
+    static jthrowable jpreallocated = newPreallocatedRef(env);
+    assert(jpreallocated != nullptr);
+    return jpreallocated;
+  }
+
+  /**
+   * Create and throw a new NativeOperationException.
+   *
+   * @param env A pointer to the Java environment
+   * @param msg The message for the exception
+   *
+   * @return true if the exception was thrown, false otherwise
+   */
+  static bool ThrowNew(JNIEnv* env, const char* msg) {
+    return env->ThrowNew(getJClass(env), msg) == JNI_OK;
+  }
+
+  /**
+   * Throw the pre-allocated NativeOperationException.
+   *
+   * @param env A pointer to the Java environment
+   *
+   * @return true if the exception was thrown, false otherwise
+   */
+  static bool ThrowPreallocated(JNIEnv* env) {
+    return env->Throw(getPreallocated(env)) == JNI_OK;
+  }
+
+ private:
+  static jthrowable newPreallocatedRef(JNIEnv* env) {
+    jclass jclazz = getJClass(env);
+    jfieldID fid = env->GetStaticFieldID(jclazz, "PREALLOCATED",
+        "Lcom/evolvedbinary/jnibench/common/error/NativeOperationException;");
+    assert(fid != nullptr);
+    jobject jpreallocated = env->GetStaticObjectField(jclazz, fid);
+    jthrowable jref = static_cast<jthrowable>(env->NewGlobalRef(jpreallocated));
+    env->DeleteLocalRef(jpreallocated);
+    return jref;
+  }
+};
+
+#endif  // ERROR_PORTAL_H_
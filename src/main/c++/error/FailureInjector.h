@@ -0,0 +1,96 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef FAILURE_INJECTOR_H_
+#define FAILURE_INJECTOR_H_
+
+#include <atomic>
+#include <cstdint>
+
+namespace jnibench {
+
+/**
+ * The status codes shared with com.evolvedbinary.jnibench.common.error.Status.
+ */
+enum Status {
+  OK = 0,
+  FAILED = 1,
+  OUT_OF_MEMORY = 2
+};
+
+/**
+ * Decides whether an operation should fail, at a rate shared by all threads.
+ *
+ * Each thread draws from its own xorshift generator, so
+ * that deciding does not contend between threads. The generators
+ * are seeded differently, so that each thread fails independently.
+ */
+class FailureInjector {
+  public:
+    /**
+     * @param rate the probability of failure, from 0 (never) to 1 (always)
+     */
+    static void SetFailureRate(const double rate) {
+      Threshold().store(static_cast<uint64_t>(rate * 4294967296.0), std::memory_order_relaxed);
+    }
+
+    static bool ShouldFail() {
+      const uint64_t threshold = Threshold().load(std::memory_order_relaxed);
+      return threshold != 0 && (Next() & 0xFFFFFFFF) < threshold;
+    }
+
+  private:
+    static std::atomic<uint64_t>& Threshold() {
+      static std::atomic<uint64_t> threshold(0);
+      return threshold;
+    }
+
+    /**
+     * A distinct seed for each thread, by a splitmix64 step
+     * of a counter shared by all threads.
+     */
+    static uint64_t Seed() {
+      static std::atomic<uint64_t> counter(0);
+      uint64_t z = counter.fetch_add(0x9E3779B97F4A7C15ULL, std::memory_order_relaxed) + 0x9E3779B97F4A7C15ULL;
+      z = (z ^ (z >> 30)) * 0xBF58476D1CE4E5B9ULL;
+      z = (z ^ (z >> 27)) * 0x94D049BB133111EBULL;
+      z ^= z >> 31;
+      // xorshift must not start from zero
+      return z != 0 ? z : 0x9E3779B97F4A7C15ULL;
+    }
+
+    static uint64_t Next() {
+      thread_local uint64_t state = Seed();
+      state ^= state << 13;
+      state ^= state >> 7;
+      state ^= state << 17;
+      return state;
+    }
+};
+
+}  // namespace jnibench
+
+#endif  // FAILURE_INJECTOR_H_
@@ -0,0 +1,224 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_error_FallibleOperations.h"
+#include "ErrorPortal.h"
+#include "FailureInjector.h"
+#include "../array/FooObject.h"
+#include "../array/Portal.h"
+
+namespace {
+
+/**
+ * Get an object from a native array.
+ *
+ * @return the object, or nullptr if the index is out of range
+ *     or an injected failure occurred
+ */
+const jnibench::FooObject* Fetch(const jlong handle, const jint index) {
+  const auto& cpp_array = *reinterpret_cast<std::vector<jnibench::FooObject>*>(handle);
+  if (index < 0 || static_cast<size_t>(index) >= cpp_array.size() || jnibench::FailureInjector::ShouldFail()) {
+    return nullptr;
+  }
+  return &cpp_array[static_cast<size_t>(index)];
+}
+
+/**
+ * Construct a native object.
+ *
+ * @return the object, or nullptr if an exception
+ *     or an injected failure occurred
+ */
+jnibench::FooObject* Construct(JNIEnv* env, jstring jname, const jlong value) {
+  if (jnibench::FailureInjector::ShouldFail()) {
+    return nullptr;
+  }
+  const char* name = env->GetStringUTFChars(jname, nullptr);
+  if (name == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return nullptr;
+  }
+  auto* foo_obj = new jnibench::FooObject(std::string(name), static_cast<int64_t>(value));
+  env->ReleaseStringUTFChars(jname, name);
+  return foo_obj;
+}
+
+jobject NewJavaFooObject(JNIEnv* env, const jnibench::FooObject& foo_obj) {
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return nullptr;
+  }
+  jobject jfoo_obj = FooObjectJni::construct(env, jfoo_obj_clazz, foo_obj);
+  env->DeleteLocalRef(jfoo_obj_clazz);
+  return jfoo_obj;
+}
+
+}  // namespace
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    fetchThrowNew
+ * Signature: (JI)Lcom/evolvedbinary/jnibench/common/array/FooObject;
+ */
+jobject Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_fetchThrowNew
+  (JNIEnv *env, jclass, jlong handle, jint index) {
+  const auto* foo_obj = Fetch(handle, index);
+  if (foo_obj == nullptr) {
+    NativeOperationExceptionJni::ThrowNew(env, "Fetch failed");
+    return nullptr;
+  }
+  return NewJavaFooObject(env, *foo_obj);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    fetchPreallocated
+ * Signature: (JI)Lcom/evolvedbinary/jnibench/common/array/FooObject;
+ */
+jobject Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_fetchPreallocated
+  (JNIEnv *env, jclass, jlong handle, jint index) {
+  const auto* foo_obj = Fetch(handle, index);
+  if (foo_obj == nullptr) {
+    NativeOperationExceptionJni::ThrowPreallocated(env);
+    return nullptr;
+  }
+  return NewJavaFooObject(env, *foo_obj);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    fetchStatus
+ * Signature: (JI[Lcom/evolvedbinary/jnibench/common/array/FooObject;)I
+ */
+jint Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_fetchStatus
+  (JNIEnv *env, jclass, jlong handle, jint index, jobjectArray jresult) {
+  const auto* foo_obj = Fetch(handle, index);
+  if (foo_obj == nullptr) {
+    return jnibench::FAILED;
+  }
+  jobject jfoo_obj = NewJavaFooObject(env, *foo_obj);
+  if (jfoo_obj == nullptr) {
+    // report the OutOfMemoryError by status rather than exception
+    env->ExceptionClear();
+    return jnibench::OUT_OF_MEMORY;
+  }
+  env->SetObjectArrayElement(jresult, 0, jfoo_obj);
+  env->DeleteLocalRef(jfoo_obj);
+  return jnibench::OK;
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    fetchSentinel
+ * Signature: (JI)Lcom/evolvedbinary/jnibench/common/array/FooObject;
+ */
+jobject Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_fetchSentinel
+  (JNIEnv *env, jclass, jlong handle, jint index) {
+  const auto* foo_obj = Fetch(handle, index);
+  if (foo_obj == nullptr) {
+    return nullptr;
+  }
+  return NewJavaFooObject(env, *foo_obj);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    constructThrowNew
+ * Signature: (Ljava/lang/String;J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_constructThrowNew
+  (JNIEnv *env, jclass, jstring jname, jlong value) {
+  auto* foo_obj = Construct(env, jname, value);
+  if (foo_obj == nullptr) {
+    if (!env->ExceptionCheck()) {
+      NativeOperationExceptionJni::ThrowNew(env, "Construct failed");
+    }
+    return 0;
+  }
+  return reinterpret_cast<jlong>(foo_obj);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    constructPreallocated
+ * Signature: (Ljava/lang/String;J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_constructPreallocated
+  (JNIEnv *env, jclass, jstring jname, jlong value) {
+  auto* foo_obj = Construct(env, jname, value);
+  if (foo_obj == nullptr) {
+    if (!env->ExceptionCheck()) {
+      NativeOperationExceptionJni::ThrowPreallocated(env);
+    }
+    return 0;
+  }
+  return reinterpret_cast<jlong>(foo_obj);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    constructStatus
+ * Signature: (Ljava/lang/String;J[J)I
+ */
+jint Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_constructStatus
+  (JNIEnv *env, jclass, jstring jname, jlong value, jlongArray jresult) {
+  auto* foo_obj = Construct(env, jname, value);
+  if (foo_obj == nullptr) {
+    if (env->ExceptionCheck()) {
+      // report the OutOfMemoryError by status rather than exception
+      env->ExceptionClear();
+      return jnibench::OUT_OF_MEMORY;
+    }
+    return jnibench::FAILED;
+  }
+  const jlong jhandle = reinterpret_cast<jlong>(foo_obj);
+  env->SetLongArrayRegion(jresult, 0, 1, &jhandle);
+  return jnibench::OK;
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    constructSentinel
+ * Signature: (Ljava/lang/String;J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_constructSentinel
+  (JNIEnv *env, jclass, jstring jname, jlong value) {
+  return reinterpret_cast<jlong>(Construct(env, jname, value));
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_FallibleOperations
+ * Method:    dispose
+ * Signature: (J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_error_FallibleOperations_dispose
+  (JNIEnv *, jclass, jlong handle) {
+  delete reinterpret_cast<jnibench::FooObject*>(handle);
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_error_StatusGet2DArray.h"
+#include "FailureInjector.h"
+#include "../array/FooObject.h"
+#include "../array/FooObjectArena.h"
+
+template <typename FooArray>
+static jint GetArrays(JNIEnv *env, const FooArray& foo_array, jobjectArray jnames, jlongArray jvalues) {
+  const jsize len = static_cast<jsize>(foo_array.Size());
+
+  // the values are staged natively and copied in a single call
+  std::vector<jlong> values(foo_array.Size());
+  for (jsize i = 0; i < len; i++) {
+    const size_t index = static_cast<size_t>(i);
+    jstring jname = env->NewStringUTF(foo_array.GetName(index));
+    if (jname == nullptr) {
+      // report the OutOfMemoryError by status rather than exception
+      env->ExceptionClear();
+      return jnibench::OUT_OF_MEMORY;
+    }
+    env->SetObjectArrayElement(jnames, i, jname);
+    env->DeleteLocalRef(jname);
+    values[index] = static_cast<jlong>(foo_array.GetValue(index));
+  }
+  env->SetLongArrayRegion(jvalues, 0, len, values.data());
+
+  return jnibench::OK;
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_error_StatusGet2DArray
+ * Method:    getArrays
+ * Signature: (J[Ljava/lang/String;[J)I
+ */
+jint Java_com_evolvedbinary_jnibench_common_error_StatusGet2DArray_getArrays
+  (JNIEnv *env, jclass, jlong handle, jobjectArray jnames, jlongArray jvalues) {
+  if (jnibench::FailureInjector::ShouldFail()) {
+    return jnibench::FAILED;
+  }
+
+  if (jnibench::IsFooObjectArena(handle)) {
+    return GetArrays(env, *jnibench::FooObjectArenaFromHandle(handle), jnames, jvalues);
+  }
+  return GetArrays(env, jnibench::FooObjectVectorFromHandle(handle), jnames, jvalues);
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+
+#include "com_evolvedbinary_jnibench_common_producer_NativeProducerPool.h"
+#include "ProducerPool.h"
+#include "../array/FooObject.h"
+#include "../array/Portal.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_producer_NativeProducerPool
+ * Method:    newProducerPool
+ * Signature: (II)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_producer_NativeProducerPool_newProducerPool
+  (JNIEnv *env, jclass, jint threads, jint attach_mode) {
+  JavaVM* jvm = nullptr;
+  if (env->GetJavaVM(&jvm) != JNI_OK) {
+    env->ThrowNew(JavaClass::getJClass(env, "java/lang/IllegalStateException"), "Unable to get the JavaVM");
+    return 0;
+  }
+  auto* pool = new jnibench::ProducerPool(jvm, static_cast<size_t>(threads),
+      static_cast<jnibench::AttachMode>(attach_mode));
+  return reinterpret_cast<jlong>(pool);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_producer_NativeProducerPool
+ * Method:    produce
+ * Signature: (JLjava/util/function/Consumer;I)V
+ */
+void Java_com_evolvedbinary_jnibench_common_producer_NativeProducerPool_produce
+  (JNIEnv *env, jclass, jlong handle, jobject jsink, jint objects_per_thread) {
+  // classes are resolved here, as FindClass on a native thread only sees the system class loader
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return;
+  }
+  jmethodID ctor = FooObjectJni::getConstructor(env, jfoo_obj_clazz);
+  jmethodID accept_mid = ConsumerJni::getAcceptMethodId(env);
+  if (ctor == nullptr || accept_mid == nullptr) {
+    // exception occurred accessing method
+    return;
+  }
+
+  auto* pool = reinterpret_cast<jnibench::ProducerPool*>(handle);
+  if (!pool->Produce(env, jsink, jfoo_obj_clazz, ctor, accept_mid, objects_per_thread)
+      && !env->ExceptionCheck()) {
+    env->ThrowNew(JavaClass::getJClass(env, "java/lang/IllegalStateException"),
+        "Unable to attach a producer thread to the JVM");
+  }
+  env->DeleteLocalRef(jfoo_obj_clazz);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_producer_NativeProducerPool
+ * Method:    disposeInternal
+ * Signature: (J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_producer_NativeProducerPool_disposeInternal
+  (JNIEnv *, jclass, jlong handle) {
+  auto* pool = reinterpret_cast<jnibench::ProducerPool*>(handle);
+  delete pool;
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef PRODUCER_POOL_H_
+#define PRODUCER_POOL_H_
+
+#include <jni.h>
+#include <condition_variable>
+#include <cstdint>
+#include <mutex>
+#include <string>
+#include <thread>
+#include <vector>
+
+namespace jnibench {
+
+/**
+ * The ways of attaching to the JVM, the values are shared with
+ * com.evolvedbinary.jnibench.common.producer.AttachMode.
+ */
+enum AttachMode {
+  ATTACH_PER_CALL = 0,
+  ATTACH_ONCE = 1,
+  ATTACH_AS_DAEMON = 2
+};
+
+/**
+ * Detaches the current thread from the JVM when the thread exits,
+ * if it was attached by AttachOnce.
+ */
+struct AttachedThread {
+  JavaVM* jvm = nullptr;
+  JNIEnv* env = nullptr;
+
+  ~AttachedThread() {
+    if (env != nullptr) {
+      jvm->DetachCurrentThread();
+    }
+  }
+};
+
+/**
+ * Attach the current thread to the JVM, if it is not already attached.
+ *
+ * @return the JNIEnv of the current thread, or nullptr if it could not be attached
+ */
+inline JNIEnv* AttachOnce(JavaVM* jvm, JavaVMAttachArgs* args, const bool daemon) {
+  thread_local AttachedThread attached;
+  if (attached.env == nullptr) {
+    void* env = nullptr;
+    const jint rs = daemon
+        ? jvm->AttachCurrentThreadAsDaemon(&env, args)
+        : jvm->AttachCurrentThread(&env, args);
+    if (rs != JNI_OK) {
+      return nullptr;
+    }
+    attached.jvm = jvm;
+    attached.env = static_cast<JNIEnv*>(env);
+  }
+  return attached.env;
+}
+
+/**
+ * A pool of threads which produce FooObjects and deliver them to a
+ * java.util.function.Consumer, attaching to the JVM by an AttachMode.
+ */
+class ProducerPool {
+  public:
+    ProducerPool(JavaVM* jvm, const size_t threads, const AttachMode mode) : jvm(jvm), mode(mode) {
+      for (size_t i = 0; i < threads; i++) {
+        workers.push_back(std::thread(&ProducerPool::Run, this, i));
+      }
+    }
+
+    ~ProducerPool() {
+      {
+        std::lock_guard<std::mutex> lock(mutex);
+        stopping = true;
+      }
+      job_cv.notify_all();
+      for (auto& worker : workers) {
+        worker.join();
+      }
+    }
+
+    /**
+     * Have each thread produce objects and deliver them to the sink,
+     * blocking until all of the threads have finished.
+     *
+     * @param env the JNIEnv of the calling thread
+     * @param jsink the java.util.function.Consumer
+     * @param objects_per_thread the number of objects produced by each thread
+     *
+     * @return false if a thread could not attach to the JVM, true otherwise.
+     *     If the sink threw an exception, it is left pending in the calling thread.
+     */
+    bool Produce(JNIEnv* env, jobject jsink, jclass jfoo_obj_clazz, jmethodID ctor, jmethodID accept_mid,
+        const int32_t objects_per_thread) {
+      std::lock_guard<std::mutex> produce_lock(produce_mutex);
+
+      std::unique_lock<std::mutex> lock(mutex);
+      job.jsink = env->NewGlobalRef(jsink);
+      job.jfoo_obj_clazz = static_cast<jclass>(env->NewGlobalRef(jfoo_obj_clazz));
+      job.ctor = ctor;
+      job.accept_mid = accept_mid;
+      job.objects_per_thread = objects_per_thread;
+      remaining = workers.size();
+      generation++;
+      job_cv.notify_all();
+      done_cv.wait(lock, [this] { return remaining == 0; });
+
+      env->DeleteGlobalRef(job.jfoo_obj_clazz);
+      env->DeleteGlobalRef(job.jsink);
+      if (jerror != nullptr) {
+        env->Throw(jerror);
+        env->DeleteGlobalRef(jerror);
+        jerror = nullptr;
+      }
+      const bool attached = !attach_failed;
+      attach_failed = false;
+      return attached;
+    }
+
+  private:
+    struct Job {
+      jobject jsink = nullptr;
+      jclass jfoo_obj_clazz = nullptr;
+      jmethodID ctor = nullptr;
+      jmethodID accept_mid = nullptr;
+      int32_t objects_per_thread = 0;
+    };
+
+    void Run(const size_t index) {
+      const std::string thread_name = "jnibench-producer-" + std::to_string(index);
+      JavaVMAttachArgs args;
+      args.version = JNI_VERSION_1_6;
+      args.name = const_cast<char*>(thread_name.c_str());
+      args.group = nullptr;
+
+      uint64_t seen = 0;
+      while (true) {
+        Job current;
+        {
+          std::unique_lock<std::mutex> lock(mutex);
+          job_cv.wait(lock, [this, seen] { return stopping || generation != seen; });
+          if (stopping) {
+            return;
+          }
+          seen = generation;
+          current = job;
+        }
+
+        Deliver(index, current, &args);
+
+        {
+          std::lock_guard<std::mutex> lock(mutex);
+          if (--remaining == 0) {
+            done_cv.notify_all();
+          }
+        }
+      }
+    }
+
+    void Deliver(const size_t index, const Job& current, JavaVMAttachArgs* args) {
+      for (int32_t i = 0; i < current.objects_per_thread; i++) {
+        JNIEnv* env = nullptr;
+        if (mode == ATTACH_PER_CALL) {
+          void* penv = nullptr;
+          if (jvm->AttachCurrentThread(&penv, args) == JNI_OK) {
+            env = static_cast<JNIEnv*>(penv);
+          }
+        } else {
+          env = AttachOnce(jvm, args, mode == ATTACH_AS_DAEMON);
+        }
+        if (env == nullptr) {
+          std::lock_guard<std::mutex> lock(mutex);
+          attach_failed = true;
+          return;
+        }
+
+        const int64_t value = static_cast<int64_t>(index) * current.objects_per_thread + i;
+        const bool delivered = DeliverOne(env, current, value);
+
+        if (mode == ATTACH_PER_CALL) {
+          jvm->DetachCurrentThread();
+        }
+        if (!delivered) {
+          return;
+        }
+      }
+    }
+
+    bool DeliverOne(JNIEnv* env, const Job& current, const int64_t value) {
+      jstring jname = env->NewStringUTF(("str" + std::to_string(value)).c_str());
+      if (jname != nullptr) {
+        jobject jfoo_obj = env->NewObject(current.jfoo_obj_clazz, current.ctor, jname, static_cast<jlong>(value));
+        if (jfoo_obj != nullptr) {
+          env->CallVoidMethod(current.jsink, current.accept_mid, jfoo_obj);
+          env->DeleteLocalRef(jfoo_obj);
+        }
+        env->DeleteLocalRef(jname);
+      }
+
+      jthrowable jthrown = env->ExceptionOccurred();
+      if (jthrown == nullptr) {
+        return true;
+      }
+
+      // the exception is moved to the thread which called Produce
+      env->ExceptionClear();
+      {
+        std::lock_guard<std::mutex> lock(mutex);
+        if (jerror == nullptr) {
+          jerror = static_cast<jthrowable>(env->NewGlobalRef(jthrown));
+        }
+      }
+      env->DeleteLocalRef(jthrown);
+      return false;
+    }
+
+    JavaVM* const jvm;
+    const AttachMode mode;
+    std::vector<std::thread> workers;
+
+    std::mutex produce_mutex;
+    std::mutex mutex;
+    std::condition_variable job_cv;
+    std::condition_variable done_cv;
+    bool stopping = false;
+    uint64_t generation = 0;
+    size_t remaining = 0;
+    Job job;
+    jthrowable jerror = nullptr;
+    bool attach_failed = false;
+};
+
+}  // namespace jnibench
+
+#endif  // PRODUCER_POOL_H_
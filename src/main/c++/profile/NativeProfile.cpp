@@ -0,0 +1,99 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+
+#include "com_evolvedbinary_jnibench_common_profile_NativeProfile.h"
+#include "NativeProfile.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_profile_NativeProfile
+ * Method:    isInstrumented
+ * Signature: ()Z
+ */
+jboolean Java_com_evolvedbinary_jnibench_common_profile_NativeProfile_isInstrumented
+  (JNIEnv *, jclass) {
+#ifdef JNIBENCH_INSTRUMENTED
+  return JNI_TRUE;
+#else
+  return JNI_FALSE;
+#endif
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_profile_NativeProfile
+ * Method:    resetHistograms
+ * Signature: ()V
+ */
+void Java_com_evolvedbinary_jnibench_common_profile_NativeProfile_resetHistograms
+  (JNIEnv *, jclass) {
+  for (int phase = 0; phase < jnibench::profile::PHASE_COUNT; phase++) {
+    jnibench::profile::GetHistogram(static_cast<jnibench::profile::Phase>(phase)).Reset();
+  }
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_profile_NativeProfile
+ * Method:    getHistogram
+ * Signature: (I)[J
+ */
+jlongArray Java_com_evolvedbinary_jnibench_common_profile_NativeProfile_getHistogram
+  (JNIEnv *env, jclass, jint phase) {
+  const jnibench::profile::Histogram& histogram =
+      jnibench::profile::GetHistogram(static_cast<jnibench::profile::Phase>(phase));
+
+  // count, total nanos, and then each bucket
+  jlong values[2 + jnibench::profile::BUCKET_COUNT];
+  values[0] = static_cast<jlong>(histogram.GetCount());
+  values[1] = static_cast<jlong>(histogram.GetTotalNanos());
+  for (int i = 0; i < jnibench::profile::BUCKET_COUNT; i++) {
+    values[2 + i] = static_cast<jlong>(histogram.GetBucket(i));
+  }
+
+  const jsize len = static_cast<jsize>(2 + jnibench::profile::BUCKET_COUNT);
+  jlongArray jvalues = env->NewLongArray(len);
+  if (jvalues == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return nullptr;
+  }
+  env->SetLongArrayRegion(jvalues, 0, len, values);
+  if (env->ExceptionCheck()) {
+    // exception thrown: ArrayIndexOutOfBoundsException
+    env->DeleteLocalRef(jvalues);
+    return nullptr;
+  }
+  return jvalues;
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_profile_NativeProfile
+ * Method:    measureOverhead
+ * Signature: (I)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_profile_NativeProfile_measureOverhead
+  (JNIEnv *, jclass, jint samples) {
+  return static_cast<jlong>(jnibench::profile::MeasureOverhead(static_cast<int>(samples)));
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef NATIVE_PROFILE_H_
+#define NATIVE_PROFILE_H_
+
+#include <atomic>
+#include <chrono>
+#include <cstdint>
+
+namespace jnibench {
+namespace profile {
+
+/**
+ * Timing of the phases of the array and call natives, so that the cost of
+ * each strategy can be attributed to the work that it does through JNI.
+ *
+ * The natives are only timed in an instrumented build, i.e. one where
+ * JNIBENCH_INSTRUMENTED is defined (see the instrumented Maven profile),
+ * otherwise JNIBENCH_PROFILE and JNIBENCH_PROFILE_SCOPE compile to nothing.
+ *
+ * Read from Java by com.evolvedbinary.jnibench.common.profile.NativeProfile.
+ */
+
+/**
+ * The phases of a native.
+ *
+ * NOTE: must be kept in sync with the Java NativePhase
+ */
+enum Phase {
+  // from entry to return of the native
+  TOTAL = 0,
+  // FindClass, GetMethodID and GetFieldID
+  LOOKUP = 1,
+  // reading from the native array, or allocating the native object
+  NATIVE_DATA = 2,
+  // NewStringUTF
+  STRING_CREATION = 3,
+  // creating and initialising a Java object or array
+  OBJECT_CREATION = 4,
+  // storing a reference or value into a Java array, List or field
+  STORE = 5,
+  PHASE_COUNT = 6
+};
+
+/**
+ * Bucket 0 counts durations of 0ns, and bucket b > 0
+ * counts durations of [2^(b-1), 2^b) ns.
+ */
+static const int BUCKET_COUNT = 64;
+
+/**
+ * A histogram of the durations of a phase, which may be
+ * recorded to concurrently.
+ */
+class Histogram {
+ public:
+  void Record(const uint64_t nanos) {
+    int bucket = 0;
+    for (uint64_t n = nanos; n != 0 && bucket < BUCKET_COUNT - 1; n >>= 1) {
+      bucket++;
+    }
+    count_.fetch_add(1, std::memory_order_relaxed);
+    total_nanos_.fetch_add(nanos, std::memory_order_relaxed);
+    buckets_[bucket].fetch_add(1, std::memory_order_relaxed);
+  }
+
+  void Reset() {
+    count_.store(0, std::memory_order_relaxed);
+    total_nanos_.store(0, std::memory_order_relaxed);
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets_[i].store(0, std::memory_order_relaxed);
+    }
+  }
+
+  uint64_t GetCount() const {
+    return count_.load(std::memory_order_relaxed);
+  }
+
+  uint64_t GetTotalNanos() const {
+    return total_nanos_.load(std::memory_order_relaxed);
+  }
+
+  uint64_t GetBucket(const int bucket) const {
+    return buckets_[bucket].load(std::memory_order_relaxed);
+  }
+
+ private:
+  std::atomic<uint64_t> count_;
+  std::atomic<uint64_t> total_nanos_;
+  std::atomic<uint64_t> buckets_[BUCKET_COUNT];
+};
+
+/**
+ * The histogram of each phase, shared by every native.
+ */
+inline Histogram& GetHistogram(const Phase phase) {
+  static Histogram histograms[PHASE_COUNT];
+  return histograms[phase];
+}
+
+inline uint64_t Now() {
+  return static_cast<uint64_t>(std::chrono::duration_cast<std::chrono::nanoseconds>(
+      std::chrono::steady_clock::now().time_since_epoch()).count());
+}
+
+/**
+ * The mean time between two consecutive reads of the clock, which is
+ * included in every duration measured by a Scope, however short its phase.
+ *
+ * Measured once, on first use.
+ */
+inline uint64_t ClockOverhead() {
+  static const uint64_t overhead = []() {
+    const int samples = 100000;
+    uint64_t total = 0;
+    for (int i = 0; i < samples; i++) {
+      const uint64_t start = Now();
+      total += Now() - start;
+    }
+    return total / samples;
+  }();
+  return overhead;
+}
+
+/**
+ * Records the time from its construction to its destruction against a phase,
+ * less the overhead of reading the clock, so that a phase which is much
+ * shorter than the clock, e.g. reading one element of a native array,
+ * is not reported as the time taken to read the clock.
+ */
+class Scope {
+ public:
+  explicit Scope(const Phase phase) : Scope(GetHistogram(phase)) {
+  }
+
+  explicit Scope(Histogram& histogram) : histogram_(histogram), overhead_(ClockOverhead()), start_(Now()) {
+  }
+
+  ~Scope() {
+    const uint64_t nanos = Now() - start_;
+    histogram_.Record(nanos > overhead_ ? nanos - overhead_ : 0);
+  }
+
+ private:
+  Histogram& histogram_;
+  const uint64_t overhead_;
+  const uint64_t start_;
+};
+
+/**
+ * Measures the mean cost of an empty Scope, which is the time that timing
+ * a phase adds to the duration of any phase that encloses it, e.g. TOTAL.
+ *
+ * @param samples the number of empty Scopes to time
+ *
+ * @return the mean overhead in nanoseconds
+ */
+inline uint64_t MeasureOverhead(const int samples) {
+  static Histogram calibration;
+  calibration.Reset();
+  ClockOverhead();
+  const uint64_t start = Now();
+  for (int i = 0; i < samples; i++) {
+    Scope scope(calibration);
+  }
+  return samples > 0 ? (Now() - start) / static_cast<uint64_t>(samples) : 0;
+}
+
+/**
+ * Evaluates a function, recording its duration against a phase.
+ */
+template <typename F>
+inline auto Timed(const Phase phase, F f) -> decltype(f()) {
+  Scope scope(phase);
+  return f();
+}
+
+} // namespace profile
+} // namespace jnibench
+
+#ifdef JNIBENCH_INSTRUMENTED
+
+#define JNIBENCH_PROFILE_CONCAT_(a, b) a##b
+#define JNIBENCH_PROFILE_CONCAT(a, b) JNIBENCH_PROFILE_CONCAT_(a, b)
+
+// Evaluates an expression, recording its duration against a phase,
+// e.g. JNIBENCH_PROFILE(STRING_CREATION, env->NewStringUTF(name))
+#define JNIBENCH_PROFILE(phase, ...) \
+    jnibench::profile::Timed(jnibench::profile::phase, [&]() { return __VA_ARGS__; })
+
+// Records the time until the end of the enclosing block against a phase
+#define JNIBENCH_PROFILE_SCOPE(phase) \
+    jnibench::profile::Scope JNIBENCH_PROFILE_CONCAT(profile_scope_, __LINE__)(jnibench::profile::phase)
+
+#else
+
+#define JNIBENCH_PROFILE(phase, ...) (__VA_ARGS__)
+#define JNIBENCH_PROFILE_SCOPE(phase)
+
+#endif
+
+#endif  // NATIVE_PROFILE_H_
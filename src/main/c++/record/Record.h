@@ -0,0 +1,204 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef RECORD_H_
+#define RECORD_H_
+
+#include <cstdint>
+#include <random>
+#include <string>
+#include <vector>
+
+#include "../array/FooObject.h"
+#include "../array/NativeMemory.h"
+
+namespace jnibench {
+
+/**
+ * The types of field which a Record may hold, the values
+ * are shared with com.evolvedbinary.jnibench.common.record.FieldType.
+ */
+enum RecordFieldType {
+  INT = 0,
+  LONG = 1,
+  DOUBLE = 2,
+  STRING = 3,
+  BYTES = 4,
+  NESTED = 5
+};
+
+/**
+ * Describes the fields of a Record. Each field is stored
+ * in a slot of the vector for its type, slots are assigned
+ * to the fields of each type in field order.
+ */
+struct RecordSchema {
+  // the type of each field, in field order
+  std::vector<RecordFieldType> fields;
+  size_t ints = 0;
+  size_t longs = 0;
+  size_t doubles = 0;
+  std::vector<bool> strings_nullable;
+  std::vector<bool> bytes_nullable;
+  std::vector<bool> nested_nullable;
+
+  void AddField(const RecordFieldType type, const bool nullable) {
+    fields.push_back(type);
+    switch (type) {
+      case INT:
+        ints++;
+        break;
+      case LONG:
+        longs++;
+        break;
+      case DOUBLE:
+        doubles++;
+        break;
+      case STRING:
+        strings_nullable.push_back(nullable);
+        break;
+      case BYTES:
+        bytes_nullable.push_back(nullable);
+        break;
+      case NESTED:
+        nested_nullable.push_back(nullable);
+        break;
+    }
+  }
+};
+
+/**
+ * A wide record, absent values of nullable fields
+ * are marked by false in the corresponding *_present vector.
+ */
+struct Record {
+  std::vector<int32_t> ints;
+  std::vector<int64_t> longs;
+  std::vector<double> doubles;
+  std::vector<std::string> strings;
+  std::vector<bool> strings_present;
+  std::vector<std::vector<int8_t>> bytes;
+  std::vector<bool> bytes_present;
+  std::vector<FooObject> nested;
+  std::vector<bool> nested_present;
+};
+
+/**
+ * Calls fn(type, slot) for each field of the schema, in field order.
+ */
+template <typename Fn>
+inline void ForEachField(const RecordSchema& schema, Fn fn) {
+  size_t slots[NESTED + 1] = {0};
+  for (const auto type : schema.fields) {
+    fn(type, slots[type]++);
+  }
+}
+
+struct RecordArray {
+  RecordSchema schema;
+  std::vector<Record> records;
+};
+
+/**
+ * Estimate the native bytes of a record array, including the
+ * field vectors of each record and their strings and byte arrays.
+ */
+inline size_t NativeBytes(const RecordArray& record_array) {
+  size_t bytes = sizeof(record_array) + VectorHeapBytes(record_array.records);
+  for (const auto& record : record_array.records) {
+    bytes += VectorHeapBytes(record.ints) + VectorHeapBytes(record.longs) + VectorHeapBytes(record.doubles)
+        + VectorHeapBytes(record.strings) + VectorHeapBytes(record.bytes) + VectorHeapBytes(record.nested)
+        + (record.strings_present.capacity() + record.bytes_present.capacity()
+            + record.nested_present.capacity()) / 8;
+    for (const auto& str : record.strings) {
+      bytes += StringHeapBytes(str);
+    }
+    for (const auto& value : record.bytes) {
+      bytes += VectorHeapBytes(value);
+    }
+    for (const auto& nested : record.nested) {
+      bytes += StringHeapBytes(nested.GetName());
+    }
+  }
+  return bytes;
+}
+
+/**
+ * Generates records with pseudo-random values.
+ *
+ * A quarter of the values of nullable fields are absent,
+ * strings are of the form "str<num>", and byte arrays
+ * are between 0 and 64 bytes long.
+ */
+inline RecordArray* GenerateRecordArray(const RecordSchema& schema, const size_t count, const uint64_t seed) {
+  std::mt19937_64 random(seed);
+  auto* record_array = new RecordArray();
+  record_array->schema = schema;
+  record_array->records.reserve(count);
+
+  for (size_t i = 0; i < count; i++) {
+    Record record;
+    for (size_t slot = 0; slot < schema.ints; slot++) {
+      record.ints.push_back(static_cast<int32_t>(random()));
+    }
+    for (size_t slot = 0; slot < schema.longs; slot++) {
+      record.longs.push_back(static_cast<int64_t>(random()));
+    }
+    for (size_t slot = 0; slot < schema.doubles; slot++) {
+      record.doubles.push_back(static_cast<double>(random()) / 3.0);
+    }
+    for (size_t slot = 0; slot < schema.strings_nullable.size(); slot++) {
+      const bool present = !schema.strings_nullable[slot] || random() % 4 != 0;
+      record.strings.push_back(present ? "str" + std::to_string(static_cast<int32_t>(random())) : std::string());
+      record.strings_present.push_back(present);
+    }
+    for (size_t slot = 0; slot < schema.bytes_nullable.size(); slot++) {
+      const bool present = !schema.bytes_nullable[slot] || random() % 4 != 0;
+      std::vector<int8_t> value;
+      if (present) {
+        const size_t len = static_cast<size_t>(random() % 65);
+        for (size_t b = 0; b < len; b++) {
+          value.push_back(static_cast<int8_t>(random()));
+        }
+      }
+      record.bytes.push_back(value);
+      record.bytes_present.push_back(present);
+    }
+    for (size_t slot = 0; slot < schema.nested_nullable.size(); slot++) {
+      const bool present = !schema.nested_nullable[slot] || random() % 4 != 0;
+      const int32_t num = static_cast<int32_t>(random());
+      record.nested.push_back(present ? FooObject("str" + std::to_string(num), num) : FooObject(std::string(), 0));
+      record.nested_present.push_back(present);
+    }
+    record_array->records.push_back(std::move(record));
+  }
+
+  return record_array;
+}
+
+}  // namespace jnibench
+
+#endif  // RECORD_H_
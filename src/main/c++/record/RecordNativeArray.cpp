@@ -0,0 +1,96 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+
+#include "com_evolvedbinary_jnibench_common_record_RecordNativeArray.h"
+#include "Record.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordNativeArray
+ * Method:    newRecordArray
+ * Signature: ([I[ZIJ)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_record_RecordNativeArray_newRecordArray
+  (JNIEnv *env, jclass, jintArray jtype_codes, jbooleanArray jnullable, jint count, jlong seed) {
+  const jsize width = env->GetArrayLength(jtype_codes);
+  jint* type_codes = env->GetIntArrayElements(jtype_codes, nullptr);
+  if (type_codes == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return 0;
+  }
+  jboolean* nullable = env->GetBooleanArrayElements(jnullable, nullptr);
+  if (nullable == nullptr) {
+    // exception thrown: OutOfMemoryError
+    env->ReleaseIntArrayElements(jtype_codes, type_codes, JNI_ABORT);
+    return 0;
+  }
+
+  jnibench::RecordSchema schema;
+  for (jsize i = 0; i < width; i++) {
+    schema.AddField(static_cast<jnibench::RecordFieldType>(type_codes[i]), nullable[i] == JNI_TRUE);
+  }
+
+  env->ReleaseBooleanArrayElements(jnullable, nullable, JNI_ABORT);
+  env->ReleaseIntArrayElements(jtype_codes, type_codes, JNI_ABORT);
+
+  auto* record_array = jnibench::GenerateRecordArray(schema, static_cast<size_t>(count),
+      static_cast<uint64_t>(seed));
+  return reinterpret_cast<jlong>(record_array);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordNativeArray
+ * Method:    getSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_record_RecordNativeArray_getSize
+  (JNIEnv *, jclass, jlong handle) {
+  const auto& record_array = *reinterpret_cast<jnibench::RecordArray*>(handle);
+  return static_cast<jlong>(record_array.records.size());
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordNativeArray
+ * Method:    getNativeSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_record_RecordNativeArray_getNativeSize
+  (JNIEnv *, jclass, jlong handle) {
+  const auto& record_array = *reinterpret_cast<jnibench::RecordArray*>(handle);
+  return static_cast<jlong>(jnibench::NativeBytes(record_array));
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordNativeArray
+ * Method:    disposeInternal
+ * Signature: (J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_record_RecordNativeArray_disposeInternal
+  (JNIEnv *, jclass, jlong handle) {
+  auto* record_array = reinterpret_cast<jnibench::RecordArray*>(handle);
+  delete record_array;
+}
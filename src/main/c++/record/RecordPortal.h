@@ -0,0 +1,235 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef RECORD_PORTAL_H_
+#define RECORD_PORTAL_H_
+
+#include <jni.h>
+#include <string>
+#include <vector>
+
+#include "Record.h"
+#include "../array/FooObject.h"
+#include "../array/Portal.h"
+
+/**
+ * The Java record classes, see com.evolvedbinary.jnibench.common.record.Record,
+ * have one field per field of their schema, named f0 to fN in field order,
+ * and a constructor taking every field in field order.
+ *
+ * Unlike FooObject there is one Java class per schema, so the IDs of the
+ * fields and constructor are looked up on each call rather than cached statically.
+ */
+class RecordJni : public JavaClass {
+ public:
+  /**
+   * Get the JNI type signature of a field of a Java record.
+   */
+  static const char* getFieldSignature(const jnibench::RecordFieldType type) {
+    switch (type) {
+      case jnibench::INT:
+        return "I";
+      case jnibench::LONG:
+        return "J";
+      case jnibench::DOUBLE:
+        return "D";
+      case jnibench::STRING:
+        return "Ljava/lang/String;";
+      case jnibench::BYTES:
+        return "[B";
+      case jnibench::NESTED:
+      default:
+        return "Lcom/evolvedbinary/jnibench/common/array/FooObject;";
+    }
+  }
+
+  /**
+   * Get the JNI signature of the parameters of the all-field constructor of a Java record.
+   */
+  static std::string getParameterSignature(const jnibench::RecordSchema& schema) {
+    std::string signature("(");
+    for (const auto type : schema.fields) {
+      signature += getFieldSignature(type);
+    }
+    signature += ")";
+    return signature;
+  }
+
+  /**
+   * Get the Java Method: the all-field constructor of a Java record class
+   *
+   * @return The Java Method ID or nullptr if an exception occurred
+   */
+  static jmethodID getConstructor(JNIEnv* env, jclass jclazz, const jnibench::RecordSchema& schema) {
+    const std::string signature = getParameterSignature(schema) + "V";
+    return JNIBENCH_PROFILE(LOOKUP, env->GetMethodID(jclazz, "<init>", signature.c_str()));
+  }
+
+  /**
+   * Get the Java Method: the static create factory of a Java record class,
+   * which takes every field in field order and returns a Record
+   *
+   * @return The Java Method ID or nullptr if an exception occurred
+   */
+  static jmethodID getFactoryMethod(JNIEnv* env, jclass jclazz, const jnibench::RecordSchema& schema) {
+    const std::string signature = getParameterSignature(schema)
+        + "Lcom/evolvedbinary/jnibench/common/record/Record;";
+    return JNIBENCH_PROFILE(LOOKUP, env->GetStaticMethodID(jclazz, "create", signature.c_str()));
+  }
+
+  /**
+   * Get the IDs of the fields f0 to fN of a Java record class.
+   *
+   * @return true on success, false if an exception occurred
+   */
+  static bool getFields(JNIEnv* env, jclass jclazz, const jnibench::RecordSchema& schema,
+      std::vector<jfieldID>* fids) {
+    fids->clear();
+    for (size_t field = 0; field < schema.fields.size(); field++) {
+      const std::string name = "f" + std::to_string(field);
+      jfieldID fid = JNIBENCH_PROFILE(LOOKUP,
+          env->GetFieldID(jclazz, name.c_str(), getFieldSignature(schema.fields[field])));
+      if (fid == nullptr) {
+        // exception thrown: NoSuchFieldError or OutOfMemoryError
+        return false;
+      }
+      fids->push_back(fid);
+    }
+    return true;
+  }
+
+  /**
+   * Create a new Java byte[] with the same content as the vector.
+   *
+   * @return the byte[] or nullptr if an exception occurred
+   */
+  static jbyteArray newByteArray(JNIEnv* env, const std::vector<int8_t>& bytes) {
+    const jsize len = static_cast<jsize>(bytes.size());
+    jbyteArray jbytes = env->NewByteArray(len);
+    if (jbytes == nullptr) {
+      // exception thrown: OutOfMemoryError
+      return nullptr;
+    }
+    env->SetByteArrayRegion(jbytes, 0, len, reinterpret_cast<const jbyte*>(bytes.data()));
+    return jbytes;
+  }
+
+  /**
+   * Convert the fields of a C++ record to JNI values, in field order.
+   *
+   * A local reference is created for each present value of a reference
+   * type, these must be released with deleteLocalRefs. Absent values are null.
+   *
+   * @return true on success, false if an exception occurred,
+   *     in which case no local references are held
+   */
+  static bool toJValues(JNIEnv* env, jclass jfoo_obj_clazz, const jnibench::RecordSchema& schema,
+      const jnibench::Record& record, std::vector<jvalue>* jvalues) {
+    jvalues->assign(schema.fields.size(), jvalue());
+    size_t field = 0;
+    bool ok = true;
+    jnibench::ForEachField(schema, [&](const jnibench::RecordFieldType type, const size_t slot) {
+      jvalue& jval = (*jvalues)[field++];
+      if (!ok) {
+        return;
+      }
+      switch (type) {
+        case jnibench::INT:
+          jval.i = record.ints[slot];
+          break;
+        case jnibench::LONG:
+          jval.j = static_cast<jlong>(record.longs[slot]);
+          break;
+        case jnibench::DOUBLE:
+          jval.d = record.doubles[slot];
+          break;
+        case jnibench::STRING:
+          if (record.strings_present[slot]) {
+            jval.l = JNIBENCH_PROFILE(STRING_CREATION, env->NewStringUTF(record.strings[slot].c_str()));
+            ok = jval.l != nullptr;
+          }
+          break;
+        case jnibench::BYTES:
+          if (record.bytes_present[slot]) {
+            jval.l = newByteArray(env, record.bytes[slot]);
+            ok = jval.l != nullptr;
+          }
+          break;
+        case jnibench::NESTED:
+          if (record.nested_present[slot]) {
+            jval.l = FooObjectJni::construct(env, jfoo_obj_clazz, record.nested[slot]);
+            ok = jval.l != nullptr;
+          }
+          break;
+      }
+    });
+    if (!ok) {
+      // exception occurred
+      deleteLocalRefs(env, schema, jvalues);
+    }
+    return ok;
+  }
+
+  /**
+   * Delete the local references created by toJValues.
+   */
+  static void deleteLocalRefs(JNIEnv* env, const jnibench::RecordSchema& schema, std::vector<jvalue>* jvalues) {
+    for (size_t field = 0; field < schema.fields.size(); field++) {
+      const auto type = schema.fields[field];
+      jvalue& jval = (*jvalues)[field];
+      if ((type == jnibench::STRING || type == jnibench::BYTES || type == jnibench::NESTED) && jval.l != nullptr) {
+        env->DeleteLocalRef(jval.l);
+        jval.l = nullptr;
+      }
+    }
+  }
+
+  /**
+   * Set each field of a Java record with the Set*Field of its type.
+   */
+  static void setFields(JNIEnv* env, jobject jrecord, const jnibench::RecordSchema& schema,
+      const std::vector<jfieldID>& fids, const std::vector<jvalue>& jvalues) {
+    for (size_t field = 0; field < schema.fields.size(); field++) {
+      const jvalue& jval = jvalues[field];
+      switch (schema.fields[field]) {
+        case jnibench::INT:
+          JNIBENCH_PROFILE(STORE, env->SetIntField(jrecord, fids[field], jval.i));
+          break;
+        case jnibench::LONG:
+          JNIBENCH_PROFILE(STORE, env->SetLongField(jrecord, fids[field], jval.j));
+          break;
+        case jnibench::DOUBLE:
+          JNIBENCH_PROFILE(STORE, env->SetDoubleField(jrecord, fids[field], jval.d));
+          break;
+        default:
+          JNIBENCH_PROFILE(STORE, env->SetObjectField(jrecord, fids[field], jval.l));
+          break;
+      }
+    }
+  }
+};
+
+#endif  // RECORD_PORTAL_H_
@@ -0,0 +1,180 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_record_RecordsByColumns.h"
+#include "Record.h"
+#include "RecordPortal.h"
+
+namespace {
+
+/**
+ * Copy a column of primitive values, staged in a native buffer, into
+ * the Java array at the slot of the Java array of columns, in a single call.
+ *
+ * @return true on success, false if an exception occurred
+ */
+template <typename JArray, typename JType>
+bool SetPrimitiveColumn(JNIEnv* env, jobjectArray jcolumns, const size_t slot, const std::vector<JType>& values,
+    void (JNIEnv::*set_region)(JArray, jsize, jsize, const JType*)) {
+  JArray jcolumn = static_cast<JArray>(env->GetObjectArrayElement(jcolumns, static_cast<jsize>(slot)));
+  if (jcolumn == nullptr) {
+    // exception thrown: ArrayIndexOutOfBoundsException
+    return false;
+  }
+  (env->*set_region)(jcolumn, 0, static_cast<jsize>(values.size()), values.data());
+  env->DeleteLocalRef(jcolumn);
+  // exception thrown: ArrayIndexOutOfBoundsException, if the column is too short
+  return !env->ExceptionCheck();
+}
+
+/**
+ * Set the elements of the column of objects at the slot of the
+ * Java array of columns, leaving the absent elements as null.
+ *
+ * @param new_element creates a local reference to the present element i,
+ *     or returns nullptr if an exception occurred
+ *
+ * @return true on success, false if an exception occurred
+ */
+template <typename NewElement>
+bool SetObjectColumn(JNIEnv* env, jobjectArray jcolumns, const size_t slot, const std::vector<bool>& present,
+    NewElement new_element) {
+  jobjectArray jcolumn = static_cast<jobjectArray>(env->GetObjectArrayElement(jcolumns, static_cast<jsize>(slot)));
+  if (jcolumn == nullptr) {
+    // exception thrown: ArrayIndexOutOfBoundsException
+    return false;
+  }
+  for (size_t i = 0; i < present.size(); i++) {
+    if (!present[i]) {
+      continue;
+    }
+    jobject jelement = new_element(i);
+    if (jelement == nullptr) {
+      // exception thrown: OutOfMemoryError
+      env->DeleteLocalRef(jcolumn);
+      return false;
+    }
+    env->SetObjectArrayElement(jcolumn, static_cast<jsize>(i), jelement);
+    env->DeleteLocalRef(jelement);
+    if (env->ExceptionCheck()) {
+      // exception thrown: ArrayIndexOutOfBoundsException or ArrayStoreException
+      env->DeleteLocalRef(jcolumn);
+      return false;
+    }
+  }
+  env->DeleteLocalRef(jcolumn);
+  return true;
+}
+
+}  // namespace
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordsByColumns
+ * Method:    getColumns
+ * Signature: (J[[I[[J[[D[[Ljava/lang/String;[[[B[[Ljava/lang/String;[[J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_record_RecordsByColumns_getColumns
+  (JNIEnv *env, jclass, jlong handle, jobjectArray jints_columns, jobjectArray jlongs_columns,
+      jobjectArray jdoubles_columns, jobjectArray jstrings_columns, jobjectArray jbytes_columns,
+      jobjectArray jnested_names_columns, jobjectArray jnested_values_columns) {
+  const auto& record_array = *reinterpret_cast<jnibench::RecordArray*>(handle);
+  const auto& schema = record_array.schema;
+  const auto& records = record_array.records;
+
+  // each primitive column is staged in a native buffer and copied in a single call
+  std::vector<jint> ints(records.size());
+  for (size_t slot = 0; slot < schema.ints; slot++) {
+    for (size_t i = 0; i < records.size(); i++) {
+      ints[i] = records[i].ints[slot];
+    }
+    if (!SetPrimitiveColumn(env, jints_columns, slot, ints, &JNIEnv::SetIntArrayRegion)) {
+      return;
+    }
+  }
+
+  std::vector<jlong> longs(records.size());
+  for (size_t slot = 0; slot < schema.longs; slot++) {
+    for (size_t i = 0; i < records.size(); i++) {
+      longs[i] = static_cast<jlong>(records[i].longs[slot]);
+    }
+    if (!SetPrimitiveColumn(env, jlongs_columns, slot, longs, &JNIEnv::SetLongArrayRegion)) {
+      return;
+    }
+  }
+
+  std::vector<jdouble> doubles(records.size());
+  for (size_t slot = 0; slot < schema.doubles; slot++) {
+    for (size_t i = 0; i < records.size(); i++) {
+      doubles[i] = records[i].doubles[slot];
+    }
+    if (!SetPrimitiveColumn(env, jdoubles_columns, slot, doubles, &JNIEnv::SetDoubleArrayRegion)) {
+      return;
+    }
+  }
+
+  std::vector<bool> present(records.size());
+  for (size_t slot = 0; slot < schema.strings_nullable.size(); slot++) {
+    for (size_t i = 0; i < records.size(); i++) {
+      present[i] = records[i].strings_present[slot];
+    }
+    const bool ok = SetObjectColumn(env, jstrings_columns, slot, present, [&](const size_t i) -> jobject {
+      return env->NewStringUTF(records[i].strings[slot].c_str());
+    });
+    if (!ok) {
+      return;
+    }
+  }
+
+  for (size_t slot = 0; slot < schema.bytes_nullable.size(); slot++) {
+    for (size_t i = 0; i < records.size(); i++) {
+      present[i] = records[i].bytes_present[slot];
+    }
+    const bool ok = SetObjectColumn(env, jbytes_columns, slot, present, [&](const size_t i) -> jobject {
+      return RecordJni::newByteArray(env, records[i].bytes[slot]);
+    });
+    if (!ok) {
+      return;
+    }
+  }
+
+  // an absent nested object is signalled by a null name
+  std::vector<jlong> nested_values(records.size());
+  for (size_t slot = 0; slot < schema.nested_nullable.size(); slot++) {
+    for (size_t i = 0; i < records.size(); i++) {
+      present[i] = records[i].nested_present[slot];
+      nested_values[i] = present[i] ? static_cast<jlong>(records[i].nested[slot].GetValue()) : 0;
+    }
+    const bool ok = SetObjectColumn(env, jnested_names_columns, slot, present, [&](const size_t i) -> jobject {
+      return env->NewStringUTF(records[i].nested[slot].GetName().c_str());
+    });
+    if (!ok || !SetPrimitiveColumn(env, jnested_values_columns, slot, nested_values, &JNIEnv::SetLongArrayRegion)) {
+      return;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_record_RecordsByMutableFill.h"
+#include "Record.h"
+#include "RecordPortal.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordsByMutableFill
+ * Method:    fillRecords
+ * Signature: (J[Lcom/evolvedbinary/jnibench/common/record/Record;Ljava/lang/Class;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_record_RecordsByMutableFill_fillRecords
+  (JNIEnv *env, jclass, jlong handle, jobjectArray jrecords, jclass jrecord_clazz) {
+  const auto& record_array = *reinterpret_cast<jnibench::RecordArray*>(handle);
+  const auto& schema = record_array.schema;
+
+  std::vector<jfieldID> fids;
+  if (!RecordJni::getFields(env, jrecord_clazz, schema, &fids)) {
+    // exception occurred
+    return;
+  }
+
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return;
+  }
+
+  const jsize len = env->GetArrayLength(jrecords);
+  std::vector<jvalue> jvalues;
+  for (jsize i = 0; i < len; i++) {
+    if (!RecordJni::toJValues(env, jfoo_obj_clazz, schema, record_array.records[i], &jvalues)) {
+      // exception occurred
+      return;
+    }
+    jobject jrecord = env->GetObjectArrayElement(jrecords, i);
+    RecordJni::setFields(env, jrecord, schema, fids, jvalues);
+    env->DeleteLocalRef(jrecord);
+    RecordJni::deleteLocalRefs(env, schema, &jvalues);
+  }
+}
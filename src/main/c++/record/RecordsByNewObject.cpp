@@ -0,0 +1,162 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_record_RecordsByNewObject.h"
+#include "Record.h"
+#include "RecordPortal.h"
+
+namespace {
+
+/**
+ * The IDs by which the records of one call are created, each is
+ * only looked up if the construction strategy needs it.
+ */
+struct RecordMethods {
+  jmethodID constructor = nullptr;
+  jmethodID factory = nullptr;
+  std::vector<jfieldID> fields;
+};
+
+/**
+ * Look up the IDs that the construction strategy needs once per call.
+ *
+ * @return true on success, false if an exception occurred
+ */
+bool GetRecordMethods(JNIEnv* env, jclass jrecord_clazz, const jnibench::RecordSchema& schema,
+    const FooObjectJni::ConstructionStrategy strategy, RecordMethods* methods) {
+  switch (strategy) {
+    case FooObjectJni::NEW_OBJECT:
+      // looked up for every record
+      return true;
+    case FooObjectJni::ALLOC_OBJECT_SET_FIELDS:
+      return RecordJni::getFields(env, jrecord_clazz, schema, &methods->fields);
+    case FooObjectJni::STATIC_FACTORY:
+      methods->factory = RecordJni::getFactoryMethod(env, jrecord_clazz, schema);
+      return methods->factory != nullptr;
+    case FooObjectJni::CACHED_CONSTRUCTOR:
+      methods->constructor = RecordJni::getConstructor(env, jrecord_clazz, schema);
+      return methods->constructor != nullptr;
+    default:
+      IllegalArgumentExceptionJni::ThrowNew(env, "Unknown construction strategy");
+      return false;
+  }
+}
+
+/**
+ * Create a Java record from the JNI values of its fields.
+ *
+ * @return the Java record or nullptr if an exception occurred
+ */
+jobject NewRecord(JNIEnv* env, jclass jrecord_clazz, const jnibench::RecordSchema& schema,
+    const FooObjectJni::ConstructionStrategy strategy, const RecordMethods& methods,
+    const std::vector<jvalue>& jvalues) {
+  switch (strategy) {
+    case FooObjectJni::NEW_OBJECT: {
+      jmethodID constructor = RecordJni::getConstructor(env, jrecord_clazz, schema);
+      if (constructor == nullptr) {
+        // exception thrown: NoSuchMethodError or OutOfMemoryError
+        return nullptr;
+      }
+      return JNIBENCH_PROFILE(OBJECT_CREATION, env->NewObjectA(jrecord_clazz, constructor, jvalues.data()));
+    }
+    case FooObjectJni::ALLOC_OBJECT_SET_FIELDS: {
+      jobject jrecord = JNIBENCH_PROFILE(OBJECT_CREATION, env->AllocObject(jrecord_clazz));
+      if (jrecord != nullptr) {
+        RecordJni::setFields(env, jrecord, schema, methods.fields, jvalues);
+      }
+      return jrecord;
+    }
+    case FooObjectJni::STATIC_FACTORY: {
+      jobject jrecord = JNIBENCH_PROFILE(OBJECT_CREATION,
+          env->CallStaticObjectMethodA(jrecord_clazz, methods.factory, jvalues.data()));
+      if (env->ExceptionCheck()) {
+        // exception thrown by the factory
+        if (jrecord != nullptr) {
+          env->DeleteLocalRef(jrecord);
+        }
+        return nullptr;
+      }
+      return jrecord;
+    }
+    default:
+      return JNIBENCH_PROFILE(OBJECT_CREATION, env->NewObjectA(jrecord_clazz, methods.constructor, jvalues.data()));
+  }
+}
+
+}  // namespace
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordsByNewObject
+ * Method:    getRecords
+ * Signature: (JLjava/lang/Class;I)[Lcom/evolvedbinary/jnibench/common/record/Record;
+ */
+jobjectArray Java_com_evolvedbinary_jnibench_common_record_RecordsByNewObject_getRecords
+  (JNIEnv *env, jclass, jlong handle, jclass jrecord_clazz, jint jconstruction_strategy) {
+  const auto& record_array = *reinterpret_cast<jnibench::RecordArray*>(handle);
+  const auto& schema = record_array.schema;
+  const auto strategy = static_cast<FooObjectJni::ConstructionStrategy>(jconstruction_strategy);
+
+  RecordMethods methods;
+  if (!GetRecordMethods(env, jrecord_clazz, schema, strategy, &methods)) {
+    // exception occurred
+    return nullptr;
+  }
+  jclass jfoo_obj_clazz = FooObjectJni::getJClass(env);
+  if (jfoo_obj_clazz == nullptr) {
+    // exception occurred accessing class
+    return nullptr;
+  }
+
+  const jsize len = static_cast<jsize>(record_array.records.size());
+  jobjectArray jrecords = env->NewObjectArray(len, jrecord_clazz, nullptr);
+  if (jrecords == nullptr) {
+    // exception thrown: OutOfMemoryError
+    return nullptr;
+  }
+
+  std::vector<jvalue> jvalues;
+  for (jsize i = 0; i < len; i++) {
+    if (!RecordJni::toJValues(env, jfoo_obj_clazz, schema, record_array.records[i], &jvalues)) {
+      // exception occurred
+      env->DeleteLocalRef(jrecords);
+      return nullptr;
+    }
+    jobject jrecord = NewRecord(env, jrecord_clazz, schema, strategy, methods, jvalues);
+    RecordJni::deleteLocalRefs(env, schema, &jvalues);
+    if (jrecord == nullptr) {
+      // exception occurred
+      env->DeleteLocalRef(jrecords);
+      return nullptr;
+    }
+    env->SetObjectArrayElement(jrecords, i, jrecord);
+    env->DeleteLocalRef(jrecord);
+  }
+
+  return jrecords;
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <cstring>
+
+#include "com_evolvedbinary_jnibench_common_record_RecordsByPackedBuffer.h"
+#include "Record.h"
+#include "../array/Portal.h"
+
+namespace {
+
+template <typename T>
+inline char* Put(char* dst, const T value) {
+  std::memcpy(dst, &value, sizeof(T));
+  return dst + sizeof(T);
+}
+
+inline char* PutBytes(char* dst, const bool present, const void* src, const size_t len) {
+  if (!present) {
+    return Put<int32_t>(dst, -1);
+  }
+  dst = Put<int32_t>(dst, static_cast<int32_t>(len));
+  std::memcpy(dst, src, len);
+  return dst + len;
+}
+
+size_t PackedSize(const jnibench::RecordArray& record_array) {
+  const auto& schema = record_array.schema;
+  const size_t fixed = schema.ints * sizeof(int32_t) + schema.longs * sizeof(int64_t)
+      + schema.doubles * sizeof(double)
+      + (schema.strings_nullable.size() + schema.bytes_nullable.size() + schema.nested_nullable.size())
+          * sizeof(int32_t);
+  size_t size = 0;
+  for (const auto& record : record_array.records) {
+    size += fixed;
+    for (size_t slot = 0; slot < record.strings.size(); slot++) {
+      size += record.strings_present[slot] ? record.strings[slot].size() : 0;
+    }
+    for (size_t slot = 0; slot < record.bytes.size(); slot++) {
+      size += record.bytes_present[slot] ? record.bytes[slot].size() : 0;
+    }
+    for (size_t slot = 0; slot < record.nested.size(); slot++) {
+      size += record.nested_present[slot] ? record.nested[slot].GetName().size() + sizeof(int64_t) : 0;
+    }
+  }
+  return size;
+}
+
+}  // namespace
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordsByPackedBuffer
+ * Method:    getPackedSize
+ * Signature: (J)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_record_RecordsByPackedBuffer_getPackedSize
+  (JNIEnv *, jclass, jlong handle) {
+  const auto& record_array = *reinterpret_cast<jnibench::RecordArray*>(handle);
+  return static_cast<jlong>(PackedSize(record_array));
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_record_RecordsByPackedBuffer
+ * Method:    pack
+ * Signature: (JLjava/nio/ByteBuffer;)V
+ */
+void Java_com_evolvedbinary_jnibench_common_record_RecordsByPackedBuffer_pack
+  (JNIEnv *env, jclass, jlong handle, jobject jbuffer) {
+  const auto& record_array = *reinterpret_cast<jnibench::RecordArray*>(handle);
+
+  char* dst = static_cast<char*>(env->GetDirectBufferAddress(jbuffer));
+  const jlong capacity = env->GetDirectBufferCapacity(jbuffer);
+  if (dst == nullptr || capacity < static_cast<jlong>(PackedSize(record_array))) {
+    IllegalArgumentExceptionJni::ThrowNew(env, "Buffer is not direct or is too small");
+    return;
+  }
+
+  const auto& schema = record_array.schema;
+  for (const auto& record : record_array.records) {
+    // in field order, so that Java can pass the fields straight to the constructor of the record
+    jnibench::ForEachField(schema, [&](const jnibench::RecordFieldType type, const size_t slot) {
+      switch (type) {
+        case jnibench::INT:
+          dst = Put<int32_t>(dst, record.ints[slot]);
+          break;
+        case jnibench::LONG:
+          dst = Put<int64_t>(dst, record.longs[slot]);
+          break;
+        case jnibench::DOUBLE:
+          dst = Put<double>(dst, record.doubles[slot]);
+          break;
+        case jnibench::STRING:
+          dst = PutBytes(dst, record.strings_present[slot], record.strings[slot].data(), record.strings[slot].size());
+          break;
+        case jnibench::BYTES:
+          dst = PutBytes(dst, record.bytes_present[slot], record.bytes[slot].data(), record.bytes[slot].size());
+          break;
+        case jnibench::NESTED: {
+          const auto& nested = record.nested[slot];
+          dst = PutBytes(dst, record.nested_present[slot], nested.GetName().data(), nested.GetName().size());
+          if (record.nested_present[slot]) {
+            dst = Put<int64_t>(dst, nested.GetValue());
+          }
+          break;
+        }
+      }
+    });
+  }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <jni.h>
+#include <algorithm>
+#include <string>
+#include <vector>
+
+#include "com_evolvedbinary_jnibench_common_stream_NativeRingProducer.h"
+#include "RingProducer.h"
+#include "../array/FooObject.h"
+#include "../array/Portal.h"
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_stream_NativeRingProducer
+ * Method:    start
+ * Signature: (JIJJ)J
+ */
+jlong Java_com_evolvedbinary_jnibench_common_stream_NativeRingProducer_start
+  (JNIEnv *env, jclass, jlong ring_address, jint capacity, jlong source_handle, jlong count) {
+  const auto* source = reinterpret_cast<std::vector<jnibench::FooObject>*>(source_handle);
+
+  // a record larger than the ring would never fit, so the producer would wait forever
+  const size_t produced = static_cast<size_t>(std::min<uint64_t>(static_cast<uint64_t>(count), source->size()));
+  size_t max_record_size = 0;
+  for (size_t i = 0; i < produced; i++) {
+    max_record_size = std::max(max_record_size, jnibench::RingProducer::RecordSize((*source)[i].GetName()));
+  }
+  if (max_record_size > static_cast<size_t>(capacity)) {
+    IllegalArgumentExceptionJni::ThrowNew(env, "A record of " + std::to_string(max_record_size)
+        + " bytes does not fit in a ring of " + std::to_string(capacity) + " bytes");
+    return 0;
+  }
+
+  auto* producer = new jnibench::RingProducer(reinterpret_cast<char*>(ring_address),
+      static_cast<size_t>(capacity), source, static_cast<uint64_t>(count));
+  return reinterpret_cast<jlong>(producer);
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_stream_NativeRingProducer
+ * Method:    join
+ * Signature: (J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_stream_NativeRingProducer_join
+  (JNIEnv *, jclass, jlong handle) {
+  reinterpret_cast<jnibench::RingProducer*>(handle)->Join();
+}
+
+/*
+ * Class:     com_evolvedbinary_jnibench_common_stream_NativeRingProducer
+ * Method:    disposeInternal
+ * Signature: (J)V
+ */
+void Java_com_evolvedbinary_jnibench_common_stream_NativeRingProducer_disposeInternal
+  (JNIEnv *, jclass, jlong handle) {
+  delete reinterpret_cast<jnibench::RingProducer*>(handle);
+}
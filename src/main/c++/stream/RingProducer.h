@@ -0,0 +1,167 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef RING_PRODUCER_H_
+#define RING_PRODUCER_H_
+
+#include <atomic>
+#include <chrono>
+#include <cstdint>
+#include <cstring>
+#include <thread>
+#include <vector>
+
+#include "../array/FooObject.h"
+
+namespace jnibench {
+
+/**
+ * Writes FooObjects into a single-producer/single-consumer ring buffer,
+ * the layout is described by com.evolvedbinary.jnibench.common.stream.FooObjectRingBuffer.
+ */
+class RingProducer {
+  public:
+    static const size_t kCacheLine = 64;
+    static const size_t kProducerPositionOffset = 0;
+    static const size_t kDoneOffset = 8;
+    static const size_t kConsumerPositionOffset = kCacheLine;
+    static const size_t kDataOffset = 2 * kCacheLine;
+    static const size_t kRecordHeaderSize = 24;
+    static const int32_t kPadding = -1;
+
+    /**
+     * Get the size of an encoded record, including its alignment.
+     */
+    static size_t RecordSize(const std::string& name) {
+      return Align(kRecordHeaderSize + name.size());
+    }
+
+    /**
+     * Start a thread which writes count records into the ring,
+     * cycling through the objects of the source.
+     *
+     * Every record must fit in the capacity of the ring,
+     * otherwise the producer would wait for space forever.
+     */
+    RingProducer(char* ring, const size_t capacity, const std::vector<FooObject>* source, const uint64_t count)
+        : producer_position(reinterpret_cast<std::atomic<int64_t>*>(ring + kProducerPositionOffset)),
+          done(reinterpret_cast<std::atomic<int32_t>*>(ring + kDoneOffset)),
+          consumer_position(reinterpret_cast<std::atomic<int64_t>*>(ring + kConsumerPositionOffset)),
+          data(ring + kDataOffset),
+          capacity(capacity),
+          source(source),
+          count(count) {
+      // cleared before the thread starts, so that the consumer cannot see the flag of a previous producer
+      done->store(0, std::memory_order_release);
+      thread = std::thread(&RingProducer::Run, this);
+    }
+
+    ~RingProducer() {
+      stopping.store(true, std::memory_order_relaxed);
+      Join();
+    }
+
+    void Join() {
+      if (thread.joinable()) {
+        thread.join();
+      }
+    }
+
+  private:
+    static size_t Align(const size_t length) {
+      return (length + 7) & ~static_cast<size_t>(7);
+    }
+
+    /**
+     * Wait until the consumer has freed enough space for length bytes from position.
+     *
+     * @return false if the producer was stopped while waiting
+     */
+    bool AwaitSpace(const int64_t position, const size_t length) {
+      while (static_cast<size_t>(position - consumer_position->load(std::memory_order_acquire)) + length > capacity) {
+        if (stopping.load(std::memory_order_relaxed)) {
+          return false;
+        }
+        std::this_thread::yield();
+      }
+      return true;
+    }
+
+    void Run() {
+      const size_t mask = capacity - 1;
+      int64_t position = producer_position->load(std::memory_order_relaxed);
+
+      for (uint64_t i = 0; i < count; i++) {
+        const FooObject& foo_obj = (*source)[i % source->size()];
+        const std::string& name = foo_obj.GetName();
+        const size_t length = RecordSize(name);
+
+        size_t offset = static_cast<size_t>(position) & mask;
+        if (offset + length > capacity) {
+          // the record would not fit before the end of the data, so pad to the start
+          const size_t padding = capacity - offset;
+          if (!AwaitSpace(position, padding)) {
+            return;
+          }
+          std::memcpy(data + offset, &kPadding, sizeof(int32_t));
+          position += static_cast<int64_t>(padding);
+          offset = 0;
+        }
+        if (!AwaitSpace(position, length)) {
+          return;
+        }
+
+        char* record = data + offset;
+        const int32_t name_length = static_cast<int32_t>(name.size());
+        const int64_t value = foo_obj.GetValue();
+        const int64_t timestamp = std::chrono::duration_cast<std::chrono::nanoseconds>(
+            std::chrono::steady_clock::now().time_since_epoch()).count();
+        std::memcpy(record, &name_length, sizeof(int32_t));
+        std::memcpy(record + 8, &value, sizeof(int64_t));
+        std::memcpy(record + 16, &timestamp, sizeof(int64_t));
+        std::memcpy(record + kRecordHeaderSize, name.data(), name.size());
+
+        position += static_cast<int64_t>(length);
+        producer_position->store(position, std::memory_order_release);
+      }
+
+      done->store(1, std::memory_order_release);
+    }
+
+    std::atomic<int64_t>* const producer_position;
+    std::atomic<int32_t>* const done;
+    std::atomic<int64_t>* const consumer_position;
+    char* const data;
+    const size_t capacity;
+    const std::vector<FooObject>* const source;
+    const uint64_t count;
+    std::atomic<bool> stopping{false};
+    std::thread thread;
+};
+
+}  // namespace jnibench
+
+#endif  // RING_PRODUCER_H_
@@ -35,10 +35,12 @@ public abstract class NativeBackedObject implements AutoCloseable {
 
     protected long _nativeHandle;
     protected boolean _nativeOwner;
+    private final NativeLeakTracker.Tracked _leakTracked;
 
     protected NativeBackedObject() {
         this._nativeHandle = 0;
         this._nativeOwner = true;
+        this._leakTracked = NativeLeakTracker.track(this);
     }
 
     @Override
@@ -49,6 +51,9 @@ public abstract class NativeBackedObject implements AutoCloseable {
                 _nativeHandle = 0;
                 _nativeOwner = false;
             }
+            if (_leakTracked != null) {
+                NativeLeakTracker.closed(_leakTracked);
+            }
 //        }
     }
 
@@ -56,5 +61,15 @@ public abstract class NativeBackedObject implements AutoCloseable {
         return _nativeHandle;
     }
 
+    /**
+     * Get an estimate of the native memory owned by the C++ object,
+     * including anything that it has allocated on the native heap.
+     *
+     * @return the size in bytes, or 0 if it is not known
+     */
+    public long getNativeSize() {
+        return 0;
+    }
+
     protected abstract void disposeInternal();
 }
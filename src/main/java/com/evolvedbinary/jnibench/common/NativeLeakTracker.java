@@ -0,0 +1,222 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common;
+
+import java.io.PrintStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional sampled tracking of {@link NativeBackedObject}s which become
+ * unreachable without having been closed, and so leak their native memory.
+ *
+ * When enabled by {@link #setSampleInterval(int)}, one in every N constructions
+ * is tracked, recording its creation stack trace. A daemon thread is notified
+ * through a {@link PhantomReference} when a tracked object becomes unreachable,
+ * and counts it as a leak, per class and per allocation site, if it was not closed.
+ *
+ * When disabled, the cost to each construction is a single volatile read.
+ */
+public final class NativeLeakTracker {
+
+    private static volatile int sampleInterval;
+
+    private static final ReferenceQueue<NativeBackedObject> QUEUE = new ReferenceQueue<>();
+
+    /**
+     * Holds the tracked references, as a PhantomReference must be
+     * strongly reachable until it has been enqueued.
+     */
+    private static final Set<Tracked> LIVE = ConcurrentHashMap.newKeySet();
+
+    private static final ConcurrentHashMap<String, AtomicLong> LEAKS_BY_CLASS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, AtomicLong> LEAKS_BY_SITE = new ConcurrentHashMap<>();
+    private static final AtomicLong SAMPLED = new AtomicLong();
+
+    private static Thread reaper;
+
+    private NativeLeakTracker() {
+    }
+
+    /**
+     * Set how often constructions are tracked.
+     *
+     * @param interval 0 to disable tracking, 1 to track every construction,
+     *     or N to track a random one in every N constructions
+     */
+    public static synchronized void setSampleInterval(final int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("interval must not be negative");
+        }
+        if (interval > 0 && reaper == null) {
+            reaper = new Thread(NativeLeakTracker::reap, "native-leak-tracker");
+            reaper.setDaemon(true);
+            reaper.start();
+        }
+        sampleInterval = interval;
+    }
+
+    public static int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Called by the {@link NativeBackedObject} constructor.
+     *
+     * @return the tracked reference, or null if the object is not sampled
+     */
+    static Tracked track(final NativeBackedObject nativeBackedObject) {
+        final int interval = sampleInterval;
+        if (interval == 0 || (interval > 1 && ThreadLocalRandom.current().nextInt(interval) != 0)) {
+            return null;
+        }
+        final Tracked tracked = new Tracked(nativeBackedObject);
+        LIVE.add(tracked);
+        SAMPLED.incrementAndGet();
+        return tracked;
+    }
+
+    /**
+     * Called when a tracked {@link NativeBackedObject} is closed.
+     */
+    static void closed(final Tracked tracked) {
+        LIVE.remove(tracked);
+        tracked.clear();
+    }
+
+    private static void reap() {
+        while (true) {
+            final Tracked tracked;
+            try {
+                tracked = (Tracked) QUEUE.remove();
+            } catch (final InterruptedException e) {
+                return;
+            }
+            // a closed object is removed from LIVE before its reference can be enqueued
+            if (LIVE.remove(tracked)) {
+                LEAKS_BY_CLASS.computeIfAbsent(tracked.className, k -> new AtomicLong()).incrementAndGet();
+                LEAKS_BY_SITE.computeIfAbsent(tracked.site(), k -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return the number of constructions which have been tracked
+     */
+    public static long getSampledCount() {
+        return SAMPLED.get();
+    }
+
+    /**
+     * @return the number of tracked objects which are neither closed nor yet found to be unreachable
+     */
+    public static int getLiveCount() {
+        return LIVE.size();
+    }
+
+    /**
+     * @return the number of leaked objects of each class
+     */
+    public static Map<String, Long> getLeaksByClass() {
+        return snapshot(LEAKS_BY_CLASS);
+    }
+
+    /**
+     * @return the number of leaked objects from each allocation site
+     */
+    public static Map<String, Long> getLeaksBySite() {
+        return snapshot(LEAKS_BY_SITE);
+    }
+
+    /**
+     * Forget the leaks found so far.
+     */
+    public static void reset() {
+        LEAKS_BY_CLASS.clear();
+        LEAKS_BY_SITE.clear();
+        SAMPLED.set(0);
+    }
+
+    /**
+     * Write the leak counts per class and per allocation site.
+     *
+     * As only a sample of constructions are tracked, the counts
+     * should be multiplied by the sample interval to estimate the total.
+     *
+     * @param out where to write the report
+     */
+    public static void report(final PrintStream out) {
+        out.println("Native leaks (sampled 1 in " + sampleInterval + ", " + getSampledCount() + " tracked, "
+            + getLiveCount() + " live)");
+        for (final Map.Entry<String, Long> leak : getLeaksByClass().entrySet()) {
+            out.println("  " + leak.getKey() + ": " + leak.getValue());
+        }
+        for (final Map.Entry<String, Long> leak : getLeaksBySite().entrySet()) {
+            out.println("  at " + leak.getKey() + ": " + leak.getValue());
+        }
+    }
+
+    private static Map<String, Long> snapshot(final ConcurrentHashMap<String, AtomicLong> counts) {
+        final Map<String, Long> snapshot = new TreeMap<>();
+        for (final Map.Entry<String, AtomicLong> count : counts.entrySet()) {
+            snapshot.put(count.getKey(), count.getValue().get());
+        }
+        return snapshot;
+    }
+
+    static final class Tracked extends PhantomReference<NativeBackedObject> {
+        final String className;
+        private final Throwable creation;
+
+        Tracked(final NativeBackedObject nativeBackedObject) {
+            super(nativeBackedObject, QUEUE);
+            this.className = nativeBackedObject.getClass().getName();
+            this.creation = new Throwable();
+        }
+
+        /**
+         * The allocation site is the first frame outside of the tracker and the
+         * constructors, and is only resolved once the object has leaked.
+         */
+        String site() {
+            for (final StackTraceElement frame : creation.getStackTrace()) {
+                if (!frame.getClassName().equals(NativeLeakTracker.class.getName())
+                        && !frame.getClassName().equals(Tracked.class.getName())
+                        && !frame.getMethodName().equals("<init>")) {
+                    return frame.toString();
+                }
+            }
+            return "unknown";
+        }
+    }
+}
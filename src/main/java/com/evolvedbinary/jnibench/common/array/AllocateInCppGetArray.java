@@ -31,10 +31,23 @@ import java.util.List;
 
 public class AllocateInCppGetArray implements JniListSupplier<FooObject> {
 
+  private final ConstructionStrategy constructionStrategy;
+
+  public AllocateInCppGetArray() {
+    this(ConstructionStrategy.NEW_OBJECT);
+  }
+
+  /**
+   * @param constructionStrategy how C++ creates each Java object
+   */
+  public AllocateInCppGetArray(final ConstructionStrategy constructionStrategy) {
+    this.constructionStrategy = constructionStrategy;
+  }
+
   @Override
   public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
-    return Arrays.asList(getArray(nativeObjectArray.get_nativeHandle()));
+    return Arrays.asList(getArray(nativeObjectArray.get_nativeHandle(), constructionStrategy.ordinal()));
   }
 
-  private static native FooObject[] getArray(final long handle);
+  private static native FooObject[] getArray(final long handle, final int constructionStrategy);
 }
@@ -30,10 +30,23 @@ import java.util.List;
 
 public class AllocateInCppGetArrayList implements JniListSupplier<FooObject> {
 
+    private final ConstructionStrategy constructionStrategy;
+
+    public AllocateInCppGetArrayList() {
+        this(ConstructionStrategy.NEW_OBJECT);
+    }
+
+    /**
+     * @param constructionStrategy how C++ creates each Java object
+     */
+    public AllocateInCppGetArrayList(final ConstructionStrategy constructionStrategy) {
+        this.constructionStrategy = constructionStrategy;
+    }
+
     @Override
     public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
-        return getArrayList(nativeObjectArray.get_nativeHandle());
+        return getArrayList(nativeObjectArray.get_nativeHandle(), constructionStrategy.ordinal());
     }
 
-    private static native List<FooObject> getArrayList(final long handle);
+    private static native List<FooObject> getArrayList(final long handle, final int constructionStrategy);
 }
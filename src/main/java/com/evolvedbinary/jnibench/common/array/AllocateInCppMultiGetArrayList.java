@@ -0,0 +1,59 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.List;
+
+/**
+ * As {@link AllocateInCppGetArrayList}, but for several native arrays
+ * in a single JNI call, which returns a java.util.ArrayList of each
+ * array's java.util.ArrayList.
+ *
+ * The classes and methods are looked up once per call, rather than once per array.
+ */
+public class AllocateInCppMultiGetArrayList implements JniMultiListSupplier<FooObject> {
+
+    private final ConstructionStrategy constructionStrategy;
+
+    public AllocateInCppMultiGetArrayList() {
+        this(ConstructionStrategy.NEW_OBJECT);
+    }
+
+    /**
+     * @param constructionStrategy how C++ creates each Java object
+     */
+    public AllocateInCppMultiGetArrayList(final ConstructionStrategy constructionStrategy) {
+        this.constructionStrategy = constructionStrategy;
+    }
+
+    @Override
+    public List<List<FooObject>> getObjectLists(final List<? extends NativeObjectArray<FooObject>> nativeObjectArrays) {
+        return getArrayLists(JniMultiListSupplier.handles(nativeObjectArrays), constructionStrategy.ordinal());
+    }
+
+    private static native List<List<FooObject>> getArrayLists(final long[] handles, final int constructionStrategy);
+}
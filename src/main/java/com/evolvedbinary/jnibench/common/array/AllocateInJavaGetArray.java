@@ -32,6 +32,19 @@ import java.util.List;
 
 public class AllocateInJavaGetArray implements JniListSupplier<FooObject> {
 
+  private final ConstructionStrategy constructionStrategy;
+
+  public AllocateInJavaGetArray() {
+    this(ConstructionStrategy.NEW_OBJECT);
+  }
+
+  /**
+   * @param constructionStrategy how C++ creates each Java object
+   */
+  public AllocateInJavaGetArray(final ConstructionStrategy constructionStrategy) {
+    this.constructionStrategy = constructionStrategy;
+  }
+
   @Override
   public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
     final int len = (int) getArraySize(nativeObjectArray.get_nativeHandle());
@@ -40,7 +53,7 @@ public class AllocateInJavaGetArray implements JniListSupplier<FooObject> {
     } else {
       final FooObject objectList[] = new FooObject[len];
 
-      getArray(nativeObjectArray.get_nativeHandle(), objectList);
+      getArray(nativeObjectArray.get_nativeHandle(), objectList, constructionStrategy.ordinal());
 
       return Arrays.asList(objectList);
     }
@@ -48,5 +61,6 @@ public class AllocateInJavaGetArray implements JniListSupplier<FooObject> {
 
   private static native long getArraySize(final long handle);
 
-  private static native void getArray(final long handle, final FooObject[] objectList);
+  private static native void getArray(final long handle, final FooObject[] objectList,
+      final int constructionStrategy);
 }
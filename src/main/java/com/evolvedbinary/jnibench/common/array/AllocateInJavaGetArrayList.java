@@ -32,6 +32,19 @@ import java.util.List;
 
 public class AllocateInJavaGetArrayList implements JniListSupplier<FooObject> {
 
+  private final ConstructionStrategy constructionStrategy;
+
+  public AllocateInJavaGetArrayList() {
+    this(ConstructionStrategy.NEW_OBJECT);
+  }
+
+  /**
+   * @param constructionStrategy how C++ creates each Java object
+   */
+  public AllocateInJavaGetArrayList(final ConstructionStrategy constructionStrategy) {
+    this.constructionStrategy = constructionStrategy;
+  }
+
   @Override
   public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
     final int len = (int) getListSize(nativeObjectArray.get_nativeHandle());
@@ -40,7 +53,7 @@ public class AllocateInJavaGetArrayList implements JniListSupplier<FooObject> {
     } else {
       final List<FooObject> objectList = new ArrayList<>(len);
 
-      getList(nativeObjectArray.get_nativeHandle(), objectList);
+      getList(nativeObjectArray.get_nativeHandle(), objectList, constructionStrategy.ordinal());
 
       return objectList;
     }
@@ -48,5 +61,6 @@ public class AllocateInJavaGetArrayList implements JniListSupplier<FooObject> {
 
   private static native long getListSize(final long handle);
 
-  private static native void getList(final long handle, final List<FooObject> list);
+  private static native void getList(final long handle, final List<FooObject> list,
+      final int constructionStrategy);
 }
@@ -0,0 +1,165 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps another supplier, caching the list built for each native array,
+ * so that repeated calls for an unchanged native array do not copy
+ * the objects across JNI again.
+ *
+ * A cached list is returned whilst the {@link NativeObjectArray#getVersion()}
+ * of its native array is unchanged. The returned lists are unmodifiable,
+ * as they are shared between callers.
+ *
+ * At most {@code maxEntries} native arrays are cached, the least recently
+ * used being evicted first.
+ */
+public class CachingListSupplier<T> implements JniListSupplier<T> {
+  private final JniListSupplier<T> delegate;
+  private final LruEntries<T> entries;
+
+  private long hits;
+  private long misses;
+
+  /**
+   * @param delegate the supplier to wrap
+   * @param maxEntries the maximum number of native arrays to cache lists for
+   */
+  public CachingListSupplier(final JniListSupplier<T> delegate, final int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("maxEntries must be at least 1");
+    }
+    this.delegate = delegate;
+    this.entries = new LruEntries<>(maxEntries);
+  }
+
+  @Override
+  public List<T> getObjectList(final NativeObjectArray<T> nativeObjectArray) {
+    // read the version first, so that a change whilst the list is built is seen by the next call
+    final long version = nativeObjectArray.getVersion();
+
+    synchronized (this) {
+      final Entry<T> entry = entries.get(nativeObjectArray);
+      if (entry != null) {
+        if (entry.version == version && nativeObjectArray.get_nativeHandle() != 0) {
+          hits++;
+          return entry.list;
+        }
+        entries.remove(nativeObjectArray);
+      }
+      misses++;
+    }
+
+    final List<T> list = Collections.unmodifiableList(delegate.getObjectList(nativeObjectArray));
+
+    synchronized (this) {
+      final Entry<T> entry = entries.get(nativeObjectArray);
+      if (entry == null || entry.version < version) {
+        entries.put(nativeObjectArray, new Entry<>(version, list));
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Remove the cached list for a native array, e.g. before closing it.
+   *
+   * @param nativeObjectArray the native array
+   */
+  public synchronized void invalidate(final NativeObjectArray<T> nativeObjectArray) {
+    entries.remove(nativeObjectArray);
+  }
+
+  /**
+   * @return the number of calls answered from the cache
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * @return the number of calls which had to call the wrapped supplier
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return the number of cached lists evicted to stay within {@code maxEntries}
+   */
+  public synchronized long getEvictions() {
+    return entries.evictions;
+  }
+
+  /**
+   * Reset the hit, miss and eviction counts to zero.
+   */
+  public synchronized void resetStatistics() {
+    hits = 0;
+    misses = 0;
+    entries.evictions = 0;
+  }
+
+  /**
+   * The cached entries, in least recently used order.
+   */
+  private static final class LruEntries<T> extends LinkedHashMap<NativeObjectArray<T>, Entry<T>> {
+    private static final long serialVersionUID = 1L;
+
+    private final int maxEntries;
+    long evictions;
+
+    LruEntries(final int maxEntries) {
+      super(16, 0.75f, true);
+      this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<NativeObjectArray<T>, Entry<T>> eldest) {
+      if (size() > maxEntries) {
+        evictions++;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private static class Entry<T> {
+    final long version;
+    final List<T> list;
+
+    Entry(final long version, final List<T> list) {
+      this.version = version;
+      this.list = list;
+    }
+  }
+}
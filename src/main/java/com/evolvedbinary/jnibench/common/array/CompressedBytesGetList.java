@@ -0,0 +1,171 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * In C++ we encode all of the objects compressed into a single byte array,
+ * which Java then decodes, either eagerly, or lazily a block at a time
+ * as the elements of the list are accessed.
+ *
+ * Values are delta coded as zig-zag varints, and names are front coded,
+ * i.e. as the length of the prefix shared with the previous name and
+ * the remaining suffix. The coding restarts at each block of
+ * {@code blockSize} objects, so that each block can be decoded
+ * independently. The layout is described in {@code FooObjectEncoding.h}.
+ * The names are coded from the bytes held by C++, i.e. in modified UTF-8,
+ * see {@link ModifiedUtf8}.
+ *
+ * Lists decoded lazily are not thread safe.
+ */
+public class CompressedBytesGetList implements JniListSupplier<FooObject> {
+  private final int blockSize;
+  private final boolean lazy;
+  private volatile long lastEncodedSize;
+
+  /**
+   * @param blockSize the number of objects in each block
+   * @param lazy true to decode each block when it is first accessed,
+   *     false to decode every block before returning the list
+   */
+  public CompressedBytesGetList(final int blockSize, final boolean lazy) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("blockSize must be at least 1");
+    }
+    this.blockSize = blockSize;
+    this.lazy = lazy;
+  }
+
+  @Override
+  public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
+    final byte[] encoded = encode(nativeObjectArray.get_nativeHandle(), blockSize);
+    lastEncodedSize = encoded.length;
+
+    final CompressedList compressedList = new CompressedList(encoded);
+    if (lazy) {
+      return compressedList;
+    }
+    final List<FooObject> objectList = new ArrayList<>(compressedList.size());
+    for (int block = 0; block < compressedList.blocks.length; block++) {
+      objectList.addAll(Arrays.asList(compressedList.decodeBlock(block)));
+    }
+    return objectList;
+  }
+
+  /**
+   * @return the number of bytes copied from C++ by the last call
+   */
+  public long getLastEncodedSize() {
+    return lastEncodedSize;
+  }
+
+  private static class CompressedList extends AbstractList<FooObject> implements RandomAccess {
+    private final byte[] encoded;
+    private final int count;
+    private final int blockSize;
+    private final int[] blockOffsets;
+    private final FooObject[][] blocks;
+    private int position;
+
+    CompressedList(final byte[] encoded) {
+      this.encoded = encoded;
+      this.count = (int) readVarint();
+      this.blockSize = (int) readVarint();
+
+      final int blockCount = (count + blockSize - 1) / blockSize;
+      final ByteBuffer offsets = ByteBuffer.wrap(encoded, position, blockCount * Integer.BYTES)
+          .order(ByteOrder.nativeOrder());
+      this.blockOffsets = new int[blockCount];
+      for (int block = 0; block < blockCount; block++) {
+        blockOffsets[block] = offsets.getInt();
+      }
+      this.blocks = new FooObject[blockCount][];
+    }
+
+    @Override
+    public FooObject get(final int index) {
+      if (index < 0 || index >= count) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+      }
+      final int block = index / blockSize;
+      FooObject[] fooObjects = blocks[block];
+      if (fooObjects == null) {
+        fooObjects = decodeBlock(block);
+        blocks[block] = fooObjects;
+      }
+      return fooObjects[index - block * blockSize];
+    }
+
+    @Override
+    public int size() {
+      return count;
+    }
+
+    FooObject[] decodeBlock(final int block) {
+      position = blockOffsets[block];
+      final FooObject[] fooObjects = new FooObject[Math.min(blockSize, count - block * blockSize)];
+      byte[] name = new byte[64];
+      long value = 0;
+      for (int i = 0; i < fooObjects.length; i++) {
+        final long zigZag = readVarint();
+        value += (zigZag >>> 1) ^ -(zigZag & 1);
+
+        final int shared = (int) readVarint();
+        final int suffix = (int) readVarint();
+        if (name.length < shared + suffix) {
+          name = Arrays.copyOf(name, Math.max(name.length * 2, shared + suffix));
+        }
+        System.arraycopy(encoded, position, name, shared, suffix);
+        position += suffix;
+
+        fooObjects[i] = new FooObject(ModifiedUtf8.decode(name, 0, shared + suffix), value);
+      }
+      return fooObjects;
+    }
+
+    private long readVarint() {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = encoded[position++];
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      return value;
+    }
+  }
+
+  private static native byte[] encode(final long handle, final int blockSize);
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+/**
+ * The mechanisms by which C++ can create each Java {@link FooObject}
+ * for the suppliers which construct the objects in C++.
+ *
+ * They equally apply to the wide records of
+ * {@link com.evolvedbinary.jnibench.common.record.RecordsByNewObject},
+ * whose constructor, factory and Set*Field calls take one argument per field.
+ * As there is one record class per schema, their IDs are cached per call
+ * rather than once for all time.
+ */
+// NOTE: the order must be kept in sync with FooObjectJni::ConstructionStrategy in Portal.h
+public enum ConstructionStrategy {
+
+  /**
+   * {@code NewObject}, looking up the constructor on every call.
+   */
+  NEW_OBJECT,
+
+  /**
+   * {@code AllocObject}, and then {@code SetObjectField} and {@code SetLongField},
+   * or for a record the {@code Set*Field} of each of its fields.
+   * No constructor is run.
+   */
+  ALLOC_OBJECT_SET_FIELDS,
+
+  /**
+   * {@code CallStaticObjectMethod} of {@link FooObject#create(String, long)},
+   * or of the {@code create} factory of a record.
+   */
+  STATIC_FACTORY,
+
+  /**
+   * {@code NewObject}, with the constructor looked up only once.
+   */
+  CACHED_CONSTRUCTOR
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.function.Consumer;
+
+/**
+ * A native array of FooObjects with a flat layout in C++, where the names
+ * of all objects are stored contiguously in one arena, alongside a table of
+ * name offsets and a column of values, see FooObjectArena.h.
+ *
+ * Every {@link JniListSupplier} of FooObjects can read from either this
+ * or a {@link FooNativeObjectArray}, see {@link FooObjectLayout}.
+ */
+public class FooNativeObjectArena extends NativeObjectArray<FooObject> {
+
+  /**
+   * The native bytes of a name offset and a value.
+   */
+  private static final long NATIVE_BYTES_PER_OBJECT = 16;
+
+  public FooNativeObjectArena(final FooObject[] fooObjects) {
+    super();
+    createNative(FooObjects.estimateNativeSize(fooObjects, NATIVE_BYTES_PER_OBJECT),
+        () -> newFooObjectArena(fooObjects));
+  }
+
+  @Override
+  public long size() {
+    return getSize(get_nativeHandle());
+  }
+
+  /**
+   * In C++ we construct each FooObject and pass it
+   * to the action, making one upcall per object.
+   */
+  @Override
+  public void forEach(final Consumer<? super FooObject> action) {
+    forEach(get_nativeHandle(), action);
+  }
+
+  @Override
+  public long getNativeSize() {
+    return getNativeSize(_nativeHandle);
+  }
+
+  @Override
+  protected void disposeInternal() {
+    disposeInternal(_nativeHandle);
+  }
+
+  private static native long newFooObjectArena(final FooObject[] fooObjects);
+
+  private static native long getSize(final long handle);
+
+  private static native long getNativeSize(final long handle);
+
+  private static native void forEach(final long handle, final Consumer<? super FooObject> action);
+
+  private native void disposeInternal(final long handle);
+}
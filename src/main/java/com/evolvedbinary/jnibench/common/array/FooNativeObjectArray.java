@@ -26,15 +26,130 @@
  */
 package com.evolvedbinary.jnibench.common.array;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
 public class FooNativeObjectArray extends NativeObjectArray<FooObject> {
 
+  /**
+   * The native bytes of a std::string name and an int64_t value.
+   */
+  private static final long NATIVE_BYTES_PER_OBJECT = 40;
+
   public FooNativeObjectArray(final FooObject[] fooObjects) {
-    super(fooObjects);
+    super();
+    createNative(FooObjects.estimateNativeSize(fooObjects, NATIVE_BYTES_PER_OBJECT),
+        () -> newFooObjectArray(fooObjects));
+  }
+
+  private FooNativeObjectArray(final Path path) throws IOException {
+    super();
+    createNative(Files.size(path), () -> loadSnapshot(path.toAbsolutePath().toString()));
+  }
+
+  /**
+   * Create a native array from a snapshot file previously written
+   * by {@link #writeSnapshot(Path)}.
+   *
+   * The snapshot is memory mapped by C++, so the objects never pass through Java.
+   *
+   * @param path the snapshot file
+   *
+   * @return the native array
+   *
+   * @throws IOException if the snapshot cannot be read
+   */
+  public static FooNativeObjectArray fromSnapshot(final Path path) throws IOException {
+    return new FooNativeObjectArray(path);
+  }
+
+  /**
+   * Write a snapshot of the native array to a file.
+   *
+   * The snapshot can be loaded back by {@link #fromSnapshot(Path)},
+   * or read directly from Java with {@link FooObjectSnapshot}.
+   *
+   * @param path the file to write
+   *
+   * @throws IOException if the snapshot cannot be written
+   */
+  public void writeSnapshot(final Path path) throws IOException {
+    writeSnapshot(get_nativeHandle(), path.toAbsolutePath().toString());
   }
 
   @Override
-  protected long newObjectArray(final FooObject[] objectArray) {
-    return newFooObjectArray(objectArray);
+  public long size() {
+    return getSize(get_nativeHandle());
+  }
+
+  /**
+   * In C++ we construct each FooObject and pass it
+   * to the action, making one upcall per object.
+   */
+  @Override
+  public void forEach(final Consumer<? super FooObject> action) {
+    forEach(get_nativeHandle(), action);
+  }
+
+  /**
+   * Visit the name and value of each object, making
+   * one upcall per object from C++ to the visitor.
+   *
+   * @param visitor the visitor
+   */
+  public void visit(final FooObjectVisitor visitor) {
+    visit(get_nativeHandle(), visitor);
+  }
+
+  /**
+   * Visit the names and values of the objects in batches, making one upcall
+   * from C++ to {@link FooObjectVisitor#visitBatch(String[], long[], int)}
+   * per batch of objects.
+   *
+   * @param visitor the visitor
+   * @param batchSize the maximum number of objects in each batch
+   */
+  public void visit(final FooObjectVisitor visitor, final int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be at least 1");
+    }
+    visitBatched(get_nativeHandle(), visitor, new String[batchSize], new long[batchSize]);
+  }
+
+  /**
+   * Evaluate a query in C++, copying into Java
+   * only the projected parts of the matching objects.
+   *
+   * @param query the query
+   *
+   * @return the matching objects
+   */
+  public FooQueryResult query(final FooQuery query) {
+    final Object[] columns = query(get_nativeHandle(), query.ops, query.longArgs, query.stringArgs, query.predicates,
+        query.projection.names, query.projection.values);
+    return new FooQueryResult((String[]) columns[0], (long[]) columns[1]);
+  }
+
+  /**
+   * Apply the changes from a {@link SyncedFooObjectList} in a single call.
+   *
+   * The updates are applied first, then the removals, then the appends.
+   *
+   * @param removed the indices of the objects to remove, in ascending order
+   * @param indices the index of each object to update, or -1 to append it
+   * @param names the name of each updated or appended object
+   * @param values the value of each updated or appended object
+   */
+  void applyDelta(final int[] removed, final int[] indices, final String[] names, final long[] values) {
+    applyDelta(get_nativeHandle(), removed, indices, names, values);
+    modified();
+  }
+
+  @Override
+  public long getNativeSize() {
+    return getNativeSize(_nativeHandle);
   }
 
   @Override
@@ -44,5 +159,26 @@ public class FooNativeObjectArray extends NativeObjectArray<FooObject> {
 
   private static native long newFooObjectArray(final Object[] fooObjects);
 
+  private static native long getSize(final long handle);
+
+  private static native long getNativeSize(final long handle);
+
+  private static native void writeSnapshot(final long handle, final String path) throws IOException;
+
+  private static native long loadSnapshot(final String path) throws IOException;
+
+  private static native void forEach(final long handle, final Consumer<? super FooObject> action);
+
+  private static native void visit(final long handle, final FooObjectVisitor visitor);
+
+  private static native void visitBatched(final long handle, final FooObjectVisitor visitor,
+      final String[] names, final long[] values);
+
+  private static native Object[] query(final long handle, final int[] ops, final long[] longArgs,
+      final String[] stringArgs, final int predicates, final boolean names, final boolean values);
+
+  private static native void applyDelta(final long handle, final int[] removed, final int[] indices,
+      final String[] names, final long[] values);
+
   private native void disposeInternal(final long handle);
 }
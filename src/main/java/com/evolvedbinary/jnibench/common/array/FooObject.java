@@ -38,6 +38,26 @@ public class FooObject {
     this.value = value;
   }
 
+  /**
+   * A static factory, which C++ calls for {@link ConstructionStrategy#STATIC_FACTORY}.
+   *
+   * @param name the name
+   * @param value the value
+   *
+   * @return the new object
+   */
+  static FooObject create(final String name, final long value) {
+    return new FooObject(name, value);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,64 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+/**
+ * The layouts in which a native array of FooObjects can be held in C++.
+ */
+public enum FooObjectLayout {
+
+  /**
+   * A {@code std::vector<jnibench::FooObject>}, where each
+   * object owns its name in a separate heap allocation.
+   */
+  VECTOR {
+    @Override
+    public NativeObjectArray<FooObject> newArray(final FooObject[] fooObjects) {
+      return new FooNativeObjectArray(fooObjects);
+    }
+  },
+
+  /**
+   * A {@code jnibench::FooObjectArena}, where the names of all objects
+   * are contiguous, alongside a table of offsets and a column of values.
+   */
+  ARENA {
+    @Override
+    public NativeObjectArray<FooObject> newArray(final FooObject[] fooObjects) {
+      return new FooNativeObjectArena(fooObjects);
+    }
+  };
+
+  /**
+   * Create a native array in this layout.
+   *
+   * @param fooObjects the objects to copy into the native array
+   *
+   * @return the native array
+   */
+  public abstract NativeObjectArray<FooObject> newArray(final FooObject[] fooObjects);
+}
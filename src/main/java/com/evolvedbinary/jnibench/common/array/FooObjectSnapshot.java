@@ -0,0 +1,214 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Reads a snapshot written by {@link FooNativeObjectArray#writeSnapshot(java.nio.file.Path)}
+ * directly from a memory mapped file, without any JNI calls.
+ *
+ * The layout of the snapshot is described in {@code FooObjectSnapshot.h}.
+ */
+public class FooObjectSnapshot implements AutoCloseable {
+  private static final byte[] MAGIC = {'J', 'N', 'I', 'B', 'S', 'N', 'A', 'P'};
+  private static final int VERSION = 1;
+  private static final int BYTE_ORDER_MARK = 0x01020304;
+
+  private static final int VERSION_OFFSET = 8;
+  private static final int BYTE_ORDER_OFFSET = 12;
+  private static final int COUNT_OFFSET = 16;
+  private static final int VALUES_OFFSET_OFFSET = 24;
+  private static final int NAME_OFFSETS_OFFSET_OFFSET = 32;
+  private static final int NAMES_OFFSET_OFFSET = 40;
+  private static final int NAMES_LENGTH_OFFSET = 48;
+  private static final int HEADER_LENGTH = 56;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int count;
+  private final int valuesOffset;
+  private final int nameOffsetsOffset;
+  private final int namesOffset;
+  private final int namesLength;
+
+  private FooObjectSnapshot(final FileChannel channel, final MappedByteBuffer buffer) throws IOException {
+    this.channel = channel;
+    this.buffer = buffer;
+
+    if (buffer.limit() < HEADER_LENGTH) {
+      throw new IOException("Snapshot file is truncated");
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (buffer.get(i) != MAGIC[i]) {
+        throw new IOException("Not a snapshot file");
+      }
+    }
+
+    // the snapshot is written in the byte order of the host that wrote it
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt(BYTE_ORDER_OFFSET) != BYTE_ORDER_MARK) {
+      buffer.order(ByteOrder.BIG_ENDIAN);
+      if (buffer.getInt(BYTE_ORDER_OFFSET) != BYTE_ORDER_MARK) {
+        throw new IOException("Snapshot has an unknown byte order");
+      }
+    }
+
+    if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+      throw new IOException("Unsupported snapshot version: " + buffer.getInt(VERSION_OFFSET));
+    }
+
+    // a MappedByteBuffer is limited to 2GB, so every valid offset fits in an int
+    this.count = readInt(buffer, COUNT_OFFSET);
+    this.valuesOffset = readInt(buffer, VALUES_OFFSET_OFFSET);
+    this.nameOffsetsOffset = readInt(buffer, NAME_OFFSETS_OFFSET_OFFSET);
+    this.namesOffset = readInt(buffer, NAMES_OFFSET_OFFSET);
+    this.namesLength = readInt(buffer, NAMES_LENGTH_OFFSET);
+
+    // values[count], then name_offsets[count + 1], then the names, each in long arithmetic so none can overflow
+    if (valuesOffset < HEADER_LENGTH
+        || (long) valuesOffset + (long) count * Long.BYTES > nameOffsetsOffset
+        || (long) nameOffsetsOffset + (count + 1L) * Long.BYTES > namesOffset
+        || (long) namesOffset + namesLength > buffer.limit()) {
+      throw new IOException("Snapshot is corrupt or truncated");
+    }
+  }
+
+  private static int readInt(final ByteBuffer buffer, final int offset) throws IOException {
+    final long value = buffer.getLong(offset);
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IOException("Snapshot is corrupt, a header field is out of range: " + value);
+    }
+    return (int) value;
+  }
+
+  /**
+   * Open and memory map a snapshot file.
+   *
+   * @param path the snapshot file
+   *
+   * @return the snapshot
+   *
+   * @throws IOException if the file cannot be mapped, or is not a valid snapshot
+   */
+  public static FooObjectSnapshot open(final Path path) throws IOException {
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new FooObjectSnapshot(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public int size() {
+    return count;
+  }
+
+  public long getValue(final int index) {
+    checkIndex(index);
+    return buffer.getLong(valuesOffset + index * Long.BYTES);
+  }
+
+  /**
+   * Decodes the name at the index.
+   *
+   * Names are stored as written by C++, i.e. in JNI modified UTF-8,
+   * which for names without NUL or supplementary characters is identical to UTF-8.
+   *
+   * @param index the index of the name
+   *
+   * @return the name
+   */
+  public String getName(final int index) {
+    checkIndex(index);
+    final long startOffset = buffer.getLong(nameOffsetsOffset + index * Long.BYTES);
+    final long endOffset = buffer.getLong(nameOffsetsOffset + (index + 1) * Long.BYTES);
+    if (startOffset < 0 || endOffset <= startOffset || endOffset > namesLength) {
+      throw new IllegalStateException("Snapshot is corrupt, name " + index + " is outside of the names");
+    }
+    final int start = namesOffset + (int) startOffset;
+    // exclude the NUL terminator
+    final int end = namesOffset + (int) endOffset - 1;
+    final byte[] bytes = new byte[end - start];
+    // a duplicate has its own position, so concurrent readers do not interfere
+    final ByteBuffer names = buffer.duplicate();
+    names.position(start);
+    names.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public FooObject get(final int index) {
+    return new FooObject(getName(index), getValue(index));
+  }
+
+  /**
+   * Get a List view of the snapshot, which decodes each element when it is accessed.
+   *
+   * @return the list view
+   */
+  public List<FooObject> asList() {
+    return new SnapshotList();
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+    }
+  }
+
+  /**
+   * Closes the file. The mapping itself is released
+   * once the buffer is garbage collected.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private class SnapshotList extends AbstractList<FooObject> implements RandomAccess {
+    @Override
+    public FooObject get(final int index) {
+      return FooObjectSnapshot.this.get(index);
+    }
+
+    @Override
+    public int size() {
+      return count;
+    }
+  }
+}
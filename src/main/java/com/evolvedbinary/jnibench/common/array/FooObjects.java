@@ -0,0 +1,85 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.Random;
+
+/**
+ * Generates test data for the array benchmarks.
+ */
+public final class FooObjects {
+
+  private FooObjects() {
+  }
+
+  /**
+   * Create an array of FooObjects with random values,
+   * and names of the form {@code str<value>}.
+   *
+   * @param size the number of objects to create
+   * @param nameLength the length of each name, names are padded or truncated
+   *     to this length, or 0 to leave the names at their natural length
+   * @param random the source of the values
+   *
+   * @return the objects
+   */
+  public static FooObject[] random(final int size, final int nameLength, final Random random) {
+    final FooObject[] fooObjects = new FooObject[size];
+    final StringBuilder name = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      final int num = random.nextInt();
+      name.setLength(0);
+      name.append("str").append(num);
+      if (nameLength > 0) {
+        while (name.length() < nameLength) {
+          name.append('_');
+        }
+        name.setLength(nameLength);
+      }
+      fooObjects[i] = new FooObject(name.toString(), num);
+    }
+    return fooObjects;
+  }
+
+  /**
+   * Estimate the native bytes needed to hold the objects in C++.
+   *
+   * @param fooObjects the objects
+   * @param bytesPerObject the native bytes of each object, excluding its name
+   *
+   * @return the estimated native bytes
+   */
+  public static long estimateNativeSize(final FooObject[] fooObjects, final long bytesPerObject) {
+    long bytes = fooObjects.length * bytesPerObject;
+    for (final FooObject fooObject : fooObjects) {
+      if (fooObject != null && fooObject.getName() != null) {
+        bytes += fooObject.getName().length();
+      }
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.Arrays;
+
+/**
+ * A query over a {@link FooNativeObjectArray}, which is evaluated in C++
+ * by {@link FooNativeObjectArray#query(FooQuery)}, so that only the selected
+ * parts of the matching objects are copied into Java.
+ *
+ * All of the predicates must match for an object to be selected.
+ *
+ * The predicates are encoded as one opcode per predicate, with two
+ * long arguments and one String argument per predicate.
+ */
+public class FooQuery {
+
+  /**
+   * The parts of each matching object to copy into Java.
+   */
+  public enum Projection {
+    NAMES(true, false),
+    VALUES(false, true),
+    NAMES_AND_VALUES(true, true);
+
+    final boolean names;
+    final boolean values;
+
+    Projection(final boolean names, final boolean values) {
+      this.names = names;
+      this.values = values;
+    }
+  }
+
+  // NOTE: must be kept in sync with the opcodes in FooQuery.h
+  static final int VALUE_EQUALS = 0;
+  static final int VALUE_LESS_THAN = 1;
+  static final int VALUE_GREATER_THAN = 2;
+  static final int VALUE_BETWEEN = 3;
+  static final int NAME_EQUALS = 4;
+  static final int NAME_STARTS_WITH = 5;
+  static final int INDEX_RANGE = 6;
+
+  final Projection projection;
+  int predicates;
+  int[] ops = new int[4];
+  long[] longArgs = new long[8];
+  String[] stringArgs = new String[4];
+
+  private FooQuery(final Projection projection) {
+    this.projection = projection;
+  }
+
+  /**
+   * Start a query which selects every object.
+   *
+   * @param projection the parts of each matching object to copy into Java
+   *
+   * @return the query
+   */
+  public static FooQuery select(final Projection projection) {
+    if (projection == null) {
+      throw new NullPointerException("projection must not be null");
+    }
+    return new FooQuery(projection);
+  }
+
+  public FooQuery valueEquals(final long value) {
+    return add(VALUE_EQUALS, value, 0, null);
+  }
+
+  public FooQuery valueLessThan(final long value) {
+    return add(VALUE_LESS_THAN, value, 0, null);
+  }
+
+  public FooQuery valueGreaterThan(final long value) {
+    return add(VALUE_GREATER_THAN, value, 0, null);
+  }
+
+  /**
+   * @param from the lowest matching value, inclusive
+   * @param to the highest matching value, inclusive
+   *
+   * @return this query
+   */
+  public FooQuery valueBetween(final long from, final long to) {
+    return add(VALUE_BETWEEN, from, to, null);
+  }
+
+  public FooQuery nameEquals(final String name) {
+    return add(NAME_EQUALS, 0, 0, checkNotNull(name));
+  }
+
+  public FooQuery nameStartsWith(final String prefix) {
+    return add(NAME_STARTS_WITH, 0, 0, checkNotNull(prefix));
+  }
+
+  /**
+   * @param from the first matching index, inclusive
+   * @param to the last matching index, exclusive
+   *
+   * @return this query
+   */
+  public FooQuery indexRange(final long from, final long to) {
+    if (from < 0 || to < from) {
+      throw new IllegalArgumentException("Invalid index range: " + from + " to " + to);
+    }
+    return add(INDEX_RANGE, from, to, null);
+  }
+
+  private FooQuery add(final int op, final long arg1, final long arg2, final String stringArg) {
+    if (predicates == ops.length) {
+      ops = Arrays.copyOf(ops, predicates * 2);
+      longArgs = Arrays.copyOf(longArgs, predicates * 4);
+      stringArgs = Arrays.copyOf(stringArgs, predicates * 2);
+    }
+    ops[predicates] = op;
+    longArgs[predicates * 2] = arg1;
+    longArgs[predicates * 2 + 1] = arg2;
+    stringArgs[predicates] = stringArg;
+    predicates++;
+    return this;
+  }
+
+  private static String checkNotNull(final String arg) {
+    if (arg == null) {
+      throw new NullPointerException("Argument must not be null");
+    }
+    return arg;
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The objects selected by a {@link FooQuery}, as parallel arrays
+ * of the parts chosen by its {@link FooQuery.Projection}.
+ */
+public class FooQueryResult {
+  private final String[] names;
+  private final long[] values;
+  private final int size;
+
+  FooQueryResult(final String[] names, final long[] values) {
+    this.names = names;
+    this.values = values;
+    this.size = names != null ? names.length : values.length;
+  }
+
+  /**
+   * @return the number of matching objects
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the names of the matching objects
+   *
+   * @throws IllegalStateException if the names were not projected
+   */
+  public String[] getNames() {
+    if (names == null) {
+      throw new IllegalStateException("Names were not projected");
+    }
+    return names;
+  }
+
+  /**
+   * @return the values of the matching objects
+   *
+   * @throws IllegalStateException if the values were not projected
+   */
+  public long[] getValues() {
+    if (values == null) {
+      throw new IllegalStateException("Values were not projected");
+    }
+    return values;
+  }
+
+  /**
+   * Materialise the matching objects.
+   *
+   * @return the matching objects
+   *
+   * @throws IllegalStateException if the names and values were not both projected
+   */
+  public List<FooObject> toList() {
+    final String[] names = getNames();
+    final long[] values = getValues();
+    final List<FooObject> fooObjects = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      fooObjects.add(new FooObject(names[i], values[i]));
+    }
+    return fooObjects;
+  }
+}
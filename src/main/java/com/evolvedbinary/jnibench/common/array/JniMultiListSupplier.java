@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.List;
+
+/**
+ * Gets the objects of several native arrays in a single JNI call,
+ * rather than one call per array as by a {@link JniListSupplier}.
+ */
+public interface JniMultiListSupplier<T> {
+
+  /**
+   * Get the objects of each native array.
+   *
+   * @param nativeObjectArrays the native arrays
+   *
+   * @return a list of the objects of each native array, in the same order as the native arrays
+   */
+  List<List<T>> getObjectLists(final List<? extends NativeObjectArray<T>> nativeObjectArrays);
+
+  /**
+   * Get the native handles of native arrays, to pass to C++ in a single call.
+   *
+   * @param nativeObjectArrays the native arrays
+   *
+   * @return the native handle of each native array
+   */
+  static long[] handles(final List<? extends NativeObjectArray<?>> nativeObjectArrays) {
+    final long[] handles = new long[nativeObjectArrays.size()];
+    for (int i = 0; i < handles.length; i++) {
+      handles[i] = nativeObjectArrays.get(i).get_nativeHandle();
+    }
+    return handles;
+  }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An immutable List view of a native array, which only
+ * copies elements from C++ to Java when they are accessed.
+ *
+ * Elements are fetched in windows of {@code windowSize} neighbouring
+ * elements per JNI call, and the most recently used windows are
+ * kept in a small LRU cache.
+ *
+ * The native array is pinned for as long as the view is open,
+ * so the view must be closed when it is no longer needed.
+ */
+public class LazyFooObjectList extends AbstractList<FooObject> implements RandomAccess, AutoCloseable {
+  private final NativeObjectArray<FooObject> nativeObjectArray;
+  private final int size;
+  private final int windowSize;
+  private final WindowCache windows;
+
+  // reused for each window fetched from C++
+  private final String[] names;
+  private final long[] values;
+
+  private boolean closed;
+
+  /**
+   * @param nativeObjectArray the native array to view, it is pinned until the view is closed
+   * @param windowSize the number of elements to fetch in each JNI call
+   * @param maxCachedWindows the maximum number of windows to cache
+   */
+  public LazyFooObjectList(final NativeObjectArray<FooObject> nativeObjectArray, final int windowSize,
+      final int maxCachedWindows) {
+    if (windowSize < 1 || maxCachedWindows < 1) {
+      throw new IllegalArgumentException("windowSize and maxCachedWindows must be at least 1");
+    }
+    nativeObjectArray.pin();
+    this.nativeObjectArray = nativeObjectArray;
+    this.size = (int) nativeObjectArray.size();
+    this.windowSize = windowSize;
+    this.windows = new WindowCache(maxCachedWindows);
+    this.names = new String[windowSize];
+    this.values = new long[windowSize];
+  }
+
+  @Override
+  public FooObject get(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    final int windowIdx = index / windowSize;
+    FooObject[] window = windows.get(windowIdx);
+    if (window == null) {
+      window = fetchWindow(windowIdx * windowSize);
+      windows.put(windowIdx, window);
+    }
+    return window[index % windowSize];
+  }
+
+  private FooObject[] fetchWindow(final int from) {
+    if (closed) {
+      throw new IllegalStateException("List has been closed");
+    }
+
+    final int len = Math.min(windowSize, size - from);
+    getWindow(nativeObjectArray.get_nativeHandle(), from, len, names, values);
+
+    final FooObject[] window = new FooObject[len];
+    for (int i = 0; i < len; i++) {
+      window[i] = new FooObject(names[i], values[i]);
+      names[i] = null;
+    }
+    return window;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Releases the cached elements and unpins the native array.
+   */
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      windows.clear();
+      nativeObjectArray.unpin();
+    }
+  }
+
+  /**
+   * An LRU cache of windows, keyed by window index.
+   */
+  private static final class WindowCache extends LinkedHashMap<Integer, FooObject[]> {
+    private static final long serialVersionUID = 1L;
+
+    private final int maxCachedWindows;
+
+    WindowCache(final int maxCachedWindows) {
+      super(maxCachedWindows * 2, 0.75f, true);
+      this.maxCachedWindows = maxCachedWindows;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Integer, FooObject[]> eldest) {
+      return size() > maxCachedWindows;
+    }
+  }
+
+  private static native void getWindow(final long handle, final int from, final int len,
+      final String[] names, final long[] values);
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes the names which C++ copies out of its native arrays, which are held in
+ * JNI modified UTF-8, as returned by {@code GetStringUTFChars} and read by {@code NewStringUTF}.
+ *
+ * Modified UTF-8 differs from standard UTF-8 only in its encoding of NUL, as the two bytes
+ * {@code C0 80}, and of supplementary characters, as a surrogate pair of three bytes each,
+ * starting {@code ED}. Names without either lead byte are decoded by the JDK's UTF-8 decoder.
+ */
+public final class ModifiedUtf8 {
+
+  private ModifiedUtf8() {
+  }
+
+  /**
+   * Decode a string from modified UTF-8.
+   *
+   * @param bytes the encoded string
+   * @param offset the offset of the first byte of the string
+   * @param length the number of bytes of the string
+   *
+   * @return the decoded string, with U+FFFD in place of any malformed sequence
+   */
+  public static String decode(final byte[] bytes, final int offset, final int length) {
+    final int end = offset + length;
+    for (int i = offset; i < end; i++) {
+      // neither can be a continuation byte, which are 0x80 to 0xBF
+      if (bytes[i] == (byte) 0xC0 || bytes[i] == (byte) 0xED) {
+        return decodeModified(bytes, offset, end);
+      }
+    }
+    return new String(bytes, offset, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Each sequence of modified UTF-8 decodes to a single UTF-16 char,
+   * including each half of a surrogate pair.
+   */
+  private static String decodeModified(final byte[] bytes, final int offset, final int end) {
+    final char[] chars = new char[end - offset];
+    int length = 0;
+    int i = offset;
+    while (i < end) {
+      final int b = bytes[i] & 0xFF;
+      if (b < 0x80) {
+        chars[length++] = (char) b;
+        i++;
+      } else if ((b & 0xE0) == 0xC0 && i + 1 < end && isContinuation(bytes[i + 1])) {
+        chars[length++] = (char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+        i += 2;
+      } else if ((b & 0xF0) == 0xE0 && i + 2 < end && isContinuation(bytes[i + 1]) && isContinuation(bytes[i + 2])) {
+        chars[length++] = (char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+        i += 3;
+      } else {
+        chars[length++] = '�';
+        i++;
+      }
+    }
+    return new String(chars, 0, length);
+  }
+
+  private static boolean isContinuation(final byte b) {
+    return (b & 0xC0) == 0x80;
+  }
+}
@@ -0,0 +1,391 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import com.evolvedbinary.jnibench.common.error.NativeOperationException;
+import com.evolvedbinary.jnibench.common.error.Status;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accounts for the native memory of every {@link NativeObjectContainer} in the process,
+ * which is otherwise invisible to the limits of the JVM heap, and optionally
+ * enforces a budget on it.
+ *
+ * The registry is disabled until {@link #enable()} or {@link #setBudget(long, BudgetPolicy)}
+ * is called, and only native arrays created whilst it is enabled are tracked. Once
+ * enabled, the total is exposed through JMX as {@link #OBJECT_NAME}.
+ *
+ * The budget is enforced against an estimate of the size of each native array,
+ * which is reserved before its native memory is allocated, so that
+ * {@link BudgetPolicy#BLOCK} waits before the memory is in use. Once created,
+ * the reservation is replaced by the actual size of the native array. Growth of
+ * a tracked native array, e.g. by {@link SyncedFooObjectList#flush()}, is
+ * accounted for but never rejected.
+ *
+ * Native arrays are tracked through weak references, so that the registry
+ * neither keeps them reachable nor hides them from the
+ * {@link com.evolvedbinary.jnibench.common.NativeLeakTracker}. The bytes of a
+ * native array which becomes unreachable without being closed are released
+ * from the total once its reference is cleared, although its native memory
+ * has leaked.
+ */
+public final class NativeMemoryRegistry implements NativeMemoryRegistryMXBean {
+  public static final String OBJECT_NAME = "com.evolvedbinary.jnibench:type=NativeMemoryRegistry";
+
+  private static final NativeMemoryRegistry INSTANCE = new NativeMemoryRegistry();
+
+  private volatile boolean enabled;
+
+  /**
+   * The native bytes of each tracked native array, in least recently used order.
+   */
+  private final LinkedHashMap<Tracked, Long> tracked = new LinkedHashMap<>(16, 0.75f, true);
+  private final ReferenceQueue<NativeObjectContainer<?>> cleared = new ReferenceQueue<>();
+
+  private long totalBytes;
+  private long peakBytes;
+  private long budgetBytes;
+  private BudgetPolicy budgetPolicy = BudgetPolicy.FAIL_FAST;
+  private long evictions;
+  private long rejections;
+  private long blocks;
+
+  private NativeMemoryRegistry() {
+  }
+
+  public static NativeMemoryRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Start tracking the native arrays which are created from now on,
+   * and register the metrics with the platform MBean server.
+   */
+  public synchronized void enable() {
+    if (enabled) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    } catch (final JMException e) {
+      throw new IllegalStateException("Unable to register " + OBJECT_NAME, e);
+    }
+    final Thread reaper = new Thread(this::reap, "native-memory-registry");
+    reaper.setDaemon(true);
+    reaper.start();
+    enabled = true;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set a budget for the total native bytes of the tracked native arrays,
+   * enabling the registry if it is not already enabled.
+   *
+   * @param budgetBytes the budget, or 0 for no budget
+   * @param budgetPolicy what to do when creating a native array would exceed the budget
+   */
+  public synchronized void setBudget(final long budgetBytes, final BudgetPolicy budgetPolicy) {
+    if (budgetBytes < 0) {
+      throw new IllegalArgumentException("budgetBytes must not be negative");
+    }
+    enable();
+    this.budgetBytes = budgetBytes;
+    this.budgetPolicy = budgetPolicy;
+    notifyAll();
+  }
+
+  /**
+   * Allow or prevent a native array from being closed by {@link BudgetPolicy#EVICT_LRU},
+   * e.g. because it is a cached copy which can be recreated.
+   *
+   * Only the owner of a native array should make it evictable, as once evicted
+   * the native array is closed, and must not be used again. The owner is told
+   * through {@code onEviction}, after which it must drop the native array. An
+   * evictable native array which is used by other threads should be pinned
+   * whilst in use, as pinned native arrays are never evicted.
+   *
+   * @param nativeObjectArray the native array
+   * @param onEviction called after the native array has been evicted,
+   *     or null to prevent the native array from being evicted
+   */
+  public synchronized void setEvictable(final NativeObjectContainer<?> nativeObjectArray, final Runnable onEviction) {
+    final Tracked entry = nativeObjectArray.registryEntry;
+    if (entry != null) {
+      entry.onEviction = onEviction;
+    }
+  }
+
+  /**
+   * Record a use of a native array, so that the least
+   * recently used native arrays are evicted first.
+   *
+   * Called by {@link NativeObjectContainer#get_nativeHandle()}.
+   *
+   * @param nativeObjectArray the native array
+   */
+  void touch(final NativeObjectContainer<?> nativeObjectArray) {
+    if (enabled) {
+      synchronized (this) {
+        final Tracked entry = nativeObjectArray.registryEntry;
+        if (entry != null) {
+          tracked.get(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Called before a native array is created, to admit its estimated
+   * size within the budget, which is then held until {@link #allocated(NativeObjectContainer, long)}
+   * or {@link #cancelled(long)} is called.
+   *
+   * @param bytes the estimated native bytes of the native array
+   *
+   * @return the reserved bytes
+   *
+   * @throws NativeOperationException if the native array cannot be admitted within the budget
+   */
+  long reserve(final long bytes) {
+    final List<NativeObjectContainer<?>> victims = new ArrayList<>();
+    final List<Runnable> evictionCallbacks = new ArrayList<>();
+
+    synchronized (this) {
+      if (budgetBytes > 0 && totalBytes + bytes > budgetBytes) {
+        if (bytes > budgetBytes) {
+          throw reject(bytes);
+        }
+
+        switch (budgetPolicy) {
+          case BLOCK:
+            blocks++;
+            while (budgetBytes > 0 && totalBytes + bytes > budgetBytes) {
+              try {
+                wait();
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject(bytes);
+              }
+            }
+            break;
+
+          case EVICT_LRU:
+            long evictableBytes = 0;
+            for (final Map.Entry<Tracked, Long> entry : tracked.entrySet()) {
+              if (totalBytes - evictableBytes + bytes <= budgetBytes) {
+                break;
+              }
+              final NativeObjectContainer<?> candidate = entry.getKey().get();
+              if (candidate != null && entry.getKey().onEviction != null && !candidate.isPinned()) {
+                victims.add(candidate);
+                evictableBytes += entry.getValue();
+              }
+            }
+            if (totalBytes - evictableBytes + bytes > budgetBytes) {
+              throw reject(bytes);
+            }
+            for (final NativeObjectContainer<?> victim : victims) {
+              evictionCallbacks.add(victim.registryEntry.onEviction);
+              untrack(victim.registryEntry);
+              victim.registryEntry = null;
+            }
+            evictions += victims.size();
+            break;
+
+          case FAIL_FAST:
+          default:
+            throw reject(bytes);
+        }
+      }
+
+      totalBytes += bytes;
+      peakBytes = Math.max(peakBytes, totalBytes);
+    }
+
+    // close outside of the lock, as closing a native array calls back into the registry
+    for (int i = 0; i < victims.size(); i++) {
+      victims.get(i).close();
+      evictionCallbacks.get(i).run();
+    }
+    return bytes;
+  }
+
+  /**
+   * Called once a native array has been created, replacing
+   * its reservation with its actual size.
+   *
+   * @param nativeObjectArray the native array
+   * @param reservedBytes the bytes reserved by {@link #reserve(long)}
+   */
+  void allocated(final NativeObjectContainer<?> nativeObjectArray, final long reservedBytes) {
+    final long bytes = nativeObjectArray.getNativeSize();
+    synchronized (this) {
+      final Tracked entry = new Tracked(nativeObjectArray, cleared);
+      nativeObjectArray.registryEntry = entry;
+      tracked.put(entry, bytes);
+      totalBytes += bytes - reservedBytes;
+      peakBytes = Math.max(peakBytes, totalBytes);
+      if (bytes < reservedBytes) {
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Called if a native array could not be created after {@link #reserve(long)}.
+   *
+   * @param reservedBytes the bytes reserved by {@link #reserve(long)}
+   */
+  synchronized void cancelled(final long reservedBytes) {
+    totalBytes -= reservedBytes;
+    notifyAll();
+  }
+
+  /**
+   * Called after a tracked native array has been changed.
+   */
+  synchronized void resized(final NativeObjectContainer<?> nativeObjectArray) {
+    final Tracked entry = nativeObjectArray.registryEntry;
+    final Long previous = entry == null ? null : tracked.get(entry);
+    if (previous != null) {
+      final long bytes = nativeObjectArray.getNativeSize();
+      tracked.put(entry, bytes);
+      totalBytes += bytes - previous;
+      peakBytes = Math.max(peakBytes, totalBytes);
+      notifyAll();
+    }
+  }
+
+  /**
+   * Called once a native array has been disposed.
+   */
+  synchronized void released(final NativeObjectContainer<?> nativeObjectArray) {
+    final Tracked entry = nativeObjectArray.registryEntry;
+    nativeObjectArray.registryEntry = null;
+    if (entry != null && untrack(entry)) {
+      notifyAll();
+    }
+  }
+
+  /**
+   * Releases the bytes of each native array which became
+   * unreachable without being closed.
+   */
+  private void reap() {
+    while (true) {
+      final Tracked entry;
+      try {
+        entry = (Tracked) cleared.remove();
+      } catch (final InterruptedException e) {
+        return;
+      }
+      synchronized (this) {
+        if (untrack(entry)) {
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  private boolean untrack(final Tracked entry) {
+    final Long bytes = tracked.remove(entry);
+    if (bytes == null) {
+      return false;
+    }
+    totalBytes -= bytes;
+    return true;
+  }
+
+  private NativeOperationException reject(final long bytes) {
+    rejections++;
+    return new NativeOperationException("Native array of " + bytes + " bytes would exceed the budget of "
+        + budgetBytes + " bytes, with " + totalBytes + " bytes in use", Status.OUT_OF_MEMORY);
+  }
+
+  @Override
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  @Override
+  public synchronized long getPeakBytes() {
+    return peakBytes;
+  }
+
+  @Override
+  public synchronized long getBudgetBytes() {
+    return budgetBytes;
+  }
+
+  @Override
+  public synchronized String getBudgetPolicy() {
+    return budgetPolicy.name();
+  }
+
+  @Override
+  public synchronized int getTrackedCount() {
+    return tracked.size();
+  }
+
+  @Override
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  @Override
+  public synchronized long getRejections() {
+    return rejections;
+  }
+
+  @Override
+  public synchronized long getBlocks() {
+    return blocks;
+  }
+
+  /**
+   * The entry of a tracked native array, which is held by the native
+   * array itself, and compared by identity.
+   */
+  static final class Tracked extends WeakReference<NativeObjectContainer<?>> {
+    Runnable onEviction;
+
+    Tracked(final NativeObjectContainer<?> nativeObjectArray, final ReferenceQueue<NativeObjectContainer<?>> queue) {
+      super(nativeObjectArray, queue);
+    }
+  }
+}
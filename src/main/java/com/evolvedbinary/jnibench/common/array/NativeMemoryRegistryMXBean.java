@@ -0,0 +1,73 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+/**
+ * The metrics of the {@link NativeMemoryRegistry}, as exposed through JMX.
+ */
+public interface NativeMemoryRegistryMXBean {
+
+  /**
+   * @return the total native bytes of the tracked native arrays
+   */
+  long getTotalBytes();
+
+  /**
+   * @return the highest total seen since the registry was enabled
+   */
+  long getPeakBytes();
+
+  /**
+   * @return the budget in bytes, or 0 if there is no budget
+   */
+  long getBudgetBytes();
+
+  /**
+   * @return the policy applied when the budget would be exceeded
+   */
+  String getBudgetPolicy();
+
+  /**
+   * @return the number of tracked native arrays
+   */
+  int getTrackedCount();
+
+  /**
+   * @return the number of native arrays closed to stay within the budget
+   */
+  long getEvictions();
+
+  /**
+   * @return the number of native arrays which were rejected as they would exceed the budget
+   */
+  long getRejections();
+
+  /**
+   * @return the number of times that a caller was blocked to stay within the budget
+   */
+  long getBlocks();
+}
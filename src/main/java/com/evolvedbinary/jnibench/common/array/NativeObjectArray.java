@@ -26,12 +26,12 @@
  */
 package com.evolvedbinary.jnibench.common.array;
 
-import com.evolvedbinary.jnibench.common.NativeBackedObject;
+/**
+ * A native array of objects, whose handle can be read by
+ * the {@link JniListSupplier}s of its type of object.
+ */
+public abstract class NativeObjectArray<T> extends NativeObjectContainer<T> {
 
-public abstract class NativeObjectArray<T> extends NativeBackedObject {
-  NativeObjectArray(T[] objects) {
-    _nativeHandle = newObjectArray(objects);
+  protected NativeObjectArray() {
   }
-
-  protected abstract long newObjectArray(final T[] objectArray);
 }
@@ -0,0 +1,206 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import com.evolvedbinary.jnibench.common.NativeBackedObject;
+
+import java.util.function.Consumer;
+
+/**
+ * A Java Object backed by a C++ container of objects, such as a native array
+ * or a native map, which may be pinned whilst in use, records changes
+ * to its objects, and accounts for its native memory in the {@link NativeMemoryRegistry}.
+ *
+ * Only a {@link NativeObjectArray} can be read by the array suppliers,
+ * as they each expect the handle of one of the native array layouts.
+ */
+public abstract class NativeObjectContainer<T> extends NativeBackedObject {
+  private volatile int pins;
+  private boolean closeRequested;
+  private volatile long version;
+
+  /**
+   * The entry of this native array in the {@link NativeMemoryRegistry},
+   * guarded by the registry.
+   */
+  NativeMemoryRegistry.Tracked registryEntry;
+
+  /**
+   * Subclasses must create their native array
+   * by calling {@link #createNative(long, NativeAllocator)}.
+   */
+  protected NativeObjectContainer() {
+  }
+
+  /**
+   * Creates the native array of a subclass.
+   */
+  @FunctionalInterface
+  protected interface NativeAllocator<E extends Exception> {
+
+    /**
+     * @return the handle of the new native array
+     *
+     * @throws E if the native array cannot be created
+     */
+    long allocate() throws E;
+  }
+
+  /**
+   * Get the number of objects in the native array.
+   *
+   * @return the number of objects
+   */
+  public abstract long size();
+
+  /**
+   * Performs an action for each object in the native array,
+   * without first copying the array into a Java List.
+   *
+   * @param action the action to perform for each object
+   */
+  public abstract void forEach(final Consumer<? super T> action);
+
+  /**
+   * Get the modification counter of the native array,
+   * which changes whenever the objects in the native array are changed.
+   *
+   * @return the version of the native array
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Must be called by subclasses after they change the objects in the native array.
+   */
+  protected void modified() {
+    synchronized (this) {
+      version++;
+    }
+    final NativeMemoryRegistry registry = NativeMemoryRegistry.getInstance();
+    if (registry.isEnabled()) {
+      registry.resized(this);
+    }
+  }
+
+  /**
+   * Must be called by the constructors of subclasses to create their native array,
+   * e.g. from Java objects or natively, and set {@link #_nativeHandle}.
+   *
+   * If the {@link NativeMemoryRegistry} is enabled, the estimated size of the
+   * native array is admitted within its budget before the native array is created,
+   * and then its actual size is accounted for.
+   *
+   * @param estimatedBytes an estimate of the native bytes of the native array
+   * @param allocator creates the native array
+   *
+   * @throws com.evolvedbinary.jnibench.common.error.NativeOperationException if the
+   *     native array would exceed the budget of the registry
+   * @throws E if the allocator cannot create the native array
+   */
+  protected final <E extends Exception> void createNative(final long estimatedBytes,
+      final NativeAllocator<E> allocator) throws E {
+    final NativeMemoryRegistry registry = NativeMemoryRegistry.getInstance();
+    if (!registry.isEnabled()) {
+      _nativeHandle = allocator.allocate();
+      return;
+    }
+
+    final long reservedBytes = registry.reserve(estimatedBytes);
+    try {
+      _nativeHandle = allocator.allocate();
+    } catch (final Exception | Error e) {
+      registry.cancelled(reservedBytes);
+      throw e;
+    }
+    registry.allocated(this, reservedBytes);
+  }
+
+  /**
+   * Get the handle of the native array, recording a use of it
+   * in the {@link NativeMemoryRegistry}.
+   */
+  @Override
+  public long get_nativeHandle() {
+    NativeMemoryRegistry.getInstance().touch(this);
+    return _nativeHandle;
+  }
+
+  boolean isPinned() {
+    return pins > 0;
+  }
+
+  /**
+   * Pins the native array, so that it will not be disposed
+   * until it has been unpinned, even if {@link #close()} is called
+   * in the meantime.
+   *
+   * Each call must be matched by a call to {@link #unpin()}.
+   *
+   * @throws IllegalStateException if the native array has already been closed
+   */
+  public synchronized void pin() {
+    if (_nativeHandle == 0 || closeRequested) {
+      throw new IllegalStateException("Native array has been closed");
+    }
+    pins++;
+  }
+
+  /**
+   * Releases a pin obtained by {@link #pin()}.
+   *
+   * If this was the last pin and {@link #close()} has been called,
+   * the native array is now disposed.
+   */
+  public synchronized void unpin() {
+    if (pins == 0) {
+      throw new IllegalStateException("Native array is not pinned");
+    }
+    if (--pins == 0 && closeRequested) {
+      dispose();
+    }
+  }
+
+  /**
+   * Disposes the native array, or if it is pinned,
+   * defers disposal until it is no longer pinned.
+   */
+  @Override
+  public synchronized void close() {
+    if (pins > 0) {
+      closeRequested = true;
+    } else {
+      dispose();
+    }
+  }
+
+  private void dispose() {
+    super.close();
+    NativeMemoryRegistry.getInstance().released(this);
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps another supplier, so that calls for native arrays of at least
+ * {@code sizeThreshold} objects are made from a bounded pool of platform threads.
+ *
+ * A native call pins a virtual thread to its carrier thread for the duration of
+ * the call, so long calls from many virtual threads can starve the scheduler of
+ * carriers. Whereas a virtual thread which waits for an offloaded call unmounts,
+ * freeing its carrier. Calls for smaller arrays are made directly, as they are
+ * cheaper than the hand-off.
+ *
+ * The native array is pinned whilst an offloaded call is in progress.
+ */
+public class OffloadingListSupplier<T> implements JniListSupplier<T>, AutoCloseable {
+  private final JniListSupplier<T> delegate;
+  private final long sizeThreshold;
+  private final ExecutorService executor;
+  private final boolean ownsExecutor;
+
+  /**
+   * @param delegate the supplier to wrap
+   * @param sizeThreshold the size of native array from which calls are offloaded
+   * @param maxThreads the number of platform threads to offload calls to
+   */
+  public OffloadingListSupplier(final JniListSupplier<T> delegate, final long sizeThreshold, final int maxThreads) {
+    this(delegate, sizeThreshold, Executors.newFixedThreadPool(maxThreads, new OffloadThreadFactory()), true);
+  }
+
+  /**
+   * @param delegate the supplier to wrap
+   * @param sizeThreshold the size of native array from which calls are offloaded
+   * @param executor the executor to offload calls to, which is not shut down by {@link #close()}
+   */
+  public OffloadingListSupplier(final JniListSupplier<T> delegate, final long sizeThreshold,
+      final ExecutorService executor) {
+    this(delegate, sizeThreshold, executor, false);
+  }
+
+  private OffloadingListSupplier(final JniListSupplier<T> delegate, final long sizeThreshold,
+      final ExecutorService executor, final boolean ownsExecutor) {
+    this.delegate = delegate;
+    this.sizeThreshold = sizeThreshold;
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  @Override
+  public List<T> getObjectList(final NativeObjectArray<T> nativeObjectArray) {
+    if (nativeObjectArray.size() < sizeThreshold) {
+      return delegate.getObjectList(nativeObjectArray);
+    }
+
+    nativeObjectArray.pin();
+    final Future<List<T>> result;
+    try {
+      result = executor.submit(() -> {
+        try {
+          return delegate.getObjectList(nativeObjectArray);
+        } finally {
+          nativeObjectArray.unpin();
+        }
+      });
+    } catch (final RejectedExecutionException e) {
+      nativeObjectArray.unpin();
+      throw e;
+    }
+
+    try {
+      return result.get();
+    } catch (final InterruptedException e) {
+      // the offloaded call still completes, and releases the pin
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted whilst waiting for an offloaded call", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new IllegalStateException(cause);
+      }
+    }
+  }
+
+  /**
+   * Shuts down the executor, if it was created by this supplier.
+   */
+  @Override
+  public void close() {
+    if (ownsExecutor) {
+      executor.shutdown();
+    }
+  }
+
+  private static class OffloadThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "jni-offload-" + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In C++ we encode all of the objects flat into a single byte array,
+ * which Java then decodes. This is the uncompressed baseline
+ * for {@link CompressedBytesGetList}.
+ *
+ * Each object is encoded as an int32 name length, the name bytes
+ * and an int64 value, in the native byte order. The name bytes
+ * are those held by C++, i.e. in modified UTF-8, see {@link ModifiedUtf8}.
+ */
+public class PackedBytesGetList implements JniListSupplier<FooObject> {
+  private volatile long lastEncodedSize;
+
+  @Override
+  public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
+    final byte[] encoded = encode(nativeObjectArray.get_nativeHandle());
+    lastEncodedSize = encoded.length;
+
+    return decode(encoded, 0, encoded.length);
+  }
+
+  /**
+   * Decode the objects which were encoded flat into part of a byte array.
+   *
+   * @param encoded the encoded objects
+   * @param from the offset of the first encoded object
+   * @param to the offset after the last encoded object
+   *
+   * @return the decoded objects
+   */
+  static List<FooObject> decode(final byte[] encoded, final int from, final int to) {
+    final ByteBuffer buffer = ByteBuffer.wrap(encoded, from, to - from).order(ByteOrder.nativeOrder());
+    final List<FooObject> objectList = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      final int length = buffer.getInt();
+      final String name = ModifiedUtf8.decode(encoded, buffer.position(), length);
+      buffer.position(buffer.position() + length);
+      objectList.add(new FooObject(name, buffer.getLong()));
+    }
+    return objectList;
+  }
+
+  /**
+   * @return the number of bytes copied from C++ by the last call
+   */
+  public long getLastEncodedSize() {
+    return lastEncodedSize;
+  }
+
+  private static native byte[] encode(final long handle);
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * As {@link PackedBytesGetList}, but for several native arrays
+ * in a single JNI call, which returns a single byte array.
+ *
+ * The encoding is an int32 count of the arrays, the int32 offset
+ * of each array's objects and then of the end of the encoding,
+ * followed by each array's objects encoded as by {@link PackedBytesGetList},
+ * all in the native byte order. As there, the names are in modified UTF-8,
+ * and are decoded by {@link ModifiedUtf8}.
+ */
+public class PackedBytesMultiGetList implements JniMultiListSupplier<FooObject> {
+  private volatile long lastEncodedSize;
+
+  @Override
+  public List<List<FooObject>> getObjectLists(final List<? extends NativeObjectArray<FooObject>> nativeObjectArrays) {
+    final byte[] encoded = encode(JniMultiListSupplier.handles(nativeObjectArrays));
+    lastEncodedSize = encoded.length;
+
+    final ByteBuffer header = ByteBuffer.wrap(encoded).order(ByteOrder.nativeOrder());
+    final int count = header.getInt();
+    final List<List<FooObject>> objectLists = new ArrayList<>(count);
+    int from = header.getInt();
+    for (int i = 0; i < count; i++) {
+      final int to = header.getInt();
+      objectLists.add(PackedBytesGetList.decode(encoded, from, to));
+      from = to;
+    }
+    return objectLists;
+  }
+
+  /**
+   * @return the number of bytes copied from C++ by the last call
+   */
+  public long getLastEncodedSize() {
+    return lastEncodedSize;
+  }
+
+  private static native byte[] encode(final long[] handles);
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.array;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A mutable list of the objects in a {@link FooNativeObjectArray},
+ * which tracks its changes so that {@link #flush()} can send
+ * just those changes back to the native array in a single call.
+ *
+ * Objects may be replaced with {@link #set(int, FooObject)}, removed
+ * from anywhere, or appended to the end of the list. Inserting
+ * anywhere other than the end is not supported.
+ *
+ * The list is not thread safe, and the native array must not be changed
+ * by any other means whilst the list is in use.
+ */
+public class SyncedFooObjectList extends AbstractList<FooObject> implements RandomAccess {
+  private static final int APPENDED = -1;
+
+  private final FooNativeObjectArray fooNativeObjectArray;
+  private final ArrayList<FooObject> elements;
+
+  /**
+   * For each element, its index in the native array as of the last flush,
+   * or {@link #APPENDED} if it has been appended since.
+   */
+  private int[] nativeIndices;
+
+  /**
+   * The native indices of the elements which have been replaced since the last flush.
+   */
+  private final BitSet dirty = new BitSet();
+
+  /**
+   * The native indices of the elements which have been removed since the last flush.
+   */
+  private final BitSet removed = new BitSet();
+
+  private int appended;
+
+  /**
+   * @param fooNativeObjectArray the native array
+   * @param listSupplier the supplier used to fetch the initial contents of the list
+   */
+  public SyncedFooObjectList(final FooNativeObjectArray fooNativeObjectArray,
+      final JniListSupplier<FooObject> listSupplier) {
+    this.fooNativeObjectArray = fooNativeObjectArray;
+    this.elements = new ArrayList<>(listSupplier.getObjectList(fooNativeObjectArray));
+    this.nativeIndices = new int[Math.max(16, elements.size())];
+    resetNativeIndices();
+  }
+
+  @Override
+  public FooObject get(final int index) {
+    return elements.get(index);
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public FooObject set(final int index, final FooObject element) {
+    final FooObject previous = elements.set(index, checkNotNull(element));
+    final int nativeIndex = nativeIndices[index];
+    if (nativeIndex != APPENDED) {
+      dirty.set(nativeIndex);
+    }
+    return previous;
+  }
+
+  @Override
+  public void add(final int index, final FooObject element) {
+    if (index != elements.size()) {
+      throw new UnsupportedOperationException("Objects may only be appended");
+    }
+    elements.add(checkNotNull(element));
+    if (index == nativeIndices.length) {
+      nativeIndices = Arrays.copyOf(nativeIndices, nativeIndices.length * 2);
+    }
+    nativeIndices[index] = APPENDED;
+    appended++;
+    modCount++;
+  }
+
+  @Override
+  public FooObject remove(final int index) {
+    final FooObject previous = elements.remove(index);
+    final int nativeIndex = nativeIndices[index];
+    if (nativeIndex == APPENDED) {
+      appended--;
+    } else {
+      removed.set(nativeIndex);
+      dirty.clear(nativeIndex);
+    }
+    System.arraycopy(nativeIndices, index + 1, nativeIndices, index, elements.size() - index);
+    modCount++;
+    return previous;
+  }
+
+  /**
+   * Get the number of changes which would be sent by {@link #flush()}.
+   *
+   * @return the number of replaced, removed and appended objects
+   */
+  public int pendingChanges() {
+    return dirty.cardinality() + removed.cardinality() + appended;
+  }
+
+  /**
+   * Send the changes made since the last flush to the native array,
+   * as packed columns of indices, names and values in a single call.
+   *
+   * Afterwards the native array holds the same objects as this list.
+   */
+  public void flush() {
+    final int updated = dirty.cardinality();
+    if (updated + removed.cardinality() + appended == 0) {
+      return;
+    }
+
+    final int[] removedIndices = removed.stream().toArray();
+
+    final int count = updated + appended;
+    final int[] indices = new int[count];
+    final String[] names = new String[count];
+    final long[] values = new long[count];
+    int i = 0;
+
+    // find the current position of each dirty object from its native index
+    final int size = elements.size();
+    for (int position = 0; position < size && i < updated; position++) {
+      final int nativeIndex = nativeIndices[position];
+      if (nativeIndex != APPENDED && dirty.get(nativeIndex)) {
+        final FooObject fooObject = elements.get(position);
+        indices[i] = nativeIndex;
+        names[i] = fooObject.name;
+        values[i] = fooObject.value;
+        i++;
+      }
+    }
+
+    // appended objects are always at the end of the list
+    for (int position = size - appended; position < size; position++) {
+      final FooObject fooObject = elements.get(position);
+      indices[i] = APPENDED;
+      names[i] = fooObject.name;
+      values[i] = fooObject.value;
+      i++;
+    }
+
+    fooNativeObjectArray.applyDelta(removedIndices, indices, names, values);
+
+    dirty.clear();
+    removed.clear();
+    appended = 0;
+    resetNativeIndices();
+  }
+
+  private void resetNativeIndices() {
+    final int size = elements.size();
+    for (int i = 0; i < size; i++) {
+      nativeIndices[i] = i;
+    }
+  }
+
+  private static FooObject checkNotNull(final FooObject element) {
+    if (element == null) {
+      throw new NullPointerException("FooObject must not be null");
+    }
+    return element;
+  }
+}
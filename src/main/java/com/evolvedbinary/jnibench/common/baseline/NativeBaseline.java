@@ -0,0 +1,87 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.baseline;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+import com.evolvedbinary.jnibench.common.array.NativeObjectArray;
+
+/**
+ * Runs the C++ baselines of NativeBaseline.h, which perform the same work as
+ * the JNI benchmarks entirely in C++, each in a single JNI call, so that
+ * their cost does not include crossing JNI for each operation.
+ *
+ * The same baselines can also be run without the JVM by the
+ * standalone harness in {@code src/test/c++}.
+ */
+public final class NativeBaseline {
+
+  private NativeBaseline() {
+  }
+
+  /**
+   * Time allocating a C++ Foo, as each FooByCall does through JNI.
+   *
+   * @param iterations the number of Foo to allocate
+   * @param dispose true to delete each Foo immediately, as closing each FooByCall does
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public static long timeFooAllocation(final int iterations, final boolean dispose) {
+    return timeAllocation(iterations, dispose);
+  }
+
+  /**
+   * Time copying every object of a native array into a new C++ vector, which is
+   * the C++ equivalent of an array supplier building a List of FooObjects.
+   *
+   * @param nativeObjectArray the native array, in any layout
+   * @param iterations the number of copies to make
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public static long timeCopy(final NativeObjectArray<FooObject> nativeObjectArray, final int iterations) {
+    return timeCopy(nativeObjectArray.get_nativeHandle(), iterations);
+  }
+
+  /**
+   * Time reading every name and value of a native array in C++.
+   *
+   * @param nativeObjectArray the native array, in any layout
+   * @param iterations the number of times to iterate the array
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public static long timeIteration(final NativeObjectArray<FooObject> nativeObjectArray, final int iterations) {
+    return timeIteration(nativeObjectArray.get_nativeHandle(), iterations);
+  }
+
+  private static native long timeAllocation(final int iterations, final boolean dispose);
+
+  private static native long timeCopy(final long handle, final int iterations);
+
+  private static native long timeIteration(final long handle, final int iterations);
+}
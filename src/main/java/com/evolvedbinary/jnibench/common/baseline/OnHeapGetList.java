@@ -0,0 +1,73 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.baseline;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+import com.evolvedbinary.jnibench.common.array.JniListSupplier;
+import com.evolvedbinary.jnibench.common.array.NativeObjectArray;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Java baseline for the array suppliers, which builds the same
+ * List of FooObjects from a copy of the objects held on the Java heap,
+ * without crossing JNI.
+ *
+ * The names are held as UTF-8 bytes and decoded for each list, as the
+ * suppliers must create each String from the UTF-8 bytes held in C++.
+ */
+public class OnHeapGetList implements JniListSupplier<FooObject> {
+
+  private final byte[][] names;
+  private final long[] values;
+
+  /**
+   * @param fooObjects the objects, which should be the same as those in the native array
+   */
+  public OnHeapGetList(final FooObject[] fooObjects) {
+    this.names = new byte[fooObjects.length][];
+    this.values = new long[fooObjects.length];
+    for (int i = 0; i < fooObjects.length; i++) {
+      names[i] = fooObjects[i].getName().getBytes(StandardCharsets.UTF_8);
+      values[i] = fooObjects[i].getValue();
+    }
+  }
+
+  /**
+   * @param nativeObjectArray ignored, the list is built from the objects held on the Java heap
+   */
+  @Override
+  public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
+    final List<FooObject> list = new ArrayList<>(names.length);
+    for (int i = 0; i < names.length; i++) {
+      list.add(new FooObject(new String(names[i], StandardCharsets.UTF_8), values[i]));
+    }
+    return list;
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.call;
+
+/**
+ * Configures the cost of the C++ object which backs each of the FooByCall*
+ * objects, so that they can stand in for the heavier native objects of a
+ * real API, rather than measuring only the cost of crossing JNI.
+ *
+ * By default the C++ object costs (almost) nothing to construct and destruct.
+ * The cost applies to every C++ object constructed after it is set.
+ */
+public final class FooCost {
+
+    private FooCost() {
+    }
+
+    /**
+     * Set the cost of constructing and destructing each subsequent C++ object.
+     *
+     * @param payloadBytes the size of a zeroed payload which each object allocates
+     * @param constructorWork the number of rounds of computation (about a nanosecond each)
+     *     performed by the constructor
+     * @param memberAllocations the number of small members which each object allocates separately
+     * @param destructorWork the number of rounds of computation performed by the destructor
+     *
+     * @throws IllegalArgumentException if any of the costs are negative
+     */
+    public static void set(final int payloadBytes, final int constructorWork, final int memberAllocations,
+            final int destructorWork) {
+        if (payloadBytes < 0 || constructorWork < 0 || memberAllocations < 0 || destructorWork < 0) {
+            throw new IllegalArgumentException("The cost of a native object cannot be negative");
+        }
+        setCost(payloadBytes, constructorWork, memberAllocations, destructorWork);
+    }
+
+    /**
+     * Reset the cost of each subsequent C++ object to the default.
+     */
+    public static void reset() {
+        set(0, 0, 0, 0);
+    }
+
+    private static native void setCost(final int payloadBytes, final int constructorWork,
+            final int memberAllocations, final int destructorWork);
+}
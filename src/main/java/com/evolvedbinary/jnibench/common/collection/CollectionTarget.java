@@ -0,0 +1,214 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.collection;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+
+import java.util.*;
+
+/**
+ * A type of Java collection which may be built from a native map.
+ *
+ * Map targets are keyed by the name of each FooObject.
+ *
+ * @param <C> the type of the collection
+ */
+public abstract class CollectionTarget<C> {
+
+  public static final CollectionTarget<Map<String, FooObject>> HASH_MAP =
+      new MapTarget("HASH_MAP") {
+        @Override
+        public Map<String, FooObject> newMutable(final int size) {
+          return new HashMap<>(capacity(size));
+        }
+      };
+
+  public static final CollectionTarget<Map<String, FooObject>> TREE_MAP =
+      new MapTarget("TREE_MAP") {
+        @Override
+        public Map<String, FooObject> newMutable(final int size) {
+          return new TreeMap<>();
+        }
+      };
+
+  public static final CollectionTarget<Set<FooObject>> HASH_SET =
+      new CollectionTarget<Set<FooObject>>("HASH_SET", false) {
+        @Override
+        public Set<FooObject> newMutable(final int size) {
+          return new HashSet<>(capacity(size));
+        }
+
+        @Override
+        protected void add(final Set<FooObject> set, final FooObject fooObject) {
+          set.add(fooObject);
+        }
+
+        @Override
+        public Set<FooObject> fromObjects(final FooObject[] fooObjects) {
+          return new HashSet<>(Arrays.asList(fooObjects));
+        }
+      };
+
+  public static final CollectionTarget<List<FooObject>> UNMODIFIABLE_LIST =
+      new CollectionTarget<List<FooObject>>("UNMODIFIABLE_LIST", false) {
+        @Override
+        public List<FooObject> newMutable(final int size) {
+          return new ArrayList<>(size);
+        }
+
+        @Override
+        protected void add(final List<FooObject> list, final FooObject fooObject) {
+          list.add(fooObject);
+        }
+
+        @Override
+        public List<FooObject> seal(final List<FooObject> list) {
+          return Collections.unmodifiableList(list);
+        }
+
+        @Override
+        public List<FooObject> fromObjects(final FooObject[] fooObjects) {
+          return Collections.unmodifiableList(Arrays.asList(fooObjects));
+        }
+      };
+
+  private static final List<CollectionTarget<?>> VALUES =
+      Collections.unmodifiableList(Arrays.<CollectionTarget<?>>asList(HASH_MAP, TREE_MAP, HASH_SET, UNMODIFIABLE_LIST));
+
+  private final String name;
+  private final boolean map;
+
+  private CollectionTarget(final String name, final boolean map) {
+    this.name = name;
+    this.map = map;
+  }
+
+  public static List<CollectionTarget<?>> values() {
+    return VALUES;
+  }
+
+  /**
+   * Get a target by its name, e.g. {@code HASH_MAP}.
+   *
+   * @param name the name of the target
+   *
+   * @return the target
+   *
+   * @throws IllegalArgumentException if there is no target with the name
+   */
+  public static CollectionTarget<?> valueOf(final String name) {
+    for (final CollectionTarget<?> target : VALUES) {
+      if (target.name.equals(name)) {
+        return target;
+      }
+    }
+    throw new IllegalArgumentException("Unknown collection target: " + name);
+  }
+
+  /**
+   * Returns true if the collection is a {@link Map},
+   * or false if it is a {@link Collection}.
+   *
+   * @return true if the collection is a map
+   */
+  public boolean isMap() {
+    return map;
+  }
+
+  /**
+   * Create a mutable collection, which elements may be added to.
+   *
+   * @param size the expected number of elements
+   *
+   * @return the mutable collection
+   */
+  public abstract C newMutable(final int size);
+
+  protected abstract void add(final C collection, final FooObject fooObject);
+
+  /**
+   * Finish a collection which was created by {@link #newMutable(int)}.
+   *
+   * @param collection the mutable collection
+   *
+   * @return the finished collection
+   */
+  public C seal(final C collection) {
+    return collection;
+  }
+
+  /**
+   * Build the collection from an array of objects.
+   *
+   * @param fooObjects the objects
+   *
+   * @return the collection
+   */
+  public C fromObjects(final FooObject[] fooObjects) {
+    final C collection = newMutable(fooObjects.length);
+    for (final FooObject fooObject : fooObjects) {
+      add(collection, fooObject);
+    }
+    return seal(collection);
+  }
+
+  /**
+   * Build the collection from parallel arrays of names and values.
+   *
+   * @param names the names of the objects
+   * @param values the values of the objects
+   *
+   * @return the collection
+   */
+  public C fromColumns(final String[] names, final long[] values) {
+    final C collection = newMutable(names.length);
+    for (int i = 0; i < names.length; i++) {
+      add(collection, new FooObject(names[i], values[i]));
+    }
+    return seal(collection);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  private static int capacity(final int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+
+  private abstract static class MapTarget extends CollectionTarget<Map<String, FooObject>> {
+    MapTarget(final String name) {
+      super(name, true);
+    }
+
+    @Override
+    protected void add(final Map<String, FooObject> map, final FooObject fooObject) {
+      map.put(fooObject.getName(), fooObject);
+    }
+  }
+}
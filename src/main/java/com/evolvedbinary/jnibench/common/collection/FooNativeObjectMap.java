@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.collection;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+import com.evolvedbinary.jnibench.common.array.FooObjects;
+import com.evolvedbinary.jnibench.common.array.NativeObjectContainer;
+
+import java.util.function.Consumer;
+
+/**
+ * A native map of FooObject names to values, held
+ * in either a std::map or a std::unordered_map.
+ *
+ * If there are several objects with the same name,
+ * the value of the last one is kept.
+ *
+ * It is not a {@link com.evolvedbinary.jnibench.common.array.NativeObjectArray},
+ * so it can only be read by a {@link JniCollectionSupplier}.
+ */
+public class FooNativeObjectMap extends NativeObjectContainer<FooObject> {
+
+  /**
+   * The kind of native container.
+   */
+  public enum Kind {
+    /**
+     * std::map, iterated in name order.
+     */
+    ORDERED,
+
+    /**
+     * std::unordered_map, iterated in hash order.
+     */
+    UNORDERED
+  }
+
+  /**
+   * The native bytes of a map node, holding a std::string name and an int64_t value.
+   */
+  private static final long NATIVE_BYTES_PER_OBJECT = 80;
+
+  private final Kind kind;
+
+  public FooNativeObjectMap(final FooObject[] fooObjects, final Kind kind) {
+    super();
+    this.kind = kind;
+    createNative(FooObjects.estimateNativeSize(fooObjects, NATIVE_BYTES_PER_OBJECT),
+        () -> newFooObjectMap(fooObjects, kind.ordinal()));
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  @Override
+  public long size() {
+    return getSize(get_nativeHandle());
+  }
+
+  /**
+   * In C++ we construct each FooObject and pass it
+   * to the action, making one upcall per object.
+   */
+  @Override
+  public void forEach(final Consumer<? super FooObject> action) {
+    forEach(get_nativeHandle(), action);
+  }
+
+  @Override
+  public long getNativeSize() {
+    return getNativeSize(_nativeHandle);
+  }
+
+  @Override
+  protected void disposeInternal() {
+    disposeInternal(_nativeHandle);
+  }
+
+  private static native long newFooObjectMap(final FooObject[] fooObjects, final int kind);
+
+  private static native long getSize(final long handle);
+
+  private static native long getNativeSize(final long handle);
+
+  private static native void forEach(final long handle, final Consumer<? super FooObject> action);
+
+  private static native void disposeInternal(final long handle);
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.collection;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * In Java we allocate an empty mutable collection, then in C++
+ * we construct each FooObject and add it to the collection
+ * by an upcall to {@link Map#put(Object, Object)} or {@link Collection#add(Object)}.
+ *
+ * This is the collection equivalent of {@link com.evolvedbinary.jnibench.common.array.AllocateInCppGetArrayList}.
+ */
+public class UpcallCollectionSupplier<C> implements JniCollectionSupplier<C> {
+  private final CollectionTarget<C> target;
+
+  public UpcallCollectionSupplier(final CollectionTarget<C> target) {
+    this.target = target;
+  }
+
+  @Override
+  public C getCollection(final FooNativeObjectMap nativeObjectMap) {
+    final C collection = target.newMutable((int) nativeObjectMap.size());
+    if (target.isMap()) {
+      putEach(nativeObjectMap.get_nativeHandle(), (Map<?, ?>) collection);
+    } else {
+      addEach(nativeObjectMap.get_nativeHandle(), (Collection<?>) collection);
+    }
+    return target.seal(collection);
+  }
+
+  private static native void putEach(final long handle, final Map<?, ?> map);
+
+  private static native void addEach(final long handle, final Collection<?> collection);
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.error;
+
+import com.evolvedbinary.jnibench.common.array.FooNativeObjectArray;
+import com.evolvedbinary.jnibench.common.array.FooObject;
+
+/**
+ * Native operations which fail at the rate set by {@link FailureInjection},
+ * with a variant of each for every {@link ErrorStrategy}.
+ *
+ * Fetching gets an object from a native array by index,
+ * which also fails if the index is out of range. It only accepts
+ * a {@link FooNativeObjectArray}, as C++ indexes its std::vector directly.
+ *
+ * Constructing creates a native FooObject, which must
+ * be disposed by {@link #dispose(long)}.
+ */
+public final class FallibleOperations {
+
+  private FallibleOperations() {
+  }
+
+  /**
+   * @throws NativeOperationException a new exception, if the fetch fails
+   */
+  public static FooObject fetchThrowNew(final FooNativeObjectArray array, final int index) {
+    return fetchThrowNew(array.get_nativeHandle(), index);
+  }
+
+  /**
+   * @throws NativeOperationException the pre-allocated exception, if the fetch fails
+   */
+  public static FooObject fetchPreallocated(final FooNativeObjectArray array, final int index) {
+    return fetchPreallocated(array.get_nativeHandle(), index);
+  }
+
+  /**
+   * @param result an array of length 1 which receives the object
+   *
+   * @return one of the {@link Status} codes
+   */
+  public static int fetchStatus(final FooNativeObjectArray array, final int index, final FooObject[] result) {
+    return fetchStatus(array.get_nativeHandle(), index, result);
+  }
+
+  /**
+   * @return the object, or null if the fetch fails
+   */
+  public static FooObject fetchSentinel(final FooNativeObjectArray array, final int index) {
+    return fetchSentinel(array.get_nativeHandle(), index);
+  }
+
+  /**
+   * @return the handle of the native object
+   *
+   * @throws NativeOperationException a new exception, if the construction fails
+   */
+  public static native long constructThrowNew(final String name, final long value);
+
+  /**
+   * @return the handle of the native object
+   *
+   * @throws NativeOperationException the pre-allocated exception, if the construction fails
+   */
+  public static native long constructPreallocated(final String name, final long value);
+
+  /**
+   * @param result an array of length 1 which receives the handle of the native object
+   *
+   * @return one of the {@link Status} codes
+   */
+  public static native int constructStatus(final String name, final long value, final long[] result);
+
+  /**
+   * @return the handle of the native object, or 0 if the construction fails
+   */
+  public static native long constructSentinel(final String name, final long value);
+
+  /**
+   * Dispose of a native object created by one of the construct methods.
+   *
+   * @param handle the handle of the native object
+   */
+  public static native void dispose(final long handle);
+
+  private static native FooObject fetchThrowNew(final long handle, final int index);
+
+  private static native FooObject fetchPreallocated(final long handle, final int index);
+
+  private static native int fetchStatus(final long handle, final int index, final FooObject[] result);
+
+  private static native FooObject fetchSentinel(final long handle, final int index);
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.error;
+
+/**
+ * Thrown when a native operation fails.
+ */
+public class NativeOperationException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * A single instance which C++ throws for every failure, so that
+   * neither an exception nor its stack trace need be constructed.
+   */
+  static final NativeOperationException PREALLOCATED =
+      new NativeOperationException("Native operation failed", Status.FAILED, false);
+
+  private final int status;
+
+  /**
+   * Used by JNI ThrowNew, which can only pass a message.
+   *
+   * @param message the message
+   */
+  public NativeOperationException(final String message) {
+    this(message, Status.FAILED);
+  }
+
+  public NativeOperationException(final String message, final int status) {
+    super(message);
+    this.status = status;
+  }
+
+  private NativeOperationException(final String message, final int status, final boolean writableStackTrace) {
+    super(message, null, false, writableStackTrace);
+    this.status = status;
+  }
+
+  /**
+   * Get the status of the failure.
+   *
+   * @return one of the {@link Status} codes
+   */
+  public int getStatus() {
+    return status;
+  }
+}
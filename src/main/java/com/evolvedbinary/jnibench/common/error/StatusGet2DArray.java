@@ -0,0 +1,73 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.error;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+import com.evolvedbinary.jnibench.common.array.JniListSupplier;
+import com.evolvedbinary.jnibench.common.array.NativeObjectArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The status code variant of {@link com.evolvedbinary.jnibench.common.array.AllocateInJavaGet2DArray}.
+ *
+ * In Java we allocate the arrays of names and values, which C++ fills in,
+ * returning a {@link Status} code rather than leaving an exception pending.
+ * The fetch fails at the rate set by {@link FailureInjection}.
+ *
+ * When used as a {@link JniListSupplier}, a failure is thrown
+ * as a {@link NativeOperationException} constructed by Java.
+ */
+public class StatusGet2DArray implements JniStatusListSupplier<FooObject>, JniListSupplier<FooObject> {
+
+  @Override
+  public int getObjectList(final NativeObjectArray<FooObject> nativeObjectArray, final List<? super FooObject> list) {
+    final int len = (int) nativeObjectArray.size();
+    final String[] names = new String[len];
+    final long[] values = new long[len];
+    final int status = getArrays(nativeObjectArray.get_nativeHandle(), names, values);
+    if (status == Status.OK) {
+      for (int i = 0; i < len; i++) {
+        list.add(new FooObject(names[i], values[i]));
+      }
+    }
+    return status;
+  }
+
+  @Override
+  public List<FooObject> getObjectList(final NativeObjectArray<FooObject> nativeObjectArray) {
+    final List<FooObject> list = new ArrayList<>((int) nativeObjectArray.size());
+    final int status = getObjectList(nativeObjectArray, list);
+    if (status != Status.OK) {
+      throw new NativeOperationException("Unable to get objects: " + Status.toString(status), status);
+    }
+    return list;
+  }
+
+  private static native int getArrays(final long handle, final String[] names, final long[] values);
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.producer;
+
+import com.evolvedbinary.jnibench.common.NativeBackedObject;
+import com.evolvedbinary.jnibench.common.array.FooObject;
+
+import java.util.function.Consumer;
+
+/**
+ * A pool of C++ threads, which produce FooObjects
+ * and deliver them to Java by calling back into the JVM.
+ */
+public class NativeProducerPool extends NativeBackedObject {
+  private final int threads;
+  private final AttachMode attachMode;
+
+  /**
+   * @param threads the number of native threads
+   * @param attachMode how the native threads attach to the JVM
+   */
+  public NativeProducerPool(final int threads, final AttachMode attachMode) {
+    super();
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1");
+    }
+    this.threads = threads;
+    this.attachMode = attachMode;
+    this._nativeHandle = newProducerPool(threads, attachMode.ordinal());
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public AttachMode getAttachMode() {
+    return attachMode;
+  }
+
+  /**
+   * Have each native thread produce objects and deliver them to the sink,
+   * blocking until all of the objects have been delivered.
+   *
+   * The sink is called concurrently from all of the native threads.
+   * If the sink throws an exception, the thread which called it stops
+   * producing, and the first such exception is rethrown by this method.
+   *
+   * @param sink receives the objects
+   * @param objectsPerThread the number of objects produced by each thread
+   */
+  public void produce(final Consumer<? super FooObject> sink, final int objectsPerThread) {
+    produce(_nativeHandle, sink, objectsPerThread);
+  }
+
+  @Override
+  protected void disposeInternal() {
+    disposeInternal(_nativeHandle);
+  }
+
+  private static native long newProducerPool(final int threads, final int attachMode);
+
+  private static native void produce(final long handle, final Consumer<? super FooObject> sink,
+      final int objectsPerThread);
+
+  private static native void disposeInternal(final long handle);
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.profile;
+
+import java.io.PrintStream;
+
+/**
+ * Reads the per-phase timings of the array and call natives.
+ *
+ * The natives are only timed when the library is an instrumented build,
+ * i.e. built with the Maven profile {@code instrumented}, as the timing
+ * itself costs a few tens of nanoseconds per phase. Otherwise every
+ * histogram is empty.
+ *
+ * The time spent outside of the natives, i.e. the JNI transitions and the
+ * Java side of each strategy, is the thread time of a benchmark, i.e. its wall
+ * time multiplied by its number of threads, less the {@link NativePhase#TOTAL}
+ * time of its natives, which is summed across all threads.
+ *
+ * The cost of reading the clock is subtracted from each recorded duration,
+ * but the rest of the cost of timing a phase is still included in the
+ * phases which enclose it, and is reported separately.
+ */
+public final class NativeProfile {
+
+  private static final int OVERHEAD_SAMPLES = 100_000;
+
+  private NativeProfile() {
+  }
+
+  /**
+   * Determine if the native library is an instrumented build.
+   *
+   * @return true if the natives are timed
+   */
+  public static native boolean isInstrumented();
+
+  /**
+   * Clear the histograms of every phase.
+   */
+  public static void reset() {
+    resetHistograms();
+  }
+
+  /**
+   * Get a snapshot of the durations recorded for a phase
+   * since the last {@link #reset()}.
+   *
+   * @param phase the phase
+   *
+   * @return the histogram of the phase
+   */
+  public static PhaseHistogram getHistogram(final NativePhase phase) {
+    final long[] values = getHistogram(phase.ordinal());
+    final long[] buckets = new long[values.length - 2];
+    System.arraycopy(values, 2, buckets, 0, buckets.length);
+    return new PhaseHistogram(phase, values[0], values[1], buckets);
+  }
+
+  /**
+   * Measure the mean cost of timing an empty phase, which is
+   * included in the duration of any phase that encloses it.
+   *
+   * @return the overhead in nanoseconds
+   */
+  public static long getOverheadNanos() {
+    return measureOverhead(OVERHEAD_SAMPLES);
+  }
+
+  /**
+   * Print the breakdown of the time recorded since the last {@link #reset()}.
+   *
+   * @param out the stream to print to
+   * @param description a description of what was run
+   * @param wallNanos the wall time of what was run, in nanoseconds
+   * @param threads the number of threads which ran the natives concurrently
+   */
+  public static void report(final PrintStream out, final String description, final long wallNanos,
+      final int threads) {
+    final PhaseHistogram total = getHistogram(NativePhase.TOTAL);
+    final long overheadNanos = getOverheadNanos();
+    final long threadNanos = wallNanos * threads;
+
+    out.println("Native profile: " + description);
+    out.println(String.format("  wall %dns x %d thread(s), outside natives (transitions and Java) %dns (%s), "
+            + "timing overhead ~%dns per phase", wallNanos, threads, threadNanos - total.getTotalNanos(),
+        percent(threadNanos - total.getTotalNanos(), threadNanos), overheadNanos));
+    out.println(String.format("  %-16s %12s %16s %8s %10s %10s %10s", "phase", "count", "total ns", "% thread",
+        "mean ns", "p50 < ns", "p99 < ns"));
+
+    long attributed = 0;
+    long timed = 0;
+    for (final NativePhase phase : NativePhase.values()) {
+      final PhaseHistogram histogram = phase == NativePhase.TOTAL ? total : getHistogram(phase);
+      if (phase != NativePhase.TOTAL) {
+        attributed += histogram.getTotalNanos();
+        timed += histogram.getCount();
+      }
+      out.println(String.format("  %-16s %12d %16d %8s %10.1f %10d %10d", phase, histogram.getCount(),
+          histogram.getTotalNanos(), percent(histogram.getTotalNanos(), threadNanos), histogram.getMeanNanos(),
+          histogram.getPercentileNanos(0.5), histogram.getPercentileNanos(0.99)));
+    }
+
+    // the cost of timing each phase within TOTAL
+    final long timingNanos = Math.min(timed * overheadNanos, Math.max(0, total.getTotalNanos() - attributed));
+    final long otherNanos = total.getTotalNanos() - attributed - timingNanos;
+    out.println(String.format("  %-16s %12s %16d %8s", "(timing)", "", timingNanos,
+        percent(timingNanos, threadNanos)));
+    out.println(String.format("  %-16s %12s %16d %8s", "(other native)", "", otherNanos,
+        percent(otherNanos, threadNanos)));
+  }
+
+  private static String percent(final long nanos, final long wallNanos) {
+    if (wallNanos <= 0) {
+      return "n/a";
+    }
+    return String.format("%.1f%%", 100.0 * nanos / wallNanos);
+  }
+
+  private static native void resetHistograms();
+
+  private static native long[] getHistogram(final int phase);
+
+  private static native long measureOverhead(final int samples);
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.profile;
+
+/**
+ * A snapshot of the durations recorded for a {@link NativePhase},
+ * in power of two buckets.
+ *
+ * Bucket 0 counts durations of 0ns, and bucket b &gt; 0
+ * counts durations of [2^(b-1), 2^b) ns.
+ */
+public class PhaseHistogram {
+  private final NativePhase phase;
+  private final long count;
+  private final long totalNanos;
+  private final long[] buckets;
+
+  public PhaseHistogram(final NativePhase phase, final long count, final long totalNanos, final long[] buckets) {
+    this.phase = phase;
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.buckets = buckets;
+  }
+
+  public NativePhase getPhase() {
+    return phase;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  public long[] getBuckets() {
+    return buckets.clone();
+  }
+
+  public double getMeanNanos() {
+    return count == 0 ? 0 : (double) totalNanos / count;
+  }
+
+  /**
+   * Get an upper bound of a percentile of the durations.
+   *
+   * @param percentile the percentile, between 0 and 1
+   *
+   * @return the exclusive upper bound in nanoseconds of the bucket which
+   *     holds the percentile, or 0 if nothing was recorded
+   */
+  public long getPercentileNanos(final double percentile) {
+    final long rank = (long) Math.ceil(percentile * count);
+    long seen = 0;
+    for (int b = 0; b < buckets.length; b++) {
+      seen += buckets[b];
+      if (seen > 0 && seen >= rank) {
+        return b == 0 ? 1 : b >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << b;
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+/**
+ * The types of field which a {@link Record} may hold.
+ *
+ * The code of each type is shared with C++, see {@code Record.h}.
+ */
+public enum FieldType {
+  INT('I', false),
+  LONG('L', false),
+  DOUBLE('D', false),
+  STRING('S', true),
+  BYTES('B', true),
+  NESTED('N', true);
+
+  private final char mixCode;
+  private final boolean reference;
+
+  FieldType(final char mixCode, final boolean reference) {
+    this.mixCode = mixCode;
+    this.reference = reference;
+  }
+
+  /**
+   * Get the character which represents this type in a field mix,
+   * see {@link RecordSchema#generate(int, String)}.
+   *
+   * @return the upper-case mix code
+   */
+  public char getMixCode() {
+    return mixCode;
+  }
+
+  /**
+   * Is this a reference type, i.e. may a field of this type be nullable.
+   *
+   * @return true if this is a reference type
+   */
+  public boolean isReference() {
+    return reference;
+  }
+
+  static FieldType fromMixCode(final char mixCode) {
+    for (final FieldType fieldType : values()) {
+      if (fieldType.mixCode == Character.toUpperCase(mixCode)) {
+        return fieldType;
+      }
+    }
+    throw new IllegalArgumentException("Unknown field type: " + mixCode);
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+
+/**
+ * A record of 10 fields, of the types {@code ILDSBN} repeated.
+ */
+public final class MixedRecord10 extends Record {
+  static final RecordType TYPE = new RecordType("ILDSBNILDS", MixedRecord10.class, MixedRecord10::new,
+      MixedRecord10::fromColumns, MixedRecord10::decode);
+
+  int f0;
+  long f1;
+  double f2;
+  String f3;
+  byte[] f4;
+  FooObject f5;
+  int f6;
+  long f7;
+  double f8;
+  String f9;
+
+  MixedRecord10() {
+  }
+
+  public MixedRecord10(
+      final int f0, final long f1, final double f2,
+      final String f3, final byte[] f4, final FooObject f5,
+      final int f6, final long f7, final double f8,
+      final String f9) {
+    this.f0 = f0;
+    this.f1 = f1;
+    this.f2 = f2;
+    this.f3 = f3;
+    this.f4 = f4;
+    this.f5 = f5;
+    this.f6 = f6;
+    this.f7 = f7;
+    this.f8 = f8;
+    this.f9 = f9;
+  }
+
+  /**
+   * A static factory, which C++ calls for
+   * {@link com.evolvedbinary.jnibench.common.array.ConstructionStrategy#STATIC_FACTORY},
+   * declared to return a Record so that its JNI signature only depends on the fields.
+   */
+  static Record create(
+      final int f0, final long f1, final double f2,
+      final String f3, final byte[] f4, final FooObject f5,
+      final int f6, final long f7, final double f8,
+      final String f9) {
+    return new MixedRecord10(
+        f0, f1, f2, f3, f4, f5,
+        f6, f7, f8, f9);
+  }
+
+  static MixedRecord10 fromColumns(final RecordColumns columns, final int index) {
+    return new MixedRecord10(
+        columns.ints[0][index], columns.longs[0][index], columns.doubles[0][index],
+        columns.strings[0][index], columns.bytes[0][index], columns.nested(0, index),
+        columns.ints[1][index], columns.longs[1][index], columns.doubles[1][index],
+        columns.strings[1][index]);
+  }
+
+  static MixedRecord10 decode(final RecordDecoder decoder) {
+    return new MixedRecord10(
+        decoder.getInt(), decoder.getLong(), decoder.getDouble(), decoder.getString(),
+        decoder.getBytes(), decoder.getNested(), decoder.getInt(), decoder.getLong(),
+        decoder.getDouble(), decoder.getString());
+  }
+
+  @Override
+  public int width() {
+    return 10;
+  }
+
+  @Override
+  public Object get(final int field) {
+    switch (field) {
+      case 0: return f0;
+      case 1: return f1;
+      case 2: return f2;
+      case 3: return f3;
+      case 4: return f4;
+      case 5: return f5;
+      case 6: return f6;
+      case 7: return f7;
+      case 8: return f8;
+      case 9: return f9;
+      default: throw new IndexOutOfBoundsException("Field: " + field + ", Width: 10");
+    }
+  }
+}
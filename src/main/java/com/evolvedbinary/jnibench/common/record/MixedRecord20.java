@@ -0,0 +1,163 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+
+/**
+ * A record of 20 fields, of the types {@code ILDSBN} repeated.
+ */
+public final class MixedRecord20 extends Record {
+  static final RecordType TYPE = new RecordType("ILDSBNILDSBNILDSBNIL", MixedRecord20.class, MixedRecord20::new,
+      MixedRecord20::fromColumns, MixedRecord20::decode);
+
+  int f0;
+  long f1;
+  double f2;
+  String f3;
+  byte[] f4;
+  FooObject f5;
+  int f6;
+  long f7;
+  double f8;
+  String f9;
+  byte[] f10;
+  FooObject f11;
+  int f12;
+  long f13;
+  double f14;
+  String f15;
+  byte[] f16;
+  FooObject f17;
+  int f18;
+  long f19;
+
+  MixedRecord20() {
+  }
+
+  public MixedRecord20(
+      final int f0, final long f1, final double f2,
+      final String f3, final byte[] f4, final FooObject f5,
+      final int f6, final long f7, final double f8,
+      final String f9, final byte[] f10, final FooObject f11,
+      final int f12, final long f13, final double f14,
+      final String f15, final byte[] f16, final FooObject f17,
+      final int f18, final long f19) {
+    this.f0 = f0;
+    this.f1 = f1;
+    this.f2 = f2;
+    this.f3 = f3;
+    this.f4 = f4;
+    this.f5 = f5;
+    this.f6 = f6;
+    this.f7 = f7;
+    this.f8 = f8;
+    this.f9 = f9;
+    this.f10 = f10;
+    this.f11 = f11;
+    this.f12 = f12;
+    this.f13 = f13;
+    this.f14 = f14;
+    this.f15 = f15;
+    this.f16 = f16;
+    this.f17 = f17;
+    this.f18 = f18;
+    this.f19 = f19;
+  }
+
+  /**
+   * A static factory, which C++ calls for
+   * {@link com.evolvedbinary.jnibench.common.array.ConstructionStrategy#STATIC_FACTORY},
+   * declared to return a Record so that its JNI signature only depends on the fields.
+   */
+  static Record create(
+      final int f0, final long f1, final double f2,
+      final String f3, final byte[] f4, final FooObject f5,
+      final int f6, final long f7, final double f8,
+      final String f9, final byte[] f10, final FooObject f11,
+      final int f12, final long f13, final double f14,
+      final String f15, final byte[] f16, final FooObject f17,
+      final int f18, final long f19) {
+    return new MixedRecord20(
+        f0, f1, f2, f3, f4, f5,
+        f6, f7, f8, f9, f10, f11,
+        f12, f13, f14, f15, f16, f17,
+        f18, f19);
+  }
+
+  static MixedRecord20 fromColumns(final RecordColumns columns, final int index) {
+    return new MixedRecord20(
+        columns.ints[0][index], columns.longs[0][index], columns.doubles[0][index],
+        columns.strings[0][index], columns.bytes[0][index], columns.nested(0, index),
+        columns.ints[1][index], columns.longs[1][index], columns.doubles[1][index],
+        columns.strings[1][index], columns.bytes[1][index], columns.nested(1, index),
+        columns.ints[2][index], columns.longs[2][index], columns.doubles[2][index],
+        columns.strings[2][index], columns.bytes[2][index], columns.nested(2, index),
+        columns.ints[3][index], columns.longs[3][index]);
+  }
+
+  static MixedRecord20 decode(final RecordDecoder decoder) {
+    return new MixedRecord20(
+        decoder.getInt(), decoder.getLong(), decoder.getDouble(), decoder.getString(),
+        decoder.getBytes(), decoder.getNested(), decoder.getInt(), decoder.getLong(),
+        decoder.getDouble(), decoder.getString(), decoder.getBytes(), decoder.getNested(),
+        decoder.getInt(), decoder.getLong(), decoder.getDouble(), decoder.getString(),
+        decoder.getBytes(), decoder.getNested(), decoder.getInt(), decoder.getLong());
+  }
+
+  @Override
+  public int width() {
+    return 20;
+  }
+
+  @Override
+  public Object get(final int field) {
+    switch (field) {
+      case 0: return f0;
+      case 1: return f1;
+      case 2: return f2;
+      case 3: return f3;
+      case 4: return f4;
+      case 5: return f5;
+      case 6: return f6;
+      case 7: return f7;
+      case 8: return f8;
+      case 9: return f9;
+      case 10: return f10;
+      case 11: return f11;
+      case 12: return f12;
+      case 13: return f13;
+      case 14: return f14;
+      case 15: return f15;
+      case 16: return f16;
+      case 17: return f17;
+      case 18: return f18;
+      case 19: return f19;
+      default: throw new IndexOutOfBoundsException("Field: " + field + ", Width: 20");
+    }
+  }
+}
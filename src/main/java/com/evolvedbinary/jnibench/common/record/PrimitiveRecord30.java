@@ -0,0 +1,204 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+/**
+ * A record of 30 fields, of the types {@code ILD} repeated.
+ */
+public final class PrimitiveRecord30 extends Record {
+  static final RecordType TYPE = new RecordType("ILDILDILDILDILDILDILDILDILDILD", PrimitiveRecord30.class, PrimitiveRecord30::new,
+      PrimitiveRecord30::fromColumns, PrimitiveRecord30::decode);
+
+  int f0;
+  long f1;
+  double f2;
+  int f3;
+  long f4;
+  double f5;
+  int f6;
+  long f7;
+  double f8;
+  int f9;
+  long f10;
+  double f11;
+  int f12;
+  long f13;
+  double f14;
+  int f15;
+  long f16;
+  double f17;
+  int f18;
+  long f19;
+  double f20;
+  int f21;
+  long f22;
+  double f23;
+  int f24;
+  long f25;
+  double f26;
+  int f27;
+  long f28;
+  double f29;
+
+  PrimitiveRecord30() {
+  }
+
+  public PrimitiveRecord30(
+      final int f0, final long f1, final double f2,
+      final int f3, final long f4, final double f5,
+      final int f6, final long f7, final double f8,
+      final int f9, final long f10, final double f11,
+      final int f12, final long f13, final double f14,
+      final int f15, final long f16, final double f17,
+      final int f18, final long f19, final double f20,
+      final int f21, final long f22, final double f23,
+      final int f24, final long f25, final double f26,
+      final int f27, final long f28, final double f29) {
+    this.f0 = f0;
+    this.f1 = f1;
+    this.f2 = f2;
+    this.f3 = f3;
+    this.f4 = f4;
+    this.f5 = f5;
+    this.f6 = f6;
+    this.f7 = f7;
+    this.f8 = f8;
+    this.f9 = f9;
+    this.f10 = f10;
+    this.f11 = f11;
+    this.f12 = f12;
+    this.f13 = f13;
+    this.f14 = f14;
+    this.f15 = f15;
+    this.f16 = f16;
+    this.f17 = f17;
+    this.f18 = f18;
+    this.f19 = f19;
+    this.f20 = f20;
+    this.f21 = f21;
+    this.f22 = f22;
+    this.f23 = f23;
+    this.f24 = f24;
+    this.f25 = f25;
+    this.f26 = f26;
+    this.f27 = f27;
+    this.f28 = f28;
+    this.f29 = f29;
+  }
+
+  /**
+   * A static factory, which C++ calls for
+   * {@link com.evolvedbinary.jnibench.common.array.ConstructionStrategy#STATIC_FACTORY},
+   * declared to return a Record so that its JNI signature only depends on the fields.
+   */
+  static Record create(
+      final int f0, final long f1, final double f2,
+      final int f3, final long f4, final double f5,
+      final int f6, final long f7, final double f8,
+      final int f9, final long f10, final double f11,
+      final int f12, final long f13, final double f14,
+      final int f15, final long f16, final double f17,
+      final int f18, final long f19, final double f20,
+      final int f21, final long f22, final double f23,
+      final int f24, final long f25, final double f26,
+      final int f27, final long f28, final double f29) {
+    return new PrimitiveRecord30(
+        f0, f1, f2, f3, f4, f5,
+        f6, f7, f8, f9, f10, f11,
+        f12, f13, f14, f15, f16, f17,
+        f18, f19, f20, f21, f22, f23,
+        f24, f25, f26, f27, f28, f29);
+  }
+
+  static PrimitiveRecord30 fromColumns(final RecordColumns columns, final int index) {
+    return new PrimitiveRecord30(
+        columns.ints[0][index], columns.longs[0][index], columns.doubles[0][index],
+        columns.ints[1][index], columns.longs[1][index], columns.doubles[1][index],
+        columns.ints[2][index], columns.longs[2][index], columns.doubles[2][index],
+        columns.ints[3][index], columns.longs[3][index], columns.doubles[3][index],
+        columns.ints[4][index], columns.longs[4][index], columns.doubles[4][index],
+        columns.ints[5][index], columns.longs[5][index], columns.doubles[5][index],
+        columns.ints[6][index], columns.longs[6][index], columns.doubles[6][index],
+        columns.ints[7][index], columns.longs[7][index], columns.doubles[7][index],
+        columns.ints[8][index], columns.longs[8][index], columns.doubles[8][index],
+        columns.ints[9][index], columns.longs[9][index], columns.doubles[9][index]);
+  }
+
+  static PrimitiveRecord30 decode(final RecordDecoder decoder) {
+    return new PrimitiveRecord30(
+        decoder.getInt(), decoder.getLong(), decoder.getDouble(), decoder.getInt(),
+        decoder.getLong(), decoder.getDouble(), decoder.getInt(), decoder.getLong(),
+        decoder.getDouble(), decoder.getInt(), decoder.getLong(), decoder.getDouble(),
+        decoder.getInt(), decoder.getLong(), decoder.getDouble(), decoder.getInt(),
+        decoder.getLong(), decoder.getDouble(), decoder.getInt(), decoder.getLong(),
+        decoder.getDouble(), decoder.getInt(), decoder.getLong(), decoder.getDouble(),
+        decoder.getInt(), decoder.getLong(), decoder.getDouble(), decoder.getInt(),
+        decoder.getLong(), decoder.getDouble());
+  }
+
+  @Override
+  public int width() {
+    return 30;
+  }
+
+  @Override
+  public Object get(final int field) {
+    switch (field) {
+      case 0: return f0;
+      case 1: return f1;
+      case 2: return f2;
+      case 3: return f3;
+      case 4: return f4;
+      case 5: return f5;
+      case 6: return f6;
+      case 7: return f7;
+      case 8: return f8;
+      case 9: return f9;
+      case 10: return f10;
+      case 11: return f11;
+      case 12: return f12;
+      case 13: return f13;
+      case 14: return f14;
+      case 15: return f15;
+      case 16: return f16;
+      case 17: return f17;
+      case 18: return f18;
+      case 19: return f19;
+      case 20: return f20;
+      case 21: return f21;
+      case 22: return f22;
+      case 23: return f23;
+      case 24: return f24;
+      case 25: return f25;
+      case 26: return f26;
+      case 27: return f27;
+      case 28: return f28;
+      case 29: return f29;
+      default: throw new IndexOutOfBoundsException("Field: " + field + ", Width: 30");
+    }
+  }
+}
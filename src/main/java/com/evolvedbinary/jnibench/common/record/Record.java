@@ -0,0 +1,80 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import java.util.Objects;
+
+/**
+ * A wide record, whose fields are described by a {@link RecordSchema}.
+ *
+ * Each subclass is a plain Java class with one real field per field of its
+ * schema, named {@code f0} to {@code fN} in field order, so that C++ can find
+ * them by field ID and construct the record through its all-field constructor,
+ * see {@link RecordType}. Nullable fields of a reference type are null when absent.
+ */
+public abstract class Record {
+
+  /**
+   * Get the number of fields of the record.
+   *
+   * @return the number of fields
+   */
+  public abstract int width();
+
+  /**
+   * Get the value of a field, boxing it if it is of a primitive type.
+   *
+   * @param field the index of the field
+   *
+   * @return the value of the field
+   */
+  public abstract Object get(final int field);
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    final Record record = (Record) o;
+
+    for (int field = 0; field < width(); field++) {
+      if (!Objects.deepEquals(get(field), record.get(field))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 0;
+    for (int field = 0; field < width(); field++) {
+      result = 31 * result + Objects.hashCode(get(field));
+    }
+    return result;
+  }
+}
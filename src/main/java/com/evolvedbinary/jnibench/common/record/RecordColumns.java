@@ -0,0 +1,66 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+
+/**
+ * The columns of an array of records, one Java array per field,
+ * indexed by the slot of the field, see {@link RecordSchema#getSlot(int)}.
+ */
+final class RecordColumns {
+  final int[][] ints;
+  final long[][] longs;
+  final double[][] doubles;
+  final String[][] strings;
+  final byte[][][] bytes;
+  final String[][] nestedNames;
+  final long[][] nestedValues;
+
+  RecordColumns(final RecordSchema schema, final int len) {
+    this.ints = new int[schema.count(FieldType.INT)][len];
+    this.longs = new long[schema.count(FieldType.LONG)][len];
+    this.doubles = new double[schema.count(FieldType.DOUBLE)][len];
+    this.strings = new String[schema.count(FieldType.STRING)][len];
+    this.bytes = new byte[schema.count(FieldType.BYTES)][len][];
+    this.nestedNames = new String[schema.count(FieldType.NESTED)][len];
+    this.nestedValues = new long[schema.count(FieldType.NESTED)][len];
+  }
+
+  /**
+   * Get a nested object, an absent nested object is signalled by a null name.
+   *
+   * @param slot the slot of the nested field
+   * @param index the index of the record
+   *
+   * @return the nested object, or null if it is absent
+   */
+  FooObject nested(final int slot, final int index) {
+    final String nestedName = nestedNames[slot][index];
+    return nestedName == null ? null : new FooObject(nestedName, nestedValues[slot][index]);
+  }
+}
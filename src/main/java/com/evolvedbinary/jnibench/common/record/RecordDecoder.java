@@ -0,0 +1,89 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes the fields of records, in field order,
+ * from the buffer packed by {@link RecordsByPackedBuffer}.
+ */
+final class RecordDecoder {
+  private final ByteBuffer buffer;
+  private byte[] scratch = new byte[64];
+
+  RecordDecoder(final ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  int getInt() {
+    return buffer.getInt();
+  }
+
+  long getLong() {
+    return buffer.getLong();
+  }
+
+  double getDouble() {
+    return buffer.getDouble();
+  }
+
+  String getString() {
+    final int length = buffer.getInt();
+    return length < 0 ? null : decodeString(length);
+  }
+
+  byte[] getBytes() {
+    final int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    final byte[] value = new byte[length];
+    buffer.get(value);
+    return value;
+  }
+
+  FooObject getNested() {
+    final int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    final String name = decodeString(length);
+    return new FooObject(name, buffer.getLong());
+  }
+
+  private String decodeString(final int length) {
+    if (scratch.length < length) {
+      scratch = new byte[length];
+    }
+    buffer.get(scratch, 0, length);
+    return new String(scratch, 0, length, StandardCharsets.UTF_8);
+  }
+}
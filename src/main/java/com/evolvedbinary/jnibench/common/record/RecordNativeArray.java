@@ -0,0 +1,138 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import com.evolvedbinary.jnibench.common.array.NativeObjectArray;
+
+import java.util.function.Consumer;
+
+/**
+ * A native array of records, which are generated in C++
+ * from a schema, so that they do not have to pass through Java.
+ */
+public class RecordNativeArray extends NativeObjectArray<Record> {
+
+  /**
+   * The native bytes of the field vectors of a record.
+   */
+  private static final long NATIVE_BYTES_PER_RECORD = 264;
+
+  private final RecordSchema schema;
+  private final RecordType recordType;
+
+  /**
+   * Generate a native array of records with pseudo-random field values.
+   *
+   * @param schema the schema of the records
+   * @param count the number of records
+   * @param seed the seed for the field values
+   *
+   * @throws IllegalArgumentException if there is no {@link Record} class for the schema
+   */
+  public RecordNativeArray(final RecordSchema schema, final int count, final long seed) {
+    super();
+    this.schema = schema;
+    this.recordType = RecordType.forSchema(schema);
+    createNative(estimateNativeSize(schema, count),
+        () -> newRecordArray(schema.typeCodes(), schema.nullables(), count, seed));
+  }
+
+  /**
+   * Estimate the native bytes of the generated records, from the field vectors
+   * of each record, and the typical size of its generated values.
+   */
+  private static long estimateNativeSize(final RecordSchema schema, final int count) {
+    long bytesPerRecord = NATIVE_BYTES_PER_RECORD;
+    for (int i = 0; i < schema.width(); i++) {
+      switch (schema.getType(i)) {
+        case INT:
+          bytesPerRecord += 4;
+          break;
+        case LONG:
+        case DOUBLE:
+          bytesPerRecord += 8;
+          break;
+        case STRING:
+          bytesPerRecord += 48;
+          break;
+        case BYTES:
+          bytesPerRecord += 88;
+          break;
+        case NESTED:
+          bytesPerRecord += 56;
+          break;
+      }
+    }
+    return count * bytesPerRecord;
+  }
+
+  public RecordSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Get the type of the Java records, whose fields match the schema.
+   *
+   * @return the record type
+   */
+  public RecordType getRecordType() {
+    return recordType;
+  }
+
+  @Override
+  public long size() {
+    return getSize(get_nativeHandle());
+  }
+
+  /**
+   * Records are first copied into Java by {@link RecordsByNewObject},
+   * as there is no cheaper way to construct them one at a time.
+   */
+  @Override
+  public void forEach(final Consumer<? super Record> action) {
+    new RecordsByNewObject().getObjectList(this).forEach(action);
+  }
+
+  @Override
+  public long getNativeSize() {
+    return getNativeSize(_nativeHandle);
+  }
+
+  @Override
+  protected void disposeInternal() {
+    disposeInternal(_nativeHandle);
+  }
+
+  private static native long newRecordArray(final int[] typeCodes, final boolean[] nullable,
+      final int count, final long seed);
+
+  private static native long getSize(final long handle);
+
+  private static native long getNativeSize(final long handle);
+
+  private static native void disposeInternal(final long handle);
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import java.util.Arrays;
+
+/**
+ * Describes the fields of a {@link Record}.
+ *
+ * Each field also has a slot among the fields of its type, which indexes
+ * its column in {@link RecordsByColumns} and its vector in C++,
+ * slots are assigned to the fields of each type in field order.
+ */
+public final class RecordSchema {
+  private final FieldType[] types;
+  private final boolean[] nullable;
+  private final int[] slots;
+  private final int[] slotCounts = new int[FieldType.values().length];
+
+  public RecordSchema(final FieldType[] types, final boolean[] nullable) {
+    if (types.length != nullable.length) {
+      throw new IllegalArgumentException("types and nullable must be the same length");
+    }
+    this.types = types.clone();
+    this.nullable = nullable.clone();
+    this.slots = new int[types.length];
+    for (int i = 0; i < types.length; i++) {
+      if (nullable[i] && !types[i].isReference()) {
+        throw new IllegalArgumentException("Field " + i + " of type " + types[i] + " cannot be nullable");
+      }
+      slots[i] = slotCounts[types[i].ordinal()]++;
+    }
+  }
+
+  /**
+   * Generate a schema of the given width, by repeating a field mix.
+   *
+   * The mix is a sequence of field type codes: I (int), L (long), D (double),
+   * S (String), B (byte[]) and N (nested object). The reference types may be
+   * given in lower-case to make the field nullable. For example
+   * {@code generate(10, "ILDsB")} gives the fields {@code ILDsBILDsB}.
+   *
+   * Native arrays can only be created for the schemas which have a
+   * {@link Record} class with matching fields, see {@link RecordType}.
+   *
+   * @param width the number of fields
+   * @param mix the field mix
+   *
+   * @return the schema
+   */
+  public static RecordSchema generate(final int width, final String mix) {
+    if (mix.isEmpty()) {
+      throw new IllegalArgumentException("mix must not be empty");
+    }
+    final FieldType[] types = new FieldType[width];
+    final boolean[] nullable = new boolean[width];
+    for (int i = 0; i < width; i++) {
+      final char mixCode = mix.charAt(i % mix.length());
+      types[i] = FieldType.fromMixCode(mixCode);
+      nullable[i] = Character.isLowerCase(mixCode);
+    }
+    return new RecordSchema(types, nullable);
+  }
+
+  public int width() {
+    return types.length;
+  }
+
+  public FieldType getType(final int field) {
+    return types[field];
+  }
+
+  public boolean isNullable(final int field) {
+    return nullable[field];
+  }
+
+  /**
+   * Get the slot of the field, among the fields of its type.
+   *
+   * @param field the index of the field
+   *
+   * @return the slot
+   */
+  public int getSlot(final int field) {
+    return slots[field];
+  }
+
+  /**
+   * Get the number of fields of a type.
+   *
+   * @param type the field type
+   *
+   * @return the number of fields
+   */
+  public int count(final FieldType type) {
+    return slotCounts[type.ordinal()];
+  }
+
+  int[] typeCodes() {
+    final int[] typeCodes = new int[types.length];
+    for (int i = 0; i < types.length; i++) {
+      typeCodes[i] = types[i].ordinal();
+    }
+    return typeCodes;
+  }
+
+  boolean[] nullables() {
+    return nullable.clone();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < types.length; i++) {
+      final char mixCode = types[i].getMixCode();
+      builder.append(nullable[i] ? Character.toLowerCase(mixCode) : mixCode);
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    final RecordSchema that = (RecordSchema) o;
+
+    return Arrays.equals(types, that.types) && Arrays.equals(nullable, that.nullable);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(types) + Arrays.hashCode(nullable);
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binds the field types of a {@link RecordSchema} to the Java
+ * {@link Record} class with matching fields, and to the code
+ * by which Java assembles records of that class.
+ *
+ * There is a record class for each width of 10, 20 and 30 fields,
+ * with the field mixes {@code ILD} and {@code ILDSBN}, see
+ * {@link RecordSchema#generate(int, String)}. Whether reference fields
+ * are nullable is a property of the schema rather than of the class.
+ * Other widths and mixes are not supported, as each record class, and
+ * its C++ counterpart, is written by hand rather than generated.
+ */
+public final class RecordType {
+
+  /**
+   * Assembles a record from the columns copied into Java by {@link RecordsByColumns}.
+   */
+  interface ColumnsReader {
+    Record read(final RecordColumns columns, final int index);
+  }
+
+  private final String mix;
+  private final Class<? extends Record> recordClass;
+  private final Supplier<? extends Record> allocator;
+  private final ColumnsReader columnsReader;
+  private final Function<RecordDecoder, ? extends Record> decoder;
+
+  RecordType(final String mix, final Class<? extends Record> recordClass, final Supplier<? extends Record> allocator,
+      final ColumnsReader columnsReader, final Function<RecordDecoder, ? extends Record> decoder) {
+    this.mix = mix;
+    this.recordClass = recordClass;
+    this.allocator = allocator;
+    this.columnsReader = columnsReader;
+    this.decoder = decoder;
+  }
+
+  /**
+   * Find the record class whose fields match the types of a schema.
+   *
+   * @param schema the schema
+   *
+   * @return the record type
+   *
+   * @throws IllegalArgumentException if there is no record class for the schema
+   */
+  public static RecordType forSchema(final RecordSchema schema) {
+    for (final RecordType recordType : all()) {
+      if (recordType.matches(schema)) {
+        return recordType;
+      }
+    }
+    throw new IllegalArgumentException("There is no record class with the fields: " + schema.toString().toUpperCase());
+  }
+
+  /**
+   * Generate the schema of a width and field mix, checking that there is a record
+   * class for it, e.g. to validate the parameters of a benchmark before it runs.
+   *
+   * @param width the number of fields
+   * @param mix the field mix, see {@link RecordSchema#generate(int, String)}
+   *
+   * @return the schema
+   *
+   * @throws IllegalArgumentException if there is no record class for the width and mix
+   */
+  public static RecordSchema schemaFor(final int width, final String mix) {
+    try {
+      final RecordSchema schema = RecordSchema.generate(width, mix);
+      forSchema(schema);
+      return schema;
+    } catch (final IllegalArgumentException e) {
+      throw new IllegalArgumentException("There is no record class for width=" + width + " and mix=" + mix
+          + ", the record classes have widths of 10, 20 and 30 with the mixes ILD and ILDSBN,"
+          + " and any nullability of their reference fields", e);
+    }
+  }
+
+  private static RecordType[] all() {
+    return new RecordType[] {
+        PrimitiveRecord10.TYPE, PrimitiveRecord20.TYPE, PrimitiveRecord30.TYPE,
+        MixedRecord10.TYPE, MixedRecord20.TYPE, MixedRecord30.TYPE
+    };
+  }
+
+  private boolean matches(final RecordSchema schema) {
+    if (schema.width() != mix.length()) {
+      return false;
+    }
+    for (int field = 0; field < mix.length(); field++) {
+      if (schema.getType(field) != FieldType.fromMixCode(mix.charAt(field))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public Class<? extends Record> getRecordClass() {
+    return recordClass;
+  }
+
+  /**
+   * Create a record with all of its fields zero or null, by its no-argument constructor.
+   *
+   * @return the new record
+   */
+  Record allocate() {
+    return allocator.get();
+  }
+
+  Record read(final RecordColumns columns, final int index) {
+    return columnsReader.read(columns, index);
+  }
+
+  Record decode(final RecordDecoder recordDecoder) {
+    return decoder.apply(recordDecoder);
+  }
+
+  @Override
+  public String toString() {
+    return recordClass.getSimpleName() + "(" + mix + ")";
+  }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import com.evolvedbinary.jnibench.common.array.JniListSupplier;
+import com.evolvedbinary.jnibench.common.array.NativeObjectArray;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In Java we allocate an array of empty records, then in C++
+ * we set each field of each record with Set*Field.
+ */
+public class RecordsByMutableFill implements JniListSupplier<Record> {
+
+  @Override
+  public List<Record> getObjectList(final NativeObjectArray<Record> nativeObjectArray) {
+    final RecordType recordType = ((RecordNativeArray) nativeObjectArray).getRecordType();
+    final int len = (int) nativeObjectArray.size();
+    if (len == 0) {
+      return Collections.emptyList();
+    } else {
+      final Record[] records = new Record[len];
+      for (int i = 0; i < len; i++) {
+        records[i] = recordType.allocate();
+      }
+
+      fillRecords(nativeObjectArray.get_nativeHandle(), records, recordType.getRecordClass());
+
+      return Arrays.asList(records);
+    }
+  }
+
+  private static native void fillRecords(final long handle, final Record[] records,
+      final Class<? extends Record> recordClass);
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.record;
+
+import com.evolvedbinary.jnibench.common.array.ConstructionStrategy;
+import com.evolvedbinary.jnibench.common.array.JniListSupplier;
+import com.evolvedbinary.jnibench.common.array.NativeObjectArray;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In C++ we allocate a Java array, and create each Java record by a
+ * {@link ConstructionStrategy}, e.g. with NewObject, passing every field
+ * to its all-field constructor.
+ */
+public class RecordsByNewObject implements JniListSupplier<Record> {
+
+  private final ConstructionStrategy constructionStrategy;
+
+  public RecordsByNewObject() {
+    this(ConstructionStrategy.CACHED_CONSTRUCTOR);
+  }
+
+  /**
+   * @param constructionStrategy how C++ creates each Java record
+   */
+  public RecordsByNewObject(final ConstructionStrategy constructionStrategy) {
+    this.constructionStrategy = constructionStrategy;
+  }
+
+  @Override
+  public List<Record> getObjectList(final NativeObjectArray<Record> nativeObjectArray) {
+    final RecordType recordType = ((RecordNativeArray) nativeObjectArray).getRecordType();
+    return Arrays.asList(getRecords(nativeObjectArray.get_nativeHandle(), recordType.getRecordClass(),
+        constructionStrategy.ordinal()));
+  }
+
+  private static native Record[] getRecords(final long handle, final Class<? extends Record> recordClass,
+      final int constructionStrategy);
+}
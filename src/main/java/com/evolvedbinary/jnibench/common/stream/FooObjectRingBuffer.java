@@ -0,0 +1,222 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.stream;
+
+import com.evolvedbinary.jnibench.common.array.FooObjectVisitor;
+import com.evolvedbinary.jnibench.common.array.ModifiedUtf8;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A single-producer/single-consumer ring buffer of encoded FooObjects,
+ * which lives in a direct ByteBuffer shared with C++.
+ *
+ * The producer is a {@link NativeRingProducer}, and the consumer is Java, which
+ * decodes the records without making any JNI calls. The layout of the buffer is:
+ *
+ * <pre>
+ *   [0, 64)    producer cache line: int64 producer position, int32 done flag
+ *   [64, 128)  consumer cache line: int64 consumer position
+ *   [128, ...) data, of {@code capacity} bytes
+ * </pre>
+ *
+ * Positions only ever increase, the offset of a position in the data is
+ * {@code position & (capacity - 1)}. The producer publishes its position with
+ * release ordering after writing each record, and reads the consumer position with
+ * acquire ordering, and vice versa for the consumer.
+ *
+ * Each record is 8 byte aligned, and is encoded in the native byte order as an int32
+ * name length, 4 bytes of padding, an int64 value, an int64 timestamp of when the
+ * record was produced, and then the name, in the modified UTF-8 held by C++
+ * (see {@link ModifiedUtf8}). A name length of -1 marks padding
+ * to the end of the data, where a record would not otherwise fit.
+ *
+ * The timestamps are from the C++ steady_clock, which on Linux is the same
+ * clock as {@link System#nanoTime()}, and are used to measure latency.
+ */
+public class FooObjectRingBuffer {
+  static final int CACHE_LINE = 64;
+  static final int PRODUCER_POSITION_OFFSET = 0;
+  static final int DONE_OFFSET = 8;
+  static final int CONSUMER_POSITION_OFFSET = CACHE_LINE;
+  static final int DATA_OFFSET = 2 * CACHE_LINE;
+  static final int RECORD_HEADER_SIZE = 24;
+  static final int PADDING = -1;
+
+  private final ByteBuffer buffer;
+  // the consumer's own view of the buffer, whose position it moves to copy names
+  private final ByteBuffer data;
+  private final long address;
+  private final int capacity;
+  private final int mask;
+
+  private long consumerPosition;
+  private byte[] scratch = new byte[64];
+
+  private long latencyCount;
+  private long latencyTotalNanos;
+  private long latencyMaxNanos;
+
+  /**
+   * @param capacity the capacity of the data in bytes, a power of two of at least 64,
+   *     which must be large enough for the largest record, see {@link #recordSize(int)}
+   */
+  public FooObjectRingBuffer(final int capacity) {
+    if (capacity < 64 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("capacity must be a power of two of at least 64");
+    }
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+
+    // over-allocate, so that the indexes can be aligned to a cache line
+    final ByteBuffer allocated = ByteBuffer.allocateDirect(DATA_OFFSET + capacity + CACHE_LINE);
+    final long allocatedAddress = getAddress(allocated);
+    final int alignment = (int) ((CACHE_LINE - (allocatedAddress & (CACHE_LINE - 1))) & (CACHE_LINE - 1));
+    allocated.position(alignment);
+    allocated.limit(alignment + DATA_OFFSET + capacity);
+    this.buffer = allocated.slice().order(ByteOrder.nativeOrder());
+    this.data = buffer.duplicate().order(ByteOrder.nativeOrder());
+    this.address = allocatedAddress + alignment;
+  }
+
+  /**
+   * Get the buffer shared with the producer.
+   *
+   * @return the buffer, aligned to a cache line
+   */
+  public ByteBuffer getBuffer() {
+    return buffer;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Consume all of the records which are currently available.
+   *
+   * @param visitor receives the name and value of each record
+   *
+   * @return the number of records consumed
+   */
+  public int poll(final FooObjectVisitor visitor) {
+    final long producerPosition = OrderedAccess.getLongAcquire(address + PRODUCER_POSITION_OFFSET);
+    if (producerPosition == consumerPosition) {
+      return 0;
+    }
+    final long now = System.nanoTime();
+
+    int count = 0;
+    long position = consumerPosition;
+    while (position < producerPosition) {
+      final int recordOffset = DATA_OFFSET + (int) (position & mask);
+      final int nameLength = data.getInt(recordOffset);
+      if (nameLength == PADDING) {
+        position += capacity - (position & mask);
+        continue;
+      }
+
+      final long value = data.getLong(recordOffset + 8);
+      final long latency = now - data.getLong(recordOffset + 16);
+      if (scratch.length < nameLength) {
+        scratch = new byte[nameLength];
+      }
+      data.position(recordOffset + RECORD_HEADER_SIZE);
+      data.get(scratch, 0, nameLength);
+      visitor.visit(ModifiedUtf8.decode(scratch, 0, nameLength), value);
+
+      latencyTotalNanos += latency;
+      if (latency > latencyMaxNanos) {
+        latencyMaxNanos = latency;
+      }
+      position += recordSize(nameLength);
+      count++;
+    }
+    latencyCount += count;
+
+    consumerPosition = position;
+    OrderedAccess.putLongRelease(address + CONSUMER_POSITION_OFFSET, position);
+    return count;
+  }
+
+  /**
+   * Returns true if the producer has finished,
+   * and all of its records have been consumed.
+   *
+   * @return true if finished
+   */
+  public boolean isFinished() {
+    return OrderedAccess.getIntAcquire(address + DONE_OFFSET) != 0
+        && OrderedAccess.getLongAcquire(address + PRODUCER_POSITION_OFFSET) == consumerPosition;
+  }
+
+  /**
+   * Get the mean time from a record being produced until it was consumed.
+   *
+   * @return the mean latency in nanoseconds, or 0 if no records have been consumed
+   */
+  public double getMeanLatencyNanos() {
+    return latencyCount == 0 ? 0 : (double) latencyTotalNanos / latencyCount;
+  }
+
+  /**
+   * Get the maximum time from a record being produced until it was consumed.
+   *
+   * @return the maximum latency in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return latencyMaxNanos;
+  }
+
+  public void resetLatency() {
+    latencyCount = 0;
+    latencyTotalNanos = 0;
+    latencyMaxNanos = 0;
+  }
+
+  long getAddress() {
+    return address;
+  }
+
+  /**
+   * Get the size of an encoded record, including its alignment.
+   *
+   * @param nameLength the length of the modified UTF-8 name in bytes
+   *
+   * @return the size in bytes
+   */
+  public static int recordSize(final int nameLength) {
+    return align(RECORD_HEADER_SIZE + nameLength);
+  }
+
+  static int align(final int length) {
+    return (length + 7) & ~7;
+  }
+
+  private static native long getAddress(final ByteBuffer buffer);
+}
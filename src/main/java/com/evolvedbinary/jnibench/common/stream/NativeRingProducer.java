@@ -0,0 +1,99 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.common.stream;
+
+import com.evolvedbinary.jnibench.common.NativeBackedObject;
+import com.evolvedbinary.jnibench.common.array.FooNativeObjectArray;
+
+/**
+ * A C++ thread which writes the objects of a native array
+ * into a {@link FooObjectRingBuffer}, for Java to consume.
+ *
+ * The native array is pinned until the producer is closed.
+ */
+public class NativeRingProducer extends NativeBackedObject {
+  // C++ writes to the direct buffer of the ring, so it must stay reachable until the producer is closed
+  private final FooObjectRingBuffer ring;
+  private final FooNativeObjectArray source;
+
+  /**
+   * Start producing.
+   *
+   * @param ring the ring to write to, which must have no other producer
+   * @param source the native array to read from
+   * @param count the number of records to produce, cycling through
+   *     the objects of the native array as often as needed
+   *
+   * @throws IllegalArgumentException if a record would not fit in the ring,
+   *     see {@link FooObjectRingBuffer#recordSize(int)}
+   */
+  public NativeRingProducer(final FooObjectRingBuffer ring, final FooNativeObjectArray source, final long count) {
+    super();
+    if (source.size() == 0 && count > 0) {
+      throw new IllegalArgumentException("source must not be empty");
+    }
+    source.pin();
+    this.ring = ring;
+    this.source = source;
+    try {
+      this._nativeHandle = start(ring.getAddress(), ring.getCapacity(), source.get_nativeHandle(), count);
+    } catch (final RuntimeException e) {
+      source.unpin();
+      throw e;
+    }
+  }
+
+  /**
+   * Wait for the producer to write all of its records.
+   */
+  public void join() {
+    join(_nativeHandle);
+  }
+
+  /**
+   * Stops the producer, if it is still running.
+   */
+  @Override
+  public void close() {
+    if (_nativeHandle != 0) {
+      super.close();
+      source.unpin();
+    }
+  }
+
+  @Override
+  protected void disposeInternal() {
+    disposeInternal(_nativeHandle);
+  }
+
+  private static native long start(final long ringAddress, final int capacity, final long sourceHandle,
+      final long count);
+
+  private static native void join(final long handle);
+
+  private static native void disposeInternal(final long handle);
+}
@@ -27,31 +27,27 @@
 package com.evolvedbinary.jnibench.consbench;
 
 import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.common.baseline.NativeBaseline;
+import com.evolvedbinary.jnibench.common.baseline.OnHeapGetList;
+import com.evolvedbinary.jnibench.common.profile.NativeProfile;
 
 import java.util.Random;
 
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.consume;
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.fromNanos;
 import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.outputResults;
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.reportNativeProfile;
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.runConcurrently;
 import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.time;
 
 public class ArrayBenchmark implements BenchmarkInterface {
 
-  // TODO(AR) parameterize the array size
-  private static final int DEFAULT_ARRAY_SIZE = 20;
-  private final FooObject[] fooObjects;
-
-  public ArrayBenchmark() {
-    this.fooObjects = new FooObject[DEFAULT_ARRAY_SIZE];
-    final Random random = new Random();
-    for (int i = 0; i < DEFAULT_ARRAY_SIZE; i++) {
-      final int num = random.nextInt();
-      fooObjects[i] = new FooObject("str" + num, num);
-    }
-  }
-
   @Override
   public void test(final BenchmarkOptions benchmarkOptions) {
     final int iterations = benchmarkOptions.getIterations();
-    final FooNativeObjectArray fooObjectArray = new FooNativeObjectArray(fooObjects);
+    final int threads = benchmarkOptions.getThreads();
+    final FooObject[] fooObjects = FooObjects.random(benchmarkOptions.getArraySize(), 0, new Random());
+    final NativeObjectArray<FooObject> fooObjectArray = benchmarkOptions.getLayout().newArray(fooObjects);
 
     final ArrayBenchmarkFixture[] benchmarkFixtures = {
             new ArrayBenchmarkFixture("Allocate array in Java", AllocateInJavaGetArray::new),
@@ -67,14 +63,68 @@ public class ArrayBenchmark implements BenchmarkInterface {
     // run each benchmark fixture
     for (final ArrayBenchmarkFixture benchmarkFixture : benchmarkFixtures) {
       final JniListSupplier<FooObject> listSupplier = benchmarkFixture.listSupplierConstructor.get();
+      if (benchmarkOptions.isNativeProfile()) {
+        NativeProfile.reset();
+      }
       benchmarkFixture.start = time(benchmarkOptions.isInNs());
-      for (int i = 0; i < iterations; i++) {
-        listSupplier.getObjectList(fooObjectArray);
+      if (threads > 1) {
+        runConcurrently(threads, iterations, () -> listSupplier.getObjectList(fooObjectArray));
+      } else {
+        for (int i = 0; i < iterations; i++) {
+          listSupplier.getObjectList(fooObjectArray);
+        }
       }
       benchmarkFixture.end = time(benchmarkOptions.isInNs());
+      if (benchmarkOptions.isNativeProfile()) {
+        reportNativeProfile(benchmarkFixture, threads, benchmarkOptions.isInNs());
+      }
     }
 
     // output the results of the benchmarks
-    outputResults(benchmarkOptions.isOutputAsCSV(), benchmarkOptions.isInNs(), benchmarkFixtures);
+    if (benchmarkOptions.isBaselines()) {
+      outputResults(benchmarkOptions.isOutputAsCSV(), benchmarkOptions.isInNs(), benchmarkFixtures,
+          javaBaseline(fooObjects, iterations, threads, benchmarkOptions.isInNs()),
+          nativeBaseline(fooObjectArray, iterations, threads, benchmarkOptions.isInNs()));
+    } else {
+      outputResults(benchmarkOptions.isOutputAsCSV(), benchmarkOptions.isInNs(), benchmarkFixtures);
+    }
+
+    fooObjectArray.close();
+  }
+
+  /**
+   * Builds the same List of FooObjects from a copy of the objects held on the Java heap.
+   */
+  private static BenchmarkFixture javaBaseline(final FooObject[] fooObjects, final int iterations,
+      final int threads, final boolean inNs) {
+    final BaselineFixture baselineFixture = new BaselineFixture("Java baseline (build list on heap)");
+    final OnHeapGetList onHeapGetList = new OnHeapGetList(fooObjects);
+    final long start = time(inNs);
+    if (threads > 1) {
+      runConcurrently(threads, iterations, () -> consume(onHeapGetList.getObjectList(null)));
+    } else {
+      for (int i = 0; i < iterations; i++) {
+        consume(onHeapGetList.getObjectList(null));
+      }
+    }
+    baselineFixture.duration = time(inNs) - start;
+    return baselineFixture;
+  }
+
+  /**
+   * Copies the same native array into a new C++ vector, in a single JNI call,
+   * or with several threads, in a single JNI call per thread.
+   */
+  private static BenchmarkFixture nativeBaseline(final NativeObjectArray<FooObject> fooObjectArray,
+      final int iterations, final int threads, final boolean inNs) {
+    final BaselineFixture baselineFixture = new BaselineFixture("C++ baseline (copy array)");
+    if (threads > 1) {
+      final long start = time(inNs);
+      runConcurrently(threads, iterations, threadIterations -> NativeBaseline.timeCopy(fooObjectArray, threadIterations));
+      baselineFixture.duration = time(inNs) - start;
+    } else {
+      baselineFixture.duration = fromNanos(NativeBaseline.timeCopy(fooObjectArray, iterations), inNs);
+    }
+    return baselineFixture;
   }
 }
@@ -26,6 +26,11 @@
  */
 package com.evolvedbinary.jnibench.consbench;
 
+import com.evolvedbinary.jnibench.common.NativeLeakTracker;
+import com.evolvedbinary.jnibench.common.array.FooObjectLayout;
+import com.evolvedbinary.jnibench.common.call.FooCost;
+import com.evolvedbinary.jnibench.common.profile.NativeProfile;
+
 /**
  * A small JNI Benchmark to show the difference
  * in cost between various models of Object Construction
@@ -35,6 +40,8 @@ package com.evolvedbinary.jnibench.consbench;
  */
 public class Benchmark {
     private final static int DEFAULT_ITERATIONS = 1_000_000;
+    private final static int DEFAULT_ARRAY_SIZE = 20;
+    private final static int DEFAULT_THREADS = 1;
 
     public static final void main(final String args[]) {
 
@@ -42,7 +49,17 @@ public class Benchmark {
         boolean outputAsCSV = false;
         boolean inNs = false;
         boolean close = false;
+        boolean baselines = false;
+        boolean nativeProfile = false;
+        int arraySize = DEFAULT_ARRAY_SIZE;
+        int threads = DEFAULT_THREADS;
+        FooObjectLayout layout = FooObjectLayout.VECTOR;
         String benchmarkName = "CallBenchmark";
+        int leakSampleInterval = 0;
+        int payloadBytes = 0;
+        int constructorWork = 0;
+        int memberAllocations = 0;
+        int destructorWork = 0;
 
         if (args != null && args.length > 0) {
             for (String arg : args) {
@@ -55,8 +72,28 @@ public class Benchmark {
                     inNs = true;
                 } else if (arg.equals("--close")) {
                     close = true;
-                }else if (arg.startsWith("--benchmark=")) {
+                } else if (arg.equals("--baselines")) {
+                    baselines = true;
+                } else if (arg.equals("--native-profile")) {
+                    nativeProfile = true;
+                } else if (arg.startsWith("--array-size=")) {
+                    arraySize = Integer.parseInt(arg.substring("--array-size=".length()));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else if (arg.startsWith("--layout=")) {
+                    layout = FooObjectLayout.valueOf(arg.substring("--layout=".length()));
+                } else if (arg.startsWith("--benchmark=")) {
                     benchmarkName = arg.substring("--benchmark=".length());
+                } else if (arg.startsWith("--track-leaks=")) {
+                    leakSampleInterval = Integer.parseInt(arg.substring("--track-leaks=".length()));
+                } else if (arg.startsWith("--payload-bytes=")) {
+                    payloadBytes = Integer.parseInt(arg.substring("--payload-bytes=".length()));
+                } else if (arg.startsWith("--ctor-work=")) {
+                    constructorWork = Integer.parseInt(arg.substring("--ctor-work=".length()));
+                } else if (arg.startsWith("--member-allocs=")) {
+                    memberAllocations = Integer.parseInt(arg.substring("--member-allocs=".length()));
+                } else if (arg.startsWith("--dtor-work=")) {
+                    destructorWork = Integer.parseInt(arg.substring("--dtor-work=".length()));
                 } else if (arg.equals("--help") || arg.equals("-h") || arg.equals("/?")) {
                     System.out.println();
                     System.out.println("Benchmark");
@@ -64,6 +101,20 @@ public class Benchmark {
                     System.out.println("--csv             output results in CSV format");
                     System.out.println("--ns              compute times in ns as opposed to ms");
                     System.out.println("--close           native objects should be closed (disposed) after use");
+                    System.out.println("--baselines       also time pure Java and pure C++ baselines, and report each result");
+                    System.out.println("                  as a multiple of them (CallBenchmark or ArrayBenchmark)");
+                    System.out.println("--native-profile  report the time of each phase of the natives, per fixture, to stderr");
+                    System.out.println("                  (requires a native library built with -Pinstrumented)");
+                    System.out.println("--array-size=n    set the size of the native array (ArrayBenchmark)");
+                    System.out.println("--threads=n       spread the iterations across n threads");
+                    System.out.println("--layout=name     the layout of the native array, VECTOR or ARENA (ArrayBenchmark)");
+                    System.out.println("--benchmark=name  the benchmark to run, e.g. CallBenchmark or ArrayBenchmark");
+                    System.out.println("                  (VirtualThreadBenchmark requires Java 21)");
+                    System.out.println("--track-leaks=n   track 1 in n native objects and report those never closed");
+                    System.out.println("--payload-bytes=n each native Foo allocates a zeroed payload of n bytes (CallBenchmark)");
+                    System.out.println("--ctor-work=n     each native Foo constructor performs n rounds of computation");
+                    System.out.println("--member-allocs=n each native Foo constructor makes n separate small allocations");
+                    System.out.println("--dtor-work=n     each native Foo destructor performs n rounds of computation");
                     System.out.println();
                 }
             }
@@ -71,7 +122,17 @@ public class Benchmark {
 
         NarSystem.loadLibrary();
 
-        final BenchmarkOptions benchmarkOptions = new BenchmarkOptions(iterations, outputAsCSV, inNs, close);
+        NativeLeakTracker.setSampleInterval(leakSampleInterval);
+
+        FooCost.set(payloadBytes, constructorWork, memberAllocations, destructorWork);
+
+        if (nativeProfile && !NativeProfile.isInstrumented()) {
+            System.err.println("WARNING: the native library is not an instrumented build, so no native phases"
+                    + " will be timed, rebuild with: mvn -Pinstrumented package");
+        }
+
+        final BenchmarkOptions benchmarkOptions = new BenchmarkOptions(iterations, outputAsCSV, inNs, close, arraySize, threads,
+                layout, baselines, nativeProfile);
 
         try {
             Class<?> benchmarkClazz = Class.forName("com.evolvedbinary.jnibench.consbench." + benchmarkName);
@@ -79,6 +140,29 @@ public class Benchmark {
             benchmarkObject.test(benchmarkOptions);
         } catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
             e.printStackTrace();
+            // the orchestrator relies on the exit status to tell failed runs apart
+            System.exit(1);
+        }
+
+        if (leakSampleInterval > 0) {
+            reportLeaks();
+        }
+    }
+
+    /**
+     * Collect any unreachable native objects, and then
+     * report those which were leaked by not being closed.
+     */
+    private static void reportLeaks() {
+        for (int i = 0; i < 5 && NativeLeakTracker.getLiveCount() > 0; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
         }
+        NativeLeakTracker.report(System.err);
     }
 }
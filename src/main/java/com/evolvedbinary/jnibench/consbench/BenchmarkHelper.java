@@ -26,8 +26,20 @@
  */
 package com.evolvedbinary.jnibench.consbench;
 
+import com.evolvedbinary.jnibench.common.profile.NativeProfile;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
 public class BenchmarkHelper {
 
+  @SuppressWarnings("unused")
+  private static Object sink;
+
   public static void outputResults(final boolean outputAsCSV, final boolean inNs, final BenchmarkFixture[] benchmarkFixtures) {
     if (outputAsCSV) {
       final StringBuilder stringBuilder = new StringBuilder();
@@ -45,6 +57,86 @@ public class BenchmarkHelper {
     }
   }
 
+  /**
+   * As {@link #outputResults(boolean, boolean, BenchmarkFixture[])}, but also
+   * reports each result as a multiple of a pure Java and a pure C++ baseline.
+   *
+   * In CSV format, the durations of the baselines follow those of the fixtures.
+   *
+   * @param outputAsCSV true to output in CSV format
+   * @param inNs true if the durations are in nanoseconds, false if in milliseconds
+   * @param benchmarkFixtures the results of the JNI benchmarks
+   * @param javaBaseline the result of the pure Java baseline
+   * @param nativeBaseline the result of the pure C++ baseline
+   */
+  public static void outputResults(final boolean outputAsCSV, final boolean inNs,
+      final BenchmarkFixture[] benchmarkFixtures, final BenchmarkFixture javaBaseline,
+      final BenchmarkFixture nativeBaseline) {
+    if (outputAsCSV) {
+      final BenchmarkFixture[] allFixtures = Arrays.copyOf(benchmarkFixtures, benchmarkFixtures.length + 2,
+          BenchmarkFixture[].class);
+      allFixtures[benchmarkFixtures.length] = javaBaseline;
+      allFixtures[benchmarkFixtures.length + 1] = nativeBaseline;
+      outputResults(true, inNs, allFixtures);
+    } else {
+      final String timeUnits = timeUnits(inNs);
+      for (final BenchmarkFixture benchmarkFixture : benchmarkFixtures) {
+        System.out.println(benchmarkFixture.getDescription() + ": " + benchmarkFixture.duration() + timeUnits
+            + " (" + multiple(benchmarkFixture, javaBaseline) + " Java, "
+            + multiple(benchmarkFixture, nativeBaseline) + " C++)");
+      }
+      System.out.println(javaBaseline.getDescription() + ": " + javaBaseline.duration() + timeUnits);
+      System.out.println(nativeBaseline.getDescription() + ": " + nativeBaseline.duration() + timeUnits);
+    }
+  }
+
+  private static String multiple(final BenchmarkFixture benchmarkFixture, final BenchmarkFixture baseline) {
+    if (baseline.duration() <= 0) {
+      return "n/a";
+    }
+    return String.format("%.2fx", (double) benchmarkFixture.duration() / baseline.duration());
+  }
+
+  /**
+   * Converts a duration in nanoseconds, such as one measured in C++,
+   * to the units returned by {@link #time(boolean)}.
+   *
+   * @param nanos the duration in nanoseconds
+   * @param inNs true for nanoseconds, false for milliseconds
+   *
+   * @return the duration
+   */
+  public static long fromNanos(final long nanos, final boolean inNs) {
+    return inNs ? nanos : TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  /**
+   * Prints the time of each phase of the natives which were
+   * called by a benchmark fixture to stderr.
+   *
+   * The native profile should be reset by {@link NativeProfile#reset()}
+   * before the fixture is run.
+   *
+   * @param benchmarkFixture the fixture which has just been run
+   * @param threads the number of threads which ran the fixture
+   * @param inNs true if the duration of the fixture is in nanoseconds, false if in milliseconds
+   */
+  public static void reportNativeProfile(final BenchmarkFixture benchmarkFixture, final int threads,
+      final boolean inNs) {
+    final long wallNanos = inNs ? benchmarkFixture.duration() : TimeUnit.MILLISECONDS.toNanos(benchmarkFixture.duration());
+    NativeProfile.report(System.err, benchmarkFixture.getDescription(), wallNanos, threads);
+  }
+
+  /**
+   * Keeps the result of a Java baseline reachable,
+   * so that the JIT cannot eliminate its allocations.
+   *
+   * @param result the result
+   */
+  public static void consume(final Object result) {
+    sink = result;
+  }
+
   public static long time(final boolean inNs) {
     if (inNs) {
       return System.nanoTime();
@@ -53,6 +145,86 @@ public class BenchmarkHelper {
     }
   }
 
+  /**
+   * Performs {@code operation} {@code iterations} times in total,
+   * spreading the iterations as evenly as possible across {@code threads}
+   * threads which are all released at the same time.
+   *
+   * Returns once every thread has completed its share of the iterations.
+   *
+   * @param threads the number of threads to use
+   * @param iterations the total number of iterations across all threads
+   * @param operation the operation to perform on each iteration
+   */
+  public static void runConcurrently(final int threads, final int iterations, final Runnable operation) {
+    final AtomicInteger workerCount = new AtomicInteger();
+    runConcurrently(runnable -> new Thread(runnable, "benchmark-worker-" + workerCount.getAndIncrement()),
+        threads, iterations, operation);
+  }
+
+  /**
+   * As {@link #runConcurrently(int, int, Runnable)}, but
+   * with threads created by {@code threadFactory}.
+   *
+   * @param threadFactory creates the threads, e.g. virtual threads
+   * @param threads the number of threads to use
+   * @param iterations the total number of iterations across all threads
+   * @param operation the operation to perform on each iteration
+   */
+  public static void runConcurrently(final ThreadFactory threadFactory, final int threads, final int iterations,
+      final Runnable operation) {
+    runConcurrently(threadFactory, threads, iterations, (IntConsumer) threadIterations -> {
+      for (int i = 0; i < threadIterations; i++) {
+        operation.run();
+      }
+    });
+  }
+
+  /**
+   * As {@link #runConcurrently(int, int, Runnable)}, but calls {@code batch} once
+   * on each thread with its share of the iterations, e.g. for a C++ baseline
+   * which performs all of its iterations in a single JNI call.
+   *
+   * @param threads the number of threads to use
+   * @param iterations the total number of iterations across all threads
+   * @param batch performs the given number of iterations
+   */
+  public static void runConcurrently(final int threads, final int iterations, final IntConsumer batch) {
+    final AtomicInteger workerCount = new AtomicInteger();
+    runConcurrently(runnable -> new Thread(runnable, "benchmark-worker-" + workerCount.getAndIncrement()),
+        threads, iterations, batch);
+  }
+
+  private static void runConcurrently(final ThreadFactory threadFactory, final int threads, final int iterations,
+      final IntConsumer batch) {
+    final CountDownLatch startSignal = new CountDownLatch(1);
+    final Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int threadIterations = iterations / threads + (t < iterations % threads ? 1 : 0);
+      workers[t] = threadFactory.newThread(() -> {
+        try {
+          startSignal.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        batch.accept(threadIterations);
+      });
+      workers[t].start();
+    }
+
+    startSignal.countDown();
+
+    for (final Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted whilst waiting for benchmark threads", e);
+      }
+    }
+  }
+
   private static String timeUnits(final boolean inNs) {
     if (inNs) {
       return "ns";
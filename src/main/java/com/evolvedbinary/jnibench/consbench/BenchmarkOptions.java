@@ -26,17 +26,31 @@
  */
 package com.evolvedbinary.jnibench.consbench;
 
+import com.evolvedbinary.jnibench.common.array.FooObjectLayout;
+
 public class BenchmarkOptions {
   private final int iterations;
   private final boolean outputAsCSV;
   private final boolean inNs;
   private final boolean close;
+  private final int arraySize;
+  private final int threads;
+  private final FooObjectLayout layout;
+  private final boolean baselines;
+  private final boolean nativeProfile;
 
-  public BenchmarkOptions(final int iterations, final boolean outputAsCSV, final boolean inNs, final boolean close) {
+  public BenchmarkOptions(final int iterations, final boolean outputAsCSV, final boolean inNs, final boolean close,
+      final int arraySize, final int threads, final FooObjectLayout layout, final boolean baselines,
+      final boolean nativeProfile) {
     this.iterations = iterations;
     this.outputAsCSV = outputAsCSV;
     this.inNs = inNs;
     this.close = close;
+    this.arraySize = arraySize;
+    this.threads = threads;
+    this.layout = layout;
+    this.baselines = baselines;
+    this.nativeProfile = nativeProfile;
   }
 
   public int getIterations() {
@@ -54,4 +68,24 @@ public class BenchmarkOptions {
   public boolean isClose() {
     return close;
   }
+
+  public int getArraySize() {
+    return arraySize;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public FooObjectLayout getLayout() {
+    return layout;
+  }
+
+  public boolean isBaselines() {
+    return baselines;
+  }
+
+  public boolean isNativeProfile() {
+    return nativeProfile;
+  }
 }
@@ -0,0 +1,306 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.consbench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs the {@link Benchmark} in forked JVMs across a matrix of
+ * JVM configurations and benchmark options, and then reports
+ * the variance of each result across the forks.
+ *
+ * Every fork of every scenario is executed in a randomised order
+ * so that no scenario systematically benefits from running
+ * before or after another, e.g. due to thermal throttling.
+ */
+public class BenchmarkOrchestrator {
+  private final static int DEFAULT_FORKS = 5;
+  private final static int DEFAULT_ITERATIONS = 1_000_000;
+
+  public static final void main(final String args[]) throws IOException, InterruptedException {
+    List<String> benchmarks = Arrays.asList("CallBenchmark", "ArrayBenchmark");
+    List<String> gcs = Collections.singletonList("default");
+    List<String> heaps = Collections.singletonList("default");
+    List<String> compilations = Collections.singletonList("tiered");
+    List<String> arraySizes = Collections.singletonList("20");
+    List<String> threads = Collections.singletonList("1");
+    final List<String> extraJvmArgs = new ArrayList<>();
+    int forks = DEFAULT_FORKS;
+    int iterations = DEFAULT_ITERATIONS;
+    boolean close = false;
+    boolean outputAsCSV = false;
+    boolean inNs = false;
+    long seed = System.nanoTime();
+
+    if (args != null && args.length > 0) {
+      for (final String arg : args) {
+        if (arg.startsWith("--benchmarks=")) {
+          benchmarks = csv(arg.substring("--benchmarks=".length()));
+        } else if (arg.startsWith("--gcs=")) {
+          gcs = csv(arg.substring("--gcs=".length()));
+        } else if (arg.startsWith("--heaps=")) {
+          heaps = csv(arg.substring("--heaps=".length()));
+        } else if (arg.startsWith("--compilations=")) {
+          compilations = csv(arg.substring("--compilations=".length()));
+        } else if (arg.startsWith("--array-sizes=")) {
+          arraySizes = csv(arg.substring("--array-sizes=".length()));
+        } else if (arg.startsWith("--threads=")) {
+          threads = csv(arg.substring("--threads=".length()));
+        } else if (arg.startsWith("--jvm-arg=")) {
+          extraJvmArgs.add(arg.substring("--jvm-arg=".length()));
+        } else if (arg.startsWith("--forks=")) {
+          forks = Integer.parseInt(arg.substring("--forks=".length()));
+        } else if (arg.startsWith("--iterations=")) {
+          iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+        } else if (arg.startsWith("--seed=")) {
+          seed = Long.parseLong(arg.substring("--seed=".length()));
+        } else if (arg.equals("--close")) {
+          close = true;
+        } else if (arg.equals("--csv")) {
+          outputAsCSV = true;
+        } else if (arg.equals("--ns")) {
+          inNs = true;
+        } else if (arg.equals("--help") || arg.equals("-h") || arg.equals("/?")) {
+          System.out.println();
+          System.out.println("BenchmarkOrchestrator");
+          System.out.println("--benchmarks=a,b        the benchmarks to run (default: CallBenchmark,ArrayBenchmark)");
+          System.out.println("--gcs=a,b               garbage collectors: default, G1, Parallel, Serial, Z, Shenandoah, Epsilon");
+          System.out.println("--heaps=a,b             heap sizes, e.g. 512m,4g, or default");
+          System.out.println("--compilations=a,b      compilation modes: tiered, int (-Xint), comp (-Xcomp), c1, c2");
+          System.out.println("--array-sizes=a,b       array sizes for ArrayBenchmark (default: 20)");
+          System.out.println("--threads=a,b           thread counts (default: 1)");
+          System.out.println("--jvm-arg=arg           an additional argument for every forked JVM, may be repeated");
+          System.out.println("--forks=n               the number of forks of each scenario (default: " + DEFAULT_FORKS + ")");
+          System.out.println("--iterations=n          set the number of iterations in each fork");
+          System.out.println("--close                 native objects should be closed (disposed) after use");
+          System.out.println("--seed=n                seed for randomising the order of the forks");
+          System.out.println("--csv                   output the report in CSV format");
+          System.out.println("--ns                    report times in ns as opposed to ms");
+          System.out.println();
+          return;
+        }
+      }
+    }
+
+    final List<Scenario> scenarios = new ArrayList<>();
+    for (final String benchmark : benchmarks) {
+      // the array size is only meaningful for the ArrayBenchmark
+      final List<String> benchmarkArraySizes = benchmark.equals("ArrayBenchmark") ? arraySizes : Collections.singletonList("");
+      for (final String gc : gcs) {
+        for (final String heap : heaps) {
+          for (final String compilation : compilations) {
+            for (final String arraySize : benchmarkArraySizes) {
+              for (final String threadCount : threads) {
+                scenarios.add(new Scenario(benchmark, gc, heap, compilation, arraySize, threadCount));
+              }
+            }
+          }
+        }
+      }
+    }
+
+    final List<Scenario> runs = new ArrayList<>();
+    for (final Scenario scenario : scenarios) {
+      for (int i = 0; i < forks; i++) {
+        runs.add(scenario);
+      }
+    }
+    Collections.shuffle(runs, new Random(seed));
+    System.err.println("Running " + runs.size() + " forks of " + scenarios.size() + " scenarios (seed=" + seed + ")");
+
+    for (int i = 0; i < runs.size(); i++) {
+      final Scenario scenario = runs.get(i);
+      System.err.println("Fork " + (i + 1) + "/" + runs.size() + ": " + scenario);
+      final List<String> jvmArgs = new ArrayList<>(scenario.jvmArgs());
+      jvmArgs.addAll(extraJvmArgs);
+      final List<String> output = new JvmFork(jvmArgs, Benchmark.class, scenario.benchmarkArgs(iterations, close)).run();
+      scenario.addResults(output);
+    }
+
+    outputReport(outputAsCSV, inNs, scenarios);
+  }
+
+  private static List<String> csv(final String value) {
+    return Arrays.asList(value.split(","));
+  }
+
+  private static void outputReport(final boolean outputAsCSV, final boolean inNs, final List<Scenario> scenarios) {
+    final String timeUnits = inNs ? "ns" : "ms";
+    final double divisor = inNs ? 1 : 1_000_000;
+    if (outputAsCSV) {
+      System.out.println("benchmark,gc,heap,compilation,arraySize,threads,fixture,forks,mean,stdDev,cv,min,median,max");
+    }
+    for (final Scenario scenario : scenarios) {
+      if (!outputAsCSV) {
+        System.out.println(scenario);
+      }
+      for (final Map.Entry<String, List<Long>> result : scenario.results.entrySet()) {
+        final SampleStatistics statistics = new SampleStatistics(result.getValue());
+        if (outputAsCSV) {
+          System.out.println(String.join(",", scenario.benchmark, scenario.gc, scenario.heap, scenario.compilation,
+              scenario.arraySize, scenario.threads, '"' + result.getKey() + '"', String.valueOf(statistics.getCount()),
+              String.format("%.3f", statistics.getMean() / divisor), String.format("%.3f", statistics.getStdDev() / divisor),
+              String.format("%.2f", statistics.getCoefficientOfVariation()), String.format("%.3f", statistics.getMin() / divisor),
+              String.format("%.3f", statistics.getMedian() / divisor), String.format("%.3f", statistics.getMax() / divisor)));
+        } else {
+          System.out.println(String.format("  %s: mean=%.3f%s stdDev=%.3f%s cv=%.2f%% min=%.3f%s median=%.3f%s max=%.3f%s (forks=%d)",
+              result.getKey(), statistics.getMean() / divisor, timeUnits, statistics.getStdDev() / divisor, timeUnits,
+              statistics.getCoefficientOfVariation(), statistics.getMin() / divisor, timeUnits,
+              statistics.getMedian() / divisor, timeUnits, statistics.getMax() / divisor, timeUnits, statistics.getCount()));
+        }
+      }
+    }
+  }
+
+  /**
+   * A single point in the matrix of benchmark configurations,
+   * and the results collected from each of its forks.
+   */
+  static class Scenario {
+    final String benchmark;
+    final String gc;
+    final String heap;
+    final String compilation;
+    final String arraySize;
+    final String threads;
+
+    /**
+     * Fixture description to the duration in nanoseconds reported by each fork.
+     */
+    final Map<String, List<Long>> results = new LinkedHashMap<>();
+
+    Scenario(final String benchmark, final String gc, final String heap, final String compilation,
+        final String arraySize, final String threads) {
+      this.benchmark = benchmark;
+      this.gc = gc;
+      this.heap = heap;
+      this.compilation = compilation;
+      this.arraySize = arraySize;
+      this.threads = threads;
+    }
+
+    List<String> jvmArgs() {
+      final List<String> jvmArgs = new ArrayList<>();
+
+      switch (gc) {
+        case "default":
+          break;
+        case "G1":
+          jvmArgs.add("-XX:+UseG1GC");
+          break;
+        case "Parallel":
+          jvmArgs.add("-XX:+UseParallelGC");
+          break;
+        case "Serial":
+          jvmArgs.add("-XX:+UseSerialGC");
+          break;
+        case "Z":
+          jvmArgs.add("-XX:+UseZGC");
+          break;
+        case "Shenandoah":
+          jvmArgs.add("-XX:+UseShenandoahGC");
+          break;
+        case "Epsilon":
+          jvmArgs.add("-XX:+UnlockExperimentalVMOptions");
+          jvmArgs.add("-XX:+UseEpsilonGC");
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown garbage collector: " + gc);
+      }
+
+      if (!heap.equals("default")) {
+        jvmArgs.add("-Xms" + heap);
+        jvmArgs.add("-Xmx" + heap);
+      }
+
+      switch (compilation) {
+        case "tiered":
+          break;
+        case "int":
+          jvmArgs.add("-Xint");
+          break;
+        case "comp":
+          jvmArgs.add("-Xcomp");
+          break;
+        case "c1":
+          jvmArgs.add("-XX:TieredStopAtLevel=1");
+          break;
+        case "c2":
+          jvmArgs.add("-XX:-TieredCompilation");
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown compilation mode: " + compilation);
+      }
+
+      return jvmArgs;
+    }
+
+    List<String> benchmarkArgs(final int iterations, final boolean close) {
+      final List<String> benchmarkArgs = new ArrayList<>();
+      benchmarkArgs.add("--benchmark=" + benchmark);
+      benchmarkArgs.add("--iterations=" + iterations);
+      benchmarkArgs.add("--threads=" + threads);
+      if (!arraySize.isEmpty()) {
+        benchmarkArgs.add("--array-size=" + arraySize);
+      }
+      if (close) {
+        benchmarkArgs.add("--close");
+      }
+      benchmarkArgs.add("--ns");
+      return benchmarkArgs;
+    }
+
+    /**
+     * Collects the results from the output of a fork of the {@link Benchmark},
+     * which are lines of the form {@code description: durationns}.
+     */
+    void addResults(final List<String> output) {
+      for (final String line : output) {
+        final int idx = line.lastIndexOf(": ");
+        if (idx == -1 || !line.endsWith("ns")) {
+          continue;
+        }
+        final String description = line.substring(0, idx);
+        final long duration = Long.parseLong(line.substring(idx + 2, line.length() - 2));
+        results.computeIfAbsent(description, k -> new ArrayList<>()).add(duration);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return benchmark + " gc=" + gc + " heap=" + heap + " compilation=" + compilation
+          + (arraySize.isEmpty() ? "" : " arraySize=" + arraySize) + " threads=" + threads;
+    }
+  }
+}
@@ -27,22 +27,76 @@
 package com.evolvedbinary.jnibench.consbench;
 
 import com.evolvedbinary.jnibench.common.NativeBackedObject;
+import com.evolvedbinary.jnibench.common.baseline.NativeBaseline;
+import com.evolvedbinary.jnibench.common.baseline.PlainFoo;
 import com.evolvedbinary.jnibench.common.call.*;
+import com.evolvedbinary.jnibench.common.profile.NativeProfile;
 
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.consume;
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.fromNanos;
 import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.outputResults;
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.reportNativeProfile;
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.runConcurrently;
 import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.time;
 
 public class CallBenchmark implements BenchmarkInterface {
   @Override
   public void test(final BenchmarkOptions benchmarkOptions) {
+    final BenchmarkFixture[] benchmarkFixtures;
     if (benchmarkOptions.isClose()) {
-      testWithClose(benchmarkOptions.getIterations(), benchmarkOptions.isOutputAsCSV(), benchmarkOptions.isInNs());
+      benchmarkFixtures = testWithClose(benchmarkOptions.getIterations(), benchmarkOptions.getThreads(),
+          benchmarkOptions.isInNs(), benchmarkOptions.isNativeProfile());
     } else {
-      testWithoutClose(benchmarkOptions.getIterations(), benchmarkOptions.isOutputAsCSV(), benchmarkOptions.isInNs());
+      benchmarkFixtures = testWithoutClose(benchmarkOptions.getIterations(), benchmarkOptions.getThreads(),
+          benchmarkOptions.isInNs(), benchmarkOptions.isNativeProfile());
     }
+
+    if (benchmarkOptions.isBaselines()) {
+      outputResults(benchmarkOptions.isOutputAsCSV(), benchmarkOptions.isInNs(), benchmarkFixtures,
+          javaBaseline(benchmarkOptions.getIterations(), benchmarkOptions.getThreads(), benchmarkOptions.isInNs()),
+          nativeBaseline(benchmarkOptions.getIterations(), benchmarkOptions.getThreads(), benchmarkOptions.isClose(),
+              benchmarkOptions.isInNs()));
+    } else {
+      outputResults(benchmarkOptions.isOutputAsCSV(), benchmarkOptions.isInNs(), benchmarkFixtures);
+    }
+  }
+
+  /**
+   * Constructs the same number of plain Java objects, which have no native peer.
+   */
+  private static BenchmarkFixture javaBaseline(final int iterations, final int threads, final boolean inNs) {
+    final BaselineFixture baselineFixture = new BaselineFixture("Java baseline (PlainFoo)");
+    final long start = time(inNs);
+    if (threads > 1) {
+      runConcurrently(threads, iterations, () -> consume(new PlainFoo()));
+    } else {
+      for (int i = 0; i < iterations; i++) {
+        consume(new PlainFoo());
+      }
+    }
+    baselineFixture.duration = time(inNs) - start;
+    return baselineFixture;
   }
 
-  private static void testWithClose(final int iterations, final boolean outputAsCSV, final boolean inNs) {
+  /**
+   * Allocates the same number of C++ Foo objects, in a single JNI call,
+   * or with several threads, in a single JNI call per thread.
+   */
+  private static BenchmarkFixture nativeBaseline(final int iterations, final int threads, final boolean close,
+      final boolean inNs) {
+    final BaselineFixture baselineFixture = new BaselineFixture("C++ baseline (new Foo)");
+    if (threads > 1) {
+      final long start = time(inNs);
+      runConcurrently(threads, iterations, threadIterations -> NativeBaseline.timeFooAllocation(threadIterations, close));
+      baselineFixture.duration = time(inNs) - start;
+    } else {
+      baselineFixture.duration = fromNanos(NativeBaseline.timeFooAllocation(iterations, close), inNs);
+    }
+    return baselineFixture;
+  }
+
+  private static BenchmarkFixture[] testWithClose(final int iterations, final int threads, final boolean inNs,
+      final boolean nativeProfile) {
     final CallBenchmarkFixture[] benchmarkFixtures = {
             new CallBenchmarkFixture("FooByCall", FooByCall::new),
             new CallBenchmarkFixture("FooByCallStatic", FooByCallStatic::new),
@@ -54,18 +108,32 @@ public class CallBenchmark implements BenchmarkInterface {
 
     // run each benchmark fixture
     for (final CallBenchmarkFixture benchmarkFixture : benchmarkFixtures) {
+      if (nativeProfile) {
+        NativeProfile.reset();
+      }
       benchmarkFixture.start = time(inNs);
-      for (int i = 0; i < iterations; i++) {
-        final NativeBackedObject nativeBackedObject = benchmarkFixture.nativeBackedObjectConstructor.get();
-        nativeBackedObject.close(); // CLOSE
+      if (threads > 1) {
+        runConcurrently(threads, iterations, () -> {
+          final NativeBackedObject nativeBackedObject = benchmarkFixture.nativeBackedObjectConstructor.get();
+          nativeBackedObject.close(); // CLOSE
+        });
+      } else {
+        for (int i = 0; i < iterations; i++) {
+          final NativeBackedObject nativeBackedObject = benchmarkFixture.nativeBackedObjectConstructor.get();
+          nativeBackedObject.close(); // CLOSE
+        }
       }
       benchmarkFixture.end = time(inNs);
+      if (nativeProfile) {
+        reportNativeProfile(benchmarkFixture, threads, inNs);
+      }
     }
 
-    outputResults(outputAsCSV, inNs, benchmarkFixtures);
+    return benchmarkFixtures;
   }
 
-  private static void testWithoutClose(final int iterations, final boolean outputAsCSV, final boolean inNs) {
+  private static BenchmarkFixture[] testWithoutClose(final int iterations, final int threads, final boolean inNs,
+      final boolean nativeProfile) {
     final CallBenchmarkFixture[] benchmarkFixtures = {
             new CallBenchmarkFixture("FooByCall", FooByCall::new),
             new CallBenchmarkFixture("FooByCallStatic", FooByCallStatic::new),
@@ -77,13 +145,23 @@ public class CallBenchmark implements BenchmarkInterface {
 
     // run each benchmark fixture
     for (final CallBenchmarkFixture benchmarkFixture : benchmarkFixtures) {
+      if (nativeProfile) {
+        NativeProfile.reset();
+      }
       benchmarkFixture.start = time(inNs);
-      for (int i = 0; i < iterations; i++) {
-        final NativeBackedObject nativeBackedObject = benchmarkFixture.nativeBackedObjectConstructor.get();
+      if (threads > 1) {
+        runConcurrently(threads, iterations, benchmarkFixture.nativeBackedObjectConstructor::get);
+      } else {
+        for (int i = 0; i < iterations; i++) {
+          final NativeBackedObject nativeBackedObject = benchmarkFixture.nativeBackedObjectConstructor.get();
+        }
       }
       benchmarkFixture.end = time(inNs);
+      if (nativeProfile) {
+        reportNativeProfile(benchmarkFixture, threads, inNs);
+      }
     }
 
-    outputResults(outputAsCSV, inNs, benchmarkFixtures);
+    return benchmarkFixtures;
   }
 }
@@ -48,6 +48,6 @@ public class CallBenchmarkFixture implements BenchmarkFixture {
 
     @Override
     public long duration() {
-        return 0;
+        return end - start;
     }
 }
@@ -0,0 +1,167 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.consbench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs each construction and array scenario by a {@link ColdStartProbe}
+ * in a fresh JVM, and then reports the median of each cold start metric
+ * across the forks, e.g. the latency of the first call, the latency over
+ * the first calls as the method is compiled, and the time to reach the
+ * steady state.
+ *
+ * As with {@link BenchmarkOrchestrator}, the forks of every scenario
+ * are executed in a randomised order.
+ */
+public class ColdStartBenchmark {
+  private final static int DEFAULT_FORKS = 5;
+  private final static int DEFAULT_CALLS = 100_000;
+  private final static int DEFAULT_ARRAY_SIZE = 20;
+
+  public static final void main(final String args[]) throws IOException, InterruptedException {
+    List<String> scenarios = Arrays.asList(ColdStartProbe.SCENARIOS);
+    final List<String> jvmArgs = new ArrayList<>();
+    int forks = DEFAULT_FORKS;
+    int calls = DEFAULT_CALLS;
+    int arraySize = DEFAULT_ARRAY_SIZE;
+    boolean close = false;
+    boolean outputAsCSV = false;
+    long seed = System.nanoTime();
+
+    if (args != null && args.length > 0) {
+      for (final String arg : args) {
+        if (arg.startsWith("--scenarios=")) {
+          scenarios = Arrays.asList(arg.substring("--scenarios=".length()).split(","));
+        } else if (arg.startsWith("--jvm-arg=")) {
+          jvmArgs.add(arg.substring("--jvm-arg=".length()));
+        } else if (arg.startsWith("--forks=")) {
+          forks = Integer.parseInt(arg.substring("--forks=".length()));
+        } else if (arg.startsWith("--calls=")) {
+          calls = Integer.parseInt(arg.substring("--calls=".length()));
+        } else if (arg.startsWith("--array-size=")) {
+          arraySize = Integer.parseInt(arg.substring("--array-size=".length()));
+        } else if (arg.startsWith("--seed=")) {
+          seed = Long.parseLong(arg.substring("--seed=".length()));
+        } else if (arg.equals("--close")) {
+          close = true;
+        } else if (arg.equals("--csv")) {
+          outputAsCSV = true;
+        } else if (arg.equals("--help") || arg.equals("-h") || arg.equals("/?")) {
+          System.out.println();
+          System.out.println("ColdStartBenchmark");
+          System.out.println("--scenarios=a,b         the scenarios to run (default: all)");
+          System.out.println("                        " + String.join(",", ColdStartProbe.SCENARIOS));
+          System.out.println("--jvm-arg=arg           an additional argument for every forked JVM, may be repeated");
+          System.out.println("--forks=n               the number of forks of each scenario (default: " + DEFAULT_FORKS + ")");
+          System.out.println("--calls=n               the number of calls in each fork (default: " + DEFAULT_CALLS + ")");
+          System.out.println("--array-size=n          the size of the native array (default: " + DEFAULT_ARRAY_SIZE + ")");
+          System.out.println("--close                 native objects should be closed (disposed) after use");
+          System.out.println("--seed=n                seed for randomising the order of the forks");
+          System.out.println("--csv                   output the report in CSV format");
+          System.out.println();
+          return;
+        }
+      }
+    }
+
+    final List<String> runs = new ArrayList<>();
+    for (final String scenario : scenarios) {
+      for (int i = 0; i < forks; i++) {
+        runs.add(scenario);
+      }
+    }
+    Collections.shuffle(runs, new Random(seed));
+    System.err.println("Running " + runs.size() + " forks of " + scenarios.size() + " scenarios (seed=" + seed + ")");
+
+    // scenario to metric to the value reported by each fork
+    final Map<String, Map<String, List<Long>>> results = new LinkedHashMap<>();
+    for (final String scenario : scenarios) {
+      results.put(scenario, new LinkedHashMap<>());
+    }
+
+    for (int i = 0; i < runs.size(); i++) {
+      final String scenario = runs.get(i);
+      System.err.println("Fork " + (i + 1) + "/" + runs.size() + ": " + scenario);
+      final List<String> output = new JvmFork(jvmArgs, ColdStartProbe.class,
+          Arrays.asList(scenario, String.valueOf(calls), String.valueOf(arraySize), String.valueOf(close))).run();
+      addResults(results.get(scenario), output);
+    }
+
+    outputReport(outputAsCSV, results);
+  }
+
+  /**
+   * Collects the results from the output of a {@link ColdStartProbe},
+   * which are lines of the form {@code metric: value} or {@code metric: valuens}.
+   */
+  private static void addResults(final Map<String, List<Long>> metrics, final List<String> output) {
+    for (final String line : output) {
+      final int idx = line.lastIndexOf(": ");
+      if (idx == -1) {
+        continue;
+      }
+      final String metric = line.substring(0, idx);
+      String value = line.substring(idx + 2);
+      if (value.endsWith("ns")) {
+        value = value.substring(0, value.length() - 2);
+      }
+      metrics.computeIfAbsent(metric, k -> new ArrayList<>()).add(Long.parseLong(value));
+    }
+  }
+
+  private static void outputReport(final boolean outputAsCSV, final Map<String, Map<String, List<Long>>> results) {
+    if (outputAsCSV) {
+      System.out.println("scenario,metric,forks,median,min,max");
+    }
+    for (final Map.Entry<String, Map<String, List<Long>>> scenario : results.entrySet()) {
+      if (!outputAsCSV) {
+        System.out.println(scenario.getKey());
+      }
+      for (final Map.Entry<String, List<Long>> metric : scenario.getValue().entrySet()) {
+        final SampleStatistics statistics = new SampleStatistics(metric.getValue());
+        final String units = metric.getKey().startsWith("calls-to-") ? "" : "ns";
+        if (outputAsCSV) {
+          System.out.println(String.join(",", scenario.getKey(), '"' + metric.getKey() + '"',
+              String.valueOf(statistics.getCount()), String.valueOf(statistics.getMedian()),
+              String.valueOf(statistics.getMin()), String.valueOf(statistics.getMax())));
+        } else {
+          System.out.println(String.format("  %s: median=%d%s min=%d%s max=%d%s (forks=%d)", metric.getKey(),
+              statistics.getMedian(), units, statistics.getMin(), units, statistics.getMax(), units,
+              statistics.getCount()));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.consbench;
+
+import com.evolvedbinary.jnibench.common.NativeBackedObject;
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.common.call.*;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Runs a single construction or array scenario in a fresh JVM, launched by
+ * {@link ColdStartBenchmark}, and reports the latency of its first calls.
+ *
+ * The first call includes linking the native method and initialising the classes
+ * it uses, and is also reported including {@link NarSystem#loadLibrary()}. The
+ * latencies of the following calls are reported as the median of each decade of
+ * calls, over which the method is interpreted and then compiled by C1 and C2.
+ *
+ * Reports lines of the form {@code metric: value}, where times are in nanoseconds.
+ */
+public class ColdStartProbe {
+
+  /**
+   * The number of calls in each window when looking for the steady state.
+   */
+  private static final int STEADY_STATE_WINDOW = 100;
+
+  /**
+   * A window is in the steady state if its median is within this factor of the steady state median.
+   */
+  private static final double STEADY_STATE_TOLERANCE = 1.25;
+
+  static final String[] SCENARIOS = {
+      "FooByCall", "FooByCallStatic", "FooByCallInvoke",
+      "FooByCallFinal", "FooByCallStaticFinal", "FooByCallInvokeFinal",
+      "AllocateInJavaGetArray", "AllocateInJavaGetMutableArray", "AllocateInJavaGet2DArray",
+      "AllocateInCppGetArray", "AllocateInCppGet2DArray", "AllocateInCppGet2DArrayListWrapper",
+      "AllocateInJavaGetArrayList", "AllocateInCppGetArrayList"
+  };
+
+  public static final void main(final String args[]) {
+    if (args.length != 4) {
+      System.err.println("Usage: ColdStartProbe <scenario> <calls> <array-size> <close>");
+      System.exit(1);
+    }
+    final String scenario = args[0];
+    final int calls = Integer.parseInt(args[1]);
+    final int arraySize = Integer.parseInt(args[2]);
+    final boolean close = Boolean.parseBoolean(args[3]);
+
+    final long loadStart = System.nanoTime();
+    NarSystem.loadLibrary();
+    final long load = System.nanoTime() - loadStart;
+
+    final Runnable operation = operation(scenario, arraySize, close);
+
+    final long[] latencies = new long[calls];
+    for (int i = 0; i < calls; i++) {
+      final long start = System.nanoTime();
+      operation.run();
+      latencies[i] = System.nanoTime() - start;
+    }
+
+    System.out.println("load-library: " + load + "ns");
+    System.out.println("first-call: " + latencies[0] + "ns");
+    System.out.println("first-call-including-load: " + (load + latencies[0]) + "ns");
+
+    for (int from = 1, to = 10; from < calls; from = to, to *= 10) {
+      System.out.println("calls " + (from + 1) + "-" + Math.min(to, calls) + " median: "
+          + median(latencies, from, Math.min(to, calls)) + "ns");
+    }
+
+    // the steady state is taken as the median of the last 10% of calls
+    final long steadyState = median(latencies, calls - Math.max(1, calls / 10), calls);
+    System.out.println("steady-state median: " + steadyState + "ns");
+
+    // the steady state is reached after the last window which is not within the tolerance
+    int steadyFrom = 0;
+    for (int from = 0; from < calls; from += STEADY_STATE_WINDOW) {
+      final int to = Math.min(from + STEADY_STATE_WINDOW, calls);
+      if (median(latencies, from, to) > steadyState * STEADY_STATE_TOLERANCE) {
+        steadyFrom = to;
+      }
+    }
+    long timeToSteadyState = 0;
+    for (int i = 0; i < steadyFrom; i++) {
+      timeToSteadyState += latencies[i];
+    }
+    System.out.println("time-to-steady-state: " + timeToSteadyState + "ns");
+    System.out.println("calls-to-steady-state: " + steadyFrom);
+
+    final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    if (compilation != null && compilation.isCompilationTimeMonitoringSupported()) {
+      System.out.println("jit-compilation: " + compilation.getTotalCompilationTime() * 1_000_000 + "ns");
+    }
+  }
+
+  /**
+   * Creates the operation for a scenario. The array for the array scenarios is created
+   * here, so that only the classes and native methods of the supplier are first used
+   * by the first call.
+   */
+  private static Runnable operation(final String scenario, final int arraySize, final boolean close) {
+    switch (scenario) {
+      case "FooByCall":
+        return construction(FooByCall::new, close);
+      case "FooByCallStatic":
+        return construction(FooByCallStatic::new, close);
+      case "FooByCallInvoke":
+        return construction(FooByCallInvoke::new, close);
+      case "FooByCallFinal":
+        return construction(FooByCallFinal::new, close);
+      case "FooByCallStaticFinal":
+        return construction(FooByCallStaticFinal::new, close);
+      case "FooByCallInvokeFinal":
+        return construction(FooByCallInvokeFinal::new, close);
+      case "AllocateInJavaGetArray":
+        return array(AllocateInJavaGetArray::new, arraySize);
+      case "AllocateInJavaGetMutableArray":
+        return array(AllocateInJavaGetMutableArray::new, arraySize);
+      case "AllocateInJavaGet2DArray":
+        return array(AllocateInJavaGet2DArray::new, arraySize);
+      case "AllocateInCppGetArray":
+        return array(AllocateInCppGetArray::new, arraySize);
+      case "AllocateInCppGet2DArray":
+        return array(AllocateInCppGet2DArray::new, arraySize);
+      case "AllocateInCppGet2DArrayListWrapper":
+        return array(AllocateInCppGet2DArrayListWrapper::new, arraySize);
+      case "AllocateInJavaGetArrayList":
+        return array(AllocateInJavaGetArrayList::new, arraySize);
+      case "AllocateInCppGetArrayList":
+        return array(AllocateInCppGetArrayList::new, arraySize);
+      default:
+        throw new IllegalArgumentException("Unknown scenario: " + scenario);
+    }
+  }
+
+  private static Runnable construction(final Supplier<NativeBackedObject> constructor, final boolean close) {
+    return () -> {
+      final NativeBackedObject nativeBackedObject = constructor.get();
+      if (close) {
+        nativeBackedObject.close();
+      }
+    };
+  }
+
+  private static Runnable array(final Supplier<JniListSupplier<FooObject>> listSupplierConstructor,
+      final int arraySize) {
+    // the array is never closed, as the JVM exits after the calls
+    final FooNativeObjectArray fooObjectArray = new FooNativeObjectArray(
+        FooObjects.random(arraySize, 0, new Random()));
+    final JniListSupplier<FooObject> listSupplier = listSupplierConstructor.get();
+    return () -> listSupplier.getObjectList(fooObjectArray);
+  }
+
+  private static long median(final long[] latencies, final int from, final int to) {
+    final long[] sorted = Arrays.copyOfRange(latencies, from, to);
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.consbench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Launches a fresh JVM which runs a main class from this project,
+ * using the same Java runtime, classpath and native library path
+ * as the current JVM.
+ */
+public class JvmFork {
+  private final List<String> jvmArgs;
+  private final String mainClass;
+  private final List<String> args;
+
+  public JvmFork(final List<String> jvmArgs, final Class<?> mainClass, final List<String> args) {
+    this.jvmArgs = jvmArgs;
+    this.mainClass = mainClass.getName();
+    this.args = args;
+  }
+
+  /**
+   * Get the command line which will be used to launch the JVM.
+   *
+   * @return the command line
+   */
+  public List<String> command() {
+    final List<String> command = new ArrayList<>();
+    command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    command.addAll(jvmArgs);
+    final String libraryPath = System.getProperty("java.library.path");
+    if (libraryPath != null) {
+      command.add("-Djava.library.path=" + libraryPath);
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(mainClass);
+    command.addAll(args);
+    return command;
+  }
+
+  /**
+   * Run the JVM to completion.
+   *
+   * Anything written by the JVM to stderr is passed through
+   * to the stderr of the current process.
+   *
+   * @return the lines that the JVM wrote to stdout
+   *
+   * @throws IOException if the JVM cannot be launched, or exits with a non-zero status
+   * @throws InterruptedException if interrupted whilst waiting for the JVM to exit
+   */
+  public List<String> run() throws IOException, InterruptedException {
+    final List<String> command = command();
+    final Process process = new ProcessBuilder(command)
+        .redirectError(ProcessBuilder.Redirect.INHERIT)
+        .start();
+
+    final List<String> lines = new ArrayList<>();
+    try (final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+
+    final int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IOException("Forked JVM exited with status " + exitCode + ": " + String.join(" ", command));
+    }
+    return lines;
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.consbench;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Summary statistics of a set of measurements,
+ * for example the durations reported by each fork of a benchmark.
+ */
+public class SampleStatistics {
+  private final int count;
+  private final double mean;
+  private final double stdDev;
+  private final long min;
+  private final long max;
+  private final long median;
+
+  public SampleStatistics(final List<Long> samples) {
+    final long[] sorted = new long[samples.size()];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = samples.get(i);
+    }
+    Arrays.sort(sorted);
+
+    this.count = sorted.length;
+    if (count == 0) {
+      this.mean = 0;
+      this.stdDev = 0;
+      this.min = 0;
+      this.max = 0;
+      this.median = 0;
+      return;
+    }
+
+    double sum = 0;
+    for (final long sample : sorted) {
+      sum += sample;
+    }
+    this.mean = sum / count;
+
+    double sumOfSquares = 0;
+    for (final long sample : sorted) {
+      sumOfSquares += (sample - mean) * (sample - mean);
+    }
+    // sample (n - 1) standard deviation, as the forks are a sample of all possible runs
+    this.stdDev = count > 1 ? Math.sqrt(sumOfSquares / (count - 1)) : 0;
+
+    this.min = sorted[0];
+    this.max = sorted[count - 1];
+    this.median = sorted[count / 2];
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  public double getStdDev() {
+    return stdDev;
+  }
+
+  /**
+   * Get the coefficient of variation, i.e. the standard deviation
+   * relative to the mean.
+   *
+   * @return the coefficient of variation as a percentage
+   */
+  public double getCoefficientOfVariation() {
+    return mean == 0 ? 0 : (stdDev / mean) * 100;
+  }
+
+  public long getMin() {
+    return min;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public long getMedian() {
+    return median;
+  }
+}
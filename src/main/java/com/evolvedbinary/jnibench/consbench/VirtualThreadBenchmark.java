@@ -0,0 +1,230 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.consbench;
+
+import com.evolvedbinary.jnibench.common.NativeBackedObject;
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.common.call.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static com.evolvedbinary.jnibench.consbench.BenchmarkHelper.runConcurrently;
+
+/**
+ * Runs the construction and array scenarios from {@code --threads} virtual threads,
+ * and reports the throughput and latency of each call.
+ *
+ * A native call pins its virtual thread to a carrier thread, so many concurrent
+ * native calls can leave no carriers free for other virtual threads. To measure
+ * this, a probe starts a virtual thread every millisecond, and the delay until
+ * each probe thread runs is reported. The array scenarios are also run through
+ * an {@link OffloadingListSupplier} for comparison.
+ *
+ * Requires Java 21 or newer. Latencies are always in nanoseconds.
+ */
+public class VirtualThreadBenchmark implements BenchmarkInterface {
+  private static final long PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Override
+  public void test(final BenchmarkOptions benchmarkOptions) {
+    if (!VirtualThreads.isAvailable()) {
+      System.err.println("VirtualThreadBenchmark requires Java 21 or newer");
+      return;
+    }
+
+    final ThreadFactory virtualThreadFactory = VirtualThreads.newThreadFactory();
+    final int threads = benchmarkOptions.getThreads();
+    final int iterations = benchmarkOptions.getIterations();
+    final boolean close = benchmarkOptions.isClose();
+    final FooNativeObjectArray fooObjectArray = new FooNativeObjectArray(
+        FooObjects.random(benchmarkOptions.getArraySize(), 0, new Random()));
+    final int offloadThreads = Runtime.getRuntime().availableProcessors();
+
+    final List<Scenario> scenarios = new ArrayList<>();
+    scenarios.add(construction("FooByCall", FooByCall::new, close));
+    scenarios.add(construction("FooByCallStatic", FooByCallStatic::new, close));
+    scenarios.add(construction("FooByCallInvoke", FooByCallInvoke::new, close));
+    scenarios.add(construction("FooByCallFinal", FooByCallFinal::new, close));
+    scenarios.add(construction("FooByCallStaticFinal", FooByCallStaticFinal::new, close));
+    scenarios.add(construction("FooByCallInvokeFinal", FooByCallInvokeFinal::new, close));
+    scenarios.add(array("Allocate 2D array in Java", new AllocateInJavaGet2DArray(), fooObjectArray));
+    scenarios.add(array("Allocate array list in CPP", new AllocateInCppGetArrayList(), fooObjectArray));
+
+    final List<OffloadingListSupplier<FooObject>> offloadingSuppliers = Arrays.asList(
+        new OffloadingListSupplier<>(new AllocateInJavaGet2DArray(), 0, offloadThreads),
+        new OffloadingListSupplier<>(new AllocateInCppGetArrayList(), 0, offloadThreads));
+    scenarios.add(array("Allocate 2D array in Java (offloaded)", offloadingSuppliers.get(0), fooObjectArray));
+    scenarios.add(array("Allocate array list in CPP (offloaded)", offloadingSuppliers.get(1), fooObjectArray));
+
+    final List<Result> results = new ArrayList<>();
+    for (final Scenario scenario : scenarios) {
+      results.add(run(virtualThreadFactory, threads, iterations, scenario));
+    }
+
+    for (final OffloadingListSupplier<FooObject> offloadingSupplier : offloadingSuppliers) {
+      offloadingSupplier.close();
+    }
+    fooObjectArray.close();
+
+    if (benchmarkOptions.isOutputAsCSV()) {
+      System.out.println("fixture,opsPerSecond,p50,p99,p999,max,probeP50,probeP99,probeMax");
+      for (final Result result : results) {
+        System.out.println('"' + result.description + "\"," + result.opsPerSecond
+            + ',' + percentile(result.latencies, 0.5) + ',' + percentile(result.latencies, 0.99)
+            + ',' + percentile(result.latencies, 0.999) + ',' + percentile(result.latencies, 1)
+            + ',' + percentile(result.probeDelays, 0.5) + ',' + percentile(result.probeDelays, 0.99)
+            + ',' + percentile(result.probeDelays, 1));
+      }
+    } else {
+      for (final Result result : results) {
+        System.out.println(result.description + ": " + result.opsPerSecond + "ops/s"
+            + " p50=" + percentile(result.latencies, 0.5) + "ns"
+            + " p99=" + percentile(result.latencies, 0.99) + "ns"
+            + " p99.9=" + percentile(result.latencies, 0.999) + "ns"
+            + " max=" + percentile(result.latencies, 1) + "ns"
+            + " probe-p50=" + percentile(result.probeDelays, 0.5) + "ns"
+            + " probe-p99=" + percentile(result.probeDelays, 0.99) + "ns"
+            + " probe-max=" + percentile(result.probeDelays, 1) + "ns");
+      }
+    }
+  }
+
+  private static Scenario construction(final String description,
+      final Supplier<NativeBackedObject> nativeBackedObjectConstructor, final boolean close) {
+    return new Scenario(description, () -> {
+      final NativeBackedObject nativeBackedObject = nativeBackedObjectConstructor.get();
+      if (close) {
+        nativeBackedObject.close();
+      }
+    });
+  }
+
+  private static Scenario array(final String description, final JniListSupplier<FooObject> listSupplier,
+      final FooNativeObjectArray fooObjectArray) {
+    return new Scenario(description, () -> listSupplier.getObjectList(fooObjectArray));
+  }
+
+  private static Result run(final ThreadFactory virtualThreadFactory, final int threads, final int iterations,
+      final Scenario scenario) {
+    final long[] latencies = new long[iterations];
+    final AtomicInteger completed = new AtomicInteger();
+
+    final ConcurrentLinkedQueue<Long> probeDelays = new ConcurrentLinkedQueue<>();
+    final AtomicInteger probesStarted = new AtomicInteger();
+    final Thread probe = new Thread(() -> {
+      while (!Thread.currentThread().isInterrupted()) {
+        final long submitted = System.nanoTime();
+        probesStarted.incrementAndGet();
+        virtualThreadFactory.newThread(() -> probeDelays.add(System.nanoTime() - submitted)).start();
+        LockSupport.parkNanos(PROBE_INTERVAL_NANOS);
+      }
+    }, "virtual-thread-probe");
+    probe.setDaemon(true);
+    probe.start();
+
+    final long start = System.nanoTime();
+    runConcurrently(virtualThreadFactory, threads, iterations, () -> {
+      final long operationStart = System.nanoTime();
+      scenario.operation.run();
+      latencies[completed.getAndIncrement()] = System.nanoTime() - operationStart;
+    });
+    final long duration = System.nanoTime() - start;
+
+    probe.interrupt();
+    try {
+      probe.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // probes started near the end of the run may not have been scheduled yet
+    while (probeDelays.size() < probesStarted.get() && !Thread.currentThread().isInterrupted()) {
+      LockSupport.parkNanos(PROBE_INTERVAL_NANOS);
+    }
+
+    final long[] delays = new long[probeDelays.size()];
+    int i = 0;
+    for (final Long delay : probeDelays) {
+      if (i == delays.length) {
+        break;
+      }
+      delays[i++] = delay;
+    }
+
+    Arrays.sort(latencies);
+    Arrays.sort(delays, 0, i);
+    final long opsPerSecond = duration == 0 ? 0 : iterations * TimeUnit.SECONDS.toNanos(1) / duration;
+    return new Result(scenario.description, opsPerSecond, latencies, Arrays.copyOf(delays, i));
+  }
+
+  /**
+   * @param sorted the sorted samples
+   * @param quantile the quantile, from 0 to 1
+   *
+   * @return the sample at the quantile, or 0 if there are no samples
+   */
+  private static long percentile(final long[] sorted, final double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    final int index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static class Scenario {
+    final String description;
+    final Runnable operation;
+
+    Scenario(final String description, final Runnable operation) {
+      this.description = description;
+      this.operation = operation;
+    }
+  }
+
+  private static class Result {
+    final String description;
+    final long opsPerSecond;
+    final long[] latencies;
+    final long[] probeDelays;
+
+    Result(final String description, final long opsPerSecond, final long[] latencies, final long[] probeDelays) {
+      this.description = description;
+      this.opsPerSecond = opsPerSecond;
+      this.latencies = latencies;
+      this.probeDelays = probeDelays;
+    }
+  }
+}
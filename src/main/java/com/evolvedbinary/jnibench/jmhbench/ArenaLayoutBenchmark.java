@@ -0,0 +1,107 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link FooObjectLayout}s of a native array, both when it
+ * is iterated entirely in C++ and when it is transferred into Java.
+ *
+ * The native iteration reads every name and value without crossing into Java,
+ * so it shows the cost of pointer chasing through the separately allocated
+ * names of the vector layout, against the contiguous names of the arena layout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ArenaLayoutBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  int arraySize;
+
+  /**
+   * Names longer than the small string buffer of std::string,
+   * so that each name of the vector layout is a separate heap allocation.
+   */
+  @Param({"32"})
+  int nameLength;
+
+  @Param({"VECTOR", "ARENA"})
+  FooObjectLayout layout;
+
+  NativeObjectArray<FooObject> fooObjectArray;
+  AllocateInJavaGet2DArray allocateInJavaGet2DArray;
+  AllocateInCppGetArray allocateInCppGetArray;
+  PackedBytesGetList packedBytesGetList;
+
+  @Setup
+  public void setup() {
+    fooObjectArray = layout.newArray(FooObjects.random(arraySize, nameLength, new Random()));
+    allocateInJavaGet2DArray = new AllocateInJavaGet2DArray();
+    allocateInCppGetArray = new AllocateInCppGetArray();
+    packedBytesGetList = new PackedBytesGetList();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @Benchmark
+  public long nativeIteration() {
+    return FooObjectChecksum.of(fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> allocateInJavaGet2DArray() {
+    return allocateInJavaGet2DArray.getObjectList(fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> allocateInCppGetArray() {
+    return allocateInCppGetArray.getObjectList(fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> packedBytes() {
+    return packedBytesGetList.getObjectList(fooObjectArray);
+  }
+}
@@ -29,127 +29,128 @@ package com.evolvedbinary.jnibench.jmhbench;
 import com.evolvedbinary.jnibench.common.array.*;
 import com.evolvedbinary.jnibench.consbench.NarSystem;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Benchmarks each {@link JniListSupplier} at a range of array sizes
+ * and name lengths, reading from each {@link FooObjectLayout}.
+ *
+ * By default, each benchmark is measured for throughput, average time
+ * and sampled time, in 3 forks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
 public class ArrayBenchmark {
 
   static {
     NarSystem.loadLibrary();
   }
 
-  // TODO(AR) parameterize the array size
-  private static final int DEFAULT_ARRAY_SIZE = 20;
-
-  @State(Scope.Benchmark)
-  public static class BenchmarkState {
-    FooNativeObjectArray fooObjectArray;
-    AllocateInJavaGet2DArray allocateInJavaGet2DArray;
-    AllocateInCppGetArray allocateInCppGetArray;
-    AllocateInCppGet2DArray allocateInCppGet2DArray;
-    AllocateInCppGet2DArrayListWrapper jni2DGetArrayListWrapper;
-    AllocateInJavaGetArrayList allocateInJavaGetArrayList;
-    AllocateInCppGetArrayList allocateInCppGetArrayList;
-
-    public BenchmarkState() {
-
-    }
-
-    public BenchmarkState(final FooNativeObjectArray fooObjectArray,
-                          final AllocateInJavaGet2DArray allocateInJavaGet2DArray,
-                          final AllocateInCppGetArray allocateInCppGetArray,
-                          final AllocateInCppGet2DArray allocateInCppGet2DArray,
-                          final AllocateInCppGet2DArrayListWrapper jni2DGetArrayListWrapper,
-                          final AllocateInJavaGetArrayList allocateInJavaGetArrayList,
-                          final AllocateInCppGetArrayList allocateInCppGetArrayList) {
-      this.fooObjectArray = fooObjectArray;
-      this.allocateInJavaGet2DArray = allocateInJavaGet2DArray;
-      this.allocateInCppGetArray = allocateInCppGetArray;
-      this.allocateInCppGet2DArray = allocateInCppGet2DArray;
-      this.jni2DGetArrayListWrapper = jni2DGetArrayListWrapper;
-      this.allocateInJavaGetArrayList = allocateInJavaGetArrayList;
-      this.allocateInCppGetArrayList = allocateInCppGetArrayList;
-    }
-
-    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10"})
-    int iteration;
-
-    @Setup
-    public void setup() {
-      final FooObject[] fooObjects = new FooObject[DEFAULT_ARRAY_SIZE];
-      final Random random = new Random();
-      for (int i = 0; i < DEFAULT_ARRAY_SIZE; i++) {
-        final int num = random.nextInt();
-        fooObjects[i] = new FooObject("str" + num, num);
-      }
-      fooObjectArray = new FooNativeObjectArray(
-          fooObjects);
-      allocateInJavaGet2DArray = new AllocateInJavaGet2DArray();
-      allocateInCppGetArray = new AllocateInCppGetArray();
-      allocateInCppGet2DArray = new AllocateInCppGet2DArray();
-      jni2DGetArrayListWrapper = new AllocateInCppGet2DArrayListWrapper();
-      allocateInJavaGetArrayList = new AllocateInJavaGetArrayList();
-      allocateInCppGetArrayList = new AllocateInCppGetArrayList();
-    }
-
-    @TearDown
-    public void tearDown() {
-      fooObjectArray.close();
-    }
+  @Param({"2", "20", "1000", "100000"})
+  int arraySize;
+
+  @Param({"10", "100"})
+  int nameLength;
+
+  @Param({"VECTOR", "ARENA"})
+  FooObjectLayout layout;
+
+  NativeObjectArray<FooObject> fooObjectArray;
+  AllocateInJavaGetArray allocateInJavaGetArray;
+  AllocateInJavaGetMutableArray allocateInJavaGetMutableArray;
+  AllocateInJavaGet2DArray allocateInJavaGet2DArray;
+  AllocateInCppGetArray allocateInCppGetArray;
+  AllocateInCppGet2DArray allocateInCppGet2DArray;
+  AllocateInCppGet2DArrayListWrapper allocateInCppGet2DArrayListWrapper;
+  AllocateInJavaGetArrayList allocateInJavaGetArrayList;
+  AllocateInCppGetArrayList allocateInCppGetArrayList;
+
+  @Setup
+  public void setup() {
+    fooObjectArray = layout.newArray(FooObjects.random(arraySize, nameLength, new Random()));
+    allocateInJavaGetArray = new AllocateInJavaGetArray();
+    allocateInJavaGetMutableArray = new AllocateInJavaGetMutableArray();
+    allocateInJavaGet2DArray = new AllocateInJavaGet2DArray();
+    allocateInCppGetArray = new AllocateInCppGetArray();
+    allocateInCppGet2DArray = new AllocateInCppGet2DArray();
+    allocateInCppGet2DArrayListWrapper = new AllocateInCppGet2DArrayListWrapper();
+    allocateInJavaGetArrayList = new AllocateInJavaGetArrayList();
+    allocateInCppGetArrayList = new AllocateInCppGetArrayList();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.SingleShotTime)
-  @OutputTimeUnit(TimeUnit.NANOSECONDS)
-  @Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.NANOSECONDS)
-  @Measurement(iterations = 100, time = 200, timeUnit = TimeUnit.NANOSECONDS)
-  public void allocateInJavaArray(BenchmarkState benchmarkState) {
-    benchmarkState.allocateInJavaGet2DArray.getObjectList(benchmarkState.fooObjectArray);
+  public void allocateInJavaGetArray(final Blackhole blackhole) {
+    blackhole.consume(allocateInJavaGetArray.getObjectList(fooObjectArray));
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.SingleShotTime)
-  @OutputTimeUnit(TimeUnit.NANOSECONDS)
-  @Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.NANOSECONDS)
-  @Measurement(iterations = 100, time = 200, timeUnit = TimeUnit.NANOSECONDS)
-  public void jniGetArray(BenchmarkState benchmarkState) {
-    benchmarkState.allocateInCppGetArray.getObjectList(benchmarkState.fooObjectArray);
+  public void allocateInJavaGetMutableArray(final Blackhole blackhole) {
+    blackhole.consume(allocateInJavaGetMutableArray.getObjectList(fooObjectArray));
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.SingleShotTime)
-  @OutputTimeUnit(TimeUnit.NANOSECONDS)
-  @Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.NANOSECONDS)
-  @Measurement(iterations = 100, time = 200, timeUnit = TimeUnit.NANOSECONDS)
-  public void jni2DGetArray(BenchmarkState benchmarkState) {
-    benchmarkState.allocateInCppGet2DArray.getObjectList(benchmarkState.fooObjectArray);
+  public void allocateInJavaGet2DArray(final Blackhole blackhole) {
+    blackhole.consume(allocateInJavaGet2DArray.getObjectList(fooObjectArray));
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.SingleShotTime)
-  @OutputTimeUnit(TimeUnit.NANOSECONDS)
-  @Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.NANOSECONDS)
-  @Measurement(iterations = 100, time = 200, timeUnit = TimeUnit.NANOSECONDS)
-  public void jni2DGetArrayListWrapper(BenchmarkState benchmarkState) {
-    benchmarkState.jni2DGetArrayListWrapper.getObjectList(benchmarkState.fooObjectArray);
+  public void allocateInCppGetArray(final Blackhole blackhole) {
+    blackhole.consume(allocateInCppGetArray.getObjectList(fooObjectArray));
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.SingleShotTime)
-  @OutputTimeUnit(TimeUnit.NANOSECONDS)
-  @Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.NANOSECONDS)
-  @Measurement(iterations = 100, time = 200, timeUnit = TimeUnit.NANOSECONDS)
-  public void allocateInJavaArrayList(BenchmarkState benchmarkState) {
-    benchmarkState.allocateInJavaGetArrayList.getObjectList(benchmarkState.fooObjectArray);
+  public void allocateInCppGet2DArray(final Blackhole blackhole) {
+    blackhole.consume(allocateInCppGet2DArray.getObjectList(fooObjectArray));
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.SingleShotTime)
-  @OutputTimeUnit(TimeUnit.NANOSECONDS)
-  @Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.NANOSECONDS)
-  @Measurement(iterations = 100, time = 200, timeUnit = TimeUnit.NANOSECONDS)
-  public void allocateInCppGetArrayList(BenchmarkState benchmarkState) {
-    benchmarkState.allocateInCppGetArrayList.getObjectList(benchmarkState.fooObjectArray);
+  public void allocateInCppGet2DArrayListWrapper(final Blackhole blackhole) {
+    blackhole.consume(allocateInCppGet2DArrayListWrapper.getObjectList(fooObjectArray));
+  }
+
+  @Benchmark
+  public void allocateInJavaGetArrayList(final Blackhole blackhole) {
+    blackhole.consume(allocateInJavaGetArrayList.getObjectList(fooObjectArray));
+  }
+
+  @Benchmark
+  public void allocateInCppGetArrayList(final Blackhole blackhole) {
+    blackhole.consume(allocateInCppGetArrayList.getObjectList(fooObjectArray));
+  }
+
+  /**
+   * Runs just the array benchmarks and writes the results
+   * to {@code array-benchmark.json}.
+   *
+   * Any JMH command line options, e.g. {@code -p arraySize=1000 -bm avgt -f 1},
+   * may be given to narrow the run.
+   */
+  public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+    final Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .include(ArrayBenchmark.class.getName() + "\\.")
+        .resultFormat(ResultFormatType.JSON)
+        .result("array-benchmark.json")
+        .build();
+    new Runner(options).run();
   }
 }
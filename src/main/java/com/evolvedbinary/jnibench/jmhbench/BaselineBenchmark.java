@@ -0,0 +1,122 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.common.baseline.NativeBaseline;
+import com.evolvedbinary.jnibench.common.baseline.OnHeapGetList;
+import com.evolvedbinary.jnibench.common.baseline.PlainFoo;
+import com.evolvedbinary.jnibench.common.call.FooByCall;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pure Java and pure C++ baselines alongside the JNI
+ * operations that they stand in for, so that the cost of each JNI
+ * operation can be expressed as a multiple of each baseline.
+ *
+ * Each C++ baseline performs all of its work in a single JNI call,
+ * so the result of those benchmarks is divided by the number of
+ * operations, see {@link OperationsPerInvocation}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BaselineBenchmark {
+
+  private static final int NATIVE_ITERATIONS = 1000;
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"20", "1000"})
+  int arraySize;
+
+  @Param({"10", "100"})
+  int nameLength;
+
+  @Param({"VECTOR", "ARENA"})
+  FooObjectLayout layout;
+
+  NativeObjectArray<FooObject> fooObjectArray;
+  OnHeapGetList onHeapGetList;
+  AllocateInJavaGetArray allocateInJavaGetArray;
+
+  @Setup
+  public void setup() {
+    final FooObject[] fooObjects = FooObjects.random(arraySize, nameLength, new Random());
+    fooObjectArray = layout.newArray(fooObjects);
+    onHeapGetList = new OnHeapGetList(fooObjects);
+    allocateInJavaGetArray = new AllocateInJavaGetArray();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @Benchmark
+  public PlainFoo constructionJavaBaseline() {
+    return new PlainFoo();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NATIVE_ITERATIONS)
+  public long constructionNativeBaseline() {
+    return NativeBaseline.timeFooAllocation(NATIVE_ITERATIONS, true);
+  }
+
+  @Benchmark
+  public void construction() {
+    final FooByCall fooByCall = new FooByCall();
+    fooByCall.close();
+  }
+
+  @Benchmark
+  public List<FooObject> arrayJavaBaseline() {
+    return onHeapGetList.getObjectList(fooObjectArray);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NATIVE_ITERATIONS)
+  public long arrayNativeBaseline() {
+    return NativeBaseline.timeCopy(fooObjectArray, NATIVE_ITERATIONS);
+  }
+
+  @Benchmark
+  public List<FooObject> array() {
+    return allocateInJavaGetArray.getObjectList(fooObjectArray);
+  }
+}
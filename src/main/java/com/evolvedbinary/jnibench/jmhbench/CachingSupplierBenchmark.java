@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares repeated calls to a supplier for the same native array, with and
+ * without a {@link CachingListSupplier}, when the native array is changed
+ * once every {@link #callsPerChange} calls.
+ *
+ * The hits and misses of the cache are reported by {@link CacheCounters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CachingSupplierBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"1", "10", "100", "1000"})
+  int callsPerChange;
+
+  @Param({"20", "1000", "100000"})
+  int arraySize;
+
+  FooNativeObjectArray fooObjectArray;
+  SyncedFooObjectList syncedList;
+  FooObject[] replacements;
+  AllocateInJavaGet2DArray uncached;
+  CachingListSupplier<FooObject> cached;
+  int calls;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random();
+    fooObjectArray = new FooNativeObjectArray(FooObjects.random(arraySize, 0, random));
+    syncedList = new SyncedFooObjectList(fooObjectArray, new AllocateInJavaGet2DArray());
+    replacements = FooObjects.random(2, 0, random);
+    uncached = new AllocateInJavaGet2DArray();
+    cached = new CachingListSupplier<>(new AllocateInJavaGet2DArray(), 16);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class CacheCounters {
+    public long hits;
+    public long misses;
+  }
+
+  @Setup(Level.Iteration)
+  public void resetStatistics() {
+    cached.resetStatistics();
+  }
+
+  @Benchmark
+  public List<FooObject> uncached() {
+    changeIfDue();
+    return uncached.getObjectList(fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> cached(final CacheCounters counters) {
+    changeIfDue();
+    final List<FooObject> list = cached.getObjectList(fooObjectArray);
+    counters.hits = cached.getHits();
+    counters.misses = cached.getMisses();
+    return list;
+  }
+
+  /**
+   * Change one object in the native array, once every {@link #callsPerChange} calls.
+   */
+  private void changeIfDue() {
+    if (++calls == callsPerChange) {
+      calls = 0;
+      syncedList.set(0, replacements[syncedList.get(0) == replacements[0] ? 1 : 0]);
+      syncedList.flush();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.FooObjects;
+import com.evolvedbinary.jnibench.common.collection.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the strategies for building each {@link CollectionTarget}
+ * from a {@link FooNativeObjectMap} of each {@link FooNativeObjectMap.Kind}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CollectionBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"ORDERED", "UNORDERED"})
+  FooNativeObjectMap.Kind kind;
+
+  @Param({"HASH_MAP", "TREE_MAP", "HASH_SET", "UNMODIFIABLE_LIST"})
+  String target;
+
+  @Param({"20", "1000", "100000"})
+  int arraySize;
+
+  FooNativeObjectMap fooObjectMap;
+  UpcallCollectionSupplier<?> upcall;
+  ObjectArrayCollectionSupplier<?> objectArray;
+  ParallelArraysCollectionSupplier<?> parallelArrays;
+
+  @Setup
+  public void setup() {
+    fooObjectMap = new FooNativeObjectMap(FooObjects.random(arraySize, 0, new Random()), kind);
+    final CollectionTarget<?> collectionTarget = CollectionTarget.valueOf(target);
+    upcall = new UpcallCollectionSupplier<>(collectionTarget);
+    objectArray = new ObjectArrayCollectionSupplier<>(collectionTarget);
+    parallelArrays = new ParallelArraysCollectionSupplier<>(collectionTarget);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectMap.close();
+  }
+
+  @Benchmark
+  public Object upcall() {
+    return upcall.getCollection(fooObjectMap);
+  }
+
+  @Benchmark
+  public Object objectArray() {
+    return objectArray.getCollection(fooObjectMap);
+  }
+
+  @Benchmark
+  public Object parallelArrays() {
+    return parallelArrays.getCollection(fooObjectMap);
+  }
+}
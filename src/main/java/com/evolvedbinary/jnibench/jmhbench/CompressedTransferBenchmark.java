@@ -0,0 +1,159 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares transferring the objects of a native array compressed, by
+ * {@link CompressedBytesGetList}, against transferring them flat, by
+ * {@link PackedBytesGetList}, and by the baseline {@link AllocateInJavaGet2DArray}.
+ *
+ * Each name is {@link #nameLength} characters, of which the first
+ * {@link #prefixSharing} are shared by every name, and the rest are random.
+ * The values are a random walk with small steps. The number of bytes
+ * copied from C++ per call is reported by {@link TransferCounters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CompressedTransferBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"1000", "100000"})
+  int arraySize;
+
+  @Param({"0.0", "0.5", "0.9"})
+  double prefixSharing;
+
+  @Param({"64"})
+  int nameLength;
+
+  @Param({"128"})
+  int blockSize;
+
+  FooNativeObjectArray fooObjectArray;
+  AllocateInJavaGet2DArray get2DArray;
+  PackedBytesGetList packedBytes;
+  CompressedBytesGetList compressedEager;
+  CompressedBytesGetList compressedLazy;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random();
+    final int prefixLength = (int) (nameLength * prefixSharing);
+    final StringBuilder prefix = new StringBuilder();
+    while (prefix.length() < prefixLength) {
+      prefix.append("prefix/");
+    }
+    prefix.setLength(prefixLength);
+
+    final FooObject[] fooObjects = new FooObject[arraySize];
+    final StringBuilder name = new StringBuilder();
+    long value = random.nextLong();
+    for (int i = 0; i < arraySize; i++) {
+      name.setLength(0);
+      name.append(prefix);
+      while (name.length() < nameLength) {
+        name.append(Character.forDigit(random.nextInt(36), 36));
+      }
+      value += random.nextInt(201) - 100;
+      fooObjects[i] = new FooObject(name.toString(), value);
+    }
+
+    fooObjectArray = new FooNativeObjectArray(fooObjects);
+    get2DArray = new AllocateInJavaGet2DArray();
+    packedBytes = new PackedBytesGetList();
+    compressedEager = new CompressedBytesGetList(blockSize, false);
+    compressedLazy = new CompressedBytesGetList(blockSize, true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class TransferCounters {
+    public long bytesPerCall;
+  }
+
+  @Benchmark
+  public List<FooObject> get2DArray() {
+    return get2DArray.getObjectList(fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> packedBytes(final TransferCounters counters) {
+    final List<FooObject> fooObjects = packedBytes.getObjectList(fooObjectArray);
+    counters.bytesPerCall = packedBytes.getLastEncodedSize();
+    return fooObjects;
+  }
+
+  @Benchmark
+  public List<FooObject> compressedEager(final TransferCounters counters) {
+    final List<FooObject> fooObjects = compressedEager.getObjectList(fooObjectArray);
+    counters.bytesPerCall = compressedEager.getLastEncodedSize();
+    return fooObjects;
+  }
+
+  /**
+   * Accesses every element, so decodes every block.
+   */
+  @Benchmark
+  public void compressedLazyAll(final TransferCounters counters, final Blackhole blackhole) {
+    final List<FooObject> fooObjects = compressedLazy.getObjectList(fooObjectArray);
+    for (int i = 0; i < fooObjects.size(); i++) {
+      blackhole.consume(fooObjects.get(i));
+    }
+    counters.bytesPerCall = compressedLazy.getLastEncodedSize();
+  }
+
+  /**
+   * Accesses only the first element, so decodes only the first block.
+   */
+  @Benchmark
+  public FooObject compressedLazyFirst(final TransferCounters counters) {
+    final FooObject fooObject = compressedLazy.getObjectList(fooObjectArray).get(0);
+    counters.bytesPerCall = compressedLazy.getLastEncodedSize();
+    return fooObject;
+  }
+}
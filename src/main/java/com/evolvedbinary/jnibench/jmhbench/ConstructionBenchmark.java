@@ -26,18 +26,35 @@
  */
 package com.evolvedbinary.jnibench.jmhbench;
 
-import com.evolvedbinary.jnibench.common.call.FooByCall;
-import com.evolvedbinary.jnibench.common.call.FooByCallInvoke;
-import com.evolvedbinary.jnibench.common.call.FooByCallStatic;
+import com.evolvedbinary.jnibench.common.NativeBackedObject;
+import com.evolvedbinary.jnibench.common.call.*;
 import com.evolvedbinary.jnibench.consbench.NarSystem;
-import org.openjdk.jmh.annotations.Benchmark;
-import org.openjdk.jmh.annotations.BenchmarkMode;
-import org.openjdk.jmh.annotations.Mode;
-import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Benchmarks the lifecycle of each of the FooByCall* native backed objects.
+ *
+ * Each variant is measured in four modes:
+ * <ul>
+ *   <li>construct only, e.g. {@link #fooByCall(UndisposedBatch)},
+ *   where the objects are disposed outside of the measurement</li>
+ *   <li>construct and then close, e.g. {@link #fooByCallClose(Blackhole)}</li>
+ *   <li>construct in a try-with-resources block, e.g. {@link #fooByCallTryWithResources(Blackhole)}</li>
+ *   <li>construct a batch of objects and then dispose of them all,
+ *   e.g. {@link #fooByCallBulkDispose(DisposedBatch)}</li>
+ * </ul>
+ *
+ * In every mode the native objects are disposed at the latest after each
+ * batch, so the native memory in use stays bounded however long the benchmark runs.
+ *
+ * By default the C++ object behind each variant costs (almost) nothing,
+ * its cost can be set by the parameters, see {@link FooCost}, e.g.
+ * {@code -p payloadBytes=4096 -p constructorWork=1000}.
+ */
+@State(Scope.Benchmark)
 @BenchmarkMode(Mode.SampleTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 public class ConstructionBenchmark {
@@ -46,21 +63,270 @@ public class ConstructionBenchmark {
         NarSystem.loadLibrary();
     }
 
+    @Param({"0"})
+    int payloadBytes;
+
+    @Param({"0"})
+    int constructorWork;
+
+    @Param({"0"})
+    int memberAllocations;
+
+    @Param({"0"})
+    int destructorWork;
+
+    @Setup
+    public void setCost() {
+        FooCost.set(payloadBytes, constructorWork, memberAllocations, destructorWork);
+    }
+
+    /**
+     * The number of objects constructed by each invocation
+     * of the construct only and bulk dispose benchmarks.
+     */
+    static final int BATCH_SIZE = 1024;
+
+    /**
+     * Holds the objects constructed by a construct only benchmark,
+     * they are disposed after each invocation, outside of the measurement.
+     */
+    @State(Scope.Thread)
+    public static class UndisposedBatch {
+        final NativeBackedObject[] objects = new NativeBackedObject[BATCH_SIZE];
+
+        @TearDown(Level.Invocation)
+        public void dispose() {
+            for (int i = 0; i < objects.length; i++) {
+                if (objects[i] != null) {
+                    objects[i].close();
+                    objects[i] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds the objects constructed by a bulk dispose benchmark,
+     * which disposes of them itself.
+     */
+    @State(Scope.Thread)
+    public static class DisposedBatch {
+        final NativeBackedObject[] objects = new NativeBackedObject[BATCH_SIZE];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCall(final UndisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCall();
+        }
+    }
+
     @Benchmark
-    public void fooByCall(Blackhole blackhole) {
+    public void fooByCallClose(final Blackhole blackhole) {
         final FooByCall fooByCall = new FooByCall();
         blackhole.consume(fooByCall);
+        fooByCall.close();
     }
 
     @Benchmark
-    public void fooByCallStatic(Blackhole blackhole) {
+    public void fooByCallTryWithResources(final Blackhole blackhole) {
+        try (final FooByCall fooByCall = new FooByCall()) {
+            blackhole.consume(fooByCall);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallBulkDispose(final DisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCall();
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i].close();
+            objects[i] = null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallStatic(final UndisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallStatic();
+        }
+    }
+
+    @Benchmark
+    public void fooByCallStaticClose(final Blackhole blackhole) {
         final FooByCallStatic fooByCallStatic = new FooByCallStatic();
         blackhole.consume(fooByCallStatic);
+        fooByCallStatic.close();
+    }
+
+    @Benchmark
+    public void fooByCallStaticTryWithResources(final Blackhole blackhole) {
+        try (final FooByCallStatic fooByCallStatic = new FooByCallStatic()) {
+            blackhole.consume(fooByCallStatic);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallStaticBulkDispose(final DisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallStatic();
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i].close();
+            objects[i] = null;
+        }
     }
 
     @Benchmark
-    public void fooByCallInvoke(Blackhole blackhole) {
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallInvoke(final UndisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallInvoke();
+        }
+    }
+
+    @Benchmark
+    public void fooByCallInvokeClose(final Blackhole blackhole) {
         final FooByCallInvoke fooByCallInvoke = new FooByCallInvoke();
         blackhole.consume(fooByCallInvoke);
+        fooByCallInvoke.close();
+    }
+
+    @Benchmark
+    public void fooByCallInvokeTryWithResources(final Blackhole blackhole) {
+        try (final FooByCallInvoke fooByCallInvoke = new FooByCallInvoke()) {
+            blackhole.consume(fooByCallInvoke);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallInvokeBulkDispose(final DisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallInvoke();
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i].close();
+            objects[i] = null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallFinal(final UndisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallFinal();
+        }
+    }
+
+    @Benchmark
+    public void fooByCallFinalClose(final Blackhole blackhole) {
+        final FooByCallFinal fooByCallFinal = new FooByCallFinal();
+        blackhole.consume(fooByCallFinal);
+        fooByCallFinal.close();
+    }
+
+    @Benchmark
+    public void fooByCallFinalTryWithResources(final Blackhole blackhole) {
+        try (final FooByCallFinal fooByCallFinal = new FooByCallFinal()) {
+            blackhole.consume(fooByCallFinal);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallFinalBulkDispose(final DisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallFinal();
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i].close();
+            objects[i] = null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallStaticFinal(final UndisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallStaticFinal();
+        }
+    }
+
+    @Benchmark
+    public void fooByCallStaticFinalClose(final Blackhole blackhole) {
+        final FooByCallStaticFinal fooByCallStaticFinal = new FooByCallStaticFinal();
+        blackhole.consume(fooByCallStaticFinal);
+        fooByCallStaticFinal.close();
+    }
+
+    @Benchmark
+    public void fooByCallStaticFinalTryWithResources(final Blackhole blackhole) {
+        try (final FooByCallStaticFinal fooByCallStaticFinal = new FooByCallStaticFinal()) {
+            blackhole.consume(fooByCallStaticFinal);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallStaticFinalBulkDispose(final DisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallStaticFinal();
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i].close();
+            objects[i] = null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallInvokeFinal(final UndisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallInvokeFinal();
+        }
+    }
+
+    @Benchmark
+    public void fooByCallInvokeFinalClose(final Blackhole blackhole) {
+        final FooByCallInvokeFinal fooByCallInvokeFinal = new FooByCallInvokeFinal();
+        blackhole.consume(fooByCallInvokeFinal);
+        fooByCallInvokeFinal.close();
+    }
+
+    @Benchmark
+    public void fooByCallInvokeFinalTryWithResources(final Blackhole blackhole) {
+        try (final FooByCallInvokeFinal fooByCallInvokeFinal = new FooByCallInvokeFinal()) {
+            blackhole.consume(fooByCallInvokeFinal);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fooByCallInvokeFinalBulkDispose(final DisposedBatch batch) {
+        final NativeBackedObject[] objects = batch.objects;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i] = new FooByCallInvokeFinal();
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objects[i].close();
+            objects[i] = null;
+        }
     }
 }
@@ -0,0 +1,157 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.common.record.Record;
+import com.evolvedbinary.jnibench.common.record.RecordNativeArray;
+import com.evolvedbinary.jnibench.common.record.RecordSchema;
+import com.evolvedbinary.jnibench.common.record.RecordType;
+import com.evolvedbinary.jnibench.common.record.RecordsByNewObject;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares each {@link ConstructionStrategy} by which C++ creates the Java objects,
+ * for each of the suppliers which construct the objects in C++, across widths of object.
+ *
+ * A {@link FooObject} has a fixed two fields, so the benchmarks of {@link FooArray}
+ * vary the length of its name. The {@link #recordsByNewObject(WideRecords)} benchmark
+ * varies the number of real fields, from 10 to 30, of the wide records of {@link WideRecords},
+ * whose constructors, factories and {@code Set*Field} calls take one argument per field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConstructionStrategyBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"NEW_OBJECT", "ALLOC_OBJECT_SET_FIELDS", "STATIC_FACTORY", "CACHED_CONSTRUCTOR"})
+  ConstructionStrategy strategy;
+
+  AllocateInJavaGetArray allocateInJavaGetArray;
+  AllocateInCppGetArray allocateInCppGetArray;
+  AllocateInJavaGetArrayList allocateInJavaGetArrayList;
+  AllocateInCppGetArrayList allocateInCppGetArrayList;
+  RecordsByNewObject recordsByNewObject;
+
+  @Setup
+  public void setup() {
+    allocateInJavaGetArray = new AllocateInJavaGetArray(strategy);
+    allocateInCppGetArray = new AllocateInCppGetArray(strategy);
+    allocateInJavaGetArrayList = new AllocateInJavaGetArrayList(strategy);
+    allocateInCppGetArrayList = new AllocateInCppGetArrayList(strategy);
+    recordsByNewObject = new RecordsByNewObject(strategy);
+  }
+
+  /**
+   * A native array of FooObjects, whose width is varied by the length of their names.
+   */
+  @State(Scope.Benchmark)
+  public static class FooArray {
+    @Param({"0", "64", "1024"})
+    int nameLength;
+
+    @Param({"1000"})
+    int arraySize;
+
+    FooNativeObjectArray fooObjectArray;
+
+    @Setup
+    public void setup() {
+      fooObjectArray = new FooNativeObjectArray(FooObjects.random(arraySize, nameLength, new Random()));
+    }
+
+    @TearDown
+    public void tearDown() {
+      fooObjectArray.close();
+    }
+  }
+
+  /**
+   * A native array of wide records, whose width is varied by their number of fields,
+   * see {@link RecordSchema#generate(int, String)} for the mix codes.
+   */
+  @State(Scope.Benchmark)
+  public static class WideRecords {
+    @Param({"10", "20", "30"})
+    int width;
+
+    @Param({"ILD", "ILDSBN"})
+    String mix;
+
+    @Param({"1000"})
+    int recordCount;
+
+    RecordNativeArray recordArray;
+
+    @Setup
+    public void setup() {
+      recordArray = new RecordNativeArray(RecordType.schemaFor(width, mix), recordCount, 42);
+    }
+
+    @TearDown
+    public void tearDown() {
+      recordArray.close();
+    }
+  }
+
+  @Benchmark
+  public List<FooObject> allocateInJavaGetArray(final FooArray fooArray) {
+    return allocateInJavaGetArray.getObjectList(fooArray.fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> allocateInCppGetArray(final FooArray fooArray) {
+    return allocateInCppGetArray.getObjectList(fooArray.fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> allocateInJavaGetArrayList(final FooArray fooArray) {
+    return allocateInJavaGetArrayList.getObjectList(fooArray.fooObjectArray);
+  }
+
+  @Benchmark
+  public List<FooObject> allocateInCppGetArrayList(final FooArray fooArray) {
+    return allocateInCppGetArrayList.getObjectList(fooArray.fooObjectArray);
+  }
+
+  @Benchmark
+  public List<Record> recordsByNewObject(final WideRecords wideRecords) {
+    return recordsByNewObject.getObjectList(wideRecords.recordArray);
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pushing changes to a few objects back to a {@link FooNativeObjectArray}
+ * as a delta through a {@link SyncedFooObjectList}, against rebuilding the whole
+ * native array from a Java list, for a range of ratios of changed objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DeltaSyncBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"0.001", "0.01", "0.1", "1.0"})
+  double dirtyRatio;
+
+  @Param({"1000", "100000"})
+  int arraySize;
+
+  FooNativeObjectArray deltaArray;
+  SyncedFooObjectList syncedList;
+
+  FooNativeObjectArray rebuiltArray;
+  List<FooObject> plainList;
+
+  int[] dirtyIndices;
+  FooObject[] replacements;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random();
+    final FooObject[] fooObjects = FooObjects.random(arraySize, 0, random);
+
+    deltaArray = new FooNativeObjectArray(fooObjects);
+    syncedList = new SyncedFooObjectList(deltaArray, new AllocateInJavaGet2DArray());
+
+    rebuiltArray = new FooNativeObjectArray(fooObjects);
+    plainList = new ArrayList<>(new AllocateInJavaGet2DArray().getObjectList(rebuiltArray));
+
+    final int dirtyCount = Math.max(1, (int) (arraySize * dirtyRatio));
+    dirtyIndices = new int[dirtyCount];
+    for (int i = 0; i < dirtyCount; i++) {
+      // spread the changes evenly across the array
+      dirtyIndices[i] = (int) ((long) i * arraySize / dirtyCount);
+    }
+    replacements = FooObjects.random(dirtyCount, 0, random);
+  }
+
+  @TearDown
+  public void tearDown() {
+    deltaArray.close();
+    rebuiltArray.close();
+  }
+
+  @Benchmark
+  public void deltaFlush() {
+    for (int i = 0; i < dirtyIndices.length; i++) {
+      syncedList.set(dirtyIndices[i], replacements[i]);
+    }
+    syncedList.flush();
+  }
+
+  @Benchmark
+  public void fullRebuild() {
+    for (int i = 0; i < dirtyIndices.length; i++) {
+      plainList.set(dirtyIndices[i], replacements[i]);
+    }
+    final FooNativeObjectArray previous = rebuiltArray;
+    rebuiltArray = new FooNativeObjectArray(plainList.toArray(new FooObject[0]));
+    previous.close();
+  }
+}
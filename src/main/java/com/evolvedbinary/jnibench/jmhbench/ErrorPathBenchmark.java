@@ -0,0 +1,182 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.FooNativeObjectArray;
+import com.evolvedbinary.jnibench.common.array.FooObject;
+import com.evolvedbinary.jnibench.common.array.FooObjects;
+import com.evolvedbinary.jnibench.common.error.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ErrorStrategy ways} in which a native can report
+ * failure to Java, when fetching from a native array and when constructing
+ * a native object, at a range of injected failure rates.
+ *
+ * Also compares the status code and exception throwing
+ * forms of {@link StatusGet2DArray}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ErrorPathBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  static final String NAME = "str1234567";
+
+  @Param({"0", "0.01", "0.1", "0.5"})
+  double failureRate;
+
+  @Param({"20"})
+  int arraySize;
+
+  FooNativeObjectArray fooObjectArray;
+  StatusGet2DArray statusGet2DArray;
+  int index;
+
+  @Setup
+  public void setup() {
+    FailureInjection.setFailureRate(failureRate);
+    fooObjectArray = new FooNativeObjectArray(FooObjects.random(arraySize, 0, new Random()));
+    statusGet2DArray = new StatusGet2DArray();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+    FailureInjection.setFailureRate(0);
+  }
+
+  private int nextIndex() {
+    if (++index == arraySize) {
+      index = 0;
+    }
+    return index;
+  }
+
+  @Benchmark
+  public Object fetchThrowNew() {
+    try {
+      return FallibleOperations.fetchThrowNew(fooObjectArray, nextIndex());
+    } catch (final NativeOperationException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object fetchPreallocatedException() {
+    try {
+      return FallibleOperations.fetchPreallocated(fooObjectArray, nextIndex());
+    } catch (final NativeOperationException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object fetchStatusCode() {
+    final FooObject[] result = new FooObject[1];
+    if (FallibleOperations.fetchStatus(fooObjectArray, nextIndex(), result) != Status.OK) {
+      return null;
+    }
+    return result[0];
+  }
+
+  @Benchmark
+  public Object fetchSentinel() {
+    return FallibleOperations.fetchSentinel(fooObjectArray, nextIndex());
+  }
+
+  @Benchmark
+  public long constructThrowNew() {
+    try {
+      final long handle = FallibleOperations.constructThrowNew(NAME, 1);
+      FallibleOperations.dispose(handle);
+      return handle;
+    } catch (final NativeOperationException e) {
+      return 0;
+    }
+  }
+
+  @Benchmark
+  public long constructPreallocatedException() {
+    try {
+      final long handle = FallibleOperations.constructPreallocated(NAME, 1);
+      FallibleOperations.dispose(handle);
+      return handle;
+    } catch (final NativeOperationException e) {
+      return 0;
+    }
+  }
+
+  @Benchmark
+  public long constructStatusCode() {
+    final long[] result = new long[1];
+    if (FallibleOperations.constructStatus(NAME, 1, result) != Status.OK) {
+      return 0;
+    }
+    FallibleOperations.dispose(result[0]);
+    return result[0];
+  }
+
+  @Benchmark
+  public long constructSentinel() {
+    final long handle = FallibleOperations.constructSentinel(NAME, 1);
+    if (handle != 0) {
+      FallibleOperations.dispose(handle);
+    }
+    return handle;
+  }
+
+  @Benchmark
+  public void listStatusCode(final Blackhole blackhole) {
+    final List<FooObject> list = new ArrayList<>(arraySize);
+    blackhole.consume(statusGet2DArray.getObjectList(fooObjectArray, list));
+    blackhole.consume(list);
+  }
+
+  @Benchmark
+  public void listException(final Blackhole blackhole) {
+    try {
+      blackhole.consume(statusGet2DArray.getObjectList(fooObjectArray));
+    } catch (final NativeOperationException e) {
+      blackhole.consume(e);
+    }
+  }
+}
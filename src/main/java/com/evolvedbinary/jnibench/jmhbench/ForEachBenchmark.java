@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating over a native array by first materialising it
+ * as a List, against having C++ drive a {@link java.util.function.Consumer}
+ * or a {@link FooObjectVisitor}, either per element or in batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ForEachBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"20", "1000", "100000"})
+  int arraySize;
+
+  FooNativeObjectArray fooObjectArray;
+  AllocateInJavaGet2DArray materialise;
+
+  @Setup
+  public void setup() {
+    fooObjectArray = new FooNativeObjectArray(FooObjects.random(arraySize, 0, new Random()));
+    materialise = new AllocateInJavaGet2DArray();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @Benchmark
+  public long materialiseThenIterate() {
+    final Sum sum = new Sum();
+    for (final FooObject fooObject : materialise.getObjectList(fooObjectArray)) {
+      sum.visit(fooObject.getName(), fooObject.getValue());
+    }
+    return sum.total;
+  }
+
+  @Benchmark
+  public long forEachConsumer() {
+    final Sum sum = new Sum();
+    fooObjectArray.forEach(fooObject -> sum.visit(fooObject.getName(), fooObject.getValue()));
+    return sum.total;
+  }
+
+  @Benchmark
+  public long visitPerElement() {
+    final Sum sum = new Sum();
+    fooObjectArray.visit(sum);
+    return sum.total;
+  }
+
+  @Benchmark
+  public long visitBatched(final Batching batching) {
+    final Sum sum = new Sum();
+    fooObjectArray.visit(sum, batching.batchSize);
+    return sum.total;
+  }
+
+  /**
+   * The batch size of {@link #visitBatched(Batching)}, in its own state so
+   * that the other benchmarks are not repeated for each batch size.
+   */
+  @State(Scope.Thread)
+  public static class Batching {
+    @Param({"16", "256"})
+    int batchSize;
+  }
+
+  /**
+   * A typical aggregation, which does not retain the elements.
+   */
+  private static class Sum implements FooObjectVisitor {
+    long total;
+
+    @Override
+    public void visit(final String name, final long value) {
+      total += name.length() + value;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link LazyFooObjectList} against eagerly copying the whole
+ * native array with {@link AllocateInJavaGet2DArray}, for sequential scans,
+ * random point lookups, and reading just the first few elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class LazyListBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  /**
+   * The number of elements read by the random access and first N benchmarks.
+   */
+  static final int ACCESS_COUNT = 10;
+
+  @Param({"1000", "100000"})
+  int arraySize;
+
+  @Param({"1", "16", "64", "256"})
+  int windowSize;
+
+  @Param({"16"})
+  int maxCachedWindows;
+
+  FooNativeObjectArray fooObjectArray;
+  AllocateInJavaGet2DArray eager;
+  LazyGetList lazy;
+  int[] randomIndexes;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random();
+    fooObjectArray = new FooNativeObjectArray(FooObjects.random(arraySize, 0, random));
+    eager = new AllocateInJavaGet2DArray();
+    lazy = new LazyGetList(windowSize, maxCachedWindows);
+    randomIndexes = new int[ACCESS_COUNT];
+    for (int i = 0; i < ACCESS_COUNT; i++) {
+      randomIndexes[i] = random.nextInt(arraySize);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @Benchmark
+  public void eagerSequentialScan(final Blackhole blackhole) {
+    for (final FooObject fooObject : eager.getObjectList(fooObjectArray)) {
+      blackhole.consume(fooObject);
+    }
+  }
+
+  @Benchmark
+  public void lazySequentialScan(final Blackhole blackhole) {
+    try (final LazyFooObjectList list = (LazyFooObjectList) lazy.getObjectList(fooObjectArray)) {
+      for (final FooObject fooObject : list) {
+        blackhole.consume(fooObject);
+      }
+    }
+  }
+
+  @Benchmark
+  public void eagerRandomAccess(final Blackhole blackhole) {
+    randomAccess(eager.getObjectList(fooObjectArray), blackhole);
+  }
+
+  @Benchmark
+  public void lazyRandomAccess(final Blackhole blackhole) {
+    try (final LazyFooObjectList list = (LazyFooObjectList) lazy.getObjectList(fooObjectArray)) {
+      randomAccess(list, blackhole);
+    }
+  }
+
+  @Benchmark
+  public void eagerFirstN(final Blackhole blackhole) {
+    firstN(eager.getObjectList(fooObjectArray), blackhole);
+  }
+
+  @Benchmark
+  public void lazyFirstN(final Blackhole blackhole) {
+    try (final LazyFooObjectList list = (LazyFooObjectList) lazy.getObjectList(fooObjectArray)) {
+      firstN(list, blackhole);
+    }
+  }
+
+  private void randomAccess(final List<FooObject> list, final Blackhole blackhole) {
+    for (final int index : randomIndexes) {
+      blackhole.consume(list.get(index));
+    }
+  }
+
+  private static void firstN(final List<FooObject> list, final Blackhole blackhole) {
+    for (int i = 0; i < ACCESS_COUNT; i++) {
+      blackhole.consume(list.get(i));
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.NativeLeakTracker;
+import com.evolvedbinary.jnibench.common.array.FooNativeObjectArray;
+import com.evolvedbinary.jnibench.common.array.FooObject;
+import com.evolvedbinary.jnibench.common.call.FooByCall;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead which {@link NativeLeakTracker} adds to the
+ * construction and closing of native objects, when one in every
+ * {@link #sampleInterval} constructions is tracked.
+ *
+ * A sample interval of 0 disables tracking, and 1 tracks every construction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class LeakTrackerBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"0", "1000", "100", "10", "1"})
+  int sampleInterval;
+
+  FooObject[] fooObjects;
+
+  @Setup
+  public void setup() {
+    fooObjects = new FooObject[] { new FooObject("leak", 1) };
+    NativeLeakTracker.setSampleInterval(sampleInterval);
+  }
+
+  @TearDown
+  public void tearDown() {
+    NativeLeakTracker.setSampleInterval(0);
+    NativeLeakTracker.reset();
+  }
+
+  @Benchmark
+  public void fooByCallClose(final Blackhole blackhole) {
+    try (final FooByCall fooByCall = new FooByCall()) {
+      blackhole.consume(fooByCall);
+    }
+  }
+
+  @Benchmark
+  public void fooNativeObjectArrayClose(final Blackhole blackhole) {
+    try (final FooNativeObjectArray fooObjectArray = new FooNativeObjectArray(fooObjects)) {
+      blackhole.consume(fooObjectArray);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares getting the objects of a batch of native arrays by one JNI call
+ * per array, against a single JNI call for the whole batch, see
+ * {@link JniMultiListSupplier}, to find the batch counts and array sizes
+ * at which batching pays off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MultiGetBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"1", "10", "100"})
+  int batchCount;
+
+  @Param({"1", "10", "100", "1000"})
+  int arraySize;
+
+  @Param({"10"})
+  int nameLength;
+
+  List<NativeObjectArray<FooObject>> fooObjectArrays;
+  PackedBytesGetList packedBytesGetList;
+  PackedBytesMultiGetList packedBytesMultiGetList;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random();
+    fooObjectArrays = new ArrayList<>(batchCount);
+    for (int i = 0; i < batchCount; i++) {
+      fooObjectArrays.add(new FooNativeObjectArray(FooObjects.random(arraySize, nameLength, random)));
+    }
+    packedBytesGetList = new PackedBytesGetList();
+    packedBytesMultiGetList = new PackedBytesMultiGetList();
+  }
+
+  @TearDown
+  public void tearDown() {
+    for (final NativeObjectArray<FooObject> fooObjectArray : fooObjectArrays) {
+      fooObjectArray.close();
+    }
+  }
+
+  @Benchmark
+  public void allocateInCppGetArrayList(final CppSuppliers cppSuppliers, final Blackhole blackhole) {
+    for (final NativeObjectArray<FooObject> fooObjectArray : fooObjectArrays) {
+      blackhole.consume(cppSuppliers.getArrayList.getObjectList(fooObjectArray));
+    }
+  }
+
+  @Benchmark
+  public List<List<FooObject>> allocateInCppMultiGetArrayList(final CppSuppliers cppSuppliers) {
+    return cppSuppliers.multiGetArrayList.getObjectLists(fooObjectArrays);
+  }
+
+  @Benchmark
+  public void packedBytesGetList(final Blackhole blackhole) {
+    for (final NativeObjectArray<FooObject> fooObjectArray : fooObjectArrays) {
+      blackhole.consume(packedBytesGetList.getObjectList(fooObjectArray));
+    }
+  }
+
+  @Benchmark
+  public List<List<FooObject>> packedBytesMultiGetList() {
+    return packedBytesMultiGetList.getObjectLists(fooObjectArrays);
+  }
+
+  /**
+   * The suppliers which construct the objects in C++, in their own state
+   * so that only their benchmarks are repeated for each construction strategy.
+   */
+  @State(Scope.Thread)
+  public static class CppSuppliers {
+    @Param({"NEW_OBJECT", "CACHED_CONSTRUCTOR"})
+    ConstructionStrategy constructionStrategy;
+
+    AllocateInCppGetArrayList getArrayList;
+    AllocateInCppMultiGetArrayList multiGetArrayList;
+
+    @Setup
+    public void setup() {
+      getArrayList = new AllocateInCppGetArrayList(constructionStrategy);
+      multiGetArrayList = new AllocateInCppMultiGetArrayList(constructionStrategy);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.baseline.NativeBaseline;
+import com.evolvedbinary.jnibench.common.call.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Constructs and closes each of the FooByCall* variants as the cost of the
+ * C++ object behind them grows, see {@link FooCost}, to show how quickly the
+ * overhead of JNI becomes irrelevant, and which variant wins at each cost.
+ *
+ * {@link #nativeBaseline()} constructs and deletes the same C++ object
+ * without crossing JNI for each object, so the overhead of JNI for a variant
+ * is the difference between its result and that of the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PayloadCostBenchmark {
+
+    private static final int NATIVE_ITERATIONS = 1000;
+
+    static {
+        NarSystem.loadLibrary();
+    }
+
+    @Param({"0", "4096", "65536"})
+    int payloadBytes;
+
+    @Param({"0", "1000", "10000"})
+    int constructorWork;
+
+    @Param({"0", "16"})
+    int memberAllocations;
+
+    @Param({"0"})
+    int destructorWork;
+
+    @Setup
+    public void setCost() {
+        FooCost.set(payloadBytes, constructorWork, memberAllocations, destructorWork);
+    }
+
+    @TearDown
+    public void resetCost() {
+        FooCost.reset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NATIVE_ITERATIONS)
+    public long nativeBaseline() {
+        return NativeBaseline.timeFooAllocation(NATIVE_ITERATIONS, true);
+    }
+
+    @Benchmark
+    public void fooByCall(final Blackhole blackhole) {
+        try (final FooByCall fooByCall = new FooByCall()) {
+            blackhole.consume(fooByCall);
+        }
+    }
+
+    @Benchmark
+    public void fooByCallStatic(final Blackhole blackhole) {
+        try (final FooByCallStatic fooByCallStatic = new FooByCallStatic()) {
+            blackhole.consume(fooByCallStatic);
+        }
+    }
+
+    @Benchmark
+    public void fooByCallInvoke(final Blackhole blackhole) {
+        try (final FooByCallInvoke fooByCallInvoke = new FooByCallInvoke()) {
+            blackhole.consume(fooByCallInvoke);
+        }
+    }
+
+    @Benchmark
+    public void fooByCallFinal(final Blackhole blackhole) {
+        try (final FooByCallFinal fooByCallFinal = new FooByCallFinal()) {
+            blackhole.consume(fooByCallFinal);
+        }
+    }
+
+    @Benchmark
+    public void fooByCallStaticFinal(final Blackhole blackhole) {
+        try (final FooByCallStaticFinal fooByCallStaticFinal = new FooByCallStaticFinal()) {
+            blackhole.consume(fooByCallStaticFinal);
+        }
+    }
+
+    @Benchmark
+    public void fooByCallInvokeFinal(final Blackhole blackhole) {
+        try (final FooByCallInvokeFinal fooByCallInvokeFinal = new FooByCallInvokeFinal()) {
+            blackhole.consume(fooByCallInvokeFinal);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.FooObject;
+import com.evolvedbinary.jnibench.common.producer.AttachMode;
+import com.evolvedbinary.jnibench.common.producer.NativeProducerPool;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Compares the {@link AttachMode}s of a {@link NativeProducerPool}
+ * delivering objects to Java from its own native threads.
+ *
+ * {@link #throughput()} has the pool deliver {@link #OBJECTS_PER_INVOCATION} objects,
+ * shared between its threads, and is reported in objects per second,
+ * so that it can be compared across pool sizes.
+ * {@link #latency()} has every thread deliver a single object, so measures
+ * the time from Java handing work to the pool until the delivery returns.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ProducerBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  // divisible by every pool size
+  static final int OBJECTS_PER_INVOCATION = 8000;
+
+  @Param({"1", "2", "4", "8"})
+  int poolSize;
+
+  @Param({"ATTACH_PER_CALL", "ATTACH_ONCE", "ATTACH_AS_DAEMON"})
+  AttachMode attachMode;
+
+  NativeProducerPool pool;
+  LongAdder received;
+  Consumer<FooObject> sink;
+
+  @Setup
+  public void setup() {
+    if (OBJECTS_PER_INVOCATION % poolSize != 0) {
+      throw new IllegalArgumentException("poolSize must divide " + OBJECTS_PER_INVOCATION);
+    }
+    pool = new NativeProducerPool(poolSize, attachMode);
+    received = new LongAdder();
+    sink = fooObject -> received.add(fooObject.getValue());
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(OBJECTS_PER_INVOCATION)
+  public void throughput() {
+    pool.produce(sink, OBJECTS_PER_INVOCATION / poolSize);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void latency() {
+    pool.produce(sink, 1);
+  }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares selecting the objects whose value is within a range, by evaluating a
+ * {@link FooQuery} in C++, against fetching every object and filtering in Java.
+ *
+ * The values are a shuffled permutation of the indices, so a range
+ * of values selects exactly {@link #selectivity} of the objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class QueryPushdownBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"0.0001", "0.001", "0.01", "0.1", "1.0"})
+  double selectivity;
+
+  @Param({"NAMES", "VALUES", "NAMES_AND_VALUES"})
+  FooQuery.Projection projection;
+
+  @Param({"100000"})
+  int arraySize;
+
+  FooNativeObjectArray fooObjectArray;
+  AllocateInJavaGet2DArray get2DArray;
+  long maxValue;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random();
+    final FooObject[] fooObjects = new FooObject[arraySize];
+    for (int i = 0; i < arraySize; i++) {
+      fooObjects[i] = new FooObject("str" + i, i);
+    }
+    for (int i = arraySize - 1; i > 0; i--) {
+      final int j = random.nextInt(i + 1);
+      final FooObject tmp = fooObjects[i];
+      fooObjects[i] = fooObjects[j];
+      fooObjects[j] = tmp;
+    }
+    fooObjectArray = new FooNativeObjectArray(fooObjects);
+    get2DArray = new AllocateInJavaGet2DArray();
+    maxValue = Math.max(1, (long) (arraySize * selectivity)) - 1;
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @Benchmark
+  public FooQueryResult pushdown() {
+    return fooObjectArray.query(FooQuery.select(projection).valueBetween(0, maxValue));
+  }
+
+  @Benchmark
+  public Object filterInJava() {
+    final List<FooObject> fooObjects = get2DArray.getObjectList(fooObjectArray);
+    final String[] names = projection != FooQuery.Projection.VALUES ? new String[fooObjects.size()] : null;
+    final long[] values = projection != FooQuery.Projection.NAMES ? new long[fooObjects.size()] : null;
+    int count = 0;
+    for (final FooObject fooObject : fooObjects) {
+      final long value = fooObject.getValue();
+      if (value >= 0 && value <= maxValue) {
+        if (names != null) {
+          names[count] = fooObject.getName();
+        }
+        if (values != null) {
+          values[count] = value;
+        }
+        count++;
+      }
+    }
+    return names != null ? Arrays.copyOf(names, count) : Arrays.copyOf(values, count);
+  }
+}
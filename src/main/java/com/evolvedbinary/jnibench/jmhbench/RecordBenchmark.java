@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.JniListSupplier;
+import com.evolvedbinary.jnibench.common.record.Record;
+import com.evolvedbinary.jnibench.common.record.RecordNativeArray;
+import com.evolvedbinary.jnibench.common.record.RecordSchema;
+import com.evolvedbinary.jnibench.common.record.RecordType;
+import com.evolvedbinary.jnibench.common.record.RecordsByColumns;
+import com.evolvedbinary.jnibench.common.record.RecordsByMutableFill;
+import com.evolvedbinary.jnibench.common.record.RecordsByNewObject;
+import com.evolvedbinary.jnibench.common.record.RecordsByPackedBuffer;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the transfer strategies for wide records,
+ * to show how the cost of each scales with the width
+ * and field mix of the records.
+ *
+ * See {@link RecordSchema#generate(int, String)} for the mix codes. Only the widths
+ * and mixes which have a record class are supported, see {@link RecordType}, and
+ * any others are rejected by {@link #setup()} before a record array is created.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RecordBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"10", "20", "30"})
+  int width;
+
+  @Param({"ILD", "ILDSBN", "ILDsbn"})
+  String mix;
+
+  @Param({"1000"})
+  int arraySize;
+
+  RecordNativeArray recordArray;
+  RecordsByNewObject byNewObject;
+  RecordsByMutableFill byMutableFill;
+  RecordsByColumns byColumns;
+  RecordsByPackedBuffer byPackedBuffer;
+
+  @Setup
+  public void setup() {
+    recordArray = new RecordNativeArray(RecordType.schemaFor(width, mix), arraySize, 42);
+    byNewObject = new RecordsByNewObject();
+    byMutableFill = new RecordsByMutableFill();
+    byColumns = new RecordsByColumns();
+    byPackedBuffer = new RecordsByPackedBuffer();
+  }
+
+  @TearDown
+  public void tearDown() {
+    recordArray.close();
+  }
+
+  @Benchmark
+  public void recordsByNewObject(final Blackhole blackhole) {
+    consume(byNewObject, blackhole);
+  }
+
+  @Benchmark
+  public void recordsByMutableFill(final Blackhole blackhole) {
+    consume(byMutableFill, blackhole);
+  }
+
+  @Benchmark
+  public void recordsByColumns(final Blackhole blackhole) {
+    consume(byColumns, blackhole);
+  }
+
+  @Benchmark
+  public void recordsByPackedBuffer(final Blackhole blackhole) {
+    consume(byPackedBuffer, blackhole);
+  }
+
+  private void consume(final JniListSupplier<Record> supplier, final Blackhole blackhole) {
+    for (final Record record : supplier.getObjectList(recordArray)) {
+      blackhole.consume(record);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a native array from a snapshot file against
+ * rebuilding it from Java objects with {@code newFooObjectArray},
+ * and reading the snapshot directly from Java against copying
+ * the native array across JNI.
+ *
+ * The load benchmarks are single shot, with each fork starting from
+ * a fresh JVM; however the snapshot file will typically already be in
+ * the OS page cache.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"1000", "100000", "1000000"})
+  int arraySize;
+
+  FooObject[] fooObjects;
+  Path snapshotFile;
+  FooNativeObjectArray fooObjectArray;
+  FooObjectSnapshot snapshot;
+  AllocateInJavaGet2DArray allocateInJavaGet2DArray;
+
+  @Setup
+  public void setup() throws IOException {
+    fooObjects = FooObjects.random(arraySize, 0, new Random());
+    fooObjectArray = new FooNativeObjectArray(fooObjects);
+    snapshotFile = Files.createTempFile("jnibench", ".snapshot");
+    fooObjectArray.writeSnapshot(snapshotFile);
+    snapshot = FooObjectSnapshot.open(snapshotFile);
+    allocateInJavaGet2DArray = new AllocateInJavaGet2DArray();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    snapshot.close();
+    fooObjectArray.close();
+    Files.deleteIfExists(snapshotFile);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 10)
+  @Fork(5)
+  public void loadByRebuild(final Blackhole blackhole) {
+    try (final FooNativeObjectArray rebuilt = new FooNativeObjectArray(fooObjects)) {
+      blackhole.consume(rebuilt.get_nativeHandle());
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 10)
+  @Fork(5)
+  public void loadFromSnapshot(final Blackhole blackhole) throws IOException {
+    try (final FooNativeObjectArray loaded = FooNativeObjectArray.fromSnapshot(snapshotFile)) {
+      blackhole.consume(loaded.get_nativeHandle());
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 10)
+  @Fork(5)
+  public void openSnapshotInJava(final Blackhole blackhole) throws IOException {
+    try (final FooObjectSnapshot opened = FooObjectSnapshot.open(snapshotFile)) {
+      blackhole.consume(opened.size());
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+  @Fork(3)
+  public void readByJniCopy(final Blackhole blackhole) {
+    final List<FooObject> list = allocateInJavaGet2DArray.getObjectList(fooObjectArray);
+    for (int i = 0; i < list.size(); i++) {
+      blackhole.consume(list.get(i));
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+  @Fork(3)
+  public void readFromSnapshotInJava(final Blackhole blackhole) {
+    for (int i = 0; i < snapshot.size(); i++) {
+      blackhole.consume(snapshot.get(i));
+    }
+  }
+}
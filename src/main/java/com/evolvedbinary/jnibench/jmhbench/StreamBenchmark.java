@@ -0,0 +1,147 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.jnibench.jmhbench;
+
+import com.evolvedbinary.jnibench.common.array.*;
+import com.evolvedbinary.jnibench.common.stream.FooObjectRingBuffer;
+import com.evolvedbinary.jnibench.common.stream.NativeRingProducer;
+import com.evolvedbinary.jnibench.consbench.NarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares streaming {@link #streamSize} objects from C++ to Java through a
+ * {@link FooObjectRingBuffer}, against fetching them by repeated calls to
+ * the per-call suppliers.
+ *
+ * The end-to-end latency of the records streamed through the ring, from being
+ * produced in C++ until being consumed in Java, is reported by {@link Latency}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StreamBenchmark {
+
+  static {
+    NarSystem.loadLibrary();
+  }
+
+  @Param({"20", "1000"})
+  int arraySize;
+
+  @Param({"100000"})
+  int streamSize;
+
+  @Param({"4096", "65536"})
+  int ringCapacity;
+
+  FooNativeObjectArray fooObjectArray;
+  FooObjectRingBuffer ring;
+  AllocateInJavaGet2DArray get2DArray;
+
+  @Setup
+  public void setup() {
+    fooObjectArray = new FooNativeObjectArray(FooObjects.random(arraySize, 0, new Random()));
+    ring = new FooObjectRingBuffer(ringCapacity);
+    get2DArray = new AllocateInJavaGet2DArray();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fooObjectArray.close();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Latency {
+    public long meanLatencyNanos;
+    public long maxLatencyNanos;
+    boolean reset;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+      meanLatencyNanos = 0;
+      maxLatencyNanos = 0;
+      reset = true;
+    }
+  }
+
+  @Benchmark
+  public long ringStream(final Latency latency) {
+    if (latency.reset) {
+      ring.resetLatency();
+      latency.reset = false;
+    }
+
+    final Sum sum = new Sum();
+    try (final NativeRingProducer producer = new NativeRingProducer(ring, fooObjectArray, streamSize)) {
+      while (!ring.isFinished()) {
+        if (ring.poll(sum) == 0) {
+          Thread.yield();
+        }
+      }
+    }
+
+    latency.meanLatencyNanos = (long) ring.getMeanLatencyNanos();
+    latency.maxLatencyNanos = ring.getMaxLatencyNanos();
+    return sum.total;
+  }
+
+  @Benchmark
+  public long perCallGet2DArray() {
+    final Sum sum = new Sum();
+    for (int streamed = 0; streamed < streamSize; streamed += arraySize) {
+      for (final FooObject fooObject : get2DArray.getObjectList(fooObjectArray)) {
+        sum.visit(fooObject.getName(), fooObject.getValue());
+      }
+    }
+    return sum.total;
+  }
+
+  @Benchmark
+  public long perCallBatchedVisitor() {
+    final Sum sum = new Sum();
+    for (int streamed = 0; streamed < streamSize; streamed += arraySize) {
+      fooObjectArray.visit(sum, 256);
+    }
+    return sum.total;
+  }
+
+  private static class Sum implements FooObjectVisitor {
+    long total;
+
+    @Override
+    public void visit(final String name, final long value) {
+      total += name.length() + value;
+    }
+  }
+}
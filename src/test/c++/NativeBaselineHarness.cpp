@@ -0,0 +1,132 @@
+/**
+ * Copyright © 2016, Evolved Binary Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <cstdint>
+#include <cstdlib>
+#include <cstring>
+#include <iostream>
+#include <string>
+#include <vector>
+
+#include "../../main/c++/baseline/NativeBaseline.h"
+
+/**
+ * A standalone harness which runs the C++ baselines without the JVM,
+ * with the same options and output as com.evolvedbinary.jnibench.consbench.Benchmark.
+ */
+
+static const size_t DEFAULT_ITERATIONS = 1000000;
+static const size_t DEFAULT_ARRAY_SIZE = 20;
+
+struct Result {
+  std::string description;
+  int64_t nanos;
+};
+
+static bool ParseOption(const char* arg, const char* name, size_t& value) {
+  const size_t len = std::strlen(name);
+  if (std::strncmp(arg, name, len) != 0) {
+    return false;
+  }
+  value = static_cast<size_t>(std::strtoull(arg + len, nullptr, 10));
+  return true;
+}
+
+int main(int argc, char** argv) {
+  size_t iterations = DEFAULT_ITERATIONS;
+  size_t array_size = DEFAULT_ARRAY_SIZE;
+  size_t name_length = 0;
+  bool output_as_csv = false;
+  bool in_ns = false;
+  size_t payload_bytes = 0;
+  size_t constructor_work = 0;
+  size_t member_allocations = 0;
+  size_t destructor_work = 0;
+
+  for (int i = 1; i < argc; i++) {
+    const char* arg = argv[i];
+    if (ParseOption(arg, "--iterations=", iterations)
+        || ParseOption(arg, "--array-size=", array_size)
+        || ParseOption(arg, "--name-length=", name_length)
+        || ParseOption(arg, "--payload-bytes=", payload_bytes)
+        || ParseOption(arg, "--ctor-work=", constructor_work)
+        || ParseOption(arg, "--member-allocs=", member_allocations)
+        || ParseOption(arg, "--dtor-work=", destructor_work)) {
+      continue;
+    } else if (std::strcmp(arg, "--csv") == 0) {
+      output_as_csv = true;
+    } else if (std::strcmp(arg, "--ns") == 0) {
+      in_ns = true;
+    } else {
+      std::cout << std::endl;
+      std::cout << "NativeBaselineHarness" << std::endl;
+      std::cout << "--iterations=n    set the number of iterations" << std::endl;
+      std::cout << "--array-size=n    set the size of the array" << std::endl;
+      std::cout << "--name-length=n   pad or truncate each name to n characters" << std::endl;
+      std::cout << "--payload-bytes=n each Foo allocates a zeroed payload of n bytes" << std::endl;
+      std::cout << "--ctor-work=n     each Foo constructor performs n rounds of computation" << std::endl;
+      std::cout << "--member-allocs=n each Foo constructor makes n separate small allocations" << std::endl;
+      std::cout << "--dtor-work=n     each Foo destructor performs n rounds of computation" << std::endl;
+      std::cout << "--csv             output results in CSV format" << std::endl;
+      std::cout << "--ns              compute times in ns as opposed to ms" << std::endl;
+      std::cout << std::endl;
+      return std::strcmp(arg, "--help") == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+    }
+  }
+
+  jnibench::Foo::SetCost(payload_bytes, static_cast<uint32_t>(constructor_work),
+      static_cast<uint32_t>(member_allocations), static_cast<uint32_t>(destructor_work));
+
+  const std::vector<jnibench::FooObject> foo_objects = jnibench::RandomFooObjects(array_size, name_length, 0);
+  jnibench::FooObjectArena arena;
+  arena.Reserve(foo_objects.size());
+  for (const auto& foo_obj : foo_objects) {
+    arena.Add(foo_obj.GetName().data(), foo_obj.GetName().size(), foo_obj.GetValue());
+  }
+  const jnibench::FooObjectVector vector(foo_objects);
+
+  const std::vector<Result> results = {
+      {"Allocate Foo", jnibench::TimeFooAllocation(iterations, false)},
+      {"Allocate and delete Foo", jnibench::TimeFooAllocation(iterations, true)},
+      {"Copy vector", jnibench::TimeCopy(vector, iterations)},
+      {"Copy arena", jnibench::TimeCopy(arena, iterations)},
+      {"Iterate vector", jnibench::TimeIteration(vector, iterations)},
+      {"Iterate arena", jnibench::TimeIteration(arena, iterations)}
+  };
+
+  for (size_t i = 0; i < results.size(); i++) {
+    const int64_t duration = in_ns ? results[i].nanos : results[i].nanos / 1000000;
+    if (output_as_csv) {
+      std::cout << (i > 0 ? "," : "") << duration;
+    } else {
+      std::cout << results[i].description << ": " << duration << (in_ns ? "ns" : "ms") << std::endl;
+    }
+  }
+  if (output_as_csv) {
+    std::cout << std::endl;
+  }
+  return EXIT_SUCCESS;
+}